@@ -0,0 +1,62 @@
+#!/bin/sh
+# ***************************************************************************
+# *  Copyright 2017 Joseph Molnar
+# *
+# *  Licensed under the Apache License, Version 2.0 (the "License");
+# *  you may not use this file except in compliance with the License.
+# *  You may obtain a copy of the License at
+# *
+# *      http://www.apache.org/licenses/LICENSE-2.0
+# *
+# *  Unless required by applicable law or agreed to in writing, software
+# *  distributed under the License is distributed on an "AS IS" BASIS,
+# *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# *  See the License for the specific language governing permissions and
+# *  limitations under the License.
+# ***************************************************************************
+#
+# Builds and runs the benchmarks, writing the JMH results as json into the
+# results directory, named after the version and commit that was measured.
+# The warm-up, measurement and fork counts are set here, rather than taken
+# from the annotations, so that results from different releases compare.
+# They can be changed, for quick checks, using the environment variables 
+# below, but results from such runs shouldn't be compared to full runs.
+#
+# Usage: run-benchmarks.sh [benchmark regex] [additional jmh options]
+#   e.g. run-benchmarks.sh JsonTranslationBenchmark
+#        run-benchmarks.sh '.*' -prof gc
+#        WARMUP_ITERATIONS=1 ITERATIONS=1 FORKS=1 run-benchmarks.sh Resource
+
+set -e
+
+BENCHMARKS_DIR=$(cd "$(dirname "$0")" && pwd)
+ROOT_DIR=$(cd "$BENCHMARKS_DIR/../../root" && pwd)
+RESULTS_DIR="$BENCHMARKS_DIR/results"
+
+WARMUP_ITERATIONS=${WARMUP_ITERATIONS:-5}
+ITERATIONS=${ITERATIONS:-10}
+FORKS=${FORKS:-2}
+
+FILTER=${1:-.*}
+if [ $# -gt 0 ]; then
+	shift
+fi
+
+mvn -B -q -f "$ROOT_DIR/pom.xml" -Pbenchmarks -pl ../product/benchmarks -am -DskipTests package
+
+VERSION=$(mvn -B -q -f "$BENCHMARKS_DIR/pom.xml" help:evaluate -Dexpression=project.version -DforceStdout 2>/dev/null || echo unknown)
+COMMIT=$(git -C "$BENCHMARKS_DIR" rev-parse --short HEAD 2>/dev/null || echo unknown)
+RESULTS_FILE="$RESULTS_DIR/tales-$VERSION-$COMMIT.json"
+
+mkdir -p "$RESULTS_DIR"
+
+java -jar "$BENCHMARKS_DIR/target/benchmarks.jar" \
+	-wi "$WARMUP_ITERATIONS" -w 1s \
+	-i "$ITERATIONS" -r 1s \
+	-f "$FORKS" \
+	-foe true \
+	-rf json -rff "$RESULTS_FILE" \
+	"$@" \
+	"$FILTER"
+
+echo "Results written to $RESULTS_FILE"
@@ -0,0 +1,91 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.auth;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.auth.jwt.JsonWebToken;
+import com.talvish.tales.auth.jwt.TokenManager;
+
+/**
+ * Benchmarks for verifying json web tokens, as happens on each 
+ * request to a service that requires authentication.
+ * @author jmolnar
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class JsonWebTokenBenchmark {
+	private static final String SECRET = "benchmark_secret_that_is_long_enough_for_hs256";
+	private static final String AUDIENCE = "https://services.example.com/";
+	
+	private TokenManager manager;
+	private String tokenString;
+	private JsonWebToken token;
+
+	/**
+	 * Sets up the manager and generates the token to verify.
+	 */
+	@Setup
+	public void setup( ) {
+		manager = new TokenManager( );
+		
+		Map<String,Object> claims = new HashMap<>( );
+		claims.put( "iss", "https://auth.example.com/" );
+		claims.put( "sub", "00000000075bcd15000a0000000001f4" );
+		claims.put( "aud", new String[] { AUDIENCE } );
+		claims.put( "exp", ( System.currentTimeMillis( ) / 1000l ) + 86400l );
+		claims.put( "nbf", ( System.currentTimeMillis( ) / 1000l ) - 60l );
+		claims.put( "name", "benchmark user" );
+		
+		tokenString = manager.generateToken( claims, SECRET ).getTokenString( );
+		token = manager.generateToken( tokenString );
+		Preconditions.checkState( token.isValidToken( SECRET, AUDIENCE ), "the generated token isn't valid" );
+	}
+	
+	@Benchmark
+	public JsonWebToken parse( ) {
+		return manager.generateToken( tokenString );
+	}
+	
+	@Benchmark
+	public boolean verify( ) {
+		return token.isValidToken( SECRET, AUDIENCE );
+	}
+
+	@Benchmark
+	public boolean parseAndVerify( ) {
+		return manager.generateToken( tokenString ).isValidToken( SECRET, AUDIENCE );
+	}
+}
@@ -0,0 +1,121 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.serialization;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.talvish.tales.contracts.data.DataContractTypeSource;
+import com.talvish.tales.parts.reflection.JavaType;
+import com.talvish.tales.serialization.json.JsonTranslationFacility;
+
+/**
+ * Benchmarks for translating data contracts to and from json strings
+ * using the json translation facility, covering small, wide and
+ * deeply nested contracts.
+ * @author jmolnar
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class JsonTranslationBenchmark {
+	private static final int NESTED_DEPTH = 16;
+	
+	private JsonTranslationFacility facility;
+	
+	private JavaType smallType;
+	private JavaType wideType;
+	private JavaType nestedType;
+	
+	private SmallContract smallContract;
+	private WideContract wideContract;
+	private NestedContract nestedContract;
+	
+	private String smallString;
+	private String wideString;
+	private String nestedString;
+
+	/**
+	 * Sets up the facility and the contracts and strings to translate. 
+	 * The contracts are translated once so that type analysis isn't
+	 * part of what is measured.
+	 */
+	@Setup
+	public void setup( ) {
+		facility = new JsonTranslationFacility( new DataContractTypeSource( ) );
+		
+		smallType = JavaType.of( SmallContract.class );
+		wideType = JavaType.of( WideContract.class );
+		nestedType = JavaType.of( NestedContract.class );
+		
+		smallContract = new SmallContract( 42, "small contract", true );
+		wideContract = WideContract.generate( 42 );
+		nestedContract = NestedContract.generate( NESTED_DEPTH );
+		
+		smallString = facility.toJsonString( smallContract, smallType );
+		wideString = facility.toJsonString( wideContract, wideType );
+		nestedString = facility.toJsonString( nestedContract, nestedType );
+	}
+	
+	@Benchmark
+	public String writeSmall( ) {
+		return facility.toJsonString( smallContract, smallType );
+	}
+
+	@Benchmark
+	public SmallContract readSmall( ) {
+		return facility.fromJsonString( smallString, smallType );
+	}
+
+	@Benchmark
+	public String writeWide( ) {
+		return facility.toJsonString( wideContract, wideType );
+	}
+
+	@Benchmark
+	public WideContract readWide( ) {
+		return facility.fromJsonString( wideString, wideType );
+	}
+
+	@Benchmark
+	public String writeNested( ) {
+		return facility.toJsonString( nestedContract, nestedType );
+	}
+
+	@Benchmark
+	public NestedContract readNested( ) {
+		return facility.fromJsonString( nestedString, nestedType );
+	}
+	
+	@Benchmark
+	public WideContract roundTripWide( ) {
+		return facility.fromJsonString( facility.toJsonString( wideContract, wideType ), wideType );
+	}
+}
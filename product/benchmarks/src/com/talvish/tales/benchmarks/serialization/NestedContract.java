@@ -0,0 +1,72 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.serialization;
+
+import com.talvish.tales.contracts.data.DataContract;
+import com.talvish.tales.contracts.data.DataMember;
+
+/**
+ * A data contract that refers to itself, used to create 
+ * deeply nested structures, like trees or threads.
+ * @author jmolnar
+ *
+ */
+@DataContract( name ="com.tales.benchmarks.nested_contract")
+public class NestedContract {
+	@DataMember( name = "depth" ) private int depth;
+	@DataMember( name = "name" ) private String name;
+	@DataMember( name = "child" ) private NestedContract child;
+
+	/**
+	 * A constructor used for serialization purposes.
+	 */
+	protected NestedContract( ) {
+	}
+
+	/**
+	 * Generates a chain of contracts, nested to the depth given.
+	 * @param theDepth the number of nested contracts to generate
+	 * @return the outer-most contract
+	 */
+	public static NestedContract generate( int theDepth ) {
+		NestedContract contract = null;
+		
+		for( int depth = theDepth; depth > 0; depth -= 1 ) {
+			NestedContract parent = new NestedContract( );
+			parent.depth = depth;
+			parent.name = "level " + depth;
+			parent.child = contract;
+			contract = parent;
+		}
+		return contract;
+	}
+
+	/**
+	 * The depth of this contract in the chain.
+	 * @return the depth
+	 */
+	public int getDepth( ) {
+		return depth;
+	}
+	
+	/**
+	 * The nested child contract.
+	 * @return the child, or null if the last in the chain
+	 */
+	public NestedContract getChild( ) {
+		return child;
+	}
+}
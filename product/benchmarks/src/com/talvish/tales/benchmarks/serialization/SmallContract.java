@@ -0,0 +1,73 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.serialization;
+
+import com.talvish.tales.contracts.data.DataContract;
+import com.talvish.tales.contracts.data.DataMember;
+
+/**
+ * A small data contract, typical of simple lookups and acknowledgements.
+ * @author jmolnar
+ *
+ */
+@DataContract( name ="com.tales.benchmarks.small_contract")
+public class SmallContract {
+	@DataMember( name = "id" ) private long id;
+	@DataMember( name = "name" ) private String name;
+	@DataMember( name = "enabled" ) private boolean enabled;
+
+	/**
+	 * A constructor used for serialization purposes.
+	 */
+	protected SmallContract( ) {
+	}
+	
+	/**
+	 * Constructor taking the values to use.
+	 * @param theId the id 
+	 * @param theName the name
+	 * @param isEnabled whether enabled or not
+	 */
+	public SmallContract( long theId, String theName, boolean isEnabled ) {
+		id = theId;
+		name = theName;
+		enabled = isEnabled;
+	}
+	
+	/**
+	 * The id.
+	 * @return the id
+	 */
+	public long getId( ) {
+		return id;
+	}
+	
+	/**
+	 * The name.
+	 * @return the name
+	 */
+	public String getName( ) {
+		return name;
+	}
+	
+	/**
+	 * Whether enabled or not.
+	 * @return true if enabled, false otherwise
+	 */
+	public boolean isEnabled( ) {
+		return enabled;
+	}
+}
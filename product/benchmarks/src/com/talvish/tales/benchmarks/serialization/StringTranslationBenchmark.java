@@ -0,0 +1,135 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.serialization;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.talvish.tales.businessobjects.ObjectId;
+import com.talvish.tales.parts.reflection.JavaType;
+import com.talvish.tales.serialization.StringTranslationFacility;
+
+/**
+ * Benchmarks for translating values to and from strings using the 
+ * string translation facility, as happens for every path, query
+ * and header parameter. The translator look-up is included since 
+ * that is part of what happens per parameter.
+ * @author jmolnar
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class StringTranslationBenchmark {
+	private StringTranslationFacility facility;
+
+	private final JavaType integerType = JavaType.of( int.class );
+	private final JavaType longType = JavaType.of( long.class );
+	private final JavaType doubleType = JavaType.of( double.class );
+	private final JavaType booleanType = JavaType.of( boolean.class );
+	private final JavaType uuidType = JavaType.of( UUID.class );
+	private final JavaType dateTimeType = JavaType.of( OffsetDateTime.class );
+	private final JavaType objectIdType = JavaType.of( ObjectId.class );
+	
+	private final String integerString = "1234567";
+	private final String longString = "1234567890123";
+	private final String doubleString = "12345.6789";
+	private final String booleanString = "true";
+	private final String uuidString = "1b4e28ba-2fa1-11d2-883f-0016d3cca427";
+	private final String dateTimeString = "2017-10-01T12:30:15.250Z";
+	private final String objectIdString = "00000000075bcd15000a0000000001f4";
+
+	private OffsetDateTime dateTime;
+	private UUID uuid;
+	private ObjectId objectId;
+	
+	/**
+	 * Sets up the facility and the values to translate.
+	 */
+	@Setup
+	public void setup( ) {
+		facility = new StringTranslationFacility( );
+		
+		dateTime = ( OffsetDateTime )facility.getFromStringTranslator( dateTimeType ).translate( dateTimeString );
+		uuid = ( UUID )facility.getFromStringTranslator( uuidType ).translate( uuidString );
+		objectId = ( ObjectId )facility.getFromStringTranslator( objectIdType ).translate( objectIdString );
+	}
+	
+	@Benchmark
+	public Object fromStringInteger( ) {
+		return facility.getFromStringTranslator( integerType ).translate( integerString );
+	}
+	
+	@Benchmark
+	public Object fromStringLong( ) {
+		return facility.getFromStringTranslator( longType ).translate( longString );
+	}
+	
+	@Benchmark
+	public Object fromStringDouble( ) {
+		return facility.getFromStringTranslator( doubleType ).translate( doubleString );
+	}
+	
+	@Benchmark
+	public Object fromStringBoolean( ) {
+		return facility.getFromStringTranslator( booleanType ).translate( booleanString );
+	}
+	
+	@Benchmark
+	public Object fromStringUuid( ) {
+		return facility.getFromStringTranslator( uuidType ).translate( uuidString );
+	}
+	
+	@Benchmark
+	public Object fromStringDateTime( ) {
+		return facility.getFromStringTranslator( dateTimeType ).translate( dateTimeString );
+	}
+	
+	@Benchmark
+	public Object fromStringObjectId( ) {
+		return facility.getFromStringTranslator( objectIdType ).translate( objectIdString );
+	}
+	
+	@Benchmark
+	public Object toStringUuid( ) {
+		return facility.getToStringTranslator( uuidType ).translate( uuid );
+	}
+	
+	@Benchmark
+	public Object toStringDateTime( ) {
+		return facility.getToStringTranslator( dateTimeType ).translate( dateTime );
+	}
+
+	@Benchmark
+	public Object toStringObjectId( ) {
+		return facility.getToStringTranslator( objectIdType ).translate( objectId );
+	}
+}
@@ -0,0 +1,126 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.serialization;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import com.talvish.tales.contracts.data.DataContract;
+import com.talvish.tales.contracts.data.DataMember;
+
+/**
+ * A data contract with many members, of many types, typical of
+ * the full representation of an entity.
+ * @author jmolnar
+ *
+ */
+@DataContract( name ="com.tales.benchmarks.wide_contract")
+public class WideContract {
+	/**
+	 * Simple enum to make sure enums are covered.
+	 */
+	public enum Kind {
+		STANDARD,
+		PREMIUM,
+		RETIRED
+	}
+	
+	@DataMember( name = "id" ) private UUID id;
+	@DataMember( name = "name" ) private String name;
+	@DataMember( name = "description" ) private String description;
+	@DataMember( name = "kind" ) private Kind kind;
+	@DataMember( name = "count" ) private int count;
+	@DataMember( name = "total" ) private long total;
+	@DataMember( name = "ratio" ) private double ratio;
+	@DataMember( name = "weight" ) private float weight;
+	@DataMember( name = "enabled" ) private boolean enabled;
+	@DataMember( name = "visible" ) private Boolean visible;
+	@DataMember( name = "creation_timestamp" ) private OffsetDateTime creationTimestamp;
+	@DataMember( name = "modification_timestamp" ) private OffsetDateTime modificationTimestamp;
+	@DataMember( name = "owner" ) private String owner;
+	@DataMember( name = "region" ) private String region;
+	@DataMember( name = "revision" ) private Integer revision;
+	@DataMember( name = "tags" ) private List<String> tags;
+	@DataMember( name = "scores" ) private List<Double> scores;
+	@DataMember( name = "attributes" ) private Map<String,String> attributes;
+	@DataMember( name = "related" ) private List<SmallContract> related;
+	@DataMember( name = "primary" ) private SmallContract primary;
+
+	/**
+	 * A constructor used for serialization purposes.
+	 */
+	protected WideContract( ) {
+	}
+	
+	/**
+	 * Generates a contract with all members filled in, 
+	 * based on the seed value given.
+	 * @param theSeed the value used to vary what is generated
+	 * @return the generated contract
+	 */
+	public static WideContract generate( int theSeed ) {
+		WideContract contract = new WideContract( );
+		
+		contract.id = new UUID( theSeed, theSeed * 31l );
+		contract.name = "wide contract " + theSeed;
+		contract.description = "a longer description of the contract that is typical of free form text fields, number " + theSeed;
+		contract.kind = Kind.values( )[ theSeed % Kind.values( ).length ];
+		contract.count = theSeed;
+		contract.total = theSeed * 1000000l;
+		contract.ratio = theSeed / 7.0;
+		contract.weight = theSeed / 3.0f;
+		contract.enabled = theSeed % 2 == 0;
+		contract.visible = Boolean.TRUE;
+		contract.creationTimestamp = OffsetDateTime.of( 2017, 10, 1, 12, 30, 15, 0, ZoneOffset.UTC );
+		contract.modificationTimestamp = contract.creationTimestamp.plusHours( theSeed );
+		contract.owner = "owner_" + theSeed;
+		contract.region = "us-west";
+		contract.revision = theSeed;
+		contract.tags = new ArrayList<>( );
+		contract.scores = new ArrayList<>( );
+		contract.attributes = new HashMap<>( );
+		contract.related = new ArrayList<>( );
+		for( int index = 0; index < 5; index += 1 ) {
+			contract.tags.add( "tag_" + index );
+			contract.scores.add( index * 1.5 );
+			contract.attributes.put( "key_" + index, "value_" + index );
+			contract.related.add( new SmallContract( theSeed + index, "related " + index, index % 2 == 0 ) );
+		}
+		contract.primary = new SmallContract( theSeed, "primary", true );
+		return contract;
+	}
+	
+	/**
+	 * The id.
+	 * @return the id
+	 */
+	public UUID getId( ) {
+		return id;
+	}
+	
+	/**
+	 * The name.
+	 * @return the name
+	 */
+	public String getName( ) {
+		return name;
+	}
+}
@@ -0,0 +1,93 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.talvish.tales.benchmarks.serialization.SmallContract;
+import com.talvish.tales.benchmarks.serialization.WideContract;
+import com.talvish.tales.contracts.services.http.HeaderParam;
+import com.talvish.tales.contracts.services.http.PathParam;
+import com.talvish.tales.contracts.services.http.RequestParam;
+import com.talvish.tales.contracts.services.http.ResourceContract;
+import com.talvish.tales.contracts.services.http.ResourceOperation;
+
+/**
+ * A resource with a typical mix of operations and parameters, 
+ * used to benchmark request matching and execution. The
+ * operations do very little work so the framework dominates.
+ * @author jmolnar
+ *
+ */
+@ResourceContract( name="com.tales.benchmarks.items", versions={ "20171001" } )
+public class ItemResource {
+	private final SmallContract item = new SmallContract( 42, "item", true );
+	private final WideContract detail = WideContract.generate( 42 );
+	
+	@ResourceOperation( name="get_items", path="GET : items" )
+	public List<SmallContract> getItems( 
+			@RequestParam( name="count" )Integer theCount, 
+			@RequestParam( name="offset" )Integer theOffset ) {
+		int count = theCount == null ? 10 : theCount;
+		List<SmallContract> items = new ArrayList<>( count );
+		for( int index = 0; index < count; index += 1 ) {
+			items.add( item );
+		}
+		return items;
+	}
+
+	@ResourceOperation( name="get_item", path="GET : items/{id}" )
+	public SmallContract getItem( 
+			@PathParam( name="id" )long theId ) {
+		return item;
+	}
+
+	@ResourceOperation( name="get_item_detail", path="GET : items/{id}/detail" )
+	public WideContract getItemDetail( 
+			@PathParam( name="id" )long theId, 
+			@RequestParam( name="verbose" )Boolean isVerbose,
+			@HeaderParam( name="X-Region" )String theRegion ) {
+		return detail;
+	}
+
+	@ResourceOperation( name="get_item_history", path="GET : items/{id}/history/{revision : [0-9]+}" )
+	public SmallContract getItemHistory( 
+			@PathParam( name="id" )long theId, 
+			@PathParam( name="revision" )int theRevision ) {
+		return item;
+	}
+
+	@ResourceOperation( name="get_owner_items", path="GET : owners/{owner}/items" )
+	public List<SmallContract> getOwnerItems( 
+			@PathParam( name="owner" )String theOwner,
+			@RequestParam( name="count" )Integer theCount ) {
+		return getItems( theCount, null );
+	}
+
+	@ResourceOperation( name="update_item", path="POST : items/{id}" )
+	public SmallContract updateItem( 
+			@PathParam( name="id" )long theId,
+			@RequestParam( name="name" )String theName,
+			@RequestParam( name="enabled" )boolean isEnabled ) {
+		return new SmallContract( theId, theName, isEnabled );
+	}
+
+	@ResourceOperation( name="delete_item", path="DELETE : items/{id}" )
+	public void deleteItem( 
+			@PathParam( name="id" )long theId ) {
+	}
+}
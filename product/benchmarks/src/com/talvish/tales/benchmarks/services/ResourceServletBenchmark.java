@@ -0,0 +1,213 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.services;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.contracts.services.http.ResourceFacility;
+import com.talvish.tales.contracts.services.http.ResourceMethod;
+import com.talvish.tales.contracts.services.http.ResourceMethodResult;
+import com.talvish.tales.contracts.services.http.ResourceType;
+import com.talvish.tales.services.OperationContext;
+import com.talvish.tales.services.OperationContext.Details;
+import com.talvish.tales.services.http.AttributeConstants;
+import com.talvish.tales.services.http.ParameterConstants;
+import com.talvish.tales.services.http.servlets.ResourceServlet;
+import com.talvish.tales.serialization.Readability;
+
+/**
+ * Benchmarks for routing a request to a resource method, binding 
+ * the parameters and executing it, using in-memory requests and
+ * responses. Matching and execution are measured on their own as 
+ * well as end-to-end through the servlet, which includes writing
+ * the response.
+ * @author jmolnar
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Fork( 1 )
+public class ResourceServletBenchmark {
+	private static final String VERSION = "20171001";
+	private static final String ROOT_PATH = "/benchmarks";
+	
+	private ItemResource resource;
+	private ResourceFacility facility;
+	private ResourceServlet servlet;
+	private List<ResourceMethod> getMethods;
+	
+	private ServletStubs.StubRequest itemRequest;
+	private ServletStubs.StubRequest detailRequest;
+	private ServletStubs.StubRequest listRequest;
+	private ServletStubs.StubResponse response;
+	
+	private ResourceMethod itemMethod;
+	private ResourceMethod.MatchStatus itemMatch;
+	private ResourceMethod detailMethod;
+	private ResourceMethod.MatchStatus detailMatch;
+
+	/**
+	 * Sets up the servlet, the requests and the matched methods.
+	 */
+	@Setup
+	public void setup( ) {
+		resource = new ItemResource( );
+		facility = new ResourceFacility( );
+		
+		ResourceType resourceType = facility.generateResource( resource, ROOT_PATH + "/*" );
+		servlet = new ResourceServlet( resource, resourceType, facility, Runnable::run, 0 );
+		getMethods = resourceType.getGetMethods( );
+		
+		Map<String,String> detailParameters = versionParameters( );
+		detailParameters.put( "verbose", "true" );
+		Map<String,String> detailHeaders = new HashMap<>( );
+		detailHeaders.put( "X-Region", "us-west" );
+		Map<String,String> listParameters = versionParameters( );
+		listParameters.put( "count", "25" );
+
+		itemRequest = createRequest( ROOT_PATH + "/items/12345", versionParameters( ), null );
+		detailRequest = createRequest( ROOT_PATH + "/items/12345/detail", detailParameters, detailHeaders );
+		listRequest = createRequest( ROOT_PATH + "/items", listParameters, null );
+		response = new ServletStubs.StubResponse( );
+		
+		itemMatch = match( itemRequest );
+		itemMethod = getMethods.get( itemMatch.getPathIndex( ) );
+		detailMatch = match( detailRequest );
+		detailMethod = getMethods.get( detailMatch.getPathIndex( ) );
+	}
+	
+	/**
+	 * Helper method that creates the version parameter map.
+	 * @return the parameter map
+	 */
+	private static Map<String,String> versionParameters( ) {
+		Map<String,String> parameters = new HashMap<>( );
+		parameters.put( ParameterConstants.VERSION_PARAMETER, VERSION );
+		return parameters;
+	}
+
+	/**
+	 * Helper method that creates a GET request, with an operation context, as the server would.
+	 * @param theUri the uri to request
+	 * @param theParameters the parameters of the request
+	 * @param theHeaders the headers of the request
+	 * @return the stub request
+	 */
+	private static ServletStubs.StubRequest createRequest( String theUri, Map<String,String> theParameters, Map<String,String> theHeaders ) {
+		ServletStubs.StubRequest request = new ServletStubs.StubRequest( "GET", theUri, theParameters, theHeaders );
+		request.getRequest( ).setAttribute( 
+				AttributeConstants.OPERATION_REQUEST_CONTEXT, 
+				new OperationContext( null, null, Readability.MACHINE, Details.NORMAL ) );
+		return request;
+	}
+	
+	/**
+	 * Helper method that gets the operation context for a request.
+	 * @param theRequest the request to get the context from
+	 * @return the operation context
+	 */
+	private static OperationContext getContext( ServletStubs.StubRequest theRequest ) {
+		return ( OperationContext )theRequest.getRequest( ).getAttribute( AttributeConstants.OPERATION_REQUEST_CONTEXT );
+	}
+	
+	/**
+	 * Helper method that finds the best matching GET method, 
+	 * in the same way the resource servlet does.
+	 * @param theRequest the request to match
+	 * @return the best match
+	 */
+	private ResourceMethod.MatchStatus match( ServletStubs.StubRequest theRequest ) {
+		ResourceMethod.MatchStatus bestStatus = null;
+		ResourceMethod.MatchStatus currentStatus;
+		int pathIndex = 0;
+		
+		for( ResourceMethod method : getMethods ) {
+			currentStatus = method.match( theRequest.getRequest( ), pathIndex );
+			if( currentStatus != null ) {
+				if( ( bestStatus == null ) || 
+					( bestStatus.getParameterMisses() > currentStatus.getParameterMisses( ) && bestStatus.getParameterMatches() <= currentStatus.getParameterMatches( ) ) || 
+					( bestStatus.getParameterMisses() >= currentStatus.getParameterMisses( ) && bestStatus.getParameterMatches() < currentStatus.getParameterMatches( ) ) ) {
+					bestStatus = currentStatus;
+				}
+			}
+			pathIndex += 1;
+		}
+		Preconditions.checkState( bestStatus != null, "unable to match the request" );
+		return bestStatus;
+	}
+	
+	@Benchmark
+	public ResourceMethod.MatchStatus matchItem( ) {
+		return match( itemRequest );
+	}
+
+	@Benchmark
+	public ResourceMethod.MatchStatus matchDetail( ) {
+		return match( detailRequest );
+	}
+
+	@Benchmark
+	public ResourceMethodResult executeItem( ) {
+		return itemMethod.execute( resource, itemRequest.getRequest( ), response.getResponse( ), getContext( itemRequest ), itemMatch.getPathMatcher( ), facility, null );
+	}
+
+	@Benchmark
+	public ResourceMethodResult executeDetail( ) {
+		return detailMethod.execute( resource, detailRequest.getRequest( ), response.getResponse( ), getContext( detailRequest ), detailMatch.getPathMatcher( ), facility, null );
+	}
+
+	@Benchmark
+	public int serviceItem( ) throws ServletException, IOException {
+		response.clear( );
+		servlet.service( itemRequest.getRequest( ), response.getResponse( ) );
+		return response.getWrittenLength( );
+	}
+
+	@Benchmark
+	public int serviceDetail( ) throws ServletException, IOException {
+		response.clear( );
+		servlet.service( detailRequest.getRequest( ), response.getResponse( ) );
+		return response.getWrittenLength( );
+	}
+
+	@Benchmark
+	public int serviceList( ) throws ServletException, IOException {
+		response.clear( );
+		servlet.service( listRequest.getRequest( ), response.getResponse( ) );
+		return response.getWrittenLength( );
+	}
+}
@@ -0,0 +1,268 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.services;
+
+import java.io.ByteArrayOutputStream;
+import java.io.CharArrayWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * In-memory servlet request and response stubs, so servlets and 
+ * resource methods can be run without a container or network. Only
+ * the calls the framework makes are handled, all other calls return
+ * the default value for the return type.
+ * @author jmolnar
+ *
+ */
+public final class ServletStubs {
+	/**
+	 * The request stub, which is created with everything it returns.
+	 */
+	public static final class StubRequest implements InvocationHandler {
+		private final String method;
+		private final String uri;
+		private final Map<String,String> parameters;
+		private final Map<String,String[]> parameterArrays = new HashMap<>( );
+		private final Map<String,String> headers;
+		private final Map<String,Object> attributes = new HashMap<>( );
+		private final HttpServletRequest request;
+
+		/**
+		 * Constructor taking the values the request will have.
+		 * @param theMethod the http method
+		 * @param theUri the uri being requested
+		 * @param theParameters the query or form parameters
+		 * @param theHeaders the headers, which are case sensitive unlike real requests 
+		 */
+		public StubRequest( String theMethod, String theUri, Map<String,String> theParameters, Map<String,String> theHeaders ) {
+			Preconditions.checkNotNull( theMethod, "need a method" );
+			Preconditions.checkNotNull( theUri, "need a uri" );
+			
+			method = theMethod;
+			uri = theUri;
+			parameters = theParameters == null ? Collections.emptyMap( ) : theParameters;
+			headers = theHeaders == null ? Collections.emptyMap( ) : theHeaders;
+			for( Map.Entry<String,String> entry : parameters.entrySet( ) ) {
+				parameterArrays.put( entry.getKey( ), new String[] { entry.getValue( ) } );
+			}
+			request = ( HttpServletRequest )Proxy.newProxyInstance( 
+					HttpServletRequest.class.getClassLoader( ), 
+					new Class<?>[] { HttpServletRequest.class }, 
+					this );
+		}
+		
+		/**
+		 * The request to hand to servlets and resource methods.
+		 * @return the request
+		 */
+		public HttpServletRequest getRequest( ) {
+			return request;
+		}
+		
+		@Override
+		public Object invoke( Object theProxy, Method theMethod, Object[] theArguments ) throws Throwable {
+			switch( theMethod.getName( ) ) {
+			case "getMethod":
+				return method;
+			case "getRequestURI":
+				return uri;
+			case "getRequestURL":
+				return new StringBuffer( "http://localhost:8080" ).append( uri );
+			case "getProtocol":
+				return "HTTP/1.1";
+			case "getCharacterEncoding":
+				return "UTF-8";
+			case "getLocalAddr":
+				return "127.0.0.1";
+			case "getParameter":
+				return parameters.get( theArguments[ 0 ] );
+			case "getParameterValues":
+				return parameterArrays.get( theArguments[ 0 ] );
+			case "getParameterMap":
+				return parameterArrays;
+			case "getParameterNames":
+				return Collections.enumeration( parameters.keySet( ) );
+			case "getHeader":
+				return headers.get( theArguments[ 0 ] );
+			case "getHeaderNames":
+				return Collections.enumeration( headers.keySet( ) );
+			case "getAttribute":
+				return attributes.get( theArguments[ 0 ] );
+			case "setAttribute":
+				attributes.put( ( String )theArguments[ 0 ], theArguments[ 1 ] );
+				return null;
+			case "removeAttribute":
+				attributes.remove( theArguments[ 0 ] );
+				return null;
+			case "getDateHeader":
+			case "getIntHeader":
+			case "getContentLength":
+				return theMethod.getReturnType( ) == long.class ? -1l : -1;
+			default:
+				return defaultValue( theMethod.getReturnType( ) );
+			}
+		}
+	}
+	
+	/**
+	 * The response stub, which holds what was written in memory. 
+	 * The stub can be cleared to be re-used for another request.
+	 */
+	public static final class StubResponse implements InvocationHandler {
+		private final ByteArrayOutputStream bytes = new ByteArrayOutputStream( 8192 );
+		private final CharArrayWriter characters = new CharArrayWriter( 8192 );
+		private final PrintWriter writer = new PrintWriter( characters );
+		private final ServletOutputStream outputStream = new ServletOutputStream( ) {
+			@Override
+			public void write( int theByte ) {
+				bytes.write( theByte );
+			}
+			
+			@Override
+			public void write( byte[] theBytes, int theOffset, int theLength ) {
+				bytes.write( theBytes, theOffset, theLength );
+			}
+			
+			@Override
+			public boolean isReady( ) {
+				return true;
+			}
+			
+			@Override
+			public void setWriteListener( WriteListener theListener ) {
+				try {
+					theListener.onWritePossible( );
+				} catch( Exception e ) {
+					theListener.onError( e );
+				}
+			}
+		};
+		private final Map<String,String> headers = new HashMap<>( );
+		private final HttpServletResponse response;
+		private int status = 200;
+
+		/**
+		 * Default constructor.
+		 */
+		public StubResponse( ) {
+			response = ( HttpServletResponse )Proxy.newProxyInstance( 
+					HttpServletResponse.class.getClassLoader( ), 
+					new Class<?>[] { HttpServletResponse.class }, 
+					this );
+		}
+		
+		/**
+		 * The response to hand to servlets.
+		 * @return the response
+		 */
+		public HttpServletResponse getResponse( ) {
+			return response;
+		}
+		
+		/**
+		 * The status set on the response.
+		 * @return the http status code
+		 */
+		public int getStatus( ) {
+			return status;
+		}
+		
+		/**
+		 * The number of bytes, or characters, written to the response.
+		 * @return the amount written
+		 */
+		public int getWrittenLength( ) {
+			writer.flush( );
+			return bytes.size( ) + characters.size( );
+		}
+		
+		/**
+		 * Clears the response so it can be re-used.
+		 */
+		public void clear( ) {
+			writer.flush( );
+			bytes.reset( );
+			characters.reset( );
+			headers.clear( );
+			status = 200;
+		}
+		
+		@Override
+		public Object invoke( Object theProxy, Method theMethod, Object[] theArguments ) throws Throwable {
+			switch( theMethod.getName( ) ) {
+			case "setStatus":
+				status = ( Integer )theArguments[ 0 ];
+				return null;
+			case "getStatus":
+				return status;
+			case "setHeader":
+			case "addHeader":
+				headers.put( ( String )theArguments[ 0 ], ( String )theArguments[ 1 ] );
+				return null;
+			case "containsHeader":
+				return headers.containsKey( theArguments[ 0 ] );
+			case "getHeader":
+				return headers.get( theArguments[ 0 ] );
+			case "getWriter":
+				return writer;
+			case "getOutputStream":
+				return outputStream;
+			case "getCharacterEncoding":
+				return "UTF-8";
+			default:
+				return defaultValue( theMethod.getReturnType( ) );
+			}
+		}
+	}
+
+	/**
+	 * Helper method that returns the default value for a type.
+	 * @param theType the type to get a default value for
+	 * @return the default value
+	 */
+	private static Object defaultValue( Class<?> theType ) {
+		if( !theType.isPrimitive( ) || theType == void.class ) {
+			return null;
+		} else if( theType == boolean.class ) {
+			return false;
+		} else if( theType == long.class ) {
+			return 0l;
+		} else if( theType == int.class ) {
+			return 0;
+		} else {
+			throw new IllegalStateException( String.format( "Unable to generate a default value for type '%s'.", theType.getName( ) ) );
+		}
+	}
+	
+	/**
+	 * Private constructor since this class isn't meant to be created.
+	 */
+	private ServletStubs( ) {
+	}
+}
@@ -0,0 +1,102 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.benchmarks.status;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.talvish.tales.system.status.AverageLong;
+import com.talvish.tales.system.status.RatedLong;
+import com.talvish.tales.system.status.StripedAverageLong;
+import com.talvish.tales.system.status.StripedRatedLong;
+
+/**
+ * Benchmarks for recording to the rate and average counters, as 
+ * happens several times on each request, comparing the locking
+ * counters with the striped counters. Every thread records to the 
+ * same counters, as the requests to a contract do.
+ * @author jmolnar
+ *
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.NANOSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 5, time = 1 )
+@Threads( 8 )
+@Fork( 1 )
+public class StatusCounterBenchmark {
+	private RatedLong ratedLong;
+	private StripedRatedLong stripedRatedLong;
+	private AverageLong averageLong;
+	private StripedAverageLong stripedAverageLong;
+
+	/**
+	 * Sets up the counters, using a short period so buckets are replaced during the run.
+	 */
+	@Setup
+	public void setup( ) {
+		long period = 2l * 1000l * 1000l * 1000l;
+		
+		ratedLong = new RatedLong( period );
+		stripedRatedLong = new StripedRatedLong( period );
+		averageLong = new AverageLong( period );
+		stripedAverageLong = new StripedAverageLong( period );
+	}
+	
+	@Benchmark
+	public void incrementRatedLong( ) {
+		ratedLong.increment( );
+	}
+
+	@Benchmark
+	public void incrementStripedRatedLong( ) {
+		stripedRatedLong.increment( );
+	}
+
+	@Benchmark
+	public void addAverageLong( ) {
+		averageLong.add( 1250l );
+	}
+
+	@Benchmark
+	public void addStripedAverageLong( ) {
+		stripedAverageLong.add( 1250l );
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public double calculateRatedLong( ) {
+		return ratedLong.calculateRate( );
+	}
+
+	@Benchmark
+	@Threads( 1 )
+	public double calculateStripedRatedLong( ) {
+		return stripedRatedLong.calculateRate( );
+	}
+}
@@ -57,10 +57,10 @@ public class BodyContentProvider extends StringContentProvider {
             if( content.length() > 0 ) {
             	content.append( '&' );
             }
-            content.append( UrlEncoding.encode( parameter.getKey( ) ) );
+            UrlEncoding.encode( parameter.getKey( ), content );
             content.append( '=' );
             value = parameter.getValue( );
-            content.append( UrlEncoding.encode( value == null ? "" : value ) );
+            UrlEncoding.encode( value == null ? "" : value, content );
         }
         return content.toString();
 	}
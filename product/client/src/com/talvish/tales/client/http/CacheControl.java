@@ -146,7 +146,7 @@ public class CacheControl {
 			name = matcher.group( CACHE_DIRECTIVE_NAME_GROUP );
 			value = matcher.group( CACHE_DIRECTIVE_VALUE_GROUP );
 			
-			logger.info( "Found cache directive '{}' with value '{}'.", name, value );
+			logger.debug( "Found cache directive '{}' with value '{}'.", name, value );
 			switch( name ) {
 			case HeaderConstants.CACHE_CONTROL_PUBLIC_DIRECTIVE:
 				if( value != null ) {
@@ -195,7 +195,7 @@ public class CacheControl {
 						// the error
 					}
 				}
-				if( maxAge < 0 ) {
+				if( maxAge == null || maxAge < 0 ) {
 					logger.warn( "Ignoring cache directive '{}' due to invalid delta-seconds '{}'.", name, value );
 					maxAge = null;
 				}
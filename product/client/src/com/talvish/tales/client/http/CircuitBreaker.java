@@ -0,0 +1,351 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * A circuit breaker that stops requests from being sent to a service that 
+ * is failing, or is slow, so callers fail immediately instead of waiting 
+ * out timeouts. The breaker watches the outcome of a sliding window of 
+ * the most recent requests and opens if, once there are enough requests,
+ * the rate of failed requests or the rate of slow requests is too high.
+ * Requests are failures if there wasn't a response or the response had a
+ * 5xx HTTP status. While open, requests fail with a CircuitOpenException. 
+ * After a period of time the breaker becomes half-open and lets a small
+ * number of trial requests through, closing if they do well and opening
+ * again if they don't.
+ * <p>
+ * A ResourceClient, if configured, has one breaker for each endpoint, so 
+ * when balancing a failing endpoint doesn't stop requests to the others, 
+ * and methods can be given their own.
+ * @author jmolnar
+ *
+ */
+public class CircuitBreaker {
+	/**
+	 * The states of the circuit breaker.
+	 */
+	public enum State {
+		/**
+		 * Requests are sent and their outcomes watched.
+		 */
+		CLOSED,
+		/**
+		 * Requests are not sent.
+		 */
+		OPEN,
+		/**
+		 * A limited number of trial requests are sent to see if the breaker can close.
+		 */
+		HALF_OPEN
+	}
+	
+	private static final Logger logger = LoggerFactory.getLogger( CircuitBreaker.class );
+
+	private static final byte FAILED = 1;
+	private static final byte SLOW = 2;
+
+	private final String name;
+	private final int windowSize;
+	private final int minimumRequests;
+	private final double failureRateThreshold;
+	private final long slowRequestDuration;
+	private final double slowRequestRateThreshold;
+	private final long openDuration;
+	private final int halfOpenRequests;
+	
+	private final Object lock = new Object( );
+	private State state = State.CLOSED;
+	private long generation = 0; // changes on each transition, so outcomes of requests permitted in an earlier state are ignored 
+	private DateTime stateChangeTime = new DateTime( DateTimeZone.UTC );
+	private long openTimestamp;
+
+	// the outcomes of the most recent requests, when closed
+	private final byte[] outcomes; 
+	private int next = 0;
+	private int count = 0;
+	private int failures = 0;
+	private int slowRequests = 0;
+	
+	// the outcomes of the trial requests, when half-open
+	private int permittedTrials = 0;
+	private int completedTrials = 0;
+	private int failedTrials = 0;
+	private int slowTrials = 0;
+	
+	private long transitions = 0;
+	private final AtomicLong rejections = new AtomicLong( 0 );
+	
+	/**
+	 * Constructor taking the parameters of the breaker.
+	 * @param theName the name of the breaker, used when logging and in exceptions
+	 * @param theWindowSize the number of recent requests whose outcomes are watched
+	 * @param theMinimumRequests the number of requests needed in the window before the breaker can open
+	 * @param theFailureRateThreshold the percentage of failed requests at which the breaker opens 
+	 * @param theSlowRequestDuration the time, in milliseconds, at which requests are considered slow
+	 * @param theSlowRequestRateThreshold the percentage of slow requests at which the breaker opens
+	 * @param theOpenDuration the time, in milliseconds, the breaker stays open before becoming half-open
+	 * @param theHalfOpenRequests the number of trial requests sent when half-open
+	 */
+	public CircuitBreaker( String theName, int theWindowSize, int theMinimumRequests, double theFailureRateThreshold, long theSlowRequestDuration, double theSlowRequestRateThreshold, long theOpenDuration, int theHalfOpenRequests ) {
+		Preconditions.checkArgument( !Strings.isNullOrEmpty( theName ), "the circuit breaker needs a name" );
+		Preconditions.checkArgument( theWindowSize > 0, "the window size, %s, for circuit breaker '%s' must be positive", theWindowSize, theName );
+		Preconditions.checkArgument( theMinimumRequests > 0 && theMinimumRequests <= theWindowSize, "the minimum requests, %s, for circuit breaker '%s' must be positive and no larger than the window size", theMinimumRequests, theName );
+		Preconditions.checkArgument( theFailureRateThreshold > 0.0 && theFailureRateThreshold <= 100.0, "the failure rate threshold, %s, for circuit breaker '%s' must be greater than 0 and at most 100", theFailureRateThreshold, theName );
+		Preconditions.checkArgument( theSlowRequestDuration > 0, "the slow request duration, %s, for circuit breaker '%s' must be positive", theSlowRequestDuration, theName );
+		Preconditions.checkArgument( theSlowRequestRateThreshold > 0.0 && theSlowRequestRateThreshold <= 100.0, "the slow request rate threshold, %s, for circuit breaker '%s' must be greater than 0 and at most 100", theSlowRequestRateThreshold, theName );
+		Preconditions.checkArgument( theOpenDuration >= 0, "the open duration, %s, for circuit breaker '%s' cannot be negative", theOpenDuration, theName );
+		Preconditions.checkArgument( theHalfOpenRequests > 0, "the half-open requests, %s, for circuit breaker '%s' must be positive", theHalfOpenRequests, theName );
+		
+		name = theName;
+		windowSize = theWindowSize;
+		minimumRequests = theMinimumRequests;
+		failureRateThreshold = theFailureRateThreshold;
+		slowRequestDuration = theSlowRequestDuration;
+		slowRequestRateThreshold = theSlowRequestRateThreshold;
+		openDuration = theOpenDuration;
+		halfOpenRequests = theHalfOpenRequests;
+		
+		outcomes = new byte[ theWindowSize ];
+	}
+	
+	/**
+	 * Asks the breaker to permit an attempt to be sent. If permitted, 
+	 * the outcome of the attempt is recorded once it completes.
+	 * @param theAttempt the future of the attempt about to be sent
+	 * @return true if the attempt can be sent, false if the breaker is open
+	 */
+	boolean permit( ResourceResponseFuture<?> theAttempt ) {
+		long permittedGeneration = -1;
+		
+		synchronized( lock ) {
+			if( state == State.OPEN && System.nanoTime( ) - openTimestamp >= TimeUnit.MILLISECONDS.toNanos( openDuration ) ) {
+				transition( State.HALF_OPEN );
+			}
+			if( state == State.CLOSED ) {
+				permittedGeneration = generation;
+			} else if( state == State.HALF_OPEN && permittedTrials < halfOpenRequests ) {
+				permittedTrials += 1;
+				permittedGeneration = generation;
+			}
+		}
+		if( permittedGeneration < 0 ) {
+			rejections.incrementAndGet( );
+			return false;
+			
+		} else {
+			long startTimestamp = System.nanoTime( );
+			long watchedGeneration = permittedGeneration;
+			theAttempt.whenComplete( ( result, failure ) -> {
+				if( failure instanceof CancellationException ) {
+					release( watchedGeneration );
+				} else {
+					int responseStatus = theAttempt.getResponseStatus( );
+					record( 
+							watchedGeneration,
+							responseStatus == 0 || responseStatus >= 500, 
+							System.nanoTime( ) - startTimestamp >= TimeUnit.MILLISECONDS.toNanos( slowRequestDuration ) );
+				}
+			} );
+			return true;
+		}
+	}
+	
+	/**
+	 * Indicates if the breaker would not permit an attempt right now, meaning it
+	 * is open and not due to become half-open, or it is half-open and all of the 
+	 * trial requests have been sent. This doesn't change the state of the breaker.
+	 * @return true if an attempt would not be permitted, false otherwise
+	 */
+	boolean isRejecting( ) {
+		synchronized( lock ) {
+			return 
+					( state == State.OPEN && System.nanoTime( ) - openTimestamp < TimeUnit.MILLISECONDS.toNanos( openDuration ) ) || 
+					( state == State.HALF_OPEN && permittedTrials >= halfOpenRequests );
+		}
+	}
+	
+	/**
+	 * Creates the exception used to fail requests that were not permitted.
+	 * @param theUrl the url the request was for
+	 * @return the exception
+	 */
+	CircuitOpenException createOpenException( String theUrl ) {
+		return new CircuitOpenException( String.format( "Circuit breaker '%s' is open, so the request to '%s' was not sent.", name, theUrl ) );
+	}
+	
+	/**
+	 * Gives back the permit of an attempt that was cancelled, and so has no outcome.
+	 */
+	private void release( long theGeneration ) {
+		synchronized( lock ) {
+			if( theGeneration == generation && state == State.HALF_OPEN ) {
+				permittedTrials -= 1;
+			}
+		}
+	}
+	
+	/**
+	 * Records the outcome of an attempt, which may cause the breaker to change state.
+	 */
+	private void record( long theGeneration, boolean failed, boolean slow ) {
+		synchronized( lock ) {
+			if( theGeneration != generation ) {
+				return; // permitted in an earlier state, so not relevant
+				
+			} else if( state == State.CLOSED ) {
+				if( count == windowSize ) {
+					// the window is full, so the oldest outcome is dropped
+					failures -= outcomes[ next ] & FAILED;
+					slowRequests -= ( outcomes[ next ] & SLOW ) >> 1;
+				} else {
+					count += 1;
+				}
+				outcomes[ next ] = ( byte )( ( failed ? FAILED : 0 ) | ( slow ? SLOW : 0 ) );
+				next = ( next + 1 ) % windowSize;
+				failures += failed ? 1 : 0;
+				slowRequests += slow ? 1 : 0;
+				
+				if( count >= minimumRequests && exceedsThresholds( failures, slowRequests, count ) ) {
+					transition( State.OPEN );
+				}
+				
+			} else if( state == State.HALF_OPEN ) {
+				completedTrials += 1;
+				failedTrials += failed ? 1 : 0;
+				slowTrials += slow ? 1 : 0;
+				if( completedTrials >= halfOpenRequests ) {
+					transition( exceedsThresholds( failedTrials, slowTrials, completedTrials ) ? State.OPEN : State.CLOSED );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Indicates if the failure or slow request rates are at their thresholds.
+	 */
+	private boolean exceedsThresholds( int theFailures, int theSlowRequests, int theCount ) {
+		return theFailures * 100.0 / theCount >= failureRateThreshold || theSlowRequests * 100.0 / theCount >= slowRequestRateThreshold;
+	}
+	
+	/**
+	 * Changes state, resetting the outcomes watched. Must be called under the lock.
+	 */
+	private void transition( State theState ) {
+		logger.warn( "Circuit breaker '{}' is changing from '{}' to '{}'.", name, state, theState );
+		
+		state = theState;
+		generation += 1;
+		transitions += 1;
+		stateChangeTime = new DateTime( DateTimeZone.UTC );
+		if( theState == State.OPEN ) {
+			openTimestamp = System.nanoTime( );
+		}
+		next = 0;
+		count = 0;
+		failures = 0;
+		slowRequests = 0;
+		permittedTrials = 0;
+		completedTrials = 0;
+		failedTrials = 0;
+		slowTrials = 0;
+	}
+	
+	/**
+	 * The name of the breaker.
+	 * @return the name
+	 */
+	public String getName( ) {
+		return name;
+	}
+	
+	/**
+	 * Returns the current state of the breaker. An open breaker that is due
+	 * to become half-open does so when the next request is made.
+	 * @return the state
+	 */
+	@MonitorableStatusValue( name = "circuit_state", description = "The current state of the circuit breaker." )
+	public State getState( ) {
+		synchronized( lock ) {
+			return state;
+		}
+	}
+	
+	/**
+	 * Returns the time the breaker last changed state.
+	 * @return the time of the last state change
+	 */
+	@MonitorableStatusValue( name = "circuit_state_change_datetime", description = "The date and time the circuit breaker last changed state." )
+	public DateTime getStateChangeTime( ) {
+		synchronized( lock ) {
+			return stateChangeTime;
+		}
+	}
+	
+	/**
+	 * Returns the number of times the breaker has changed state.
+	 * @return the number of transitions
+	 */
+	@MonitorableStatusValue( name = "circuit_transitions", description = "The total number of times the circuit breaker has changed state." )
+	public long getTransitions( ) {
+		synchronized( lock ) {
+			return transitions;
+		}
+	}
+	
+	/**
+	 * Returns the percentage of failed requests in the current window, while closed.
+	 * @return the failure rate
+	 */
+	@MonitorableStatusValue( name = "circuit_failure_rate", description = "The percentage of recent requests, while the circuit breaker is closed, that failed." )
+	public double getFailureRate( ) {
+		synchronized( lock ) {
+			return count == 0 ? 0.0 : failures * 100.0 / count;
+		}
+	}
+	
+	/**
+	 * Returns the percentage of slow requests in the current window, while closed.
+	 * @return the slow request rate
+	 */
+	@MonitorableStatusValue( name = "circuit_slow_request_rate", description = "The percentage of recent requests, while the circuit breaker is closed, that were slow." )
+	public double getSlowRequestRate( ) {
+		synchronized( lock ) {
+			return count == 0 ? 0.0 : slowRequests * 100.0 / count;
+		}
+	}
+	
+	/**
+	 * Returns the number of requests that were not sent because the breaker was open.
+	 * @return the number of rejected requests
+	 */
+	@MonitorableStatusValue( name = "circuit_rejections", description = "The total number of requests not sent because the circuit breaker was open." )
+	public long getRejections( ) {
+		return rejections.get( );
+	}
+}
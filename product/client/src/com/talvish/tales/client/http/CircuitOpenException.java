@@ -0,0 +1,38 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import com.talvish.tales.communication.DependencyException;
+
+/**
+ * Exception indicating a request was not sent because the circuit breaker
+ * guarding the service was open. Since it indicates the service is 
+ * unavailable, services that let it propagate respond with the 
+ * DEPENDENCY_UNAVAILABLE status.
+ * @author jmolnar
+ *
+ */
+public class CircuitOpenException extends DependencyException {
+	private static final long serialVersionUID = 4327706284652180917L;
+
+	/**
+	 * Constructor taking a message describing the error.
+	 * @param message the message describing the error
+	 */
+	public CircuitOpenException( String message ) {
+		super( Problem.UNAVAILABLE, message );
+	}
+}
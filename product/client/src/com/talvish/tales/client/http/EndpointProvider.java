@@ -0,0 +1,35 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.List;
+
+import com.talvish.tales.communication.HttpEndpoint;
+
+/**
+ * Provides the endpoints a ResourceClient balances its requests across.
+ * The endpoints are asked for as requests are made, so providers can 
+ * change them over time, and must be safe to call from many threads.
+ * @author jmolnar
+ *
+ */
+public interface EndpointProvider {
+	/**
+	 * Returns the endpoints currently available.
+	 * @return the endpoints, which should not be empty
+	 */
+	List<HttpEndpoint> getEndpoints( );
+}
@@ -0,0 +1,144 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.talvish.tales.communication.HttpEndpoint;
+
+/**
+ * An endpoint provider that reads the endpoints from a local file, one 
+ * endpoint per line, of the form http(s)://host:port. Blank lines, and 
+ * lines starting with '#', are ignored. The file is checked for changes
+ * periodically, as endpoints are asked for, and re-read if it changed. 
+ * If the changed file cannot be read, or has no endpoints, the endpoints
+ * last read continue to be used.
+ * @author jmolnar
+ *
+ */
+public class FileEndpointProvider implements EndpointProvider {
+	private static final Logger logger = LoggerFactory.getLogger( FileEndpointProvider.class );
+
+	/**
+	 * The default time, in milliseconds, between checks for changes to the file.
+	 */
+	public static final long DEFAULT_CHECK_INTERVAL = 5000;
+	
+	private final Path file;
+	private final long checkInterval;
+	
+	private final Object lock = new Object( );
+	private volatile List<HttpEndpoint> endpoints;
+	private volatile long nextCheckTimestamp;
+	private long lastModifiedTime;
+	
+	/**
+	 * Constructor taking the file to read, which is checked for changes every five seconds.
+	 * @param theFile the name of the file to read the endpoints from
+	 */
+	public FileEndpointProvider( String theFile ) {
+		this( theFile, DEFAULT_CHECK_INTERVAL );
+	}
+	
+	/**
+	 * Constructor taking the file to read and how often to check it for changes.
+	 * The file must exist and have at least one endpoint.
+	 * @param theFile the name of the file to read the endpoints from
+	 * @param theCheckInterval the time, in milliseconds, between checks for changes to the file
+	 */
+	public FileEndpointProvider( String theFile, long theCheckInterval ) {
+		Preconditions.checkArgument( !Strings.isNullOrEmpty( theFile ), "need a file to read endpoints from" );
+		Preconditions.checkArgument( theCheckInterval > 0, "the check interval, %s, for endpoint file '%s' must be positive", theCheckInterval, theFile );
+		
+		file = Paths.get( theFile );
+		checkInterval = theCheckInterval;
+		try {
+			lastModifiedTime = Files.getLastModifiedTime( file ).toMillis( );
+			endpoints = read( );
+		} catch( IOException e ) {
+			throw new IllegalArgumentException( String.format( "unable to read endpoints from file '%s'", theFile ), e );
+		}
+		Preconditions.checkArgument( endpoints.size( ) > 0, "the endpoint file '%s' doesn't contain any endpoints", theFile );
+		nextCheckTimestamp = System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( checkInterval );
+	}
+	
+	/**
+	 * Returns the endpoints in the file, re-reading the file if it is time 
+	 * to check it for changes and it has changed.
+	 */
+	@Override
+	public List<HttpEndpoint> getEndpoints( ) {
+		if( System.nanoTime( ) - nextCheckTimestamp >= 0 ) {
+			synchronized( lock ) {
+				if( System.nanoTime( ) - nextCheckTimestamp >= 0 ) {
+					nextCheckTimestamp = System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( checkInterval );
+					refresh( );
+				}
+			}
+		}
+		return endpoints;
+	}
+	
+	/**
+	 * Re-reads the file if it changed since it was last read. Must be called under the lock.
+	 */
+	private void refresh( ) {
+		try {
+			long modifiedTime = Files.getLastModifiedTime( file ).toMillis( );
+			if( modifiedTime != lastModifiedTime ) {
+				List<HttpEndpoint> newEndpoints = read( );
+				lastModifiedTime = modifiedTime;
+				if( newEndpoints.size( ) > 0 ) {
+					logger.info( "Endpoint file '{}' changed, now using endpoints: {}", file, newEndpoints );
+					endpoints = newEndpoints;
+				} else {
+					logger.warn( "Endpoint file '{}' changed but doesn't contain any endpoints, so continuing to use endpoints: {}", file, endpoints );
+				}
+			}
+		} catch( IOException | IllegalArgumentException e ) {
+			logger.warn( "Unable to read endpoint file '{}', so continuing to use endpoints: {}", file, endpoints, e );
+		}
+	}
+	
+	/**
+	 * Reads the endpoints from the file.
+	 */
+	private List<HttpEndpoint> read( ) throws IOException {
+		List<HttpEndpoint> newEndpoints = new ArrayList<>( );
+		String line;
+		
+		for( String rawLine : Files.readAllLines( file, StandardCharsets.UTF_8 ) ) {
+			line = rawLine.trim( );
+			if( !line.isEmpty( ) && !line.startsWith( "#" ) ) {
+				newEndpoints.add( new HttpEndpoint( line ) ); // this will do validation on the endpoint
+			}
+		}
+		return Collections.unmodifiableList( newEndpoints );
+	}
+}
@@ -0,0 +1,63 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Describes when a ResourceMethod hedges requests, which means sending 
+ * a second, identical, request if the first hasn't completed by the 
+ * time most requests to the method have, and then using whichever 
+ * completes first. The delay is based on a percentile of the recent 
+ * latencies of the method, and hedging only starts once enough 
+ * latencies have been seen. Hedged requests are limited by the retry
+ * budget of the client. Only methods using idempotent verbs can hedge.
+ * @author jmolnar
+ *
+ */
+public class HedgePolicy {
+	private final double percentile;
+	private final long minimumDelay;
+	
+	/**
+	 * Constructor taking the parameters.
+	 * @param thePercentile the percentile, greater than 0 and less than 100, of recent latencies to wait before hedging
+	 * @param theMinimumDelay the least time, in milliseconds, to wait before hedging
+	 */
+	public HedgePolicy( double thePercentile, long theMinimumDelay ) {
+		Preconditions.checkArgument( thePercentile > 0.0 && thePercentile < 100.0, "the percentile, %s, must be greater than 0 and less than 100", thePercentile );
+		Preconditions.checkArgument( theMinimumDelay >= 0, "the minimum delay, %s, cannot be negative", theMinimumDelay );
+		
+		percentile = thePercentile;
+		minimumDelay = theMinimumDelay;
+	}
+	
+	/**
+	 * The percentile of recent latencies to wait before hedging.
+	 * @return the percentile
+	 */
+	public double getPercentile( ) {
+		return percentile;
+	}
+	
+	/**
+	 * The least time, in milliseconds, to wait before hedging.
+	 * @return the minimum delay
+	 */
+	public long getMinimumDelay( ) {
+		return minimumDelay;
+	}
+}
@@ -0,0 +1,312 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.security.KeyManagementException;
+import java.security.NoSuchAlgorithmException;
+import java.security.cert.CertificateException;
+import java.security.cert.X509Certificate;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509TrustManager;
+
+import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.Origin;
+import org.eclipse.jetty.http2.client.HTTP2Client;
+import org.eclipse.jetty.http2.client.http.HttpClientTransportOverHTTP2;
+import org.eclipse.jetty.http2.client.http.HttpDestinationOverHTTP2;
+import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.communication.HttpEndpoint;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * A process-wide registry of HttpClients that ResourceClients share, so 
+ * clients of several contracts on the same endpoint share one set of 
+ * threads and connection pools instead of each having their own. The
+ * HttpClients are keyed by the endpoint, the SSL settings, the pool
+ * settings and the transport settings, and are reference counted, being stopped once the last 
+ * ResourceClient using them releases them. ResourceClients sharing an
+ * HttpClient register the registry's status when registering their own.
+ * @author jmolnar
+ *
+ */
+public class HttpClientRegistry {
+	private static final Logger logger = LoggerFactory.getLogger( HttpClientRegistry.class );
+
+	private static volatile HttpClientRegistry instance;
+	private static final Object instanceLock = new Object( );
+
+	/**
+	 * Returns the registry for the process.
+	 * @return the registry
+	 */
+	public static HttpClientRegistry getInstance( ) {
+		if( instance == null ) {
+			synchronized( instanceLock ) {
+				if( instance == null ) {
+					instance = new HttpClientRegistry( );
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * A shared client and the number of references to it.
+	 */
+	private static class Registration {
+		private final String key;
+		private final HttpClient client;
+		private int references = 0;
+		
+		private Registration( String theKey, HttpClient theClient ) {
+			key = theKey;
+			client = theClient;
+		}
+	}
+	
+	private final Object lock = new Object( );
+	private final Map<String, Registration> registrationsByKey = new HashMap<>( );
+	private final Map<HttpClient, Registration> registrationsByClient = new IdentityHashMap<>( );
+	
+	/**
+	 * Constructor, which is private since there is one registry for the process.
+	 */
+	private HttpClientRegistry( ) {
+	}
+	
+	/**
+	 * Acquires a reference to the shared client for the endpoint and settings given, 
+	 * creating and starting it if there isn't one. The reference must be released 
+	 * once it is no longer needed.
+	 * @param theEndpoint the endpoint the client communicates with
+	 * @param theConfiguration the configuration with the SSL, connection pool and transport settings
+	 * @return the shared client
+	 */
+	public HttpClient acquire( HttpEndpoint theEndpoint, ResourceConfigurationBase<?> theConfiguration ) {
+		Preconditions.checkNotNull( theEndpoint, "need an endpoint to acquire a client for" );
+		Preconditions.checkNotNull( theConfiguration, "need a configuration to acquire a client for endpoint '%s'", theEndpoint );
+		
+		String key = generateKey( theEndpoint, theConfiguration );
+		synchronized( lock ) {
+			Registration registration = registrationsByKey.get( key );
+			if( registration == null ) {
+				registration = new Registration( key, createClient( theEndpoint.isSecure( ), theConfiguration ) );
+				registrationsByKey.put( key, registration );
+				registrationsByClient.put( registration.client, registration );
+				logger.info( "Created shared client '{}'.", key );
+			}
+			registration.references += 1;
+			return registration.client;
+		}
+	}
+	
+	/**
+	 * Generates the key for the shared client, which is based on the endpoint and every setting used to create the client.
+	 */
+	private static String generateKey( HttpEndpoint theEndpoint, ResourceConfigurationBase<?> theConfiguration ) {
+		StringBuilder builder = new StringBuilder( );
+		
+		builder.append( theEndpoint );
+		builder.append( "|ssl=" );
+		builder.append( theConfiguration.getAllowUntrustedSsl( ) ? "untrusted" : "trusted" );
+		builder.append( "|connections=" );
+		builder.append( theConfiguration.getUseHttp2( ) ? theConfiguration.getHttp2MaxConnectionsPerEndpoint( ) : theConfiguration.getMaxConnectionsPerEndpoint( ) );
+		builder.append( "|queued=" );
+		builder.append( theConfiguration.getMaxQueuedRequestsPerEndpoint( ) );
+		builder.append( "|idle=" );
+		builder.append( theConfiguration.getConnectionIdleTimeout( ) );
+		if( theConfiguration.getUseHttp2( ) ) {
+			builder.append( "|h2|streams=" );
+			builder.append( theConfiguration.getHttp2MaxConcurrentStreams( ) );
+			builder.append( "|session_window=" );
+			builder.append( theConfiguration.getHttp2SessionReceiveWindow( ) );
+			builder.append( "|stream_window=" );
+			builder.append( theConfiguration.getHttp2StreamReceiveWindow( ) );
+		}
+		return builder.toString( );
+	}
+	
+	/**
+	 * Releases a reference to a shared client, stopping the client if it was the last reference.
+	 * @param theClient the shared client to release
+	 */
+	public void release( HttpClient theClient ) {
+		Preconditions.checkNotNull( theClient, "need a client to release" );
+		
+		Registration registration;
+		synchronized( lock ) {
+			registration = registrationsByClient.get( theClient );
+			Preconditions.checkArgument( registration != null, "the client being released is not a shared client" );
+			registration.references -= 1;
+			if( registration.references > 0 ) {
+				return;
+			}
+			registrationsByKey.remove( registration.key );
+			registrationsByClient.remove( theClient );
+		}
+		logger.info( "Stopping shared client '{}' since it is no longer referenced.", registration.key );
+		try {
+			theClient.stop( );
+		} catch( Exception e ) {
+			logger.warn( "Unable to stop shared client '{}'.", registration.key, e );
+		}
+	}
+	
+	/**
+	 * Creates and starts a client that isn't shared.
+	 * @param isSecure indicates whether the client communicates over SSL
+	 * @param theConfiguration the configuration with the SSL, connection pool and transport settings
+	 * @return the started client
+	 */
+	public static HttpClient createClient( boolean isSecure, ResourceConfigurationBase<?> theConfiguration ) {
+		Preconditions.checkNotNull( theConfiguration, "need a configuration to create a client" );
+		
+		HttpClient httpClient;
+		try {
+		    SslContextFactory sslContextFactory = null;
+
+		    if( isSecure ) {
+		    	if( theConfiguration.getAllowUntrustedSsl( ) ) {
+		    		// so we need SSL communication BUT we don't need to worry about it being valid, likley
+		    		// because the caller is self-cert'ing or in early development ... we may need to do 
+		    		// more here mind you
+		    		
+			    	// the following code was based https://code.google.com/p/misc-utils/wiki/JavaHttpsUrl
+			    	// if we were to look into mutual SSL and overall key handling, I probably want to
+			    	// take a closer look
+			    	
+			    	// We need to create a trust manager that essentially doesn't except/fail checks
+				    final TrustManager[] trustAllCerts = new TrustManager[] { new X509TrustManager() {
+				    	// this was based on the code found here:
+	
+						@Override
+						public void checkClientTrusted(X509Certificate[] chain,
+								String authType) throws CertificateException {
+						}
+						@Override
+						public void checkServerTrusted(X509Certificate[] chain,
+								String authType) throws CertificateException {
+						}
+						@Override
+						public X509Certificate[] getAcceptedIssuers() {
+							return null;
+						}
+				    } };
+				    
+				    // then we need to create an SSL context that uses lax trust manager 
+				    SSLContext sslContext = SSLContext.getInstance( "SSL" );
+					sslContext.init( null, trustAllCerts, new java.security.SecureRandom() );
+
+					// and finally, create the SSL context that
+					sslContextFactory = new SslContextFactory();
+					sslContextFactory.setSslContext( sslContext );
+		    	} else {
+		    		// TODO: this needs to be tested against 
+		    		//		 a) real certs with real paths that aren't expired
+		    		//		 b) real certs with real paths that are expired
+		    		sslContextFactory = new SslContextFactory( );
+		    	}
+		    }
+		    if( theConfiguration.getUseHttp2( ) ) {
+		    	// requests are multiplexed as streams on the connections, which are
+		    	// negotiated using ALPN over SSL and h2c (prior knowledge) otherwise
+		    	httpClient = new HttpClient( createHttp2Transport( isSecure, theConfiguration ), sslContextFactory );
+		    } else if( sslContextFactory != null ) {
+				httpClient = new HttpClient( sslContextFactory );
+		    } else {
+				httpClient = new HttpClient(  );
+		    }
+		    httpClient.setFollowRedirects( false ); // tales doesn't have redirects (at least not yet)
+		    httpClient.setStrictEventOrdering( true ); // this seems to fix an odd issue on back-to-back calls to the same service on 
+		    httpClient.setMaxConnectionsPerDestination( theConfiguration.getUseHttp2( ) ? theConfiguration.getHttp2MaxConnectionsPerEndpoint( ) : theConfiguration.getMaxConnectionsPerEndpoint( ) );
+		    httpClient.setMaxRequestsQueuedPerDestination( theConfiguration.getMaxQueuedRequestsPerEndpoint( ) );
+		    httpClient.setIdleTimeout( theConfiguration.getConnectionIdleTimeout( ) );
+			httpClient.start( );
+		} catch (NoSuchAlgorithmException | KeyManagementException e) {
+			throw new IllegalStateException( "unable to create the resource client due to a problem setting up SSL", e );
+		} catch (Exception e ) {
+			throw new IllegalStateException( "unable to create the resource client due to the inability to start the HttpClient", e );
+		}
+		return httpClient;
+	}
+	
+	/**
+	 * Creates the transport for HTTP/2, where the number of concurrent streams on 
+	 * a connection is the smaller of what the service allows and what is configured.
+	 */
+	private static HttpClientTransportOverHTTP2 createHttp2Transport( boolean isSecure, ResourceConfigurationBase<?> theConfiguration ) {
+		int maxConcurrentStreams = theConfiguration.getHttp2MaxConcurrentStreams( );
+		HTTP2Client http2Client = new HTTP2Client( );
+		
+		http2Client.setInitialSessionRecvWindow( theConfiguration.getHttp2SessionReceiveWindow( ) );
+		http2Client.setInitialStreamRecvWindow( theConfiguration.getHttp2StreamReceiveWindow( ) );
+		
+		HttpClientTransportOverHTTP2 transport = new HttpClientTransportOverHTTP2( http2Client ) {
+			@Override
+			public HttpDestination newHttpDestination( Origin theOrigin ) {
+				return new HttpDestinationOverHTTP2( getHttpClient( ), theOrigin ) {
+					{
+						setMaxRequestsPerConnection( maxConcurrentStreams );
+					}
+					
+					@Override
+					public void setMaxRequestsPerConnection( int theMaxRequests ) {
+						// called with the service's limit once the connection's settings arrive
+						super.setMaxRequestsPerConnection( Math.min( theMaxRequests, maxConcurrentStreams ) );
+					}
+				};
+			}
+		};
+		transport.setUseALPN( isSecure );
+		return transport;
+	}
+	
+	/**
+	 * Returns the number of shared clients.
+	 * @return the number of shared clients
+	 */
+	@MonitorableStatusValue( name = "shared_http_clients", description = "The number of HttpClients shared by resource clients." )
+	public int getSharedClients( ) {
+		synchronized( lock ) {
+			return registrationsByKey.size( );
+		}
+	}
+	
+	/**
+	 * Returns the number of references to shared clients.
+	 * @return the number of references
+	 */
+	@MonitorableStatusValue( name = "shared_http_client_references", description = "The number of resource clients using shared HttpClients." )
+	public int getSharedClientReferences( ) {
+		synchronized( lock ) {
+			int references = 0;
+			for( Registration registration : registrationsByKey.values( ) ) {
+				references += registration.references;
+			}
+			return references;
+		}
+	}
+}
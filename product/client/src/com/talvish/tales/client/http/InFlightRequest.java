@@ -0,0 +1,103 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * A call, from a method that coalesces requests, that is currently being
+ * made along with the number of requests sharing it. Each request gets its
+ * own future and the call is only cancelled once every request sharing it
+ * has cancelled its future.
+ * @author jmolnar
+ *
+ */
+class InFlightRequest<T> {
+	private final CompletableFuture<T> future;
+	private final AtomicInteger sharers = new AtomicInteger( 1 ); // the request making the call is the first sharer
+
+	/**
+	 * Constructor taking the future of the call being made.
+	 * @param theFuture the future of the call
+	 */
+	InFlightRequest( CompletableFuture<T> theFuture ) {
+		future = theFuture;
+	}
+
+	/**
+	 * The future of the call being made.
+	 * @return the future of the call
+	 */
+	CompletableFuture<T> getFuture( ) {
+		return future;
+	}
+
+	/**
+	 * Adds a request to those sharing the call, unless every request
+	 * sharing it has already cancelled, in which case it cannot be joined.
+	 * @return true if the call was joined, false otherwise
+	 */
+	boolean join( ) {
+		int current;
+		do {
+			current = sharers.get( );
+			if( current == 0 ) {
+				return false;
+			}
+		} while( !sharers.compareAndSet( current, current + 1 ) );
+		return true;
+	}
+
+	/**
+	 * Removes a request, that cancelled, from those sharing the call.
+	 * @return true if it was the last request sharing the call, false otherwise
+	 */
+	boolean leave( ) {
+		return sharers.decrementAndGet( ) == 0;
+	}
+
+	/**
+	 * Creates the future a request sharing the call is given. The future completes
+	 * when the call does, with the same result, and cancelling it removes the
+	 * request from those sharing the call, cancelling the call if it was the last.
+	 * @param theExecutor the executor to complete the new future on, or null to complete it on the thread completing the call
+	 * @return the new future
+	 */
+	CompletableFuture<T> share( Executor theExecutor ) {
+		CompletableFuture<T> sharedFuture = new CompletableFuture<T>( );
+		BiConsumer<T, Throwable> completer = ( result, failure ) -> {
+			if( failure != null ) {
+				sharedFuture.completeExceptionally( failure );
+			} else {
+				sharedFuture.complete( result );
+			}
+		};
+		if( theExecutor == null ) {
+			future.whenComplete( completer );
+		} else {
+			future.whenCompleteAsync( completer, theExecutor );
+		}
+		sharedFuture.whenComplete( ( result, failure ) -> {
+			if( sharedFuture.isCancelled( ) && leave( ) ) {
+				future.cancel( true );
+			}
+		} );
+		return sharedFuture;
+	}
+}
@@ -0,0 +1,203 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+
+package com.talvish.tales.client.http;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.jetty.client.api.ContentProvider;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.stream.JsonWriter;
+import com.talvish.tales.serialization.json.translators.ChainToJsonElementToStringTranslator;
+
+/**
+ * This is a Content Provider for Jetty client requests. It takes a set of
+ * parameters and writes them as the members of a single json object, with
+ * content type 'application/json', optionally compressing the body using gzip.
+ * Unlike the form-style body, values that are already json, like complex
+ * objects, are written as-is instead of being escaped and url encoded.
+ * <p>
+ * The body is written, through a JsonWriter, in chunks as Jetty sends it, so
+ * the whole body is never held in memory. Since the size isn't known until it
+ * is written, the body is sent chunked and whether it is compressed is based
+ * on the size of the parameter names and values. Each iteration writes the
+ * body again, so the same provider can be used by retries and hedged requests.
+ * @author jmolnar
+ *
+ */
+public class JsonBodyContentProvider implements ContentProvider.Typed {
+	public static final String MEDIA_TYPE = "application/json; charset=UTF-8";
+	public static final String GZIP_ENCODING = "gzip";
+
+	private static final int CHUNK_SIZE = 8192;
+
+	private final List<Map.Entry<String,String>> parameters;
+	private final Map<String,ResourceMethodParameter> definitions;
+	private final boolean compressed;
+
+	/**
+	 * The constructor taking the parameters to write.
+	 * @param theParameters the translated values of the parameters to write
+	 * @param theDefinitions the definitions of the parameters, which indicate which values are already json
+	 * @param theCompressionThreshold the size, in bytes, above which the body is compressed, or zero to never compress
+	 */
+	public JsonBodyContentProvider( Map<String,String> theParameters, Map<String,ResourceMethodParameter> theDefinitions, int theCompressionThreshold ) {
+		Preconditions.checkNotNull( theParameters, "need parameters to write" );
+		Preconditions.checkNotNull( theDefinitions, "need parameter definitions to write" );
+
+		// the entries are kept, instead of the map, so the body
+		// is the same each time it is written, even if the map changes
+		parameters = new ArrayList<>( theParameters.entrySet( ) );
+		definitions = theDefinitions;
+		compressed = theCompressionThreshold > 0 && estimateSize( parameters ) > theCompressionThreshold;
+	}
+
+	/**
+	 * The content type of the body.
+	 * @return the content type
+	 */
+	@Override
+	public String getContentType( ) {
+		return MEDIA_TYPE;
+	}
+
+	/**
+	 * The length of the body, which isn't known since it is written as it is sent.
+	 * @return -1, since the length isn't known
+	 */
+	@Override
+	public long getLength( ) {
+		return -1;
+	}
+
+	/**
+	 * Indicates the body can be sent more than once, since each iteration writes it again.
+	 * @return true, since the body can be sent again
+	 */
+	public boolean isReproducible( ) {
+		return true;
+	}
+
+	/**
+	 * Indicates if the body was compressed using gzip, in which case
+	 * the request needs a 'Content-Encoding' header of 'gzip'.
+	 * @return true if compressed, false otherwise
+	 */
+	public boolean isCompressed( ) {
+		return compressed;
+	}
+
+	/**
+	 * Returns an iterator that writes the body, a chunk at a time.
+	 * @return the iterator of the chunks of the body
+	 */
+	@Override
+	public Iterator<ByteBuffer> iterator( ) {
+		return new ChunkIterator( );
+	}
+
+	/**
+	 * A helper method that estimates the size, in bytes, of the body
+	 * from the lengths of the parameter names and values.
+	 * @param theParameters the parameters that will be written
+	 * @return the estimated size of the body
+	 */
+	private static long estimateSize( List<Map.Entry<String,String>> theParameters ) {
+		long size = 2; // the braces of the object
+		for( Map.Entry<String,String> parameter : theParameters ) {
+			size += parameter.getKey( ).length( ) + 6; // quotes, colon and comma
+			size += parameter.getValue( ) == null ? 4 : parameter.getValue( ).length( );
+		}
+		return size;
+	}
+
+	/**
+	 * The iterator that writes the json object for the body, a chunk
+	 * at a time. Values are written as json strings, to match the form-style
+	 * body, unless the parameter's translator created json, which is written as-is.
+	 */
+	private class ChunkIterator implements Iterator<ByteBuffer> {
+		private final ByteArrayOutputStream chunk = new ByteArrayOutputStream( CHUNK_SIZE + CHUNK_SIZE / 2 );
+		private final Iterator<Map.Entry<String,String>> entries = parameters.iterator( );
+		private JsonWriter writer;
+		private boolean finished = false;
+
+		@Override
+		public boolean hasNext( ) {
+			return !finished;
+		}
+
+		@Override
+		public ByteBuffer next( ) {
+			if( finished ) {
+				throw new NoSuchElementException( );
+			}
+			try {
+				if( writer == null ) {
+					writer = new JsonWriter( new OutputStreamWriter( compressed ? new GZIPOutputStream( chunk ) : chunk, StandardCharsets.UTF_8 ) );
+					writer.beginObject( );
+				}
+				// compressed output only shows up as the compressor fills, so
+				// we keep writing until there is something to send, or we're done
+				while( !finished && chunk.size( ) < CHUNK_SIZE ) {
+					if( entries.hasNext( ) ) {
+						writeParameter( entries.next( ) );
+						writer.flush( );
+					} else {
+						writer.endObject( );
+						writer.close( );
+						finished = true;
+					}
+				}
+			} catch( IOException e ) {
+				// writing to memory so this isn't expected
+				throw new UncheckedIOException( "unable to write the json body", e );
+			}
+			ByteBuffer buffer = ByteBuffer.wrap( chunk.toByteArray( ) );
+			chunk.reset( );
+			return buffer;
+		}
+
+		/**
+		 * Writes a member of the json object for a parameter.
+		 */
+		private void writeParameter( Map.Entry<String,String> theParameter ) throws IOException {
+			ResourceMethodParameter definition = definitions.get( theParameter.getKey( ) );
+			String value = theParameter.getValue( );
+
+			writer.name( theParameter.getKey( ) );
+			if( value == null ) {
+				writer.nullValue( );
+			} else if( definition != null && definition.getTranslator( ) instanceof ChainToJsonElementToStringTranslator ) {
+				writer.jsonValue( value );
+			} else {
+				writer.value( value );
+			}
+		}
+	}
+}
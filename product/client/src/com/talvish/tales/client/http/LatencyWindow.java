@@ -0,0 +1,72 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent latencies of a method so that percentiles 
+ * can be calculated. Since percentiles are needed for every request, 
+ * they are recalculated periodically instead of on every request.
+ * @author jmolnar
+ *
+ */
+class LatencyWindow {
+	private static final int SIZE = 256;
+	private static final int MINIMUM_SAMPLES = 32;
+	private static final int RECALCULATE_INTERVAL = 32;
+	
+	private final long[] latencies = new long[ SIZE ];
+	private int count = 0;
+	private int next = 0;
+	private int sinceCalculation = 0;
+	
+	private double calculatedPercentile = Double.NaN;
+	private long calculatedLatency = -1;
+	
+	/**
+	 * Records a latency.
+	 * @param theLatency the latency, in milliseconds
+	 */
+	synchronized void record( long theLatency ) {
+		latencies[ next ] = theLatency;
+		next = ( next + 1 ) % SIZE;
+		if( count < SIZE ) {
+			count += 1;
+		}
+		sinceCalculation += 1;
+	}
+	
+	/**
+	 * Returns the latency at the percentile given, of the recent latencies. 
+	 * @param thePercentile the percentile, greater than 0 and less than 100
+	 * @return the latency, in milliseconds, or -1 if there aren't enough latencies yet
+	 */
+	synchronized long getLatency( double thePercentile ) {
+		if( count < MINIMUM_SAMPLES ) {
+			return -1;
+		} else {
+			if( thePercentile != calculatedPercentile || sinceCalculation >= RECALCULATE_INTERVAL ) {
+				long[] sorted = Arrays.copyOf( latencies, count );
+				Arrays.sort( sorted );
+				calculatedLatency = sorted[ Math.min( count - 1, ( int )Math.ceil( thePercentile / 100.0 * count ) - 1 ) ];
+				calculatedPercentile = thePercentile;
+				sinceCalculation = 0;
+			}
+			return calculatedLatency;
+		}
+	}
+}
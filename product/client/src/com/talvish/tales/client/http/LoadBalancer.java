@@ -0,0 +1,401 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.communication.HttpEndpoint;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * Balances requests across the endpoints of an EndpointProvider. Each
+ * request goes to the better of two endpoints picked at random, where
+ * better means fewer outstanding requests, weighted by a moving average 
+ * of the latency of the endpoint. Failures inflate the latency, so an 
+ * endpoint that fails quickly doesn't attract requests, and idle time 
+ * fades it, so an endpoint that did poorly is eventually tried again. 
+ * Endpoints that fail a number of times in a row, meaning there wasn't
+ * a response or the response had a 5xx HTTP status, are ejected for a 
+ * period of time, after which a single request is sent to probe the 
+ * endpoint, which returns it if it succeeds and ejects it again if it
+ * fails. If every endpoint is ejected, requests go to the endpoint that
+ * is due to return first, instead of failing. Each endpoint can also have 
+ * its own circuit breaker, so one failing endpoint doesn't stop requests 
+ * to the others, and endpoints whose breakers would not let a request 
+ * through are only selected if no other endpoint is available. A 
+ * ResourceClient adds the balancer's status values, which summarize 
+ * the breakers, when it registers its status.
+ * @author jmolnar
+ *
+ */
+public class LoadBalancer {
+	private static final Logger logger = LoggerFactory.getLogger( LoadBalancer.class );
+	
+	private static final double LATENCY_WEIGHT = 0.3; // how much each new latency moves the average
+	private static final double FAILURE_PENALTY = 5.0; // how much failures inflate latency, since failing fast shouldn't attract requests
+	private static final long LATENCY_DECAY = TimeUnit.SECONDS.toNanos( 10 ); // how quickly the latency of an idle endpoint fades, so it is tried again
+
+	/**
+	 * The state kept for each endpoint being balanced across.
+	 */
+	static class EndpointState {
+		private final HttpEndpoint endpoint;
+		private final CircuitBreaker circuitBreaker; // null if endpoints don't have breakers
+		private final AtomicInteger outstandingRequests = new AtomicInteger( 0 );
+		private volatile double latency = 0.0; // the moving average, in milliseconds, or zero if there hasn't been a response
+		private volatile long latencyTimestamp; // when the latency was last updated
+		private volatile boolean ejected = false;
+		private long ejectionTimestamp; // when the endpoint can be probed, guarded by the state
+		private boolean probing = false; // guarded by the state
+		private int consecutiveFailures = 0; // guarded by the state
+		
+		/**
+		 * Constructor taking the endpoint and its circuit breaker.
+		 */
+		private EndpointState( HttpEndpoint theEndpoint, CircuitBreaker theCircuitBreaker ) {
+			endpoint = theEndpoint;
+			circuitBreaker = theCircuitBreaker;
+		}
+		
+		/**
+		 * The endpoint the state is for.
+		 * @return the endpoint
+		 */
+		HttpEndpoint getEndpoint( ) {
+			return endpoint;
+		}
+		
+		/**
+		 * The circuit breaker guarding requests to the endpoint.
+		 * @return the circuit breaker, or null if endpoints don't have breakers
+		 */
+		CircuitBreaker getCircuitBreaker( ) {
+			return circuitBreaker;
+		}
+		
+		/**
+		 * Indicates if the endpoint is ejected and due to be probed. Must be called under the state.
+		 */
+		private boolean isProbeDue( long theTimestamp ) {
+			return ejected && !probing && theTimestamp - ejectionTimestamp >= 0;
+		}
+		
+		/**
+		 * Returns the latency, faded by how long it has been since it was updated.
+		 */
+		private double getLatency( long theTimestamp ) {
+			return latency * Math.exp( -( theTimestamp - latencyTimestamp ) / ( double )LATENCY_DECAY );
+		}
+		
+		/**
+		 * Returns the score used to compare endpoints, where lower is better.
+		 */
+		private double getScore( long theTimestamp ) {
+			return ( outstandingRequests.get( ) + 1 ) * getLatency( theTimestamp );
+		}
+	}
+	
+	private final EndpointProvider provider;
+	private final int ejectionFailures;
+	private final long ejectionDuration;
+	private final Function<HttpEndpoint, CircuitBreaker> circuitBreakerFactory;
+	
+	private final Object lock = new Object( );
+	private volatile List<HttpEndpoint> currentEndpoints;
+	private volatile List<EndpointState> currentStates;
+	
+	private final AtomicLong ejections = new AtomicLong( 0 );
+	
+	/**
+	 * Constructor taking the parameters of the balancer.
+	 * @param theProvider the provider of the endpoints to balance across
+	 * @param theEjectionFailures the number of failures in a row that ejects an endpoint, or zero to never eject endpoints
+	 * @param theEjectionDuration the time, in milliseconds, an endpoint is ejected for before it is probed 
+	 */
+	public LoadBalancer( EndpointProvider theProvider, int theEjectionFailures, long theEjectionDuration ) {
+		this( theProvider, theEjectionFailures, theEjectionDuration, null );
+	}
+	
+	/**
+	 * Constructor taking the parameters of the balancer, including how 
+	 * to create the circuit breakers of the endpoints.
+	 * @param theProvider the provider of the endpoints to balance across
+	 * @param theEjectionFailures the number of failures in a row that ejects an endpoint, or zero to never eject endpoints
+	 * @param theEjectionDuration the time, in milliseconds, an endpoint is ejected for before it is probed 
+	 * @param theCircuitBreakerFactory creates the circuit breaker for an endpoint as it is added, or null if endpoints don't have breakers
+	 */
+	public LoadBalancer( EndpointProvider theProvider, int theEjectionFailures, long theEjectionDuration, Function<HttpEndpoint, CircuitBreaker> theCircuitBreakerFactory ) {
+		Preconditions.checkNotNull( theProvider, "the load balancer needs an endpoint provider" );
+		Preconditions.checkArgument( theEjectionFailures >= 0, "the ejection failures, %s, cannot be negative", theEjectionFailures );
+		Preconditions.checkArgument( theEjectionDuration >= 0, "the ejection duration, %s, cannot be negative", theEjectionDuration );
+		
+		provider = theProvider;
+		ejectionFailures = theEjectionFailures;
+		ejectionDuration = theEjectionDuration;
+		circuitBreakerFactory = theCircuitBreakerFactory;
+		
+		getStates( ); // makes sure the provider has endpoints to start with
+	}
+	
+	/**
+	 * The provider of the endpoints being balanced across.
+	 * @return the endpoint provider
+	 */
+	public EndpointProvider getProvider( ) {
+		return provider;
+	}
+	
+	/**
+	 * Selects the endpoint the next attempt should be sent to, which has no
+	 * effect on the balancer until the attempt is tracked.
+	 * @return the state of the endpoint selected
+	 */
+	EndpointState select( ) {
+		List<EndpointState> states = getStates( );
+		long currentTimestamp = System.nanoTime( );
+		EndpointState first = null;
+		EndpointState second = null;
+		EndpointState soonest = null;
+		EndpointState rejecting = null;
+		int available = 0;
+		
+		// endpoints due to be probed take the request, otherwise we reservoir 
+		// sample two of the available endpoints, so nothing is allocated
+		ThreadLocalRandom random = ThreadLocalRandom.current( );
+		for( EndpointState state : states ) {
+			if( !state.ejected && state.circuitBreaker != null && state.circuitBreaker.isRejecting( ) ) {
+				rejecting = state; // only used if nothing else is available
+			} else if( !state.ejected ) {
+				available += 1;
+				if( available == 1 ) {
+					first = state;
+				} else if( available == 2 ) {
+					second = state;
+				} else if( random.nextInt( available ) < 2 ) {
+					if( random.nextBoolean( ) ) {
+						first = state;
+					} else {
+						second = state;
+					}
+				}
+			} else {
+				synchronized( state ) {
+					if( state.isProbeDue( currentTimestamp ) ) {
+						return state;
+					} else if( soonest == null || state.ejectionTimestamp - soonest.ejectionTimestamp < 0 ) {
+						soonest = state;
+					}
+				}
+			}
+		}
+		if( first == null ) {
+			return soonest != null ? soonest : rejecting; // everything is ejected or has a breaker not letting requests through
+		} else if( second == null ) {
+			return first;
+		}
+		if( random.nextBoolean( ) ) {
+			// the two are swapped at random, so ties don't favour endpoints earlier in the list
+			EndpointState swap = first;
+			first = second;
+			second = swap;
+		}
+		if( first.latency == 0.0 || second.latency == 0.0 ) {
+			// without latencies for both, only outstanding requests can be compared
+			return second.outstandingRequests.get( ) < first.outstandingRequests.get( ) ? second : first;
+		} else {
+			return second.getScore( currentTimestamp ) < first.getScore( currentTimestamp ) ? second : first;
+		}
+	}
+	
+	/**
+	 * Tracks an attempt sent to the endpoint selected for it, recording 
+	 * its outcome once it completes. Attempts that are cancelled, or are 
+	 * not sent because a circuit breaker is open, have no outcome.
+	 * @param theState the state of the endpoint selected
+	 * @param theAttempt the future of the attempt
+	 */
+	void track( EndpointState theState, ResourceResponseFuture<?> theAttempt ) {
+		long startTimestamp = System.nanoTime( );
+		boolean probe = false;
+		
+		synchronized( theState ) {
+			if( theState.isProbeDue( startTimestamp ) ) {
+				theState.probing = true;
+				probe = true;
+			}
+		}
+		boolean probing = probe;
+		theState.outstandingRequests.incrementAndGet( );
+		theAttempt.whenComplete( ( result, failure ) -> {
+			theState.outstandingRequests.decrementAndGet( );
+			if( failure instanceof CancellationException || failure instanceof CircuitOpenException ) {
+				if( probing ) {
+					release( theState );
+				}
+			} else {
+				int responseStatus = theAttempt.getResponseStatus( );
+				record( theState, System.nanoTime( ) - startTimestamp, responseStatus == 0 || responseStatus >= 500, probing );
+			}
+		} );
+	}
+	
+	/**
+	 * Lets another attempt probe the endpoint, since the probing attempt had no outcome.
+	 */
+	private void release( EndpointState theState ) {
+		synchronized( theState ) {
+			theState.probing = false;
+		}
+	}
+	
+	/**
+	 * Records the outcome of an attempt, which may eject, or return, the endpoint.
+	 */
+	private void record( EndpointState theState, long theDuration, boolean failed, boolean probe ) {
+		double duration = theDuration / ( double )TimeUnit.MILLISECONDS.toNanos( 1 );
+		long currentTimestamp = System.nanoTime( );
+		
+		synchronized( theState ) {
+			double latency = theState.getLatency( currentTimestamp );
+			if( failed ) {
+				duration = Math.max( duration, latency ) * FAILURE_PENALTY;
+			}
+			theState.latency = theState.latency == 0.0 ? duration : latency + LATENCY_WEIGHT * ( duration - latency );
+			theState.latencyTimestamp = currentTimestamp;
+			if( failed ) {
+				theState.consecutiveFailures += 1;
+				if( probe ) {
+					theState.probing = false;
+					theState.ejectionTimestamp = System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( ejectionDuration );
+					logger.warn( "Endpoint '{}' failed its probe, so it remains ejected.", theState.endpoint );
+				} else if( !theState.ejected && ejectionFailures > 0 && theState.consecutiveFailures >= ejectionFailures ) {
+					theState.ejected = true;
+					theState.ejectionTimestamp = System.nanoTime( ) + TimeUnit.MILLISECONDS.toNanos( ejectionDuration );
+					ejections.incrementAndGet( );
+					logger.warn( "Endpoint '{}' failed {} times in a row, so it is being ejected.", theState.endpoint, theState.consecutiveFailures );
+				}
+			} else {
+				theState.consecutiveFailures = 0;
+				if( theState.ejected ) {
+					theState.ejected = false;
+					theState.probing = false;
+					logger.info( "Endpoint '{}' succeeded, so it is being returned.", theState.endpoint );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the states of the current endpoints, updating them if the provider's endpoints changed.
+	 */
+	private List<EndpointState> getStates( ) {
+		List<HttpEndpoint> endpoints = provider.getEndpoints( );
+		if( endpoints != currentEndpoints ) {
+			synchronized( lock ) {
+				if( endpoints != currentEndpoints ) {
+					Preconditions.checkState( endpoints != null && endpoints.size( ) > 0, "the endpoint provider doesn't have any endpoints" );
+					
+					// endpoints that remain keep their state
+					Map<String, EndpointState> existingStates = new HashMap<>( );
+					if( currentStates != null ) {
+						for( EndpointState state : currentStates ) {
+							existingStates.put( state.endpoint.toString( ), state );
+						}
+					}
+					List<EndpointState> states = new ArrayList<>( endpoints.size( ) );
+					EndpointState state;
+					for( HttpEndpoint endpoint : endpoints ) {
+						state = existingStates.remove( endpoint.toString( ) );
+						states.add( state != null ? state : new EndpointState( endpoint, circuitBreakerFactory == null ? null : circuitBreakerFactory.apply( endpoint ) ) );
+					}
+					currentStates = states;
+					currentEndpoints = endpoints;
+				}
+			}
+		}
+		return currentStates;
+	}
+	
+	/**
+	 * Returns the number of endpoints being balanced across.
+	 * @return the number of endpoints
+	 */
+	@MonitorableStatusValue( name = "balanced_endpoints", description = "The number of endpoints requests are being balanced across." )
+	public int getEndpointCount( ) {
+		return getStates( ).size( );
+	}
+
+	/**
+	 * Returns the number of endpoints currently ejected.
+	 * @return the number of ejected endpoints
+	 */
+	@MonitorableStatusValue( name = "ejected_endpoints", description = "The number of endpoints currently ejected because they failed too many times in a row." )
+	public int getEjectedEndpointCount( ) {
+		int count = 0;
+		for( EndpointState state : getStates( ) ) {
+			count += state.ejected ? 1 : 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of times endpoints were ejected.
+	 * @return the number of ejections
+	 */
+	@MonitorableStatusValue( name = "endpoint_ejections", description = "The total number of times endpoints were ejected because they failed too many times in a row." )
+	public long getEjections( ) {
+		return ejections.get( );
+	}
+
+	/**
+	 * Returns the number of current endpoints whose circuit breakers aren't closed.
+	 * @return the number of endpoints with open, or half-open, circuit breakers
+	 */
+	@MonitorableStatusValue( name = "open_endpoint_circuits", description = "The number of endpoints whose circuit breakers are currently open or half-open." )
+	public int getOpenCircuitCount( ) {
+		int count = 0;
+		for( EndpointState state : getStates( ) ) {
+			count += state.circuitBreaker != null && state.circuitBreaker.getState( ) != CircuitBreaker.State.CLOSED ? 1 : 0;
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the number of requests the circuit breakers of the current endpoints didn't send.
+	 * @return the number of rejected requests
+	 */
+	@MonitorableStatusValue( name = "endpoint_circuit_rejections", description = "The total number of requests to the current endpoints not sent because the circuit breaker of the endpoint was open." )
+	public long getCircuitRejections( ) {
+		long count = 0;
+		for( EndpointState state : getStates( ) ) {
+			count += state.circuitBreaker != null ? state.circuitBreaker.getRejections( ) : 0;
+		}
+		return count;
+	}
+}
@@ -16,22 +16,24 @@
 package com.talvish.tales.client.http;
 
 import java.lang.reflect.Type;
-import java.security.KeyManagementException;
-import java.security.NoSuchAlgorithmException;
-import java.security.cert.CertificateException;
-import java.security.cert.X509Certificate;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
-import javax.net.ssl.SSLContext;
-import javax.net.ssl.TrustManager;
-import javax.net.ssl.X509TrustManager;
-
+import org.eclipse.jetty.client.AbstractConnectionPool;
+import org.eclipse.jetty.client.ConnectionPool;
+import org.eclipse.jetty.client.DuplexConnectionPool;
 import org.eclipse.jetty.client.HttpClient;
-import org.eclipse.jetty.http.HttpField;
-import org.eclipse.jetty.http.HttpHeader;
-import org.eclipse.jetty.util.ssl.SslContextFactory;
+import org.eclipse.jetty.client.HttpDestination;
+import org.eclipse.jetty.client.api.Connection;
+import org.eclipse.jetty.client.api.Destination;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,6 +50,9 @@ import com.talvish.tales.serialization.json.JsonTranslationFacility;
 import com.talvish.tales.serialization.json.JsonTypeMap;
 import com.talvish.tales.serialization.json.translators.JsonObjectToObjectTranslator;
 import com.talvish.tales.serialization.json.translators.ObjectToJsonObjectTranslator;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+import com.talvish.tales.system.status.StatusBlock;
+import com.talvish.tales.system.status.StatusManager;
 import com.talvish.tales.validation.Conditions;
 
 
@@ -62,11 +67,32 @@ import com.talvish.tales.validation.Conditions;
  *
  */
 public class ResourceClient {
+	/**
+	 * Where the underlying HttpClient came from, which decides what happens to it when closing.
+	 */
+	private enum HttpClientOwnership {
+		/**
+		 * The client was given, so it is left alone.
+		 */
+		EXTERNAL,
+		/**
+		 * The client is shared, so it is released to the registry.
+		 */
+		SHARED,
+		/**
+		 * The client was created for this resource client, so it is stopped.
+		 */
+		OWNED
+	}
+	
 	// TODO: for the clients we should allow a way to configure connect times and failure amount/rate and stop using until some other test point (ideally on some form of curve)
 	
 	private static final Logger logger = LoggerFactory.getLogger( ResourceClient.class );
+	private static final String SHARED_CLIENTS_BLOCK_NAME = "shared_http_clients";
 	
 	protected final HttpClient httpClient;
+	private final HttpClientOwnership httpClientOwnership; // indicates what to do with the client when closing
+	private final AtomicBoolean closed = new AtomicBoolean( false );
 
 	protected ResourceMethod[] methods;
 	
@@ -75,12 +101,23 @@ public class ResourceClient {
 	
 	protected final JsonParser jsonParser;
 	
-	protected final HttpEndpoint endpoint; 	// e.g. http://localhost:8000
+	protected final HttpEndpoint endpoint; 	// e.g. http://localhost:8000, which is the first endpoint when balancing
+	protected final LoadBalancer loadBalancer; // balances requests across endpoints, which is null if there is a single endpoint
 	protected final String contractRoot;	// e.g. login
 	protected final String contractVersion;	// e.g. 20140901
 	
 	protected final String userAgent; // the user agent to use
 	protected final int defaultMaxResponseSize	= 2 * 1024 * 1024; // the maximum size, in bytes, that the response buffer can hold
+	protected final boolean sendJsonBodies; // indicates if body parameters are sent as a json object instead of a form
+	protected final int bodyCompressionThreshold; // the size, in bytes, above which json bodies are compressed, or zero to never compress
+	protected final boolean preferBinaryResponses; // indicates if the service should be asked to respond in the binary format
+	protected final boolean streamResponses; // indicates if methods parse responses as they arrive, by default
+	protected final ResourceResponseCache responseCache; // the cache for responses to GET requests, which is null if not caching
+	protected final RetryBudget retryBudget; // limits the retries and hedged requests of methods with those policies
+	protected final CircuitBreaker circuitBreaker; // the circuit breaker for the endpoint, which is null if there isn't one or when balancing, where each endpoint has its own
+	
+	private final ConcurrentHashMap<String, InFlightRequest<?>> inFlightRequests = new ConcurrentHashMap<>( ); // the requests, from methods that coalesce, currently being made
+	private final AtomicLong coalescedRequests = new AtomicLong( 0 ); // the number of requests that shared another's call
 	
 	// these are volatile because when we add/remove headers here it reset these members
 	// since they are expected to change through-out the life-time of the resource client
@@ -126,75 +163,86 @@ public class ResourceClient {
 		// lets make sure the configuration is valid
 		theConfiguration.validate();
 		
-		// now let's start preparing the client
-		endpoint = new HttpEndpoint( theConfiguration.getEndpoint( ) ); // this will do validation on the endpoint 
+		// now let's start preparing the client, where each endpoint gets its own circuit breaker
+		Function<HttpEndpoint, CircuitBreaker> circuitBreakerFactory;
+		if( theConfiguration.getCircuitBreakerWindowSize( ) > 0 ) {
+			int windowSize = theConfiguration.getCircuitBreakerWindowSize( );
+			int minimumRequests = theConfiguration.getCircuitBreakerMinimumRequests( );
+			double failureRateThreshold = theConfiguration.getCircuitBreakerFailureRateThreshold( );
+			long slowRequestDuration = theConfiguration.getCircuitBreakerSlowRequestDuration( );
+			double slowRequestRateThreshold = theConfiguration.getCircuitBreakerSlowRequestRateThreshold( );
+			long openDuration = theConfiguration.getCircuitBreakerOpenDuration( );
+			int halfOpenRequests = theConfiguration.getCircuitBreakerHalfOpenRequests( );
+			
+			circuitBreakerFactory = ( breakerEndpoint ) -> new CircuitBreaker( 
+					breakerEndpoint.toString( ) + theContractRoot,
+					windowSize,
+					minimumRequests,
+					failureRateThreshold,
+					slowRequestDuration,
+					slowRequestRateThreshold,
+					openDuration,
+					halfOpenRequests );
+		} else {
+			circuitBreakerFactory = null;
+		}
+		
+		EndpointProvider endpointProvider;
+		if( theConfiguration.getEndpointProvider( ) != null ) {
+			endpointProvider = theConfiguration.getEndpointProvider( );
+		} else if( theConfiguration.getEndpoints( ) != null && theConfiguration.getEndpoints( ).size( ) > 0 ) {
+			endpointProvider = new StaticEndpointProvider( theConfiguration.getEndpoints( ) );
+		} else if( !Strings.isNullOrEmpty( theConfiguration.getEndpointsFile( ) ) ) {
+			endpointProvider = new FileEndpointProvider( theConfiguration.getEndpointsFile( ) );
+		} else {
+			endpointProvider = null;
+		}
+		if( endpointProvider != null ) {
+			loadBalancer = new LoadBalancer( endpointProvider, theConfiguration.getEndpointEjectionFailures( ), theConfiguration.getEndpointEjectionDuration( ), circuitBreakerFactory );
+			endpoint = endpointProvider.getEndpoints( ).get( 0 );
+			circuitBreaker = null;
+		} else {
+			loadBalancer = null;
+			endpoint = new HttpEndpoint( theConfiguration.getEndpoint( ) ); // this will do validation on the endpoint 
+			circuitBreaker = circuitBreakerFactory == null ? null : circuitBreakerFactory.apply( endpoint );
+		}
 		contractRoot = theContractRoot; 
 		contractVersion = theContractVersion;
 		userAgent = theUserAgent;
+		sendJsonBodies = theConfiguration.getSendJsonBodies( );
+		bodyCompressionThreshold = theConfiguration.getBodyCompressionThreshold( );
+		preferBinaryResponses = theConfiguration.getPreferBinaryResponses( );
+		streamResponses = theConfiguration.getStreamResponses( );
+		if( theConfiguration.getResponseCacheEntries( ) > 0 ) {
+			responseCache = new ResourceResponseCache( theConfiguration.getResponseCacheEntries( ), theConfiguration.getResponseCacheSize( ) );
+		} else {
+			responseCache = null;
+		}
+		retryBudget = new RetryBudget( theConfiguration.getRetryBudgetRatio( ), theConfiguration.getRetryBudgetCapacity( ) );
 		
-		// use the client if sent in, but create a working one otherwise
+		// use the client if sent in, but otherwise use a shared one or create one
 		if( theClient == null ) {
-			try {
-			    SslContextFactory sslContextFactory = null;
-	
-			    if( endpoint.isSecure( ) ) {
-			    	if( theConfiguration.getAllowUntrustedSsl() ) {
-			    		// so we need SSL communication BUT we don't need to worry about it being valid, likley
-			    		// because the caller is self-cert'ing or in early development ... we may need to do 
-			    		// more here mind you
-			    		
-				    	// the following code was based https://code.google.com/p/misc-utils/wiki/JavaHttpsUrl
-				    	// if we were to look into mutual SSL and overall key handling, I probably want to
-				    	// take a closer look
-				    	
-				    	// We need to create a trust manager that essentially doesn't except/fail checks
-					    final TrustManager[] trustAllCerts = new TrustManager[] { new X509TrustManager() {
-					    	// this was based on the code found here:
-		
-							@Override
-							public void checkClientTrusted(X509Certificate[] chain,
-									String authType) throws CertificateException {
-							}
-							@Override
-							public void checkServerTrusted(X509Certificate[] chain,
-									String authType) throws CertificateException {
-							}
-							@Override
-							public X509Certificate[] getAcceptedIssuers() {
-								return null;
-							}
-					    } };
-					    
-					    // then we need to create an SSL context that uses lax trust manager 
-					    SSLContext sslContext = SSLContext.getInstance( "SSL" );
-						sslContext.init( null, trustAllCerts, new java.security.SecureRandom() );
-	
-						// and finally, create the SSL context that
-						sslContextFactory = new SslContextFactory();
-						sslContextFactory.setSslContext( sslContext );
-			    	} else {
-			    		// TODO: this needs to be tested against 
-			    		//		 a) real certs with real paths that aren't expired
-			    		//		 b) real certs with real paths that are expired
-			    		sslContextFactory = new SslContextFactory( );
-			    	}
-					httpClient = new HttpClient( sslContextFactory );
-			    } else {
-					httpClient = new HttpClient(  );
-			    }
-			    httpClient.setFollowRedirects( false ); // tales doesn't have redirects (at least not yet)
-			    httpClient.setStrictEventOrdering( true ); // this seems to fix an odd issue on back-to-back calls to the same service on 
-				httpClient.start( );
-			    displayClientConfiguration( httpClient );
-			} catch (NoSuchAlgorithmException | KeyManagementException e) {
-				throw new IllegalStateException( "unable to create the resource client due to a problem setting up SSL", e );
-			} catch (Exception e ) {
-				throw new IllegalStateException( "unable to create the resource client due to the inability to start the HttpClient", e );
+			if( theConfiguration.getShareHttpClient( ) ) {
+				httpClient = HttpClientRegistry.getInstance( ).acquire( endpoint, theConfiguration );
+				httpClientOwnership = HttpClientOwnership.SHARED;
+			} else {
+				httpClient = HttpClientRegistry.createClient( endpoint.isSecure( ), theConfiguration );
+				httpClientOwnership = HttpClientOwnership.OWNED;
 			}
+		    displayClientConfiguration( httpClient );
+		    if( theConfiguration.getPreconnectConnections( ) > 0 ) {
+		    	if( loadBalancer != null ) {
+		    		for( HttpEndpoint balancedEndpoint : loadBalancer.getProvider( ).getEndpoints( ) ) {
+		    			preconnect( balancedEndpoint, theConfiguration.getPreconnectConnections( ) );
+		    		}
+		    	} else {
+		    		preconnect( endpoint, theConfiguration.getPreconnectConnections( ) );
+		    	}
+		    }
 		} else {
 			httpClient = theClient;
+			httpClientOwnership = HttpClientOwnership.EXTERNAL;
 		}
-		httpClient.setUserAgentField( new HttpField( HttpHeader.USER_AGENT, theUserAgent ) );
 
 		if( theJsonFacility == null ) {
 		jsonFacility = new JsonTranslationFacility( new DataContractTypeSource( ) );
@@ -206,7 +254,7 @@ public class ResourceClient {
 		
 		// now that we have the json facility, let's 
 		// get the adapter for the result type
-		JavaType type = new JavaType( ResourceResult.class );
+		JavaType type = JavaType.of( ResourceResult.class );
 		JsonTypeMap typeMap = jsonFacility.generateTypeMap( type ); // TODO: technically I can, if I have the type of the result, now do the full thing (need to have a field for it)
 		resultTypeAdapter = new TypeFormatAdapter( 
 				type,
@@ -215,6 +263,54 @@ public class ResourceClient {
     			new ObjectToJsonObjectTranslator( typeMap ) );				
 	}
 	
+	/**
+	 * Opens connections to an endpoint, so early requests don't wait on connecting. 
+	 * The connections are opened in the background and, once open, wait in the 
+	 * connection pool of the endpoint.
+	 * @param theEndpoint the endpoint to connect to
+	 * @param theConnections the number of connections the endpoint should have
+	 */
+	private void preconnect( HttpEndpoint theEndpoint, int theConnections ) {
+		Destination destination = httpClient.getDestination( theEndpoint.getScheme( ), theEndpoint.getHost( ), theEndpoint.getPort( ) );
+		ConnectionPool connectionPool = destination instanceof HttpDestination ? ( ( HttpDestination )destination ).getConnectionPool( ) : null;
+		
+		// connections opened through the destination directly aren't put in its pool,
+		// so the pool is asked for connections instead, which only the jetty pools
+		// based on AbstractConnectionPool let us do without sending a request
+		if( !( connectionPool instanceof AbstractConnectionPool ) ) {
+			logger.warn( "Client for contract '{}' cannot open connections to endpoint '{}' ahead of requests since its connection pool, of type '{}', isn't supported.", this.contractRoot, theEndpoint, connectionPool == null ? null : connectionPool.getClass( ).getName( ) );
+		} else {
+			AbstractConnectionPool pool = ( AbstractConnectionPool )connectionPool;
+			List<Connection> idleConnections = new ArrayList<>( );
+			Connection connection;
+			
+			try {
+				// acquiring from the pool opens a connection if there isn't an idle one, and 
+				// the idle ones are held until we are done, so they aren't acquired again 
+				for( int attempt = 0; attempt < theConnections && pool.getConnectionCount( ) < theConnections; attempt += 1 ) {
+					connection = pool.acquire( );
+					if( connection != null ) {
+						idleConnections.add( connection );
+					}
+				}
+			} finally {
+				// every connection held is given back, and any the pool won't take 
+				// back are closed, so none are left held if something goes wrong 
+				for( Connection idleConnection : idleConnections ) {
+					try {
+						if( !pool.release( idleConnection ) ) {
+							idleConnection.close( );
+						}
+					} catch( RuntimeException e ) {
+						logger.warn( "Client for contract '{}' was unable to return a connection to endpoint '{}' to the pool.", this.contractRoot, theEndpoint, e );
+						idleConnection.close( );
+					}
+				}
+			}
+			logger.info( "Client for contract '{}' is opening {} connections to endpoint '{}'.", this.contractRoot, pool.getConnectionCount( ), theEndpoint );
+		}
+	}
+	
 	private void displayClientConfiguration( HttpClient theClient ) {
 		StringBuilder settingBuilder = new StringBuilder ();
 		
@@ -259,7 +355,8 @@ public class ResourceClient {
 }
 
 	/**
-	 * The endpoint that this client will communicate with
+	 * The endpoint that this client will communicate with, which, when 
+	 * balancing across endpoints, is the first endpoint at creation
 	 * @return the endpoint that this client will communicate with
 	 */
 	public final HttpEndpoint getEndpoint( ) {
@@ -301,6 +398,76 @@ public class ResourceClient {
 		return this.defaultMaxResponseSize;
 	}
 
+	/**
+	 * Indicates if body parameters are sent as a single json object
+	 * instead of url encoded as a form.
+	 * @return true if json objects are sent, false otherwise
+	 */
+	public final boolean getSendJsonBodies( ) {
+		return this.sendJsonBodies;
+	}
+
+	/**
+	 * The size, in bytes, above which json bodies are compressed using gzip.
+	 * @return the size, in bytes, or zero if bodies are never compressed
+	 */
+	public final int getBodyCompressionThreshold( ) {
+		return this.bodyCompressionThreshold;
+	}
+
+	/**
+	 * Indicates if the service is asked to respond using the compact 
+	 * binary format instead of json.
+	 * @return true if the binary format is requested, false otherwise
+	 */
+	public final boolean getPreferBinaryResponses( ) {
+		return this.preferBinaryResponses;
+	}
+
+	/**
+	 * Indicates if methods, by default, parse responses as they arrive 
+	 * instead of buffering them first. Methods may have different values.
+	 * @return true if responses are streamed by default, false otherwise
+	 */
+	public final boolean getStreamResponses( ) {
+		return this.streamResponses;
+	}
+
+	/**
+	 * The cache holding responses to GET requests.
+	 * @return the response cache, or null if responses are not cached
+	 */
+	public final ResourceResponseCache getResponseCache( ) {
+		return this.responseCache;
+	}
+
+	/**
+	 * The budget limiting the retries and hedged requests made by methods
+	 * with those policies.
+	 * @return the retry budget
+	 */
+	public final RetryBudget getRetryBudget( ) {
+		return this.retryBudget;
+	}
+
+	/**
+	 * The circuit breaker for the endpoint, used by methods that don't have 
+	 * their own. When balancing, each endpoint has its own breaker instead.
+	 * @return the circuit breaker, or null if there isn't one or the client is balancing
+	 */
+	public final CircuitBreaker getCircuitBreaker( ) {
+		return this.circuitBreaker;
+	}
+
+	/**
+	 * The load balancer spreading requests across endpoints, when there is
+	 * more than a single endpoint.
+	 * @return the load balancer, or null if there is a single endpoint
+	 */
+	public final LoadBalancer getLoadBalancer( ) {
+		return this.loadBalancer;
+	}
+
 	/**
 	 * Returns the current value of a header that will be overridden.
 	 * @param theName the header that was overridden
@@ -364,6 +531,184 @@ public class ResourceClient {
 		}
 	}
 	
+	/**
+	 * Registers the status values of the client, and the parts it uses, with 
+	 * the status manager given, under the block name given. This includes the 
+	 * response cache, the retry budget, and either the load balancer, which
+	 * summarizes the breakers of the endpoints, or the circuit breaker. If 
+	 * the underlying HttpClient is shared, the values of the HttpClientRegistry
+	 * are registered under their own block, once per status manager.
+	 * @param theManager the status manager to register with
+	 * @param theBlockName the name of the status block, e.g. the name of the contract
+	 */
+	public void registerStatus( StatusManager theManager, String theBlockName ) {
+		Preconditions.checkNotNull( theManager, "need a status manager" );
+		Preconditions.checkArgument( !Strings.isNullOrEmpty( theBlockName ), "need a block name" );
+		
+		theManager.register( theBlockName, this );
+		theManager.register( theBlockName, this.retryBudget );
+		if( this.responseCache != null ) {
+			theManager.register( theBlockName, this.responseCache );
+		}
+		if( this.loadBalancer != null ) {
+			theManager.register( theBlockName, this.loadBalancer );
+		} else if( this.circuitBreaker != null ) {
+			theManager.register( theBlockName, this.circuitBreaker );
+		}
+		if( this.httpClientOwnership == HttpClientOwnership.SHARED ) {
+			synchronized( theManager ) {
+				boolean registered = false;
+				for( StatusBlock block : theManager.getStatusBlocks( ) ) {
+					registered |= block.getName( ).equals( SHARED_CLIENTS_BLOCK_NAME );
+				}
+				if( !registered ) {
+					theManager.register( SHARED_CLIENTS_BLOCK_NAME, HttpClientRegistry.getInstance( ) );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Returns the number of requests that, instead of making their own call 
+	 * to the service, shared the call of an identical in-flight request.
+	 * @return the number of requests saved by coalescing
+	 */
+	@MonitorableStatusValue( name = "coalesced_requests", description = "The total number of requests that shared the call of an identical in-flight request instead of making their own." )
+	public long getCoalescedRequests( ) {
+		return this.coalescedRequests.get( );
+	}
+	
+	/**
+	 * Returns the number of connections the underlying HttpClient has open, or is opening.
+	 * When the HttpClient is shared, this includes the connections of the other clients.
+	 * @return the number of connections
+	 */
+	@MonitorableStatusValue( name = "http_connections", description = "The number of connections the underlying HttpClient has open, or is opening, which includes those of other clients sharing it." )
+	public int getConnections( ) {
+		int connections = 0;
+		for( HttpDestination destination : getDestinations( ) ) {
+			if( destination.getConnectionPool( ) instanceof AbstractConnectionPool ) {
+				connections += ( ( AbstractConnectionPool )destination.getConnectionPool( ) ).getConnectionCount( );
+			}
+		}
+		return connections;
+	}
+
+	/**
+	 * Returns the number of HTTP/1.1 connections the underlying HttpClient has in use.
+	 * When the HttpClient is shared, this includes the connections of the other clients.
+	 * @return the number of connections in use
+	 */
+	@MonitorableStatusValue( name = "http_active_connections", description = "The number of HTTP/1.1 connections the underlying HttpClient has in use, which includes those of other clients sharing it." )
+	public int getActiveConnections( ) {
+		int connections = 0;
+		for( HttpDestination destination : getDestinations( ) ) {
+			if( destination.getConnectionPool( ) instanceof DuplexConnectionPool ) {
+				connections += ( ( DuplexConnectionPool )destination.getConnectionPool( ) ).getActiveConnectionCount( );
+			}
+		}
+		return connections;
+	}
+
+	/**
+	 * Returns the number of HTTP/1.1 connections the underlying HttpClient has open but idle.
+	 * When the HttpClient is shared, this includes the connections of the other clients.
+	 * @return the number of idle connections
+	 */
+	@MonitorableStatusValue( name = "http_idle_connections", description = "The number of HTTP/1.1 connections the underlying HttpClient has open but idle, which includes those of other clients sharing it." )
+	public int getIdleConnections( ) {
+		int connections = 0;
+		for( HttpDestination destination : getDestinations( ) ) {
+			if( destination.getConnectionPool( ) instanceof DuplexConnectionPool ) {
+				connections += ( ( DuplexConnectionPool )destination.getConnectionPool( ) ).getIdleConnectionCount( );
+			}
+		}
+		return connections;
+	}
+
+	/**
+	 * Returns the percentage of the HTTP/1.1 connections the underlying HttpClient can open that are in use.
+	 * @return the percentage of connections in use
+	 */
+	@MonitorableStatusValue( name = "http_connection_utilization", description = "The percentage of the HTTP/1.1 connections the underlying HttpClient can open that are in use." )
+	public double getConnectionUtilization( ) {
+		int activeConnections = 0;
+		int maxConnections = 0;
+		for( HttpDestination destination : getDestinations( ) ) {
+			if( destination.getConnectionPool( ) instanceof DuplexConnectionPool ) {
+				activeConnections += ( ( DuplexConnectionPool )destination.getConnectionPool( ) ).getActiveConnectionCount( );
+				maxConnections += ( ( DuplexConnectionPool )destination.getConnectionPool( ) ).getMaxConnectionCount( );
+			}
+		}
+		return maxConnections == 0 ? 0.0 : activeConnections * 100.0 / maxConnections;
+	}
+
+	/**
+	 * Returns the number of requests waiting on a connection, or, for HTTP/2, a stream.
+	 * When the HttpClient is shared, this includes the requests of the other clients.
+	 * @return the number of queued requests
+	 */
+	@MonitorableStatusValue( name = "http_queued_requests", description = "The number of requests waiting on a connection, or for HTTP/2 a stream, which includes those of other clients sharing the underlying HttpClient." )
+	public int getQueuedRequests( ) {
+		int requests = 0;
+		for( HttpDestination destination : getDestinations( ) ) {
+			requests += destination.getQueuedRequestCount( );
+		}
+		return requests;
+	}
+	
+	/**
+	 * Returns the destinations of the underlying HttpClient, one for each endpoint it has communicated with.
+	 */
+	private List<HttpDestination> getDestinations( ) {
+		List<HttpDestination> destinations = new ArrayList<>( );
+		for( Destination destination : httpClient.getDestinations( ) ) {
+			if( destination instanceof HttpDestination ) {
+				destinations.add( ( HttpDestination )destination );
+			}
+		}
+		return destinations;
+	}
+	
+	/**
+	 * Closes the client, which releases the underlying HttpClient if it is 
+	 * shared, stops it if it was created for this client, and leaves it alone
+	 * if it was given to the client. Requests should not be made afterwards.
+	 */
+	public void close( ) {
+		if( closed.compareAndSet( false, true ) ) {
+			if( httpClientOwnership == HttpClientOwnership.SHARED ) {
+				HttpClientRegistry.getInstance( ).release( httpClient );
+			} else if( httpClientOwnership == HttpClientOwnership.OWNED ) {
+				try {
+					httpClient.stop( );
+				} catch( Exception e ) {
+					logger.warn( "Unable to stop the client for contract '{}'.", this.contractRoot, e );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Registers the future as the in-flight call for the key given, unless there 
+	 * already is one that can be joined, in which case the request joins that one.
+	 * A call cannot be joined once every request sharing it has cancelled. The 
+	 * call is unregistered once it completes, which includes being cancelled.
+	 * @param theKey the key identifying the request
+	 * @param theFuture the future of the call about to be made
+	 * @return the in-flight call to share, which is for the future given if it was registered
+	 */
+	<T> InFlightRequest<T> registerInFlightRequest( String theKey, CompletableFuture<T> theFuture ) {
+		@SuppressWarnings("unchecked")
+		InFlightRequest<T> inFlightRequest = ( InFlightRequest<T> )this.inFlightRequests.compute( theKey, ( key, existingRequest ) -> existingRequest != null && existingRequest.join( ) ? existingRequest : new InFlightRequest<T>( theFuture ) );
+		if( inFlightRequest.getFuture( ) == theFuture ) {
+			theFuture.whenComplete( ( result, failure ) -> this.inFlightRequests.remove( theKey, inFlightRequest ) );
+		} else {
+			this.coalescedRequests.incrementAndGet( );
+		}
+		return inFlightRequest;
+	}
+	
 	/**
 	 * Retrieves the method at the specified index.
 	 * An exception is thrown if the index is out of bounds.
@@ -418,7 +763,7 @@ public class ResourceClient {
 	 * @return
 	 */
 	protected ResourceMethod defineMethod( String theName, Type theReturnType, HttpVerb theHttpVerb, String theMethodPath ) {
-		return this.defineMethod(theName, new JavaType( theReturnType ), theHttpVerb, theMethodPath);
+		return this.defineMethod(theName, JavaType.of( theReturnType ), theHttpVerb, theMethodPath);
 	}
 	
 	/**
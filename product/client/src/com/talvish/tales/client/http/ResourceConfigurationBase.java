@@ -15,6 +15,8 @@
 // ***************************************************************************
 package com.talvish.tales.client.http;
 
+import java.util.List;
+
 import com.google.common.base.Strings;
 
 import com.talvish.tales.client.http.ResourceConfigurationBase;
@@ -32,12 +34,101 @@ import com.talvish.tales.validation.OnValidation;
 @Settings( )
 abstract public class ResourceConfigurationBase <T extends ResourceConfigurationBase> {
 	
-	@Setting( name="{prefix}.endpoint", required=true )
+	@Setting( name="{prefix}.endpoint" )
 	private String endpoint;
 	
+	@Setting( name="{prefix}.endpoints" )
+	private List<String> endpoints;
+	
+	@Setting( name="{prefix}.endpoints_file" )
+	private String endpointsFile;
+	
+	private EndpointProvider endpointProvider;
+	
+	@Setting( name="{prefix}.endpoint_ejection_failures" )
+	private int endpointEjectionFailures = 5;
+	
+	@Setting( name="{prefix}.endpoint_ejection_duration" )
+	private long endpointEjectionDuration = 30000;
+	
 	@Setting( name="{prefix}.allow_untrusted_ssl" )
 	private boolean allowUntrustedSsl = false;
 	
+	@Setting( name="{prefix}.share_http_client" )
+	private boolean shareHttpClient = true;
+	
+	@Setting( name="{prefix}.max_connections_per_endpoint" )
+	private int maxConnectionsPerEndpoint = 64;
+	
+	@Setting( name="{prefix}.max_queued_requests_per_endpoint" )
+	private int maxQueuedRequestsPerEndpoint = 1024;
+	
+	@Setting( name="{prefix}.connection_idle_timeout" )
+	private long connectionIdleTimeout = 0;
+	
+	@Setting( name="{prefix}.preconnect_connections" )
+	private int preconnectConnections = 0;
+	
+	@Setting( name="{prefix}.use_http2" )
+	private boolean useHttp2 = false;
+	
+	@Setting( name="{prefix}.http2_max_connections_per_endpoint" )
+	private int http2MaxConnectionsPerEndpoint = 1;
+	
+	@Setting( name="{prefix}.http2_max_concurrent_streams" )
+	private int http2MaxConcurrentStreams = 128;
+	
+	@Setting( name="{prefix}.http2_session_receive_window" )
+	private int http2SessionReceiveWindow = 16 * 1024 * 1024;
+	
+	@Setting( name="{prefix}.http2_stream_receive_window" )
+	private int http2StreamReceiveWindow = 8 * 1024 * 1024;
+	
+	@Setting( name="{prefix}.send_json_bodies" )
+	private boolean sendJsonBodies = false;
+
+	@Setting( name="{prefix}.body_compression_threshold" )
+	private int bodyCompressionThreshold = 0;
+	
+	@Setting( name="{prefix}.prefer_binary_responses" )
+	private boolean preferBinaryResponses = false;
+
+	@Setting( name="{prefix}.stream_responses" )
+	private boolean streamResponses = false;
+	
+	@Setting( name="{prefix}.response_cache_entries" )
+	private int responseCacheEntries = 0;
+	
+	@Setting( name="{prefix}.response_cache_size" )
+	private long responseCacheSize = 16 * 1024 * 1024;
+	
+	@Setting( name="{prefix}.retry_budget_ratio" )
+	private double retryBudgetRatio = 0.1;
+	
+	@Setting( name="{prefix}.retry_budget_capacity" )
+	private int retryBudgetCapacity = 10;
+	
+	@Setting( name="{prefix}.circuit_breaker_window_size" )
+	private int circuitBreakerWindowSize = 0;
+	
+	@Setting( name="{prefix}.circuit_breaker_minimum_requests" )
+	private int circuitBreakerMinimumRequests = 20;
+	
+	@Setting( name="{prefix}.circuit_breaker_failure_rate_threshold" )
+	private double circuitBreakerFailureRateThreshold = 50.0;
+	
+	@Setting( name="{prefix}.circuit_breaker_slow_request_duration" )
+	private long circuitBreakerSlowRequestDuration = 5000;
+	
+	@Setting( name="{prefix}.circuit_breaker_slow_request_rate_threshold" )
+	private double circuitBreakerSlowRequestRateThreshold = 80.0;
+	
+	@Setting( name="{prefix}.circuit_breaker_open_duration" )
+	private long circuitBreakerOpenDuration = 30000;
+	
+	@Setting( name="{prefix}.circuit_breaker_half_open_requests" )
+	private int circuitBreakerHalfOpenRequests = 5;
+	
 	/**
 	 * Default constructor for serialization.
 	 */
@@ -45,7 +136,7 @@ abstract public class ResourceConfigurationBase <T extends ResourceConfiguration
 	}
 	
 	/**
-	 * Returns the endpoint to communicate with.
+	 * Returns the endpoint to communicate with, if there is a single endpoint.
 	 */
 	public String getEndpoint( ) {
 		return endpoint;
@@ -62,6 +153,100 @@ abstract public class ResourceConfigurationBase <T extends ResourceConfiguration
 		return ( T )this;
 	}
 	
+	/**
+	 * Returns the endpoints to balance requests across, if there is a fixed set of endpoints.
+	 */
+	public List<String> getEndpoints( ) {
+		return endpoints;
+	}
+	
+	/**
+	 * Sets the endpoints to balance requests across. The endpoints
+	 * are expected to all use the same scheme.
+	 * @param theEndpoints the endpoints to balance requests across
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setEndpoints( List<String> theEndpoints ) {
+		endpoints = theEndpoints;
+		return ( T )this;
+	}
+	
+	/**
+	 * Returns the file containing the endpoints to balance requests across, if the endpoints come from a file.
+	 */
+	public String getEndpointsFile( ) {
+		return endpointsFile;
+	}
+	
+	/**
+	 * Sets the file containing the endpoints to balance requests across,
+	 * one per line, which is checked periodically for changes.
+	 * @param theFile the name of the file containing the endpoints
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setEndpointsFile( String theFile ) {
+		endpointsFile = theFile;
+		return ( T )this;
+	}
+	
+	/**
+	 * Returns the provider of the endpoints to balance requests across, if one was given.
+	 */
+	public EndpointProvider getEndpointProvider( ) {
+		return endpointProvider;
+	}
+	
+	/**
+	 * Sets the provider of the endpoints to balance requests across, 
+	 * for endpoints that come from somewhere other than configuration.
+	 * @param theProvider the provider of the endpoints
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setEndpointProvider( EndpointProvider theProvider ) {
+		endpointProvider = theProvider;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of failures in a row that ejects an endpoint 
+	 * being balanced across. Zero means endpoints aren't ejected.
+	 */
+	public int getEndpointEjectionFailures( ) {
+		return endpointEjectionFailures;
+	}
+	
+	/**
+	 * Sets the number of failures in a row that ejects an endpoint being balanced across.
+	 * @param theFailures the number of failures, or zero to not eject endpoints
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setEndpointEjectionFailures( int theFailures ) {
+		endpointEjectionFailures = theFailures;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the time, in milliseconds, an ejected endpoint waits before it is probed.
+	 */
+	public long getEndpointEjectionDuration( ) {
+		return endpointEjectionDuration;
+	}
+	
+	/**
+	 * Sets the time, in milliseconds, an ejected endpoint waits before it is probed.
+	 * @param theDuration the time, in milliseconds
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setEndpointEjectionDuration( long theDuration ) {
+		endpointEjectionDuration = theDuration;
+		return ( T )this;
+	}
+	
 	/**
 	 * Indicates if SSL must be fully trusted and verified. 
 	 * If you are using self-signed certs then you must allow untrusted SSL.
@@ -83,8 +268,504 @@ abstract public class ResourceConfigurationBase <T extends ResourceConfiguration
 		return ( T )this;
 	}
 	
+	/**
+	 * Indicates if the client shares its underlying HttpClient, and so its threads
+	 * and connection pools, with other clients for the same endpoint and settings.
+	 */
+	public boolean getShareHttpClient( ) {
+		return shareHttpClient;
+	}
+	
+	/**
+	 * Sets whether the client shares its underlying HttpClient with other clients
+	 * for the same endpoint and settings.
+	 * @param share true means to share the HttpClient, false means to have its own
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setShareHttpClient( boolean share ) {
+		shareHttpClient = share;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of connections the client opens to each endpoint.
+	 */
+	public int getMaxConnectionsPerEndpoint( ) {
+		return maxConnectionsPerEndpoint;
+	}
+	
+	/**
+	 * Sets the maximum number of connections the client opens to each endpoint.
+	 * @param theMaxConnections the maximum number of connections
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setMaxConnectionsPerEndpoint( int theMaxConnections ) {
+		maxConnectionsPerEndpoint = theMaxConnections;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of requests, to each endpoint, that can wait on a connection.
+	 */
+	public int getMaxQueuedRequestsPerEndpoint( ) {
+		return maxQueuedRequestsPerEndpoint;
+	}
+	
+	/**
+	 * Sets the maximum number of requests, to each endpoint, that can wait on a connection.
+	 * @param theMaxQueuedRequests the maximum number of requests
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setMaxQueuedRequestsPerEndpoint( int theMaxQueuedRequests ) {
+		maxQueuedRequestsPerEndpoint = theMaxQueuedRequests;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the time, in milliseconds, before idle connections are closed.
+	 * Zero, the default, means idle connections are kept open.
+	 */
+	public long getConnectionIdleTimeout( ) {
+		return connectionIdleTimeout;
+	}
+	
+	/**
+	 * Sets the time, in milliseconds, before idle connections are closed.
+	 * @param theTimeout the time, in milliseconds, or zero to keep idle connections open
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setConnectionIdleTimeout( long theTimeout ) {
+		connectionIdleTimeout = theTimeout;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of connections to open to each endpoint when the
+	 * client is created, so early requests don't wait on connecting.
+	 */
+	public int getPreconnectConnections( ) {
+		return preconnectConnections;
+	}
+	
+	/**
+	 * Sets the number of connections to open to each endpoint when the client is created.
+	 * @param theConnections the number of connections, or zero to connect as requests are made
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setPreconnectConnections( int theConnections ) {
+		preconnectConnections = theConnections;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates if the client communicates using HTTP/2, which multiplexes concurrent
+	 * requests on a connection, instead of HTTP/1.1. HTTP/2 is negotiated using ALPN 
+	 * for secure endpoints and is used directly (h2c) for plain endpoints, so the 
+	 * service must have an HTTP/2 connector.
+	 */
+	public boolean getUseHttp2( ) {
+		return useHttp2;
+	}
+	
+	/**
+	 * Sets whether the client communicates using HTTP/2 instead of HTTP/1.1.
+	 * @param use true means to use HTTP/2, false means to use HTTP/1.1
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setUseHttp2( boolean use ) {
+		useHttp2 = use;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of HTTP/2 connections the client opens to each endpoint, 
+	 * which is used instead of the maximum connections per endpoint when using HTTP/2. 
+	 * Since requests are multiplexed, more than one connection is only needed when the 
+	 * concurrent requests to an endpoint exceed the streams a connection allows.
+	 */
+	public int getHttp2MaxConnectionsPerEndpoint( ) {
+		return http2MaxConnectionsPerEndpoint;
+	}
+	
+	/**
+	 * Sets the maximum number of HTTP/2 connections the client opens to each endpoint.
+	 * @param theMaxConnections the maximum number of connections
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setHttp2MaxConnectionsPerEndpoint( int theMaxConnections ) {
+		http2MaxConnectionsPerEndpoint = theMaxConnections;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of concurrent requests, as streams, on each HTTP/2 
+	 * connection, which is lowered if the service allows fewer.
+	 */
+	public int getHttp2MaxConcurrentStreams( ) {
+		return http2MaxConcurrentStreams;
+	}
+	
+	/**
+	 * Sets the maximum number of concurrent requests, as streams, on each HTTP/2 connection.
+	 * @param theStreams the maximum number of streams
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setHttp2MaxConcurrentStreams( int theStreams ) {
+		http2MaxConcurrentStreams = theStreams;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the size, in bytes, of the HTTP/2 flow-control window for each connection, 
+	 * which is how much response data the service can send before the client acknowledges it.
+	 */
+	public int getHttp2SessionReceiveWindow( ) {
+		return http2SessionReceiveWindow;
+	}
+	
+	/**
+	 * Sets the size, in bytes, of the HTTP/2 flow-control window for each connection.
+	 * @param theWindow the size of the window, in bytes
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setHttp2SessionReceiveWindow( int theWindow ) {
+		http2SessionReceiveWindow = theWindow;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the size, in bytes, of the HTTP/2 flow-control window for each request, 
+	 * which is how much response data the service can send before the client acknowledges it.
+	 */
+	public int getHttp2StreamReceiveWindow( ) {
+		return http2StreamReceiveWindow;
+	}
+	
+	/**
+	 * Sets the size, in bytes, of the HTTP/2 flow-control window for each request.
+	 * @param theWindow the size of the window, in bytes
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setHttp2StreamReceiveWindow( int theWindow ) {
+		http2StreamReceiveWindow = theWindow;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates if the client sends body parameters as a single json object, 
+	 * instead of url encoding them as a form. Complex values are written as 
+	 * json, instead of being escaped and url encoded, which keeps the body smaller.
+	 */
+	public boolean getSendJsonBodies( ) {
+		return sendJsonBodies;
+	}
+	
+	/**
+	 * Sets whether the client sends body parameters as a single json object instead of as a form.
+	 * @param send true means to send a json object, false means to send a form
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setSendJsonBodies( boolean send ) {
+		sendJsonBodies = send;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the size, in bytes, above which json bodies are compressed 
+	 * using gzip, or zero if they are never compressed.
+	 */
+	public int getBodyCompressionThreshold( ) {
+		return bodyCompressionThreshold;
+	}
+	
+	/**
+	 * Sets the size, in bytes, above which json bodies are compressed using gzip.
+	 * @param theThreshold the size, in bytes, or zero to never compress
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setBodyCompressionThreshold( int theThreshold ) {
+		bodyCompressionThreshold = theThreshold;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates if the client should ask the service to send responses using the 
+	 * compact binary format instead of json. Services that do not support the 
+	 * binary format will continue to send json.
+	 */
+	public boolean getPreferBinaryResponses( ) {
+		return preferBinaryResponses;
+	}
+	
+	/**
+	 * Sets whether the client should ask the service to send responses using the 
+	 * compact binary format instead of json.
+	 * @param prefer true means to ask for the binary format, false means to ask for json
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setPreferBinaryResponses( boolean prefer ) {
+		preferBinaryResponses = prefer;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates if the client should parse responses as they arrive, instead 
+	 * of buffering them first, which also means the maximum response size
+	 * doesn't apply to json responses.
+	 */
+	public boolean getStreamResponses( ) {
+		return streamResponses;
+	}
+	
+	/**
+	 * Sets whether the client should parse responses as they arrive, instead
+	 * of buffering them first. 
+	 * @param stream true means to parse responses as they arrive, false means to buffer them
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setStreamResponses( boolean stream ) {
+		streamResponses = stream;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of responses to GET requests the client 
+	 * will cache, based on the Cache-Control headers sent by the service. 
+	 * Zero, the default, means responses are not cached.
+	 */
+	public int getResponseCacheEntries( ) {
+		return responseCacheEntries;
+	}
+	
+	/**
+	 * Sets the maximum number of responses to GET requests the client will
+	 * cache. Cached requests are buffered, even if streaming was requested.
+	 * @param theEntries the maximum number of responses, or zero to not cache responses
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setResponseCacheEntries( int theEntries ) {
+		responseCacheEntries = theEntries;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the maximum number of bytes the responses cached by the client can hold.
+	 */
+	public long getResponseCacheSize( ) {
+		return responseCacheSize;
+	}
+	
+	/**
+	 * Sets the maximum number of bytes the responses cached by the client can hold.
+	 * @param theSize the maximum number of bytes
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setResponseCacheSize( long theSize ) {
+		responseCacheSize = theSize;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the fraction of requests, to methods with retry or hedge policies, 
+	 * that can be retried or hedged once the burst capacity is spent.
+	 */
+	public double getRetryBudgetRatio( ) {
+		return retryBudgetRatio;
+	}
+	
+	/**
+	 * Sets the fraction of requests, to methods with retry or hedge policies,
+	 * that can be retried or hedged once the burst capacity is spent.
+	 * @param theRatio the fraction of requests
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setRetryBudgetRatio( double theRatio ) {
+		retryBudgetRatio = theRatio;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of retries, or hedged requests, that can be made in a burst.
+	 */
+	public int getRetryBudgetCapacity( ) {
+		return retryBudgetCapacity;
+	}
+	
+	/**
+	 * Sets the number of retries, or hedged requests, that can be made in a burst.
+	 * @param theCapacity the number of retries
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setRetryBudgetCapacity( int theCapacity ) {
+		retryBudgetCapacity = theCapacity;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of recent requests the circuit breaker of each 
+	 * endpoint watches. Zero, the default, means there aren't circuit breakers.
+	 */
+	public int getCircuitBreakerWindowSize( ) {
+		return circuitBreakerWindowSize;
+	}
+	
+	/**
+	 * Sets the number of recent requests the circuit breaker of each endpoint watches.
+	 * @param theWindowSize the number of requests, or zero to not have circuit breakers
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerWindowSize( int theWindowSize ) {
+		circuitBreakerWindowSize = theWindowSize;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of requests the circuit breaker needs to have watched before it can open.
+	 */
+	public int getCircuitBreakerMinimumRequests( ) {
+		return circuitBreakerMinimumRequests;
+	}
+	
+	/**
+	 * Sets the number of requests the circuit breaker needs to have watched before it can open.
+	 * @param theMinimumRequests the number of requests
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerMinimumRequests( int theMinimumRequests ) {
+		circuitBreakerMinimumRequests = theMinimumRequests;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the percentage of failed requests at which the circuit breaker opens.
+	 */
+	public double getCircuitBreakerFailureRateThreshold( ) {
+		return circuitBreakerFailureRateThreshold;
+	}
+	
+	/**
+	 * Sets the percentage of failed requests at which the circuit breaker opens.
+	 * @param theThreshold the percentage
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerFailureRateThreshold( double theThreshold ) {
+		circuitBreakerFailureRateThreshold = theThreshold;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the time, in milliseconds, at which the circuit breaker considers requests slow.
+	 */
+	public long getCircuitBreakerSlowRequestDuration( ) {
+		return circuitBreakerSlowRequestDuration;
+	}
+	
+	/**
+	 * Sets the time, in milliseconds, at which the circuit breaker considers requests slow.
+	 * @param theDuration the time, in milliseconds
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerSlowRequestDuration( long theDuration ) {
+		circuitBreakerSlowRequestDuration = theDuration;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the percentage of slow requests at which the circuit breaker opens.
+	 */
+	public double getCircuitBreakerSlowRequestRateThreshold( ) {
+		return circuitBreakerSlowRequestRateThreshold;
+	}
+	
+	/**
+	 * Sets the percentage of slow requests at which the circuit breaker opens.
+	 * @param theThreshold the percentage
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerSlowRequestRateThreshold( double theThreshold ) {
+		circuitBreakerSlowRequestRateThreshold = theThreshold;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the time, in milliseconds, the circuit breaker stays open before sending trial requests.
+	 */
+	public long getCircuitBreakerOpenDuration( ) {
+		return circuitBreakerOpenDuration;
+	}
+	
+	/**
+	 * Sets the time, in milliseconds, the circuit breaker stays open before sending trial requests.
+	 * @param theDuration the time, in milliseconds
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerOpenDuration( long theDuration ) {
+		circuitBreakerOpenDuration = theDuration;
+		return ( T )this;
+	}
+	
+	/**
+	 * Indicates the number of trial requests the circuit breaker sends when half-open.
+	 */
+	public int getCircuitBreakerHalfOpenRequests( ) {
+		return circuitBreakerHalfOpenRequests;
+	}
+	
+	/**
+	 * Sets the number of trial requests the circuit breaker sends when half-open.
+	 * @param theRequests the number of trial requests
+	 * @return the configuration object so setters can be chained
+	 */
+	@SuppressWarnings("unchecked")
+	public T setCircuitBreakerHalfOpenRequests( int theRequests ) {
+		circuitBreakerHalfOpenRequests = theRequests;
+		return ( T )this;
+	}
+	
 	@OnValidation
 	public void validate( ) {
-		Conditions.checkConfiguration( !Strings.isNullOrEmpty( endpoint ), "the endpoint is either null or empty" );
+		int endpointSources = ( !Strings.isNullOrEmpty( endpoint ) ? 1 : 0 ) + ( endpoints != null && endpoints.size( ) > 0 ? 1 : 0 ) + ( !Strings.isNullOrEmpty( endpointsFile ) ? 1 : 0 ) + ( endpointProvider != null ? 1 : 0 );
+		Conditions.checkConfiguration( endpointSources > 0, "an endpoint, endpoints, an endpoints file or an endpoint provider is needed" );
+		Conditions.checkConfiguration( endpointSources == 1, "only one of an endpoint, endpoints, an endpoints file or an endpoint provider can be given" );
+		Conditions.checkConfiguration( endpointEjectionFailures >= 0, "the endpoint ejection failures cannot be negative" );
+		Conditions.checkConfiguration( endpointEjectionDuration >= 0, "the endpoint ejection duration cannot be negative" );
+		Conditions.checkConfiguration( maxConnectionsPerEndpoint > 0, "the maximum connections per endpoint must be positive" );
+		Conditions.checkConfiguration( maxQueuedRequestsPerEndpoint > 0, "the maximum queued requests per endpoint must be positive" );
+		Conditions.checkConfiguration( connectionIdleTimeout >= 0, "the connection idle timeout cannot be negative" );
+		Conditions.checkConfiguration( http2MaxConnectionsPerEndpoint > 0, "the HTTP/2 maximum connections per endpoint must be positive" );
+		Conditions.checkConfiguration( preconnectConnections >= 0 && preconnectConnections <= ( useHttp2 ? http2MaxConnectionsPerEndpoint : maxConnectionsPerEndpoint ), "the preconnect connections cannot be negative or more than the maximum connections per endpoint" );
+		Conditions.checkConfiguration( http2MaxConcurrentStreams > 0, "the HTTP/2 maximum concurrent streams must be positive" );
+		Conditions.checkConfiguration( http2SessionReceiveWindow >= 65535, "the HTTP/2 session receive window cannot be less than the HTTP/2 default of 65535 bytes" );
+		Conditions.checkConfiguration( http2StreamReceiveWindow >= 65535, "the HTTP/2 stream receive window cannot be less than the HTTP/2 default of 65535 bytes" );
+		Conditions.checkConfiguration( bodyCompressionThreshold >= 0, "the body compression threshold cannot be negative" );
+		Conditions.checkConfiguration( responseCacheEntries >= 0, "the response cache entries cannot be negative" );
+		Conditions.checkConfiguration( responseCacheSize > 0, "the response cache size must be positive" );
+		Conditions.checkConfiguration( retryBudgetRatio >= 0.0, "the retry budget ratio cannot be negative" );
+		Conditions.checkConfiguration( retryBudgetCapacity >= 0, "the retry budget capacity cannot be negative" );
+		Conditions.checkConfiguration( circuitBreakerWindowSize >= 0, "the circuit breaker window size cannot be negative" );
 	}
 }
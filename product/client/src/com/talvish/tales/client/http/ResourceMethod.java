@@ -60,6 +60,8 @@ public class ResourceMethod {
 	private final String name; 			// the name given to the method
 	private final String methodPath;	// e.g. sign_in
 	private final String methodUrl;
+	private final String[] urlSegments; // the literal parts of the url, which surround the path parameters
+	private final int urlSegmentsLength; // the combined length of the literal parts, to size the url
 	private final ResourceMethodReturn returnType;
 	private final HttpVerb httpVerb;
 	
@@ -82,6 +84,12 @@ public class ResourceMethod {
 	private final Map<String,ResourceMethodParameter> externalHeaderParameters = Collections.unmodifiableMap( headerParameters );;
 	
 	private volatile int maxResponseSize		; // the maximum size, in bytes, that the response buffer can hold
+	private volatile boolean streamResponse		; // indicates if responses are parsed as they arrive, instead of being buffered
+	private volatile boolean coalesceRequests	; // indicates if identical concurrent requests share one call to the service
+	private volatile RetryPolicy retryPolicy	; // how failed requests are retried, null if they are not
+	private volatile HedgePolicy hedgePolicy	; // when requests are hedged, null if they are not
+	private final LatencyWindow latencies = new LatencyWindow( ); // the recent latencies, for hedging
+	private volatile CircuitBreaker circuitBreaker; // the breaker for just this method, null to use the client's breakers
 	private final ResourceClient client;
 	
 	/**
@@ -105,7 +113,14 @@ public class ResourceMethod {
 		returnType = new ResourceMethodReturn( theReturnType );// this will do validation (e.g. not null ) of the return type
 		httpVerb = theHttpVerb;
 		methodPath = theMethodPath;
-		methodUrl = generateUrl( theMethodPath, theClient, pathParameterNames );
+		List<String> segments = new ArrayList<String>( );
+		methodUrl = generateUrl( theMethodPath, theClient, pathParameterNames, segments );
+		urlSegments = segments.toArray( new String[ segments.size( ) ] );
+		int segmentsLength = 0;
+		for( String segment : urlSegments ) {
+			segmentsLength += segment.length( );
+		}
+		urlSegmentsLength = segmentsLength;
 		
 		pathParameters = new ArrayList<ResourceMethodParameter>( pathParameterNames.size( ) );
 		externalPathParameters = Collections.unmodifiableList( pathParameters );
@@ -123,6 +138,7 @@ public class ResourceMethod {
 		}
 		client = theClient;
 		maxResponseSize = theClient.getDefaultMaxResponseSize();
+		streamResponse = theClient.getStreamResponses( );
 	}
 	
 	/**
@@ -160,6 +176,34 @@ public class ResourceMethod {
 		return methodUrl;
 	}
 	
+	/**
+	 * Generates the URL to call for the values of the path parameters given. 
+	 * The values are translated and URL encoded directly into the URL, using 
+	 * the literal parts of the URL found when the method was created, instead 
+	 * of formatting the URL returned by getMethodUrl.
+	 * @param thePathParameters the values of the path parameters, in path order
+	 * @return the URL to call
+	 */
+	public String generateRequestUrl( Object ... thePathParameters ) {
+		int parameterCount = thePathParameters == null ? 0 : thePathParameters.length;
+		Preconditions.checkArgument( parameterCount == pathParameters.size( ), "method '%s' needs %s path parameters but %s were given", this.name, pathParameters.size( ), parameterCount );
+		
+		StringBuilder urlBuilder = new StringBuilder( urlSegmentsLength + parameterCount * 16 );
+		ResourceMethodParameter parameter;
+		String value;
+		
+		for( int index = 0; index < parameterCount; index += 1 ) {
+			parameter = pathParameters.get( index );
+			Preconditions.checkState( parameter != null, "method '%s' does not have a definition for the path parameter at index '%s'", this.name, index );
+			value = ( String )parameter.getTranslator( ).translate( thePathParameters[ index ] );
+			Preconditions.checkArgument( value != null, "method '%s' cannot use a null value for path parameter '%s'", this.name, parameter.getName( ) );
+			urlBuilder.append( urlSegments[ index ] );
+			UrlEncoding.encode( value, urlBuilder ); // path parameters are encoded here, not by the translator
+		}
+		urlBuilder.append( urlSegments[ parameterCount ] );
+		return urlBuilder.toString( );
+	}
+	
 	/**
 	 * The HTTP verb (e.g. GET, POST, PUT, etc.) that this method will use.
 	 * @return the HTTP verb to be used to call the service
@@ -189,6 +233,143 @@ public class ResourceMethod {
 		return this;
 	}
 	
+	/**
+	 * Indicates if responses are parsed as they arrive, instead of being
+	 * buffered first. Streamed json responses are not limited by the maximum
+	 * response size, though binary responses still are. 
+	 * @return true if responses are streamed, false if buffered
+	 */
+	public final boolean getStreamResponse( ) {
+		return this.streamResponse;
+	}
+	
+	/**
+	 * Sets whether responses are parsed as they arrive, instead of being
+	 * buffered first. Streamed json responses are not limited by the maximum 
+	 * response size, though binary responses still are, and need a thread to 
+	 * read them, so they only apply to synchronous calls and asynchronous calls 
+	 * given an executor. Iterator, Stream and Iterable return values are read as 
+	 * the caller walks them, so the status and operation information is only 
+	 * available once they have been walked, and callers that stop early should 
+	 * close the stream, or iterator, so the rest of the response isn't left unread.
+	 * @param shouldStream true to stream responses, false to buffer them
+	 * @return the ResourceMethod again, so calls can be strung together
+	 */
+	public final ResourceMethod setStreamResponse( boolean shouldStream ) {
+		this.streamResponse = shouldStream;
+		return this;
+	}
+	
+	/**
+	 * Indicates if concurrent, identical, requests share one call to the service,
+	 * and the resulting ResourceResult, instead of each making their own call.
+	 * @return true if identical concurrent requests are coalesced, false otherwise
+	 */
+	public final boolean getCoalesceRequests( ) {
+		return this.coalesceRequests;
+	}
+	
+	/**
+	 * Sets whether concurrent, identical, requests share one call to the service,
+	 * and the resulting ResourceResult, instead of each making their own call.
+	 * Requests are identical if they have the same url, which includes the version,
+	 * and the same parameters, cookies and headers, including header overrides.
+	 * Since the call is shared, cancelling the future of one of the requests
+	 * only aborts the call once every request sharing it has cancelled. Requests
+	 * with streamed responses are not coalesced, since the response is read as
+	 * the caller walks it. This is only supported for idempotent verbs.
+	 * @param shouldCoalesce true to coalesce identical requests, false to not
+	 * @return the ResourceMethod again, so calls can be strung together
+	 */
+	public final ResourceMethod setCoalesceRequests( boolean shouldCoalesce ) {
+		Preconditions.checkArgument( !shouldCoalesce || this.httpVerb != HttpVerb.POST, "method '%s' cannot coalesce requests since it uses the non-idempotent verb '%s'", this.getName( ), this.httpVerb.getValue( ) );
+		this.coalesceRequests = shouldCoalesce;
+		return this;
+	}
+	
+	/**
+	 * The policy describing how failed requests are retried.
+	 * @return the retry policy, or null if requests are not retried
+	 */
+	public final RetryPolicy getRetryPolicy( ) {
+		return this.retryPolicy;
+	}
+	
+	/**
+	 * Sets the policy describing how failed requests are retried. Requests
+	 * that can be retried are buffered, even if streaming was requested.
+	 * This is only supported for idempotent verbs.
+	 * @param thePolicy the retry policy, or null to not retry requests
+	 * @return the ResourceMethod again, so calls can be strung together
+	 */
+	public final ResourceMethod setRetryPolicy( RetryPolicy thePolicy ) {
+		Preconditions.checkArgument( thePolicy == null || this.httpVerb != HttpVerb.POST, "method '%s' cannot retry requests since it uses the non-idempotent verb '%s'", this.getName( ), this.httpVerb.getValue( ) );
+		this.retryPolicy = thePolicy;
+		return this;
+	}
+	
+	/**
+	 * The policy describing when requests are hedged.
+	 * @return the hedge policy, or null if requests are not hedged
+	 */
+	public final HedgePolicy getHedgePolicy( ) {
+		return this.hedgePolicy;
+	}
+	
+	/**
+	 * Sets the policy describing when requests are hedged. Requests 
+	 * that can be hedged are buffered, even if streaming was requested.
+	 * This is only supported for idempotent verbs.
+	 * @param thePolicy the hedge policy, or null to not hedge requests
+	 * @return the ResourceMethod again, so calls can be strung together
+	 */
+	public final ResourceMethod setHedgePolicy( HedgePolicy thePolicy ) {
+		Preconditions.checkArgument( thePolicy == null || this.httpVerb != HttpVerb.POST, "method '%s' cannot hedge requests since it uses the non-idempotent verb '%s'", this.getName( ), this.httpVerb.getValue( ) );
+		this.hedgePolicy = thePolicy;
+		return this;
+	}
+	
+	/**
+	 * The circuit breaker guarding requests of just this method.
+	 * @return the circuit breaker, or null if requests use the breakers the client has for its endpoints
+	 */
+	public final CircuitBreaker getCircuitBreaker( ) {
+		return this.circuitBreaker;
+	}
+	
+	/**
+	 * Sets the circuit breaker guarding requests, which allows a method to have its 
+	 * own breaker, used for all endpoints, instead of the ones the client has for them.
+	 * @param theBreaker the circuit breaker, or null to use the client's breakers
+	 * @return the ResourceMethod again, so calls can be strung together
+	 */
+	public final ResourceMethod setCircuitBreaker( CircuitBreaker theBreaker ) {
+		this.circuitBreaker = theBreaker;
+		return this;
+	}
+	
+	/**
+	 * Returns the circuit breaker guarding a request to the endpoint given, which
+	 * is the method's own breaker, if it has one, or the breaker for the endpoint. 
+	 * @param theEndpointState the endpoint selected when balancing, or null if not balancing
+	 * @return the circuit breaker, or null if there isn't one
+	 */
+	final CircuitBreaker selectCircuitBreaker( LoadBalancer.EndpointState theEndpointState ) {
+		CircuitBreaker breaker = this.circuitBreaker;
+		if( breaker == null ) {
+			breaker = theEndpointState == null ? client.getCircuitBreaker( ) : theEndpointState.getCircuitBreaker( );
+		}
+		return breaker;
+	}
+	
+	/**
+	 * The recent latencies of the method, used for hedging.
+	 * @return the recent latencies
+	 */
+	LatencyWindow getLatencies( ) {
+		return this.latencies;
+	}
+	
 	/**
 	 * Indicates that a path parameter is expected by the service and it is expecting a particular type.
 	 * Using names is a convenience/debugging mechanism since setting path parameters is done in the 
@@ -198,7 +379,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod definePathParameter( String theName, Type theType ) {
-		return definePathParameter( theName, new JavaType( theType ) );
+		return definePathParameter( theName, JavaType.of( theType ) );
 	}
 
 	/**
@@ -231,7 +412,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod definePathParameter( int theIndex, Type theType ) {
-		return definePathParameter( theIndex, new JavaType( theType ) );
+		return definePathParameter( theIndex, JavaType.of( theType ) );
 	}
 
 	/**
@@ -259,7 +440,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod defineQueryParameter( String theName, Type theType ) {
-		return defineQueryParameter( theName, new JavaType( theType ) );
+		return defineQueryParameter( theName, JavaType.of( theType ) );
 	}
 	
 	/**
@@ -287,7 +468,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod defineBodyParameter( String theName, Type theType ) {
-		return defineBodyParameter( theName, new JavaType( theType ) );
+		return defineBodyParameter( theName, JavaType.of( theType ) );
 	}
 	
 	/**
@@ -316,7 +497,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod defineCookieParameter( String theName, Type theType ) {
-		return defineCookieParameter( theName, new JavaType( theType) );
+		return defineCookieParameter( theName, JavaType.of( theType) );
 	}
 	
 	/**
@@ -344,7 +525,7 @@ public class ResourceMethod {
 	 * @return the ResourceMethod again, so calls can be strung together
 	 */
 	public ResourceMethod defineHeaderParameter( String theName, Type theType ) {
-		return defineHeaderParameter( theName, new JavaType( theType ) );
+		return defineHeaderParameter( theName, JavaType.of( theType ) );
 	}
 	
 	/**
@@ -431,9 +612,10 @@ public class ResourceMethod {
 	 * Generates a version of the path that can be used for string formatting. 
 	 * @param thePath the path to generate a formatting path for
 	 * @param thePathParams collects the list of path parameters found
+	 * @param theUrlSegments collects the literal parts of the url, one more than the number of path parameters
 	 * @return the usable path
 	 */
-	private String generateUrl( String thePath, ResourceClient theClient, List<String> thePathParams ) {
+	private String generateUrl( String thePath, ResourceClient theClient, List<String> thePathParams, List<String> theUrlSegments ) {
 		StringBuilder pathBuilder = new StringBuilder( );
 		
 		Matcher parameterMatcher = PARAMETER_PATTERN.matcher( thePath );
@@ -450,6 +632,7 @@ public class ResourceMethod {
 		// we need to go through the path given, extract and store the parameters given and
 		// create a path we can use to generate requests
 		int lastEnd = 0;
+		int segmentStart = 0;
 		String helper;
 		// we start by looking for strings that match our parameter notion {name}
 		while( parameterMatcher.find( ) ) {
@@ -479,11 +662,15 @@ public class ResourceMethod {
 			// save the name for later
 			thePathParams.add( paramName );
 
+			// the literal part of the url before the parameter is kept, for generating request urls
+			theUrlSegments.add( pathBuilder.substring( segmentStart ) );
+
 			// now add the Java string formatting location BUT it is
 			// offset by the three first parameters (the base url, contract, version)
 			pathBuilder.append( "%" );
 			pathBuilder.append( thePathParams.size( ) ); // the format location is in order of the parameter itself 
 			pathBuilder.append( "$s" );
+			segmentStart = pathBuilder.length( );
 			lastEnd = parameterMatcher.end( );
 		}
 		if( lastEnd < thePath.length() ) {
@@ -492,7 +679,8 @@ public class ResourceMethod {
 			pathBuilder.append( helper );
 		}
 		pathBuilder.append( "?version=" ); 
-		pathBuilder.append( UrlEncoding.encode( theClient.getContractVersion( ) ) ); 
+		UrlEncoding.encode( theClient.getContractVersion( ), pathBuilder ); 
+		theUrlSegments.add( pathBuilder.substring( segmentStart ) );
 		return pathBuilder.toString( );
 	}
 }
@@ -18,17 +18,28 @@ package com.talvish.tales.client.http;
 import java.net.HttpCookie;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpField;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.util.Fields;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
 import com.talvish.tales.communication.CommunicationException;
+import com.talvish.tales.communication.DependencyException;
+import com.talvish.tales.communication.HeaderConstants;
+import com.talvish.tales.communication.HttpEndpoint;
+import com.talvish.tales.communication.HttpVerb;
 import com.talvish.tales.parts.translators.TranslationException;
-import com.talvish.tales.serialization.UrlEncoding;
+import com.talvish.tales.serialization.json.JsonBinaryFormat;
 
 /**
  * The class representing a request to a Tales-enabled service.
@@ -39,11 +50,11 @@ import com.talvish.tales.serialization.UrlEncoding;
  */
 public class ResourceRequest {
 	private static final Logger logger = LoggerFactory.getLogger( ResourceRequest.class );
+	private static final String BINARY_ACCEPT_VALUE = JsonBinaryFormat.MEDIA_TYPE + ", application/json;q=0.5";
 	
 	private final ResourceClient client;
 	private final ResourceMethod method;
 	private final Request request;
-	private final Object[] pathParameters;
 	private final Map<String,String> bodyParameters;
 	
 	/**
@@ -60,28 +71,14 @@ public class ResourceRequest {
 		client = theClient;
 		method = theMethod;
 		
-		// setup the path parameters
-		if( thePathParameters != null ) {
-			pathParameters = new Object[ thePathParameters.length ];
-			
-			// for the path parameters I need to 
-			ResourceMethodParameter parameter;
-			for( int index = 0; index < thePathParameters.length; index += 1 ) {
-				parameter = theMethod.getPathParameters( ).get( index );
-				// we are URL encoding the path parameter here instead of relying on it happening in the translator
-				pathParameters[ index ] = UrlEncoding.encode( ( String )parameter.getTranslator().translate( thePathParameters[ index ] ) ); 
-			}
-		} else {
-			pathParameters = null;
-		}
-		
 		// setup the storage for body parameters
 		bodyParameters = new HashMap<String, String>( theMethod.getBodyParameters().size( ) );
 		
 		// setup the underlying jetty HTTP client
 		request = client.getHttpClient()
-		.newRequest( String.format( method.getMethodUrl(), pathParameters ) )
-		.method( method.getHttpVerb().getValue() ); 
+		.newRequest( method.generateRequestUrl( thePathParameters ) )
+		.method( method.getHttpVerb().getValue() )
+		.agent( client.getUserAgent( ) ); // set here, instead of on the HttpClient, since it may be shared 
 	}
 	
 	/**
@@ -199,7 +196,7 @@ public class ResourceRequest {
 						this.method.getName(),
 						this.client.contractRoot } );
 
-		Future<ResourceResult<T>> future = _send( false );
+		Future<ResourceResult<T>> future = _send( false, null );
 		try {
 			return future.get();
 			
@@ -212,6 +209,10 @@ public class ResourceRequest {
 						String.format( "An exception occurred while attempting to communicate with '%s' but the cause was not recorded.",
 								this.method.getMethodUrl( ) ), 
 						e );
+			} else if( cause instanceof DependencyException ) {
+				// this is raised as is, since it indicates the service 
+				// is unavailable, as with an open circuit breaker
+				throw ( DependencyException )cause;
 			} else if( cause instanceof TranslationException ) {
 				throw new CommunicationException( 
 						String.format( "Unexpected data while converting response from '%s'. Verify that the defined parameter and return types match what is sent on the wire.", 
@@ -233,25 +234,56 @@ public class ResourceRequest {
 	 * @return the Future that can be used to get the results
 	 */
 	public <T> Future<ResourceResult<T>> send( ) {
+		return sendAsync( );
+	}
+
+	/**
+	 * This method is used to perform an asynchronous request to the service. The call
+	 * will not block. The returned future is completed on the thread that received
+	 * the response, so dependent stages should not block. Cancelling the future 
+	 * aborts the request.
+	 * @return the CompletableFuture that will be completed with the results
+	 */
+	public <T> CompletableFuture<ResourceResult<T>> sendAsync( ) {
+		return sendAsync( null );
+	}
+
+	/**
+	 * This method is used to perform an asynchronous request to the service. The call
+	 * will not block. The response is translated, and the returned future completed, 
+	 * on the executor given, which keeps the work off of the threads receiving 
+	 * responses. Cancelling the future aborts the request.
+	 * @param theExecutor the executor to translate the response on, or null to use the thread that received the response
+	 * @return the CompletableFuture that will be completed with the results
+	 */
+	public <T> CompletableFuture<ResourceResult<T>> sendAsync( Executor theExecutor ) {
 		logger.info( 
 				"Executing, asynchronously, resource method '{}' from contract '{}'.", new Object[] {
 						this.method.getName(),
 						this.client.contractRoot } );
-		return _send( true );
+		return _send( true, theExecutor );
 	}
 
 	/**
 	 * This is the private method that sets up the actual request to be made to the Tales
 	 * service, returning the future to allow getting at the results.
 	 * @param isAsync indicates if the original request was intended for async or not
+	 * @param theExecutor the executor to translate the response on, or null to use the thread that received the response
 	 * @return returns a structure containing the exact response from the service
-	 * @throws InterruptedException this occurs if the the request is interrupted
 	 */
-	private <T> Future<ResourceResult<T>> _send( boolean isAsync ) {
+	private <T> CompletableFuture<ResourceResult<T>> _send( boolean isAsync, Executor theExecutor ) {
 		// check to see if we have any body parameters to deal with
 		if( this.bodyParameters.size() > 0 ) {
 			// create the content provider with the body parameters
-			request.content( new BodyContentProvider( this.bodyParameters ) );
+			if( client.getSendJsonBodies( ) ) {
+				JsonBodyContentProvider contentProvider = new JsonBodyContentProvider( this.bodyParameters, method.getBodyParameters( ), client.getBodyCompressionThreshold( ) );
+				if( contentProvider.isCompressed( ) ) {
+					request.header( HttpHeader.CONTENT_ENCODING, JsonBodyContentProvider.GZIP_ENCODING );
+				}
+				request.content( contentProvider );
+			} else {
+				request.content( new BodyContentProvider( this.bodyParameters ) );
+			}
 		}
 		
 		// check to see if we have any header overrides to deal with
@@ -262,10 +294,179 @@ public class ResourceRequest {
 			}
 		}
 
-		// now setup the listener/future, and make the request
-		ResourceResponseFuture<T> future = new ResourceResponseFuture<T>( this, method.getMaxResponseSize(), isAsync );
-		request.send( future );
-		return future;
+		// if the client prefers the binary format we ask for it, but 
+		// still indicate json is okay for services that don't support it
+		if( client.getPreferBinaryResponses( ) ) {
+			request.header( HeaderConstants.ACCEPT, BINARY_ACCEPT_VALUE );
+		}
+
+		// see if the response can come from, or go into, the response cache
+		ResourceResponseCache cache = method.getHttpVerb( ) == HttpVerb.GET ? client.getResponseCache( ) : null;
+		String cacheKey = null;
+		ResourceResponseCache.CachedResponse cachedResponse = null;
+		if( cache != null ) {
+			cacheKey = ResourceResponseCache.generateKey( request, method.getHeaderParameters( ).keySet( ) );
+			cachedResponse = cache.get( cacheKey, request.getHeaders( ) );
+			if( cachedResponse == null ) {
+				cache.recordMiss( );
+			} else if( cachedResponse.isFresh( ) ) {
+				cache.recordHit( );
+				ResourceResponseFuture<T> future = new ResourceResponseFuture<T>( this, method.getMaxResponseSize(), isAsync, theExecutor, false );
+				future.completeFromCache( cachedResponse );
+				return future;
+			} else if( cachedResponse.getEntityTag( ) != null ) {
+				// stale, so we ask the service if what we have is still good
+				request.header( HttpHeader.IF_NONE_MATCH, cachedResponse.getEntityTag( ) );
+			} else {
+				cache.recordMiss( );
+				cachedResponse = null;
+			}
+		}
 
+		// now setup the listener/future, and what will make the request
+		CompletableFuture<ResourceResult<T>> future;
+		Runnable sender;
+		if( method.getRetryPolicy( ) != null || method.getHedgePolicy( ) != null ) {
+			// requests that may need to be sent more than once are always buffered
+			RetryingResponseFuture<T> retryingFuture = new RetryingResponseFuture<T>( this, isAsync, theExecutor );
+			if( cache != null ) {
+				retryingFuture.useCache( cache, cacheKey, cachedResponse );
+			}
+			future = retryingFuture;
+			sender = retryingFuture::start;
+		} else {
+			// streamed responses are read on the executor or, for synchronous calls, the calling 
+			// thread, since asynchronous calls without an executor have neither, they are buffered,
+			// as are responses that may be cached
+			boolean shouldStream = method.getStreamResponse( ) && ( !isAsync || theExecutor != null ) && cache == null;
+			// when balancing, the request is sent to the endpoint selected for it
+			LoadBalancer balancer = client.getLoadBalancer( );
+			LoadBalancer.EndpointState endpointState = balancer == null ? null : balancer.select( );
+			Request httpRequest = endpointState == null ? request : targetRequest( request, endpointState.getEndpoint( ) );
+			ResourceResponseFuture<T> responseFuture = new ResourceResponseFuture<T>( this, httpRequest, method.getMaxResponseSize(), isAsync, theExecutor, shouldStream );
+			if( cache != null ) {
+				responseFuture.useCache( cache, cacheKey, cachedResponse );
+			}
+			future = responseFuture;
+			sender = ( ) -> {
+				if( endpointState != null ) {
+					balancer.track( endpointState, responseFuture );
+				}
+				CircuitBreaker breaker = method.selectCircuitBreaker( endpointState );
+				if( breaker == null || breaker.permit( responseFuture ) ) {
+					httpRequest.send( responseFuture.getListener( ) );
+					responseFuture.onSent( );
+				} else {
+					responseFuture.completeExceptionally( breaker.createOpenException( httpRequest.getURI( ).toString( ) ) );
+				}
+			};
+		}
+		
+		if( method.getCoalesceRequests( ) && !method.getStreamResponse( ) ) {
+			// if an identical request is already in-flight we share its call, otherwise
+			// this request makes the call, and in both cases the caller gets their own
+			// future so that cancelling one only cancels the call once all sharing it
+			// have cancelled (streamed responses are read once, so are never shared)
+			InFlightRequest<ResourceResult<T>> inFlightRequest = client.registerInFlightRequest( generateInFlightKey( ), future );
+			if( inFlightRequest.getFuture( ) != future ) {
+				logger.debug( "Sharing in-flight request to resource method '{}' from contract '{}'.", this.method.getName( ), this.client.contractRoot );
+				return inFlightRequest.share( theExecutor );
+			} else {
+				CompletableFuture<ResourceResult<T>> sharedFuture = inFlightRequest.share( null );
+				sender.run( );
+				return sharedFuture;
+			}
+		} else {
+			sender.run( );
+			return future;
+		}
+	}
+	
+	/**
+	 * Creates a copy of an underlying request, which hasn't been sent, so it can be sent 
+	 * again. This copies the parts of the request the ResourceRequest sets up.
+	 * @param theRequest the request to copy
+	 * @return the copy of the request
+	 */
+	protected Request copyRequest( Request theRequest ) {
+		return copyRequest( theRequest, null );
+	}
+	
+	/**
+	 * Returns an underlying request, which hasn't been sent, that goes to the endpoint 
+	 * given, which is the request itself if it already goes there, or a copy if not.
+	 * @param theRequest the request to target
+	 * @param theEndpoint the endpoint the request should go to
+	 * @return the request going to the endpoint
+	 */
+	protected Request targetRequest( Request theRequest, HttpEndpoint theEndpoint ) {
+		if( theEndpoint.getScheme( ).equals( theRequest.getScheme( ) ) && theEndpoint.getHost( ).equals( theRequest.getHost( ) ) && theEndpoint.getPort( ) == theRequest.getPort( ) ) {
+			return theRequest;
+		} else {
+			return copyRequest( theRequest, theEndpoint );
+		}
+	}
+	
+	/**
+	 * Creates a copy of an underlying request, which hasn't been sent, so it can be sent 
+	 * again, possibly to a different endpoint. This copies the parts of the request the 
+	 * ResourceRequest sets up.
+	 * @param theRequest the request to copy
+	 * @param theEndpoint the endpoint the copy should go to, or null to go where the request goes
+	 * @return the copy of the request
+	 */
+	protected Request copyRequest( Request theRequest, HttpEndpoint theEndpoint ) {
+		Request copy = client.getHttpClient( )
+				.newRequest( theEndpoint == null ? theRequest.getHost( ) : theEndpoint.getHost( ), theEndpoint == null ? theRequest.getPort( ) : theEndpoint.getPort( ) )
+				.scheme( theEndpoint == null ? theRequest.getScheme( ) : theEndpoint.getScheme( ) )
+				.method( theRequest.getMethod( ) )
+				.version( theRequest.getVersion( ) )
+				.path( theRequest.getPath( ) )
+				.content( theRequest.getContent( ) )
+				.idleTimeout( theRequest.getIdleTimeout( ), TimeUnit.MILLISECONDS )
+				.timeout( theRequest.getTimeout( ), TimeUnit.MILLISECONDS );
+		
+		copy.getHeaders( ).clear( ); // the copy may get default headers, which the original already has
+		for( HttpField header : theRequest.getHeaders( ) ) {
+			copy.getHeaders( ).add( header );
+		}
+		for( Fields.Field parameter : theRequest.getParams( ) ) {
+			for( String value : parameter.getValues( ) ) {
+				copy.param( parameter.getName( ), value );
+			}
+		}
+		for( HttpCookie cookie : theRequest.getCookies( ) ) {
+			copy.cookie( cookie );
+		}
+		return copy;
+	}
+	
+	/**
+	 * Generates the key that identifies identical requests, which is based 
+	 * on everything sent to the service, so requests with the same key can
+	 * share a call.
+	 * @return the key for this request
+	 */
+	private String generateInFlightKey( ) {
+		StringBuilder builder = new StringBuilder( );
+		
+		builder.append( method.getName( ) );
+		builder.append( ' ' );
+		builder.append( method.getHttpVerb( ).getValue( ) );
+		builder.append( ' ' );
+		builder.append( ResourceResponseCache.generateKey( request, method.getHeaderParameters( ).keySet( ) ) ); // path, version, query parameters, cookies and header parameters
+		for( HttpField header : request.getHeaders( ) ) {
+			builder.append( '\n' );
+			builder.append( header.getName( ) );
+			builder.append( ':' );
+			builder.append( header.getValue( ) );
+		}
+		for( Map.Entry<String, String> bodyParameter : new TreeMap<String, String>( bodyParameters ).entrySet( ) ) {
+			builder.append( '\n' );
+			builder.append( bodyParameter.getKey( ) );
+			builder.append( '=' );
+			builder.append( bodyParameter.getValue( ) );
+		}
+		return builder.toString( );
 	}
 }
@@ -0,0 +1,481 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.net.HttpCookie;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.util.Fields;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * A cache of the responses a ResourceClient has received for GET requests,
+ * driven by the Cache-Control, ETag and Vary headers the service sends.
+ * Responses are keyed by the method url, which includes the contract 
+ * version, the query parameters, in a stable order, and the cookies, 
+ * and the values of the request headers named in the Vary header have to
+ * match for a cached response to be used. Only the most recent variant
+ * of a response is kept.
+ * <p>
+ * A response is served from the cache, without contacting the service, 
+ * while it is within its max-age. Once stale, or if the service indicated
+ * no-cache, the response is revalidated using its ETag, and responses 
+ * without an ETag are dropped. Stale responses are never served, which 
+ * also honours must-revalidate. Responses indicating no-store, or varying 
+ * on everything, are not kept. This is the private cache of a single
+ * client, so private responses are kept.
+ * <p>
+ * The cache is bounded by both the number of responses and the number of 
+ * bytes the responses hold, evicting the least recently used responses 
+ * first. Hit and miss counts are part of the status of the ResourceClient
+ * owning the cache.
+ * @author jmolnar
+ *
+ */
+public class ResourceResponseCache {
+	/**
+	 * A response held by the cache. The content is kept as it was received 
+	 * so each use translates its own copy of the result.
+	 */
+	static class CachedResponse {
+		private final String key;
+		private final byte[] content;
+		private final String encoding;
+		private final HttpFields headers;
+		private final String entityTag;
+		private final String[] varyNames;
+		private final String[] varyValues;
+		private final boolean mustRevalidate;
+		private final long size;
+		private volatile long expiration; // in System.nanoTime terms
+		
+		private CachedResponse( String theKey, byte[] theContent, String theEncoding, HttpFields theHeaders, String theEntityTag, String[] theVaryNames, String[] theVaryValues, boolean mustRevalidate, long theExpiration ) {
+			key = theKey;
+			content = theContent;
+			encoding = theEncoding;
+			headers = theHeaders;
+			entityTag = theEntityTag;
+			varyNames = theVaryNames;
+			varyValues = theVaryValues;
+			this.mustRevalidate = mustRevalidate;
+			expiration = theExpiration;
+			// the key is counted since it is kept twice, once for the map and once here 
+			size = theContent.length + theKey.length( ) * 4; 
+		}
+		
+		/**
+		 * The content of the response, as received.
+		 */
+		byte[] getContent( ) {
+			return content;
+		}
+		
+		/**
+		 * The character encoding of the content, which may be null.
+		 */
+		String getEncoding( ) {
+			return encoding;
+		}
+		
+		/**
+		 * The headers that came with the response.
+		 */
+		HttpFields getHeaders( ) {
+			return headers;
+		}
+		
+		/**
+		 * The ETag of the response, which may be null.
+		 */
+		String getEntityTag( ) {
+			return entityTag;
+		}
+		
+		/**
+		 * Indicates if the service asked that the response not be used once stale.
+		 */
+		boolean getMustRevalidate( ) {
+			return mustRevalidate;
+		}
+		
+		/**
+		 * Indicates if the response can be used without revalidating it.
+		 */
+		boolean isFresh( ) {
+			return expiration - System.nanoTime( ) > 0;
+		}
+		
+		/**
+		 * Indicates if the request headers named by the Vary header match those of the request.
+		 */
+		private boolean matches( HttpFields theRequestHeaders ) {
+			for( int index = 0; index < varyNames.length; index += 1 ) {
+				if( !Strings.nullToEmpty( varyValues[ index ] ).equals( Strings.nullToEmpty( theRequestHeaders.get( varyNames[ index ] ) ) ) ) {
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+	
+	private static final String[] NO_VARY = new String[ 0 ];
+
+	private final int maxEntries;
+	private final long maxSize;
+	
+	private final Object lock = new Object( );
+	private final LinkedHashMap<String, CachedResponse> responses = new LinkedHashMap<>( 16, 0.75f, true ); // access order, for LRU
+	private long size = 0;
+	
+	private final AtomicLong hits = new AtomicLong( 0 );
+	private final AtomicLong revalidations = new AtomicLong( 0 );
+	private final AtomicLong misses = new AtomicLong( 0 );
+	
+	/**
+	 * Constructor taking the bounds of the cache.
+	 * @param theMaxEntries the maximum number of responses to keep
+	 * @param theMaxSize the maximum number of bytes the responses kept can hold
+	 */
+	public ResourceResponseCache( int theMaxEntries, long theMaxSize ) {
+		Preconditions.checkArgument( theMaxEntries > 0, "the maximum number of entries, %s, must be positive", theMaxEntries );
+		Preconditions.checkArgument( theMaxSize > 0, "the maximum size, %s, must be positive", theMaxSize );
+		
+		maxEntries = theMaxEntries;
+		maxSize = theMaxSize;
+	}
+	
+	/**
+	 * Generates the key to use for a request, based on the path, which
+	 * includes the contract version, the query parameters, the cookies and
+	 * the header parameters of the method. Header parameters are part of the 
+	 * key since the service doesn't vary responses on them, so nothing else
+	 * would keep one caller's response from being given to another.
+	 * @param theRequest the request to generate the key for
+	 * @param theHeaderParameterNames the names of the method's header parameters
+	 * @return the key for the request
+	 */
+	static String generateKey( Request theRequest, Collection<String> theHeaderParameterNames ) {
+		StringBuilder builder = new StringBuilder( theRequest.getPath( ) );
+		List<String> parameters = new ArrayList<>( );
+		
+		for( Fields.Field field : theRequest.getParams( ) ) {
+			for( String value : field.getValues( ) ) {
+				parameters.add( field.getName( ) + "=" + value );
+			}
+		}
+		Collections.sort( parameters );
+		builder.append( '?' );
+		for( String parameter : parameters ) {
+			builder.append( parameter );
+			builder.append( '&' );
+		}
+		for( HttpCookie cookie : theRequest.getCookies( ) ) {
+			builder.append( ';' );
+			builder.append( cookie.getName( ) );
+			builder.append( '=' );
+			builder.append( cookie.getValue( ) );
+		}
+		for( String headerName : new TreeSet<String>( theHeaderParameterNames ) ) {
+			String headerValue = theRequest.getHeaders( ).get( headerName );
+			if( headerValue != null ) {
+				builder.append( '\n' );
+				builder.append( headerName );
+				builder.append( ':' );
+				builder.append( headerValue );
+			}
+		}
+		return builder.toString( );
+	}
+	
+	/**
+	 * Gets the cached response for the key, if its variant matches the request headers.
+	 * Stale responses are returned so they can be revalidated.
+	 * @param theKey the key of the request
+	 * @param theRequestHeaders the headers of the request
+	 * @return the cached response, or null if there isn't one
+	 */
+	CachedResponse get( String theKey, HttpFields theRequestHeaders ) {
+		CachedResponse response;
+		synchronized( lock ) {
+			response = responses.get( theKey );
+		}
+		if( response != null && !response.matches( theRequestHeaders ) ) {
+			response = null;
+		}
+		return response;
+	}
+	
+	/**
+	 * Keeps the response, if the service allows it, for the request. 
+	 * @param theKey the key of the request
+	 * @param theRequest the request that was sent
+	 * @param theResponse the response received
+	 * @param theContent the content of the response
+	 * @param theEncoding the character encoding of the content, which may be null
+	 */
+	void store( String theKey, Request theRequest, Response theResponse, byte[] theContent, String theEncoding ) {
+		if( theResponse.getStatus( ) != HttpStatus.OK_200 ) {
+			return;
+		}
+		HttpFields headers = theResponse.getHeaders( );
+		String cacheControlHeader = headers.get( HttpHeader.CACHE_CONTROL );
+		CacheControl cacheControl = Strings.isNullOrEmpty( cacheControlHeader ) ? null : CacheControl.create( cacheControlHeader );
+		String varyHeader = headers.get( HttpHeader.VARY );
+		String entityTag = headers.get( HttpHeader.ETAG );
+		long expiration = calculateExpiration( cacheControl, headers );
+		
+		if( ( cacheControl != null && cacheControl.indicatedNoStore( ) ) || 
+			( varyHeader != null && varyHeader.trim( ).equals( "*" ) ) ||
+			( entityTag == null && expiration - System.nanoTime( ) <= 0 ) ) {
+			// either we aren't allowed to keep it or, since it is
+			// already stale and can't be revalidated, no point
+			remove( theKey );
+			
+		} else {
+			String[] varyNames = NO_VARY;
+			String[] varyValues = NO_VARY;
+			if( !Strings.isNullOrEmpty( varyHeader ) ) {
+				varyNames = varyHeader.split( "\\s*,\\s*" );
+				varyValues = new String[ varyNames.length ];
+				for( int index = 0; index < varyNames.length; index += 1 ) {
+					varyNames[ index ] = varyNames[ index ].trim( );
+					varyValues[ index ] = theRequest.getHeaders( ).get( varyNames[ index ] );
+				}
+			}
+			put( new CachedResponse( 
+					theKey, 
+					theContent, 
+					theEncoding, 
+					new HttpFields( headers ), 
+					entityTag, 
+					varyNames, 
+					varyValues, 
+					cacheControl != null && cacheControl.indicatedMustRevalidated( ), 
+					expiration ) );
+		}
+	}
+	
+	/**
+	 * Updates the freshness of a cached response after the service 
+	 * indicated, with a not modified response, that it is still valid.
+	 * @param theCachedResponse the response that was revalidated
+	 * @param theResponse the not modified response 
+	 */
+	void refresh( CachedResponse theCachedResponse, Response theResponse ) {
+		HttpFields headers = theResponse.getHeaders( );
+		String cacheControlHeader = headers.get( HttpHeader.CACHE_CONTROL );
+		if( cacheControlHeader == null ) {
+			// the not modified response doesn't need to repeat
+			// the cache control, so use what was sent originally
+			headers = theCachedResponse.headers;
+			cacheControlHeader = headers.get( HttpHeader.CACHE_CONTROL );
+		}
+		CacheControl cacheControl = Strings.isNullOrEmpty( cacheControlHeader ) ? null : CacheControl.create( cacheControlHeader );
+		if( cacheControl != null && cacheControl.indicatedNoStore( ) ) {
+			remove( theCachedResponse.key );
+		} else {
+			theCachedResponse.expiration = calculateExpiration( cacheControl, headers );
+		}
+	}
+	
+	/**
+	 * Removes the cached response for the key, if there is one.
+	 * @param theKey the key of the response to remove
+	 */
+	void remove( String theKey ) {
+		synchronized( lock ) {
+			CachedResponse removed = responses.remove( theKey );
+			if( removed != null ) {
+				size -= removed.size;
+			}
+		}
+	}
+	
+	/**
+	 * Removes all cached responses.
+	 */
+	public void clear( ) {
+		synchronized( lock ) {
+			responses.clear( );
+			size = 0;
+		}
+	}
+	
+	/**
+	 * Adds the response, evicting the least recently used responses to stay in bounds.
+	 */
+	private void put( CachedResponse theResponse ) {
+		if( theResponse.size > maxSize ) {
+			remove( theResponse.key );
+			
+		} else {
+			synchronized( lock ) {
+				CachedResponse replaced = responses.put( theResponse.key, theResponse );
+				if( replaced != null ) {
+					size -= replaced.size;
+				}
+				size += theResponse.size;
+				
+				Iterator<Map.Entry<String, CachedResponse>> iterator = responses.entrySet( ).iterator( );
+				CachedResponse evicted;
+				while( ( responses.size( ) > maxEntries || size > maxSize ) && iterator.hasNext( ) ) {
+					evicted = iterator.next( ).getValue( );
+					iterator.remove( );
+					size -= evicted.size;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Calculates, in System.nanoTime terms, when a response stops being fresh.
+	 * Responses without a max-age, or that indicated no-cache, are stale immediately.
+	 */
+	private static long calculateExpiration( CacheControl theCacheControl, HttpFields theHeaders ) {
+		long now = System.nanoTime( );
+		
+		if( theCacheControl == null || theCacheControl.indicatedNoCache( ) || theCacheControl.getMaxAge( ) == null ) {
+			return now;
+		} else {
+			long maxAge = theCacheControl.getMaxAge( );
+			// if the response was cached along the way, it has already aged
+			String ageHeader = theHeaders.get( HttpHeader.AGE );
+			if( ageHeader != null ) {
+				try {
+					maxAge -= Long.parseLong( ageHeader.trim( ) );
+				} catch( NumberFormatException e ) {
+					// ignoring since an invalid age shouldn't stop the response 
+				}
+			}
+			return now + TimeUnit.SECONDS.toNanos( Math.max( maxAge, 0 ) );
+		}
+	}
+	
+	/**
+	 * Records that a request was served from the cache without contacting the service.
+	 */
+	void recordHit( ) {
+		hits.incrementAndGet( );
+	}
+	
+	/**
+	 * Records that a request was served from the cache after the service confirmed it was still valid.
+	 */
+	void recordRevalidation( ) {
+		revalidations.incrementAndGet( );
+	}
+	
+	/**
+	 * Records that a request could not be served from the cache.
+	 */
+	void recordMiss( ) {
+		misses.incrementAndGet( );
+	}
+
+	/**
+	 * The maximum number of responses the cache will keep.
+	 * @return the maximum number of responses
+	 */
+	public int getMaxEntries( ) {
+		return maxEntries;
+	}
+
+	/**
+	 * The maximum number of bytes the responses in the cache can hold.
+	 * @return the maximum number of bytes
+	 */
+	public long getMaxSize( ) {
+		return maxSize;
+	}
+	
+	/**
+	 * Returns the number of requests served from the cache without contacting the service.
+	 * @return the number of hits
+	 */
+	@MonitorableStatusValue( name = "response_cache_hits", description = "The total number of requests served from the response cache without contacting the service." )
+	public long getHits( ) {
+		return hits.get( );
+	}
+	
+	/**
+	 * Returns the number of requests served from the cache after revalidating with the service.
+	 * @return the number of revalidations
+	 */
+	@MonitorableStatusValue( name = "response_cache_revalidations", description = "The total number of requests served from the response cache after the service indicated the response was not modified." )
+	public long getRevalidations( ) {
+		return revalidations.get( );
+	}
+	
+	/**
+	 * Returns the number of requests that could not be served from the cache.
+	 * @return the number of misses
+	 */
+	@MonitorableStatusValue( name = "response_cache_misses", description = "The total number of cacheable requests that could not be served from the response cache." )
+	public long getMisses( ) {
+		return misses.get( );
+	}
+	
+	/**
+	 * Returns the ratio of requests served from the cache, including 
+	 * revalidations, to the total number of cacheable requests.
+	 * @return the hit ratio, between 0 and 1
+	 */
+	@MonitorableStatusValue( name = "response_cache_hit_ratio", description = "The ratio of cacheable requests, including revalidated requests, served from the response cache." )
+	public double getHitRatio( ) {
+		long served = hits.get( ) + revalidations.get( );
+		long total = served + misses.get( );
+		return total == 0 ? 0.0 : ( double )served / ( double )total;
+	}
+	
+	/**
+	 * Returns the number of responses in the cache.
+	 * @return the number of responses
+	 */
+	@MonitorableStatusValue( name = "response_cache_entries", description = "The number of responses currently in the response cache." )
+	public int getEntries( ) {
+		synchronized( lock ) {
+			return responses.size( );
+		}
+	}
+	
+	/**
+	 * Returns the approximate number of bytes the responses in the cache hold.
+	 * @return the size of the cache, in bytes
+	 */
+	@MonitorableStatusValue( name = "response_cache_size", description = "The approximate number of bytes held by the responses in the response cache." )
+	public long getSize( ) {
+		synchronized( lock ) {
+			return size;
+		}
+	}
+}
@@ -15,46 +15,86 @@
 // ***************************************************************************
 package com.talvish.tales.client.http;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CancellationException;
-import java.util.concurrent.CountDownLatch;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.client.api.Response;
 import org.eclipse.jetty.client.api.Result;
 import org.eclipse.jetty.client.util.BufferingResponseListener;
 import org.eclipse.jetty.http.HttpField;
 import org.eclipse.jetty.http.HttpFields;
+import org.eclipse.jetty.http.HttpHeader;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.http.MimeTypes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
 import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.talvish.tales.communication.CommunicationException;
 import com.talvish.tales.communication.HeaderConstants;
+import com.talvish.tales.parts.translators.Translator;
+import com.talvish.tales.serialization.json.JsonBinaryFormat;
+import com.talvish.tales.serialization.json.translators.JsonArrayToIteratorTranslator;
+import com.talvish.tales.serialization.json.translators.JsonReaderTranslator;
 
 /**
- * A future for use in doing async requests to a Tales service. This 
- * implementation is based on the Jetty FutureResponseListener class 
- * and extends the BufferingResponseListener to process the service 
- * result and turn it into the ResourceResult aspected by clients 
+ * A future for use in doing async requests to a Tales service. The future
+ * is completed directly from the Jetty response listener, which buffers
+ * the response and then turns it into the ResourceResult expected by clients.
+ * The translation can optionally be handed off to an executor so that Jetty's 
+ * threads are not used for it. Cancelling the future aborts the underlying request.
+ * <p>
+ * Responses can instead be streamed, where the response is parsed as it arrives,
+ * the result envelope and the return value are bound in the same pass, and the 
+ * maximum response size only applies to binary responses, which aren't read 
+ * incrementally. Streamed responses are read on the executor, or on the thread 
+ * sending the request if there isn't an executor. Iterator, Stream and Iterable
+ * return values are instead read as the caller walks them, so the future completes 
+ * once the elements start, and the status and operation information, which follow
+ * the elements, are set on the result once the elements have been walked.
+ * <p>
+ * If the client caches responses, buffered responses are offered to the cache
+ * and the future may instead be completed using a cached response.
  * @author jmolnar
  *
  * @param <T> the type of data that is part of the ResourceResult response
  */
-public class ResourceResponseFuture<T> extends BufferingResponseListener implements Future<ResourceResult<T>> {
+public class ResourceResponseFuture<T> extends CompletableFuture<ResourceResult<T>> {
 	private static final Logger logger = LoggerFactory.getLogger( ResourceRequest.class ); // going to leave this on the resource request
+	private static final String RETURN_MEMBER = "return";
 
-    private final CountDownLatch latch = new CountDownLatch(1);
     private final ResourceRequest request;
+    private final Request httpRequest;
     private final boolean requestedAsync;
-	private ResourceResult<T> objectResult;
+    private final Executor executor;
+    private final int maxLength;
+    private final BufferedResponseListener bufferedListener;
+    private final StreamingResponseListener streamingListener;
+    private StreamedReturn streamedReturn; // set if the return value is read as the caller walks it
 
-    private Throwable failure;
-    private volatile boolean cancelled;
+    private ResourceResponseCache cache;
+    private String cacheKey;
+    private ResourceResponseCache.CachedResponse cachedResponse; // the stale response being revalidated
 
-	private long startTimestamp;
+	private final long startTimestamp;
+	private volatile int responseStatus = 0;
 
 	/**
 	 * Constructor for use by the ResourceRequest, to setup the Future/Listener.
@@ -63,7 +103,7 @@ public class ResourceResponseFuture<T> extends BufferingResponseListener impleme
 	 * @param requestedAsync indicates if the original caller wanted sync or async operation (which only impacts log entries)
 	 */
     protected ResourceResponseFuture( ResourceRequest theRequest, boolean requestedAsync ) {
-        this( theRequest, 2 * 1024 * 1024, requestedAsync );        
+        this( theRequest, 2 * 1024 * 1024, requestedAsync, null, false );        
     }
 
 	/**
@@ -73,86 +113,218 @@ public class ResourceResponseFuture<T> extends BufferingResponseListener impleme
 	 * @param requestedAsync indicates if the original caller wanted sync or async operation (which only impacts log entries)
 	 */
     protected ResourceResponseFuture( ResourceRequest theRequest, int theMaxLength, boolean requestedAsync ) {
-        super( theMaxLength );
+    	this( theRequest, theMaxLength, requestedAsync, null, false );
+    }
+
+	/**
+	 * Constructor for use by the ResourceRequest, to setup the Future/Listener.
+	 * @param theRequest all the request information
+	 * @param maxLength the maximum length of the content that will be accepted, if not streamed
+	 * @param requestedAsync indicates if the original caller wanted sync or async operation (which only impacts log entries)
+	 * @param theExecutor the executor to translate the response on, or null to translate on the thread that received the response
+	 * @param shouldStream true if the response should be parsed as it arrives, false if it should be buffered first
+	 */
+    protected ResourceResponseFuture( ResourceRequest theRequest, int theMaxLength, boolean requestedAsync, Executor theExecutor, boolean shouldStream ) {
+    	this( theRequest, theRequest.getRequest( ), theMaxLength, requestedAsync, theExecutor, shouldStream );
+    }
+
+	/**
+	 * Constructor for use by the ResourceRequest, to setup the Future/Listener for
+	 * one of possibly several underlying requests made for the request, like retries.
+	 * @param theRequest all the request information
+	 * @param theHttpRequest the underlying request this future is for
+	 * @param maxLength the maximum length of the content that will be accepted, if not streamed
+	 * @param requestedAsync indicates if the original caller wanted sync or async operation (which only impacts log entries)
+	 * @param theExecutor the executor to translate the response on, or null to translate on the thread that received the response
+	 * @param shouldStream true if the response should be parsed as it arrives, false if it should be buffered first
+	 */
+    protected ResourceResponseFuture( ResourceRequest theRequest, Request theHttpRequest, int theMaxLength, boolean requestedAsync, Executor theExecutor, boolean shouldStream ) {
         Preconditions.checkNotNull( theRequest, "the future needs a request to watch" );
+        Preconditions.checkNotNull( theHttpRequest, "the future needs an underlying request to watch" );
         this.request = theRequest;
+        this.httpRequest = theHttpRequest;
         this.requestedAsync = requestedAsync;
+        this.executor = theExecutor;
+        this.maxLength = theMaxLength;
+        if( shouldStream ) {
+        	this.bufferedListener = null;
+        	this.streamingListener = new StreamingResponseListener( );
+        } else {
+        	this.bufferedListener = new BufferedResponseListener( theMaxLength );
+        	this.streamingListener = null;
+        }
         startTimestamp = System.nanoTime(); 
     }
+    
+    /**
+     * Called, before the request is sent, to have the response stored in the cache
+     * or, if the service indicates it wasn't modified, to use the cached response.
+     * @param theCache the cache to use
+     * @param theCacheKey the key of the request in the cache
+     * @param theCachedResponse the stale response being revalidated, or null if there isn't one
+     */
+    protected void useCache( ResourceResponseCache theCache, String theCacheKey, ResourceResponseCache.CachedResponse theCachedResponse ) {
+    	cache = theCache;
+    	cacheKey = theCacheKey;
+    	cachedResponse = theCachedResponse;
+    }
+    
+    /**
+     * The HTTP status of the response, which is available once the future completes.
+     * @return the HTTP status, or 0 if a response wasn't received
+     */
+    protected int getResponseStatus( ) {
+    	return responseStatus;
+    }
+    
+    /**
+     * The listener to give the underlying Jetty request, which will complete this future.
+     * @return the listener for the request
+     */
+    protected Response.Listener getListener( ) {
+    	return bufferedListener != null ? bufferedListener : streamingListener;
+    }
+    
+    /**
+     * Called once the request has been sent. For streamed responses
+     * this starts reading the response, on the executor, if there is
+     * one, or on the calling thread otherwise, in which case this will
+     * not return until the response has been read.
+     */
+    protected void onSent( ) {
+    	if( streamingListener != null ) {
+    		if( executor == null ) {
+    			readStreamedResponse( );
+    		} else {
+    			try {
+    				executor.execute( this::readStreamedResponse );
+    			} catch( RejectedExecutionException e ) {
+    				this.httpRequest.abort( e );
+    				completeExceptionally( e );
+    			}
+    		}
+    	}
+    }
 
     /**
-     * The method that process the response from the Tales service (or errors).
+     * Request to cancel the operation, which will also abort the underlying request.
+     * @param mayInterrupt is not used
+     * @return returns if the cancel was successful or not
      */
-    @SuppressWarnings("unchecked")
-	@Override
-    public void onComplete(Result result) {
+    @Override
+    public boolean cancel( boolean mayInterrupt ) {
+        boolean cancelled = super.cancel( mayInterrupt );
+        if( cancelled ) {
+        	this.httpRequest.abort( new CancellationException( ) );
+        }
+        return cancelled;
+    }
+
+    /**
+     * The listener that buffers the response and then, 
+     * on completion, processes it for the future.
+     */
+    private class BufferedResponseListener extends BufferingResponseListener {
+    	BufferedResponseListener( int theMaxLength ) {
+    		super( theMaxLength );
+    	}
+    	
+	    @Override
+	    public void onComplete( Result theResult ) {
+	    	// we grab the content here, since the buffer is the listener's, 
+	    	// and then either process it here or on the executor
+	    	Response response = theResult.getResponse( );
+	    	responseStatus = response.getStatus( );
+	    	byte[] content = this.getContent( );
+	    	String encoding = this.getEncoding( );
+
+	    	if( cache != null && !theResult.isFailed( ) ) {
+	    		if( cachedResponse != null && response.getStatus( ) == HttpStatus.NOT_MODIFIED_304 ) {
+    				// the service indicated what we have is still good, so we use it
+    				cache.recordRevalidation( );
+    				cache.refresh( cachedResponse, response );
+    				completeFromCache( cachedResponse );
+    				return;
+	    		} else {
+    				if( cachedResponse != null ) {
+    					cache.recordMiss( );
+    				}
+    				cache.store( cacheKey, theResult.getRequest( ), response, content, encoding );
+	    		}
+	    	}
+	    	processContent( theResult.getFailure( ), response.getHeaders( ), content, encoding, JsonBinaryFormat.MEDIA_TYPE.equalsIgnoreCase( this.getMediaType( ) ) );
+	    }
+    }
+    
+    /**
+     * Completes the future using a response from the cache.
+     * @param theCachedResponse the cached response to use
+     */
+    protected void completeFromCache( ResourceResponseCache.CachedResponse theCachedResponse ) {
+    	HttpFields headers = theCachedResponse.getHeaders( );
+    	String contentType = headers.get( HttpHeader.CONTENT_TYPE );
+    	boolean isBinary = contentType != null && JsonBinaryFormat.MEDIA_TYPE.equalsIgnoreCase( MimeTypes.getContentTypeWithoutCharset( contentType ).trim( ) );
+    	
+    	processContent( null, headers, theCachedResponse.getContent( ), theCachedResponse.getEncoding( ), isBinary );
+    }
+
+    /**
+     * Prepares buffered, or cached, content and then processes it, either here or on the executor.
+     */
+    private void processContent( Throwable theFailure, HttpFields theHeaders, byte[] theContent, String theEncoding, boolean isBinary ) {
+		// an empty body is treated as no content, so a failure (e.g. timeout) 
+		// isn't replaced by an attempt to parse nothing
+		boolean hasContent = theContent != null && theContent.length > 0;
+		byte[] responseBytes = isBinary && hasContent ? theContent : null;
+		String responseString = !isBinary && hasContent ? new String( theContent, theEncoding == null ? StandardCharsets.UTF_8 : Charset.forName( theEncoding ) ) : null;
+		
+		if( executor == null ) {
+			processBufferedResponse( theFailure, theHeaders, responseBytes, responseString );
+		} else {
+			try {
+				executor.execute( ( ) -> processBufferedResponse( theFailure, theHeaders, responseBytes, responseString ) );
+			} catch( RejectedExecutionException e ) {
+				completeExceptionally( e );
+			}
+		}
+    }
+
+    /**
+     * The method that process the buffered response from the Tales service (or errors).
+     */
+    private void processBufferedResponse( Throwable theFailure, HttpFields theHeaders, byte[] theResponseBytes, String theResponseString ) {
     	// first, let's see what failures we had during the work
     	// (which, if we had, will impact the how we do error 
     	// handling below)
-        failure = result.getFailure();
+        Throwable failure = theFailure;
+        ResourceResult<T> objectResult = null;
         
         // second, we do into the attempt to parse out
         // content that may or may not have come back
         // from the server
-		String responseString = this.getContentAsString();
-		if( responseString != null ) {
+		if( failure == null && ( theResponseString != null || theResponseBytes != null ) ) {
 			try {
-				logger.trace( "Service return '{}'.", responseString );
-	
-				// grab the response as a string, it should all be json, so let's interpret
-				JsonElement jsonResult = request.getClient( ).jsonParser.parse( responseString );
-				// now we need to convert what was returned as a result object ... BUT ..
-				objectResult = ( ResourceResult<T> )request.getClient( ).getResultAdapter().getFromFormatTranslator().translate( jsonResult );
-				// the actual result is not interpreted since we don't the type at registration time so we deal with the result
-				// value separately
-				JsonElement jsonReturn = jsonResult.getAsJsonObject().get( "return" );
-				// we need to make sure we have a result and if not then we 
-				// assume we didn't get a response
-				if( jsonReturn != null )  {
-					objectResult.setResult( ( T )request.getClient( ).getJsonFacility().fromJsonElement( jsonReturn, request.getMethod( ).getReturn().getType() ) );
-				} else {
-					objectResult.setResult( null );
-				}
+				JsonElement jsonResult;
 				
-				// TODO: need to do cookie support
-				HttpFields headers = result.getResponse().getHeaders();
-				String headerName;
-				String headerValue;
-				
-				for( HttpField header : headers ) {
-					headerName = header.getName( );
-					headerValue = header.getValue( );
-					if( objectResult.getHeaders().containsKey( headerName ) ) {
-						// we shouldn't have two of the same headers, but if we do, at least warn
-						logger.warn( 
-								"Duplicate header '{}' found while processing result from resource method '{}' from contract '{}'.", 
-								headerName,
-								request.getMethod().getName(),
-								request.getClient().contractRoot );
-					} else {
-						objectResult.setHeader( headerName, headerValue );
-						switch( headerName ) {
-						case HeaderConstants.CACHE_CONTROL:
-							objectResult.setCacheControl( CacheControl.create( headerValue ) );
-							break;
-						default:
-							// nothing else to do yet
-							break;
-						}
-					}
+				if( theResponseBytes != null ) {
+					// the service responded using the binary format, which is the same structure as the json
+					jsonResult = JsonBinaryFormat.fromBytes( theResponseBytes );
+				} else {
+					logger.trace( "Service return '{}'.", theResponseString );
+		
+					// grab the response as a string, it should all be json, so let's interpret
+					jsonResult = request.getClient( ).jsonParser.parse( theResponseString );
 				}
+				// the actual result is not interpreted since we don't the type at registration time so we deal with the result
+				// value separately
+				JsonElement jsonReturn = jsonResult.getAsJsonObject().get( RETURN_MEMBER );
+				objectResult = bind( jsonResult, translateReturn( jsonReturn ), theHeaders );
+
 			} catch( Exception e ) {
 				failure = e;
 				
 			} finally {
-				// status block handling would go here
-				long executionTime = System.nanoTime( ) - startTimestamp;
-				logger.info( 
-						"Executed, {}, resource method '{}' from contract '{}' in {} ms.", new Object[] {
-								this.requestedAsync ? "asynchronously" : "synchronously",
-								request.getMethod( ).getName(),
-								request.getClient( ).contractRoot,
-								( ( double )executionTime ) * 0.000001 } );
+				logExecution( );
 			}
 			
 		} else if( failure == null ) {
@@ -162,90 +334,299 @@ public class ResourceResponseFuture<T> extends BufferingResponseListener impleme
 			failure = new CommunicationException( String.format( "Have an emtpy result without a recorded failure from '%s'.", this.request.getMethod( ).getMethodUrl( ) ) );
 		} // else failure is set, so nothing to do
         
-		// third, we now mark that the result
-		// is available for use.
-        latch.countDown();
+		// third, we now complete the future, which 
+		// runs anything waiting on the result
+		finish( objectResult, failure );
     }
-
+    
     /**
-     * Request to cancel the operation.
-     * @param mayInterrupt is not used
-     * @return returns if the cancel was successful or not
+     * The method that reads, and processes, the streamed response from the Tales service (or errors).
+     * This blocks while waiting for content.
      */
-    @Override
-    public boolean cancel( boolean mayInterrupt ) {
-        cancelled = true;
-        return this.request.getRequest( ).abort( new CancellationException( ) );
+    private void readStreamedResponse( ) {
+        Throwable failure = null;
+        ResourceResult<T> objectResult = null;
+        
+        try {
+        	if( streamingListener.awaitContent( ) ) {
+        		try {
+	        		Response response = streamingListener.getResponse( );
+	        		responseStatus = response.getStatus( );
+	        		String contentType = response.getHeaders( ).get( HttpHeader.CONTENT_TYPE );
+	        		InputStream stream = streamingListener.getInputStream( );
+	        		
+	        		if( contentType != null && JsonBinaryFormat.MEDIA_TYPE.equalsIgnoreCase( MimeTypes.getContentTypeWithoutCharset( contentType ).trim( ) ) ) {
+						// the service responded using the binary format, which isn't incremental, so we 
+	        			// gather the bytes, though no more than the maximum response size
+	        			JsonElement jsonResult = JsonBinaryFormat.fromBytes( readBinaryContent( stream ) );
+						JsonElement jsonReturn = jsonResult.getAsJsonObject().get( RETURN_MEMBER );
+						objectResult = bind( jsonResult, translateReturn( jsonReturn ), response.getHeaders( ) );
+	        		} else {
+	        			String charset = contentType == null ? null : MimeTypes.getCharsetFromContentType( contentType );
+	        			objectResult = readJson( new JsonReader( new InputStreamReader( stream, Strings.isNullOrEmpty( charset ) ? StandardCharsets.UTF_8 : Charset.forName( charset ) ) ), response.getHeaders( ) );
+	        		}
+        		} catch( Exception e ) {
+        			// we don't want the rest of the response, but if the response 
+        			// itself failed, that failure is what we want to report
+        			this.httpRequest.abort( e );
+        			failure = e;
+        		}
+        		if( failure == null && streamedReturn != null ) {
+        			// the rest of the response is read as the caller walks the return value
+        			finish( objectResult, null );
+        			return;
+        		}
+        		logExecution( );
+        	}
+        	Throwable resultFailure = streamingListener.awaitResult( ).getFailure( );
+        	if( resultFailure != null ) {
+        		failure = resultFailure;
+        	} else if( failure == null && objectResult == null ) {
+    			// this means we don't have a failure recorded
+    			// but we also don't have any data, which really 
+    			// shouldn't be possible
+    			failure = new CommunicationException( String.format( "Have an emtpy result without a recorded failure from '%s'.", this.request.getMethod( ).getMethodUrl( ) ) );
+        	}
+        } catch( IOException e ) {
+        	// this means we were interrupted waiting
+        	this.httpRequest.abort( e );
+        	failure = e;
+        }
+        finish( objectResult, failure );
     }
-
+    
     /**
-     * Indicates if this future was cancelled.
-     * @return returns if this future was cancelled
+     * Reads the json result, translating the return value as it is read, and 
+     * keeping the rest of the members for the result. Iterator, Stream and Iterable 
+     * return values are instead read as the caller walks them, in which case the 
+     * result is returned once the elements start and the rest is read afterwards.
      */
-    @Override
-    public boolean isCancelled( ) {
-        return cancelled;
+    @SuppressWarnings("unchecked")
+    private ResourceResult<T> readJson( JsonReader theReader, HttpFields theHeaders ) throws IOException {
+    	JsonObject jsonResult = new JsonObject( );
+    	T returnValue = null;
+    	String memberName;
+    	Translator returnTranslator;
+    	
+    	theReader.setLenient( true ); // same as the parser would use
+    	theReader.beginObject( );
+    	while( theReader.hasNext( ) ) {
+    		memberName = theReader.nextName( );
+    		if( !RETURN_MEMBER.equals( memberName ) ) {
+    			jsonResult.add( memberName, request.getClient( ).jsonParser.parse( theReader ) );
+    		} else {
+    			returnTranslator = request.getClient( ).getJsonFacility( ).getTypeAdapter( request.getMethod( ).getReturn( ).getType( ) ).getFromFormatTranslator( );
+    			if( returnTranslator instanceof JsonArrayToIteratorTranslator && theReader.peek( ) == JsonToken.BEGIN_ARRAY ) {
+    				JsonArrayToIteratorTranslator iteratorTranslator = ( JsonArrayToIteratorTranslator )returnTranslator;
+    				ResourceResult<T> objectResult = bind( jsonResult, null, theHeaders );
+    				
+    				theReader.beginArray( );
+    				streamedReturn = new StreamedReturn( theReader, iteratorTranslator.getElementTranslator( ), objectResult );
+    				objectResult.setResult( ( T )iteratorTranslator.translate( streamedReturn, streamedReturn::close ) );
+    				return objectResult;
+    			} else {
+    				returnValue = request.getClient( ).getJsonFacility( ).fromJsonReader( theReader, request.getMethod( ).getReturn( ).getType( ) );
+    			}
+    		}
+    	}
+    	theReader.endObject( );
+    	if( theReader.peek( ) != JsonToken.END_DOCUMENT ) {
+    		throw new JsonSyntaxException( "Did not consume the entire document." );
+    	}
+    	return bind( jsonResult, returnValue, theHeaders );
     }
-
+    
     /**
-     * Indicates if the future is done processing, regardless of whether
-     * it was successful or not.
-     * @return returns if the future is done 
+     * Reads the binary content, failing if there is more than the maximum response size.
      */
-    @Override
-    public boolean isDone( ) {
-        return latch.getCount( ) == 0 || isCancelled( );
+    private byte[] readBinaryContent( InputStream theStream ) throws IOException {
+    	byte[] content = ByteStreams.toByteArray( ByteStreams.limit( theStream, maxLength + 1l ) );
+    	if( content.length > maxLength ) {
+    		throw new CommunicationException( String.format( "The binary response from '%s' is larger than the maximum response size of '%s' bytes.", this.request.getMethod( ).getMethodUrl( ), maxLength ) );
+    	}
+    	return content;
     }
-
+    
     /**
-     * Gets, waiting if needed, the result from the service.
-     * @return the result from the service.
-     * @throws ExecutionException thrown if an exception occurred while processing the request
-     * @throws InterruptedException thrown if the thread running this was interrupted
+     * Reads, and translates, the elements of a return value as the caller walks them. 
+     * Once the last element is read, the rest of the response, the status and operation 
+     * information, is read and set on the result. Walking fails if the response fails
+     * or if the service reports a failure after the elements, since that means the 
+     * elements stopped early. Closing stops reading and aborts the rest of the response.
      */
-    @Override
-    public ResourceResult<T> get() throws InterruptedException, ExecutionException {
-        latch.await() ; // blocking call if the latch hasn't gone down
-        return _get();
+    private class StreamedReturn implements Iterator<Object>, AutoCloseable {
+    	private final JsonReader reader;
+    	private final Translator elementTranslator;
+    	private final ResourceResult<T> result;
+    	private boolean done = false;
+    	
+    	StreamedReturn( JsonReader theReader, Translator theElementTranslator, ResourceResult<T> theResult ) {
+    		reader = theReader;
+    		elementTranslator = theElementTranslator;
+    		result = theResult;
+    	}
+    	
+    	@Override
+    	public synchronized boolean hasNext( ) {
+    		if( done ) {
+    			return false;
+    		} else {
+    			try {
+    				if( reader.hasNext( ) ) {
+    					return true;
+    				} else {
+    					done = true;
+    					readTrailer( );
+    					return false;
+    				}
+    			} catch( IOException | RuntimeException e ) {
+    				throw fail( e );
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	public synchronized Object next( ) {
+    		if( !hasNext( ) ) {
+    			throw new NoSuchElementException( );
+    		} else {
+    			try {
+    				return JsonReaderTranslator.translate( elementTranslator, reader );
+    			} catch( IOException | RuntimeException e ) {
+    				throw fail( e );
+    			}
+    		}
+    	}
+    	
+    	@Override
+    	public synchronized void close( ) {
+    		if( !done ) {
+    			done = true;
+    			httpRequest.abort( new CancellationException( ) );
+    			logExecution( );
+    		}
+    	}
+
+    	/**
+    	 * Reads what follows the elements, the status and operation information,
+    	 * and sets it on the result.
+    	 */
+    	private void readTrailer( ) throws IOException {
+    		JsonObject jsonTrailer = new JsonObject( );
+    		
+    		reader.endArray( );
+    		while( reader.hasNext( ) ) {
+    			jsonTrailer.add( reader.nextName( ), request.getClient( ).jsonParser.parse( reader ) );
+    		}
+    		reader.endObject( );
+    		if( reader.peek( ) != JsonToken.END_DOCUMENT ) {
+    			throw new JsonSyntaxException( "Did not consume the entire document." );
+    		}
+    		logExecution( );
+    		
+    		Throwable failure = streamingListener.awaitResult( ).getFailure( );
+    		if( failure != null ) {
+    			throw new CommunicationException( String.format( "The response from '%s' failed after the result was read.", request.getMethod( ).getMethodUrl( ) ), failure );
+    		}
+    		ResourceResult<?> trailer = ( ResourceResult<?> )request.getClient( ).getResultAdapter( ).getFromFormatTranslator( ).translate( jsonTrailer );
+    		result.setTrailer( trailer.getStatus( ), trailer.getOperation( ) );
+    		if( result.getStatus( ) != null && result.getStatus( ).getCode( ) != null && result.getStatus( ).getCode( ).isFailure( ) ) {
+    			throw new CommunicationException( String.format( "The service reported status '%s' with message '%s' while streaming the result from '%s'.", result.getStatus( ).getCode( ), result.getStatus( ).getMessage( ), request.getMethod( ).getMethodUrl( ) ) );
+    		}
+    	}
+    	
+    	/**
+    	 * Stops reading, aborting the rest of the response, and returns the exception to throw.
+    	 */
+    	private RuntimeException fail( Exception theException ) {
+    		if( !done ) {
+    			logExecution( );
+    		}
+    		done = true;
+    		httpRequest.abort( theException );
+    		if( theException instanceof RuntimeException ) {
+    			return ( RuntimeException )theException;
+    		} else {
+    			return new CommunicationException( String.format( "Unable to read the result from '%s'.", request.getMethod( ).getMethodUrl( ) ), theException );
+    		}
+    	}
     }
 
     /**
-     * Gets, waiting up to the specified time if needed, the result from the service.
-     * @param theTimeout how long to wait (based on the units)
-     * @param theUnit the unit of time to use for theTimeout
-     * @return the result from the service.
-     * @throws ExecutionException thrown if an exception occurred while processing the request
-     * @throws InterruptedException thrown if the thread running this was interrupted
-     * @throws TimeoutException thrown if the timeout period expires and a result isn't available yet
+     * Translates the return value.
+     * @param theReturn the json return value, which may be null if there wasn't one
      */
-    @Override
-    public ResourceResult<T> get( long theTimeout, TimeUnit theUnit) throws InterruptedException, ExecutionException, TimeoutException {
-        boolean expired = !latch.await( theTimeout, theUnit );
-        if( expired ) {
-            throw new TimeoutException();
-        } else {
-        	return _get();
-        }
+    @SuppressWarnings("unchecked")
+    private T translateReturn( JsonElement theReturn ) {
+		// we need to make sure we have a result and if not then we 
+		// assume we didn't get a response
+    	if( theReturn != null ) {
+    		return ( T )request.getClient( ).getJsonFacility().fromJsonElement( theReturn, request.getMethod( ).getReturn().getType() );
+    	} else {
+    		return null;
+    	}
     }
-
+    
     /**
-     * The underlying implementation of the get requests, which 
-     * will throw exceptions if cancelled or exceptions had 
-     * occurred earlier, otherwise returns the result from the
-     * service
-     * @return the result from the service
-     * @throws ExecutionException an exception that encapsulates errors that occurred while running the request
+     * Creates the result object from the json result, the already translated return value and the headers.
      */
-    private ResourceResult<T> _get( ) throws ExecutionException {
-        if( isCancelled ( ) ) {
-        	// if cancelled, we throw the cancellation exception with a potential related cause, if any
-            throw ( CancellationException )new CancellationException ().initCause( failure );
-        } else if (failure != null) {
-        	// if not cancelled, but failed, we throw the execution exception with the original failure reason
-            throw new ExecutionException( failure );
-        } else {
-        	// otherwise, we give our result
-        	return objectResult;
-        }
+    @SuppressWarnings("unchecked")
+    private ResourceResult<T> bind( JsonElement theResult, T theReturnValue, HttpFields theHeaders ) {
+		// now we need to convert what was returned as a result object ... BUT ..
+		ResourceResult<T> objectResult = ( ResourceResult<T> )request.getClient( ).getResultAdapter().getFromFormatTranslator().translate( theResult );
+		objectResult.setResult( theReturnValue );
+		
+		// TODO: need to do cookie support
+		String headerName;
+		String headerValue;
+		
+		for( HttpField header : theHeaders ) {
+			headerName = header.getName( );
+			headerValue = header.getValue( );
+			if( objectResult.getHeaders().containsKey( headerName ) ) {
+				// we shouldn't have two of the same headers, but if we do, at least warn
+				logger.warn( 
+						"Duplicate header '{}' found while processing result from resource method '{}' from contract '{}'.", 
+						headerName,
+						request.getMethod().getName(),
+						request.getClient().contractRoot );
+			} else {
+				objectResult.setHeader( headerName, headerValue );
+				switch( headerName ) {
+				case HeaderConstants.CACHE_CONTROL:
+					objectResult.setCacheControl( CacheControl.create( headerValue ) );
+					break;
+				default:
+					// nothing else to do yet
+					break;
+				}
+			}
+		}
+		return objectResult;
+    }
+    
+    /**
+     * Logs how long the request took.
+     */
+    private void logExecution( ) {
+		// status block handling would go here
+		long executionTime = System.nanoTime( ) - startTimestamp;
+		logger.info( 
+				"Executed, {}, resource method '{}' from contract '{}' in {} ms.", new Object[] {
+						this.requestedAsync ? "asynchronously" : "synchronously",
+						request.getMethod( ).getName(),
+						request.getClient( ).contractRoot,
+						( ( double )executionTime ) * 0.000001 } );
+    }
+    
+    /**
+     * Completes the future, which runs anything waiting on the result.
+     */
+    private void finish( ResourceResult<T> theResult, Throwable theFailure ) {
+		if( theFailure != null ) {
+			completeExceptionally( theFailure );
+		} else {
+			complete( theResult );
+		}
     }
 }
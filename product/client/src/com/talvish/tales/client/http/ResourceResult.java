@@ -130,6 +130,18 @@ public class ResourceResult<T> {
 		result = theResult;
 	}
 	
+	/**
+	 * Internal method to set the status and operation information, which for 
+	 * results read as they stream in, arrive after the result itself.
+	 * This is protected since it should only be called by the Tales client source.
+	 * @param theStatus the status of the request
+	 * @param theOperation the operation information regarding the request
+	 */
+	protected void setTrailer( ResponseStatus theStatus, ResponseOperation theOperation ) {
+		status = theStatus;
+		operation = theOperation;
+	}
+	
 
 	/**
 	 * Gets the overall status information on the request.
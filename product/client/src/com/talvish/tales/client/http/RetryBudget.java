@@ -0,0 +1,160 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * A token bucket that limits the retries, and hedged requests, a client
+ * makes so that a struggling service isn't hit with a storm of retries. 
+ * Each original request adds a fraction of a token to the bucket, up to 
+ * its capacity, and each retry or hedged request takes a whole token, 
+ * so, once the initial tokens are spent, retries are limited to that 
+ * fraction of requests.
+ * @author jmolnar
+ *
+ */
+public class RetryBudget {
+	private final double ratio;
+	private final double capacity;
+	
+	private final Object lock = new Object( );
+	private double tokens;
+	
+	private final AtomicLong retries = new AtomicLong( 0 );
+	private final AtomicLong hedges = new AtomicLong( 0 );
+	private final AtomicLong rejections = new AtomicLong( 0 );
+	
+	/**
+	 * Constructor taking the parameters of the budget. The bucket starts full.
+	 * @param theRatio the fraction of a token each original request adds, which is the fraction of requests that can be retried
+	 * @param theCapacity the most tokens the bucket can hold, which is the size of a burst of retries allowed
+	 */
+	public RetryBudget( double theRatio, int theCapacity ) {
+		Preconditions.checkArgument( theRatio >= 0.0, "the ratio, %s, cannot be negative", theRatio );
+		Preconditions.checkArgument( theCapacity >= 0, "the capacity, %s, cannot be negative", theCapacity );
+		
+		ratio = theRatio;
+		capacity = theCapacity;
+		tokens = theCapacity;
+	}
+	
+	/**
+	 * Records that an original request is being made, adding to the budget.
+	 */
+	void recordRequest( ) {
+		synchronized( lock ) {
+			tokens = Math.min( capacity, tokens + ratio );
+		}
+	}
+	
+	/**
+	 * Attempts to take a token for a retry.
+	 * @return true if the retry can be made, false if the budget is spent
+	 */
+	boolean tryRetry( ) {
+		if( tryAcquire( ) ) {
+			retries.incrementAndGet( );
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Attempts to take a token for a hedged request.
+	 * @return true if the hedged request can be made, false if the budget is spent
+	 */
+	boolean tryHedge( ) {
+		if( tryAcquire( ) ) {
+			hedges.incrementAndGet( );
+			return true;
+		} else {
+			return false;
+		}
+	}
+	
+	/**
+	 * Takes a token, if there is one.
+	 */
+	private boolean tryAcquire( ) {
+		synchronized( lock ) {
+			if( tokens >= 1.0 ) {
+				tokens -= 1.0;
+				return true;
+			}
+		}
+		rejections.incrementAndGet( );
+		return false;
+	}
+	
+	/**
+	 * The fraction of a token each original request adds.
+	 * @return the ratio
+	 */
+	public double getRatio( ) {
+		return ratio;
+	}
+	
+	/**
+	 * The most tokens the bucket can hold.
+	 * @return the capacity
+	 */
+	public int getCapacity( ) {
+		return ( int )capacity;
+	}
+	
+	/**
+	 * Returns the number of tokens currently available.
+	 * @return the available tokens
+	 */
+	@MonitorableStatusValue( name = "retry_budget_tokens", description = "The number of tokens currently available in the retry budget." )
+	public double getTokens( ) {
+		synchronized( lock ) {
+			return tokens;
+		}
+	}
+	
+	/**
+	 * Returns the number of retries made.
+	 * @return the number of retries
+	 */
+	@MonitorableStatusValue( name = "retries", description = "The total number of times requests were retried." )
+	public long getRetries( ) {
+		return retries.get( );
+	}
+	
+	/**
+	 * Returns the number of hedged requests made.
+	 * @return the number of hedged requests
+	 */
+	@MonitorableStatusValue( name = "hedged_requests", description = "The total number of hedged requests sent." )
+	public long getHedges( ) {
+		return hedges.get( );
+	}
+	
+	/**
+	 * Returns the number of retries and hedged requests not made because the budget was spent.
+	 * @return the number of rejections
+	 */
+	@MonitorableStatusValue( name = "retry_budget_rejections", description = "The total number of retries and hedged requests not made because the retry budget was spent." )
+	public long getRejections( ) {
+		return rejections.get( );
+	}
+}
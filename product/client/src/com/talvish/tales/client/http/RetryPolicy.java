@@ -0,0 +1,151 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.communication.Status;
+
+/**
+ * Describes how a ResourceMethod retries failed requests. Requests
+ * are retried if they could not communicate with the service, if the
+ * service responded with a retryable status, or if something between
+ * the client and the service responded with a 502, 503 or 504. Retries
+ * wait using exponential backoff with full jitter, meaning the wait is 
+ * a random amount of time up to the backoff for that attempt, and are 
+ * also limited by the retry budget of the client. Only methods using 
+ * idempotent verbs can retry.
+ * @author jmolnar
+ *
+ */
+public class RetryPolicy {
+	/**
+	 * The statuses that are retried by default, which are those where
+	 * the service, or something it depends on, was unavailable or timed out.
+	 */
+	public static final Set<Status> DEFAULT_RETRYABLE_STATUSES = Collections.unmodifiableSet( EnumSet.of( 
+			Status.LOCAL_UNAVAILABLE,
+			Status.LOCAL_TIMEOUT,
+			Status.DEPENDENCY_TIMEOUT,
+			Status.DEPENDENCY_CANNOT_COMMUNICATE,
+			Status.DEPENDENCY_CANNOT_CONNECT,
+			Status.DEPENDENCY_UNAVAILABLE ) );
+	
+	private final int maxAttempts;
+	private final long initialBackoff;
+	private final long maxBackoff;
+	private final double backoffMultiplier;
+	private final Set<Status> retryableStatuses;
+	
+	/**
+	 * Constructor taking the number of attempts and the backoff range, which doubles
+	 * on each attempt, and retrying the default statuses.
+	 * @param theMaxAttempts the maximum number of attempts, including the first, which must be at least one
+	 * @param theInitialBackoff the most time, in milliseconds, to wait before the first retry
+	 * @param theMaxBackoff the most time, in milliseconds, to wait before any retry
+	 */
+	public RetryPolicy( int theMaxAttempts, long theInitialBackoff, long theMaxBackoff ) {
+		this( theMaxAttempts, theInitialBackoff, theMaxBackoff, 2.0, DEFAULT_RETRYABLE_STATUSES );
+	}
+
+	/**
+	 * Constructor taking all the parameters.
+	 * @param theMaxAttempts the maximum number of attempts, including the first, which must be at least one
+	 * @param theInitialBackoff the most time, in milliseconds, to wait before the first retry
+	 * @param theMaxBackoff the most time, in milliseconds, to wait before any retry
+	 * @param theBackoffMultiplier how much the backoff grows on each attempt, which must be at least one
+	 * @param theRetryableStatuses the statuses, sent by the service, that are retried
+	 */
+	public RetryPolicy( int theMaxAttempts, long theInitialBackoff, long theMaxBackoff, double theBackoffMultiplier, Collection<Status> theRetryableStatuses ) {
+		Preconditions.checkArgument( theMaxAttempts > 0, "the maximum number of attempts, %s, must be positive", theMaxAttempts );
+		Preconditions.checkArgument( theInitialBackoff >= 0, "the initial backoff, %s, cannot be negative", theInitialBackoff );
+		Preconditions.checkArgument( theMaxBackoff >= theInitialBackoff, "the maximum backoff, %s, cannot be less than the initial backoff, %s", theMaxBackoff, theInitialBackoff );
+		Preconditions.checkArgument( theBackoffMultiplier >= 1.0, "the backoff multiplier, %s, cannot be less than one", theBackoffMultiplier );
+		Preconditions.checkNotNull( theRetryableStatuses, "need the retryable statuses" );
+		
+		maxAttempts = theMaxAttempts;
+		initialBackoff = theInitialBackoff;
+		maxBackoff = theMaxBackoff;
+		backoffMultiplier = theBackoffMultiplier;
+		retryableStatuses = theRetryableStatuses.isEmpty( ) ? Collections.emptySet( ) : Collections.unmodifiableSet( EnumSet.copyOf( theRetryableStatuses ) );
+	}
+	
+	/**
+	 * The maximum number of attempts, including the first.
+	 * @return the maximum number of attempts
+	 */
+	public int getMaxAttempts( ) {
+		return maxAttempts;
+	}
+	
+	/**
+	 * The most time, in milliseconds, to wait before the first retry.
+	 * @return the initial backoff
+	 */
+	public long getInitialBackoff( ) {
+		return initialBackoff;
+	}
+	
+	/**
+	 * The most time, in milliseconds, to wait before any retry.
+	 * @return the maximum backoff
+	 */
+	public long getMaxBackoff( ) {
+		return maxBackoff;
+	}
+	
+	/**
+	 * How much the backoff grows on each attempt.
+	 * @return the backoff multiplier
+	 */
+	public double getBackoffMultiplier( ) {
+		return backoffMultiplier;
+	}
+	
+	/**
+	 * The statuses, sent by the service, that are retried.
+	 * @return the retryable statuses
+	 */
+	public Set<Status> getRetryableStatuses( ) {
+		return retryableStatuses;
+	}
+	
+	/**
+	 * Indicates if a status sent by the service is retryable.
+	 * @param theStatus the status to check
+	 * @return true if the status is retryable, false otherwise
+	 */
+	public boolean isRetryable( Status theStatus ) {
+		return theStatus != null && retryableStatuses.contains( theStatus );
+	}
+	
+	/**
+	 * Calculates how long to wait before the next attempt, which is
+	 * a random amount of time up to the backoff for the attempt.
+	 * @param theFailedAttempts the number of attempts that have failed so far, which must be at least one
+	 * @return the time, in milliseconds, to wait
+	 */
+	public long calculateBackoff( int theFailedAttempts ) {
+		Preconditions.checkArgument( theFailedAttempts > 0, "the number of failed attempts, %s, must be positive", theFailedAttempts );
+		double backoff = Math.min( ( double )maxBackoff, initialBackoff * Math.pow( backoffMultiplier, theFailedAttempts - 1 ) );
+		return ( long )( ThreadLocalRandom.current( ).nextDouble( ) * backoff );
+	}
+}
@@ -0,0 +1,293 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jetty.client.api.Request;
+import org.eclipse.jetty.http.HttpStatus;
+import org.eclipse.jetty.util.thread.Scheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A future for requests to methods that retry or hedge. Each attempt is 
+ * its own underlying request, watched by its own ResourceResponseFuture, 
+ * and this future completes with the first attempt that succeeds, or 
+ * fails in a way that isn't retryable, or with the last attempt if the 
+ * retries, or the retry budget, run out. Retries and hedged requests are
+ * sent from the scheduler of the underlying HttpClient, so no thread waits 
+ * on the backoff. Cancelling the future aborts any outstanding attempts.
+ * @author jmolnar
+ *
+ * @param <T> the type of data that is part of the ResourceResult response
+ */
+class RetryingResponseFuture<T> extends CompletableFuture<ResourceResult<T>> {
+	private static final Logger logger = LoggerFactory.getLogger( ResourceRequest.class ); // going to leave this on the resource request
+
+	private final ResourceRequest request;
+	private final Request template; // a copy of the request, never sent, so it can be copied again for each attempt
+	private final boolean requestedAsync;
+	private final Executor executor;
+	private final RetryPolicy retryPolicy;
+	private final HedgePolicy hedgePolicy;
+	private final RetryBudget budget;
+	private final Scheduler scheduler;
+
+	private ResourceResponseCache cache;
+	private String cacheKey;
+	private ResourceResponseCache.CachedResponse cachedResponse;
+	
+	private final Object lock = new Object( );
+	private final List<ResourceResponseFuture<T>> outstandingAttempts = new ArrayList<>( 2 );
+	private int attempts = 0;
+	private Scheduler.Task hedgeTask;
+	private Scheduler.Task retryTask;
+	
+	/**
+	 * Constructor for use by the ResourceRequest, which needs to be called 
+	 * before the underlying request is sent, so it can be copied.
+	 * @param theRequest all the request information
+	 * @param requestedAsync indicates if the original caller wanted sync or async operation (which only impacts log entries)
+	 * @param theExecutor the executor to translate responses on, or null to translate on the thread that received the response
+	 */
+	RetryingResponseFuture( ResourceRequest theRequest, boolean requestedAsync, Executor theExecutor ) {
+		Preconditions.checkNotNull( theRequest, "the future needs a request to watch" );
+		
+		request = theRequest;
+		template = theRequest.copyRequest( theRequest.getRequest( ) );
+		this.requestedAsync = requestedAsync;
+		executor = theExecutor;
+		retryPolicy = theRequest.getMethod( ).getRetryPolicy( );
+		hedgePolicy = theRequest.getMethod( ).getHedgePolicy( );
+		budget = theRequest.getClient( ).getRetryBudget( );
+		scheduler = theRequest.getClient( ).getHttpClient( ).getScheduler( );
+	}
+	
+    /**
+     * Called, before the request is sent, to have responses stored in the cache
+     * or, if the service indicates it wasn't modified, to use the cached response.
+     * @param theCache the cache to use
+     * @param theCacheKey the key of the request in the cache
+     * @param theCachedResponse the stale response being revalidated, or null if there isn't one
+     */
+    void useCache( ResourceResponseCache theCache, String theCacheKey, ResourceResponseCache.CachedResponse theCachedResponse ) {
+    	cache = theCache;
+    	cacheKey = theCacheKey;
+    	cachedResponse = theCachedResponse;
+    }
+
+	/**
+	 * Sends the first attempt, using the original underlying request,
+	 * and schedules the hedged request, if hedging.
+	 */
+	void start( ) {
+		budget.recordRequest( );
+		send( request.getRequest( ) );
+		
+		if( hedgePolicy != null ) {
+			long latency = request.getMethod( ).getLatencies( ).getLatency( hedgePolicy.getPercentile( ) );
+			if( latency >= 0 ) {
+				synchronized( lock ) {
+					if( !isDone( ) ) {
+						hedgeTask = scheduler.schedule( this::hedge, Math.max( latency, hedgePolicy.getMinimumDelay( ) ), TimeUnit.MILLISECONDS );
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Sends an attempt using the underlying request given.
+	 */
+	private void send( Request theHttpRequest ) {
+		// when balancing, each attempt is sent to the endpoint selected for it
+		LoadBalancer balancer = request.getClient( ).getLoadBalancer( );
+		LoadBalancer.EndpointState endpointState = balancer == null ? null : balancer.select( );
+		if( endpointState != null ) {
+			theHttpRequest = request.targetRequest( theHttpRequest, endpointState.getEndpoint( ) );
+		}
+		ResourceResponseFuture<T> attempt = new ResourceResponseFuture<T>( request, theHttpRequest, request.getMethod( ).getMaxResponseSize( ), requestedAsync, executor, false );
+		if( cache != null ) {
+			attempt.useCache( cache, cacheKey, cachedResponse );
+		}
+		synchronized( lock ) {
+			if( isDone( ) ) {
+				return;
+			}
+			outstandingAttempts.add( attempt );
+			attempts += 1;
+		}
+		long startTimestamp = System.nanoTime( );
+		attempt.whenComplete( ( result, failure ) -> onAttemptComplete( attempt, startTimestamp, result, failure ) );
+		if( endpointState != null ) {
+			balancer.track( endpointState, attempt );
+		}
+		CircuitBreaker breaker = request.getMethod( ).selectCircuitBreaker( endpointState );
+		if( breaker == null || breaker.permit( attempt ) ) {
+			theHttpRequest.send( attempt.getListener( ) );
+		} else {
+			attempt.completeExceptionally( breaker.createOpenException( theHttpRequest.getURI( ).toString( ) ) );
+		}
+	}
+	
+	/**
+	 * Sends the hedged request, if the request is still outstanding and the budget allows it.
+	 */
+	private void hedge( ) {
+		synchronized( lock ) {
+			hedgeTask = null;
+			if( isDone( ) || outstandingAttempts.isEmpty( ) ) {
+				return;
+			}
+		}
+		if( budget.tryHedge( ) ) {
+			logger.info( 
+					"Hedging, {}, resource method '{}' from contract '{}'.", new Object[] {
+							this.requestedAsync ? "asynchronously" : "synchronously",
+							request.getMethod( ).getName( ),
+							request.getClient( ).contractRoot } );
+			send( request.copyRequest( template ) );
+		}
+	}
+	
+	/**
+	 * Sends the retry, if the request is still outstanding.
+	 */
+	private void retry( ) {
+		synchronized( lock ) {
+			retryTask = null;
+			if( isDone( ) ) {
+				return;
+			}
+		}
+		send( request.copyRequest( template ) );
+	}
+	
+	/**
+	 * Cancels the scheduled hedge and retry, if any. 
+	 * This must be called while holding the lock.
+	 */
+	private void cancelScheduledTasks( ) {
+		if( hedgeTask != null ) {
+			hedgeTask.cancel( );
+			hedgeTask = null;
+		}
+		if( retryTask != null ) {
+			retryTask.cancel( );
+			retryTask = null;
+		}
+	}
+	
+	/**
+	 * Decides, once an attempt completes, whether to complete this future with it, 
+	 * wait on another outstanding attempt, or retry.
+	 */
+	private void onAttemptComplete( ResourceResponseFuture<T> theAttempt, long theStartTimestamp, ResourceResult<T> theResult, Throwable theFailure ) {
+		boolean retryable = isRetryable( theAttempt, theResult, theFailure );
+		List<ResourceResponseFuture<T>> otherAttempts = null;
+		
+		synchronized( lock ) {
+			outstandingAttempts.remove( theAttempt );
+			if( isDone( ) ) {
+				return;
+			} else if( retryable && !outstandingAttempts.isEmpty( ) ) {
+				// another attempt, the hedged request, may still succeed
+				return;
+			} else if( retryable && retryPolicy != null && attempts < retryPolicy.getMaxAttempts( ) && budget.tryRetry( ) ) {
+				long backoff = retryPolicy.calculateBackoff( attempts );
+				logger.info( 
+						"Retrying, {}, resource method '{}' from contract '{}' in {} ms, after attempt {} failed.", new Object[] {
+								this.requestedAsync ? "asynchronously" : "synchronously",
+								request.getMethod( ).getName( ),
+								request.getClient( ).contractRoot,
+								backoff,
+								attempts } );
+				// every attempt has failed, so the hedge, if still pending, has nothing left to hedge
+				cancelScheduledTasks( );
+				retryTask = scheduler.schedule( this::retry, backoff, TimeUnit.MILLISECONDS );
+				return;
+			} else {
+				otherAttempts = new ArrayList<>( outstandingAttempts );
+				outstandingAttempts.clear( );
+				cancelScheduledTasks( );
+			}
+		}
+		if( !retryable ) {
+			request.getMethod( ).getLatencies( ).record( TimeUnit.NANOSECONDS.toMillis( System.nanoTime( ) - theStartTimestamp ) );
+		}
+		if( theFailure != null ) {
+			completeExceptionally( theFailure );
+		} else {
+			complete( theResult );
+		}
+		// the losing attempts are cancelled, which aborts their requests, 
+		// and this is done after completing so they are ignored above
+		for( ResourceResponseFuture<T> otherAttempt : otherAttempts ) {
+			otherAttempt.cancel( true );
+		}
+	}
+	
+	/**
+	 * Indicates if the attempt failed in a way that another attempt may not. 
+	 */
+	private boolean isRetryable( ResourceResponseFuture<T> theAttempt, ResourceResult<T> theResult, Throwable theFailure ) {
+		int responseStatus = theAttempt.getResponseStatus( );
+		
+		if( theFailure instanceof CancellationException || theFailure instanceof CircuitOpenException ) {
+			return false;
+		} else if( responseStatus == HttpStatus.BAD_GATEWAY_502 || responseStatus == HttpStatus.SERVICE_UNAVAILABLE_503 || responseStatus == HttpStatus.GATEWAY_TIMEOUT_504 ) {
+			return true;
+		} else if( theFailure != null ) {
+			// without a response we couldn't communicate, but with 
+			// one the response itself was the problem
+			return responseStatus == 0;
+		} else if( theResult.getStatus( ) != null ) {
+			return retryPolicy != null ? retryPolicy.isRetryable( theResult.getStatus( ).getCode( ) ) : RetryPolicy.DEFAULT_RETRYABLE_STATUSES.contains( theResult.getStatus( ).getCode( ) );
+		} else {
+			return false;
+		}
+	}
+
+    /**
+     * Request to cancel the operation, which will also abort any outstanding attempts.
+     * @param mayInterrupt is not used
+     * @return returns if the cancel was successful or not
+     */
+	@Override
+	public boolean cancel( boolean mayInterrupt ) {
+		boolean cancelled = super.cancel( mayInterrupt );
+		if( cancelled ) {
+			List<ResourceResponseFuture<T>> attempts;
+			synchronized( lock ) {
+				attempts = new ArrayList<>( outstandingAttempts );
+				outstandingAttempts.clear( );
+				cancelScheduledTasks( );
+			}
+			for( ResourceResponseFuture<T> attempt : attempts ) {
+				attempt.cancel( mayInterrupt );
+			}
+		}
+		return cancelled;
+	}
+}
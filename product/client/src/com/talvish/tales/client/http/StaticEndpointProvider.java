@@ -0,0 +1,55 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.communication.HttpEndpoint;
+
+/**
+ * An endpoint provider with a fixed set of endpoints.
+ * @author jmolnar
+ *
+ */
+public class StaticEndpointProvider implements EndpointProvider {
+	private final List<HttpEndpoint> endpoints;
+	
+	/**
+	 * Constructor taking the string form of the endpoints, each of 
+	 * the form http(s)://host:port, e.g. http://localhost:8000.
+	 * @param theEndpoints the endpoints
+	 */
+	public StaticEndpointProvider( List<String> theEndpoints ) {
+		Preconditions.checkArgument( theEndpoints != null && theEndpoints.size( ) > 0, "need at least one endpoint" );
+		
+		List<HttpEndpoint> endpoints = new ArrayList<>( theEndpoints.size( ) );
+		for( String endpoint : theEndpoints ) {
+			endpoints.add( new HttpEndpoint( endpoint ) ); // this will do validation on the endpoint
+		}
+		this.endpoints = Collections.unmodifiableList( endpoints );
+	}
+	
+	/**
+	 * Returns the endpoints given when created.
+	 */
+	@Override
+	public List<HttpEndpoint> getEndpoints( ) {
+		return endpoints;
+	}
+}
@@ -0,0 +1,199 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.client.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.eclipse.jetty.client.api.Response;
+import org.eclipse.jetty.client.api.Result;
+import org.eclipse.jetty.util.Callback;
+
+/**
+ * A Jetty response listener that hands the content, as it arrives, to 
+ * a reader through an input stream. Content buffers are read in place 
+ * and only released back to Jetty once they have been read, so Jetty 
+ * doesn't read further ahead than the reader and no Jetty thread is 
+ * blocked waiting on the reader. The input stream is meant to be read 
+ * by a single thread.
+ * @author jmolnar
+ *
+ */
+class StreamingResponseListener extends Response.Listener.Adapter {
+	/**
+	 * A piece of content and the callback to tell Jetty it was consumed.
+	 */
+	private static class Chunk {
+		private final ByteBuffer buffer;
+		private final Callback callback;
+		
+		private Chunk( ByteBuffer theBuffer, Callback theCallback ) {
+			buffer = theBuffer;
+			callback = theCallback;
+		}
+	}
+	// this is placed on the queue once the response is complete
+	private static final Chunk END = new Chunk( ByteBuffer.allocate( 0 ), Callback.NOOP );
+
+	private final BlockingQueue<Chunk> chunks = new LinkedBlockingQueue<>( );
+	private final ContentStream stream = new ContentStream( );
+
+	private volatile Response response;
+	private volatile Result result;
+	
+	/**
+	 * Saves the response, so headers can be looked at before the content is read.
+	 */
+	@Override
+	public void onHeaders( Response theResponse ) {
+		response = theResponse;
+	}
+	
+	/**
+	 * Queues the content for the reader, the callback is completed once read.
+	 */
+	@Override
+	public void onContent( Response theResponse, ByteBuffer theContent, Callback theCallback ) {
+		chunks.add( new Chunk( theContent, theCallback ) );
+	}
+
+	/**
+	 * Saves the result and lets the reader know there is no more content.
+	 */
+	@Override
+	public void onComplete( Result theResult ) {
+		response = theResult.getResponse( );
+		result = theResult;
+		chunks.add( END );
+	}
+	
+	/**
+	 * Waits until either content is available or the response completed.
+	 * Once this returns, the response, and its headers, are available.
+	 * @return true if there is content to read, false otherwise
+	 * @throws IOException if the thread was interrupted
+	 */
+	public boolean awaitContent( ) throws IOException {
+		return stream.nextBuffer( false ) != null;
+	}
+	
+	/**
+	 * The response from the service, which is available
+	 * once {@link #awaitContent()} has returned.
+	 * @return the response
+	 */
+	public Response getResponse( ) {
+		return response;
+	}
+	
+	/**
+	 * The stream to read the content from. If the response fails while
+	 * reading, the stream will throw an IOException with the failure as
+	 * the cause.
+	 * @return the stream to read from
+	 */
+	public InputStream getInputStream( ) {
+		return stream;
+	}
+	
+	/**
+	 * Releases any unread content and waits for the response to complete.
+	 * @return the result of the request and response 
+	 * @throws IOException if the thread was interrupted
+	 */
+	public Result awaitResult( ) throws IOException {
+		while( stream.nextBuffer( true ) != null ) {
+			// skipping everything left
+		}
+		return result;
+	}
+	
+	/**
+	 * The stream giving access to the queued content. 
+	 */
+	private class ContentStream extends InputStream {
+		private Chunk current;
+		private boolean ended;
+		
+		/**
+		 * Gets the buffer that has content to read, waiting if needed.
+		 * @param skipCurrent true if the unread part of the current buffer should be skipped
+		 * @return the buffer to read from or null if there is no more content
+		 */
+		private ByteBuffer nextBuffer( boolean skipCurrent ) throws IOException {
+			while( !ended && ( current == null || skipCurrent || !current.buffer.hasRemaining( ) ) ) {
+				if( current != null ) {
+					// let jetty know we are done with this buffer
+					current.callback.succeeded( );
+					current = null;
+				}
+				try {
+					current = chunks.take( );
+				} catch( InterruptedException e ) {
+					throw ( InterruptedIOException )new InterruptedIOException( "interrupted while waiting for response content" ).initCause( e );
+				}
+				if( current == END ) {
+					current = null;
+					ended = true;
+				}
+				skipCurrent = false;
+			}
+			return current == null ? null : current.buffer;
+		}
+		
+		/**
+		 * Gets the buffer to read from, failing if the response failed. 
+		 */
+		private ByteBuffer readableBuffer( ) throws IOException {
+			ByteBuffer buffer = nextBuffer( false );
+			if( buffer == null && result != null && result.getFailure( ) != null ) {
+				throw new IOException( "the response failed while reading content", result.getFailure( ) );
+			}
+			return buffer;
+		}
+
+		@Override
+		public int read( ) throws IOException {
+			ByteBuffer buffer = readableBuffer( );
+			return buffer == null ? -1 : buffer.get( ) & 0xFF;
+		}
+		
+		@Override
+		public int read( byte[] theBytes, int theOffset, int theLength ) throws IOException {
+			if( theLength == 0 ) {
+				return 0;
+			} else {
+				ByteBuffer buffer = readableBuffer( );
+				if( buffer == null ) {
+					return -1;
+				} else {
+					int length = Math.min( theLength, buffer.remaining( ) );
+					buffer.get( theBytes, theOffset, length );
+					return length;
+				}
+			}
+		}
+		
+		@Override
+		public int available( ) {
+			return current == null ? 0 : current.buffer.remaining( );
+		}
+	}
+}
@@ -15,7 +15,6 @@
 // ***************************************************************************
 package com.talvish.tales.businessobjects;
 
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -58,8 +57,12 @@ public class ObjectId {
 	public static final Pattern OID_PATTERN			= Pattern.compile( OID_REGEX );
 
 	
-	// the actual id
-	private final String		_stringForm;
+	private static final char[] HEX_DIGITS		= "0123456789ABCDEF".toCharArray( );
+	
+	// the actual id, which is generated when first needed, the
+	// race to set it is benign since all threads generate the same
+	// value and strings are safe to share without synchronization
+	private String				_stringForm;
 
 	// the components
 	private final long			_sourceId;
@@ -80,13 +83,14 @@ public class ObjectId {
 	}
 
 	/**
-	 * Private constructor for sharing code.
+	 * Package constructor for sharing code and for generators 
+	 * that have already validated the values.
 	 * @param theValueId the value 
 	 * @param theTypeId the type of the object id
 	 * @param theSourceId the source id, representing who generated it
 	 * @param validate if true, the numeric values are validated, if false, they are not
 	 */
-	private ObjectId( long theValueId, int theTypeId, long theSourceId, boolean validate  )  {
+	ObjectId( long theValueId, int theTypeId, long theSourceId, boolean validate  )  {
 		if( validate ) {
 			// ensure parameters are good
 			isValid( theValueId, theTypeId, theSourceId, true );
@@ -96,9 +100,6 @@ public class ObjectId {
 		_valueId = theValueId;
 		_typeId = theTypeId;
 		_sourceId = theSourceId;
-		
-		// the ToUpper form of the string
-		_stringForm = String.format( "%016X%04X%012X", _valueId, _typeId, _sourceId );
 	}
 
 	/**
@@ -148,19 +149,76 @@ public class ObjectId {
 
 	/**
 	 * Override the hashCode method to return a hash code value
-	 * based on the underlying string.
+	 * based on the individual components.
 	 */
 	@Override
 	public int hashCode( ) {
-		return _stringForm.hashCode( );
+		int hash = Long.hashCode( _valueId );
+		hash = 31 * hash + _typeId;
+		hash = 31 * hash + Long.hashCode( _sourceId );
+		return hash;
 	}
 
 	/**
-	 * Override of the toString method to return the underlying string.
+	 * Override of the toString method to return the underlying string,
+	 * which is the upper case hex form of the value, type and source.
 	 */
 	@Override
 	public String toString() {
-		return _stringForm;
+		String stringForm = _stringForm;
+		if( stringForm == null ) {
+			char[] characters = new char[ OID_LENGTH ];
+			
+			encode( _valueId, characters, 0, 16 );
+			encode( _typeId, characters, 16, 4 );
+			encode( _sourceId, characters, 20, 12 );
+			stringForm = new String( characters );
+			_stringForm = stringForm;
+		}
+		return stringForm;
+	}
+	
+	/**
+	 * Helper method that writes the hex digits of a value into a character array.
+	 * @param theValue the value to write
+	 * @param theCharacters the array to write into
+	 * @param theOffset where in the array to start writing
+	 * @param theDigits the number of hex digits to write
+	 */
+	private static void encode( long theValue, char[] theCharacters, int theOffset, int theDigits ) {
+		long value = theValue;
+		for( int index = theOffset + theDigits - 1; index >= theOffset; index -= 1 ) {
+			theCharacters[ index ] = HEX_DIGITS[ ( int )( value & 0xF ) ];
+			value >>>= 4;
+		}
+	}
+	
+	/**
+	 * Helper method that reads hex digits from a string into a value.
+	 * @param theString the string to read from
+	 * @param theOffset where in the string to start reading
+	 * @param theDigits the number of hex digits to read
+	 * @return the value, or -1 if any of the characters were not hex digits
+	 */
+	private static long decode( String theString, int theOffset, int theDigits ) {
+		long value = 0;
+		int digit;
+		char character;
+		
+		for( int index = theOffset; index < theOffset + theDigits; index += 1 ) {
+			character = theString.charAt( index );
+			if( character >= '0' && character <= '9' ) {
+				digit = character - '0';
+			} else if( character >= 'A' && character <= 'F' ) {
+				digit = character - 'A' + 10;
+			} else if( character >= 'a' && character <= 'f' ) {
+				digit = character - 'a' + 10;
+			} else {
+				return -1;
+			}
+			value = ( value << 4 ) | digit;
+		}
+		return value;
 	}
 
 	/**
@@ -193,19 +251,26 @@ public class ObjectId {
 		ObjectId result = null;
 		
 		if( theStringForm != null ) {
-			Matcher matcher = OID_PATTERN.matcher( theStringForm );
-			if( matcher.matches( ) ) {
-				// set our values, none of which should fail given the regex
-				long valueId = Long.parseLong( matcher.group( 1 ), 16 );
-				int typeId = Integer.parseInt( matcher.group( 2 ), 16 );
-				long sourceId = Long.parseLong( matcher.group( 3 ), 16 );
-	
-				if( isValid( valueId, typeId, sourceId, shouldExcept ) ) {					
-					result = new ObjectId( valueId, typeId, sourceId, false ); // false means don't validate (since I just did)
+			// we decode the three parts directly, instead of using OID_PATTERN, 
+			// since this is called for every id received; a value id with the
+			// high bit set decodes as negative, which isValid rejects
+			long valueId = -1;
+			long typeId = -1;
+			long sourceId = -1;
+			
+			if( theStringForm.length( ) == OID_LENGTH ) {
+				valueId = decode( theStringForm, 0, 16 );
+				typeId = decode( theStringForm, 16, 4 );
+				sourceId = decode( theStringForm, 20, 12 );
+			}
+			if( valueId != -1 && typeId != -1 && sourceId != -1 ) {
+				if( isValid( valueId, ( int )typeId, sourceId, shouldExcept ) ) {					
+					result = new ObjectId( valueId, ( int )typeId, sourceId, false ); // false means don't validate (since I just did)
+					result._stringForm = theStringForm.toUpperCase( );
 				} // no need to throw exceptions if bad, isValid will
 	
 			} else if( shouldExcept ) {
-				throw new IllegalArgumentException( String.format( "string, '%s', is either not %s characters long or does not have required shape", OID_LENGTH, theStringForm ) );
+				throw new IllegalArgumentException( String.format( "string, '%s', is either not %s characters long or does not have required shape", theStringForm, OID_LENGTH ) );
 			}
 		} else if( shouldExcept ) {
 			throw new IllegalArgumentException( "string was not given to parse " );
@@ -230,7 +295,7 @@ public class ObjectId {
 			valid = false;
 		}
 		if( !( theSourceId <= MAX_SOURCE_ID && theSourceId >= MIN_SOURCE_ID ) ) {
-			failedText = String.format( "source '%s' is out of the acceptable range", shouldExcept );
+			failedText = String.format( "source '%s' is out of the acceptable range", theSourceId );
 			valid = false;
 		}
 		
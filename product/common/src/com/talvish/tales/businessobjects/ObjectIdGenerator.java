@@ -0,0 +1,168 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.businessobjects;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Generates object ids, for a particular type and source, locking only when 
+ * leasing. Value ids are leased in blocks from a {@link BlockSource}, typically 
+ * backed by shared storage, and then handed out from memory. Ids are unique and, 
+ * as long as the block source hands out increasing blocks, each id generated is 
+ * larger than those generated before it. Unused ids in a block are lost if 
+ * the generator is discarded.
+ * @author jmolnar
+ *
+ */
+public final class ObjectIdGenerator {
+	/**
+	 * The source of blocks of value ids.
+	 */
+	public interface BlockSource {
+		/**
+		 * Reserves a block of value ids for the type and source. The block 
+		 * must not overlap any block previously reserved for the same type
+		 * and source, and should start after all of them.
+		 * @param theTypeId the type the ids are for
+		 * @param theSourceId the source the ids are for
+		 * @param theBlockSize the number of value ids to reserve
+		 * @return the first value id of the block
+		 */
+		long leaseBlock( int theTypeId, long theSourceId, int theBlockSize );
+	}
+	
+	/**
+	 * A leased block, where the ids from the cursor up to,
+	 * and including, the last are available. The start is 
+	 * kept so a cursor that overflows isn't mistaken as 
+	 * being within the block.
+	 */
+	private static final class Block {
+		private final AtomicLong cursor;
+		private final long start;
+		private final long last;
+		
+		Block( long theStart, long theLast ) {
+			cursor = new AtomicLong( theStart );
+			start = theStart;
+			last = theLast;
+		}
+	}
+	
+	private final int typeId;
+	private final long sourceId;
+	private final int blockSize;
+	private final BlockSource blockSource;
+	
+	private final AtomicReference<Block> currentBlock = new AtomicReference<>( new Block( ObjectId.MIN_VALUE_ID, ObjectId.MIN_VALUE_ID - 1 ) );
+	private final ReentrantLock leaseLock = new ReentrantLock( );
+
+	/**
+	 * Constructor taking what is needed to generate ids.
+	 * @param theTypeId the type id of the generated ids
+	 * @param theSourceId the source id of the generated ids
+	 * @param theBlockSize the number of value ids to lease at a time, larger sizes mean less leasing but more lost ids on restarts
+	 * @param theBlockSource where blocks of value ids are leased from
+	 */
+	public ObjectIdGenerator( int theTypeId, long theSourceId, int theBlockSize, BlockSource theBlockSource ) {
+		Preconditions.checkArgument( theTypeId >= ObjectId.MIN_TYPE_ID && theTypeId <= ObjectId.MAX_TYPE_ID, "type '%s' is out of the acceptable range", theTypeId );
+		Preconditions.checkArgument( theSourceId >= ObjectId.MIN_SOURCE_ID && theSourceId <= ObjectId.MAX_SOURCE_ID, "source '%s' is out of the acceptable range", theSourceId );
+		Preconditions.checkArgument( theBlockSize > 0, "block size must be greater than zero" );
+		Preconditions.checkNotNull( theBlockSource, "need a block source" );
+		
+		typeId = theTypeId;
+		sourceId = theSourceId;
+		blockSize = theBlockSize;
+		blockSource = theBlockSource;
+	}
+	
+	/**
+	 * The type id of the generated ids.
+	 * @return the type id
+	 */
+	public int getTypeId( ) {
+		return typeId;
+	}
+	
+	/**
+	 * The source id of the generated ids.
+	 * @return the source id
+	 */
+	public long getSourceId( ) {
+		return sourceId;
+	}
+	
+	/**
+	 * The number of value ids leased at a time.
+	 * @return the block size
+	 */
+	public int getBlockSize( ) {
+		return blockSize;
+	}
+
+	/**
+	 * Generates the next object id. This only leaves memory when
+	 * the current block is used up and another must be leased, in 
+	 * which case other threads needing ids block, rather than spin,
+	 * until the lease completes.
+	 * @return the generated object id
+	 */
+	public ObjectId generate( ) {
+		Block block;
+		long valueId;
+		
+		while( true ) {
+			block = currentBlock.get( );
+			valueId = block.cursor.getAndIncrement( );
+			if( valueId >= block.start && valueId <= block.last ) {
+				// values were validated when the block was leased
+				return new ObjectId( valueId, typeId, sourceId, false );
+			} else {
+				// the first thread here leases, the others wait on the lock, and
+				// since another thread may have leased while we were waiting, we
+				// only lease if the block we found used up is still the current one
+				leaseLock.lock( );
+				try {
+					if( currentBlock.get( ) == block ) {
+						currentBlock.set( leaseBlock( ) );
+					}
+				} finally {
+					leaseLock.unlock( );
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that leases a block from the block source and 
+	 * ensures the value ids in the block are in range.
+	 * @return the leased block
+	 */
+	private Block leaseBlock( ) {
+		long start = blockSource.leaseBlock( typeId, sourceId, blockSize );
+		
+		// the last id of the block is start + blockSize - 1, checked in a way that cannot overflow
+		if( start < ObjectId.MIN_VALUE_ID || start > ObjectId.MAX_VALUE_ID - blockSize + 1 ) {
+			throw new IllegalStateException( String.format( "The block source leased a block starting at '%s' for type '%s' and source '%s', which is out of the acceptable range.", start, typeId, sourceId ) );
+		} else {
+			return new Block( start, start + blockSize - 1 );
+		}
+	}
+}
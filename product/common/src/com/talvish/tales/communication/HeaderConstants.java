@@ -27,6 +27,12 @@ public class HeaderConstants {
 	public static final String ROOT_REQUEST_ID_HEADER = "Root-Request-Id";
 	public static final String PARENT_REQUEST_ID_HEADER = "Parent-Request-Id";
 	
+	// content negotiation related
+	public static final String ACCEPT = "Accept";
+	public static final String CONTENT_TYPE = "Content-Type";
+	public static final String CONTENT_ENCODING = "Content-Encoding";
+	public static final String VARY = "Vary";
+	
 	// CORS related
 	
 	// request headers
@@ -15,8 +15,11 @@
 // ***************************************************************************
 package com.talvish.tales.contracts;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
 import java.util.Collection;
 import java.util.Date;
 import java.util.Map;
@@ -60,7 +63,9 @@ public class ContractVersion {
 	private static final Pattern ONLY_VERSION_RANGE_PATTERN = Pattern.compile( ONLY_VERSION_RANGE_REGEX );
 
 	
-	private static final SimpleDateFormat dateformatter = new SimpleDateFormat( "yyyyMMdd" );
+	// unlike SimpleDateFormat this is safe to share across threads, it 
+	// is lenient so out of range months and days roll over as they used to
+	private static final DateTimeFormatter dateformatter = DateTimeFormatter.ofPattern( "uuuuMMdd" ).withResolverStyle( ResolverStyle.LENIENT );
 
 	private final String versionString;	
 	private final Date versionDate;
@@ -89,7 +94,7 @@ public class ContractVersion {
 	public static String generateString( Date theVersionDate ) {
 		Preconditions.checkNotNull( theVersionDate, "must provide a date" );
 		
-		String version = dateformatter.format( theVersionDate );
+		String version = dateformatter.format( theVersionDate.toInstant( ).atZone( ZoneId.systemDefault( ) ).toLocalDate( ) );
 		return version;
 	}
 
@@ -213,8 +218,8 @@ public class ContractVersion {
 		
 		// next we make sure we have a proper date
 		try {
-			versionDate = dateformatter.parse( stringDate );
-		} catch( ParseException e ) {
+			versionDate = Date.from( LocalDate.parse( stringDate, dateformatter ).atStartOfDay( ZoneId.systemDefault( ) ).toInstant( ) );
+		} catch( DateTimeParseException e ) {
 			throw new IllegalArgumentException( "the version could not be parsed", e );
 		}
 		Preconditions.checkArgument( versionDate != null, "the version could not be parsed" );
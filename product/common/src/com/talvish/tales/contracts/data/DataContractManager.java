@@ -155,7 +155,7 @@ public class DataContractManager extends SerializationTypeManager< DataContractT
 				// we need to get type information for the keys and values
 
 				// first we deal with the keys
-				JavaType declaredKeyType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
+				JavaType declaredKeyType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
 	    		List<ValueType<DataContractType,DataContractField>> keyTypes = extractValueTypes(theField, declaredKeyType, dataMemberAnnotation.keyTypes(), aDeclaringInstance );
 	    		// if there was nothing on the attribute, then we use the type's key type itself
 	            if( keyTypes.size() == 0 ) {
@@ -163,7 +163,7 @@ public class DataContractManager extends SerializationTypeManager< DataContractT
 	            }
 	            
 	            // next we deal with the values
-	    		JavaType declaredValueType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 1 ] );
+	    		JavaType declaredValueType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 1 ] );
 	    		List<ValueType<DataContractType,DataContractField>> valueTypes = extractValueTypes(theField, declaredValueType, dataMemberAnnotation.valueTypes(), aDeclaringInstance );
 	    		// if there was nothing on the attribute, then we use the type's value type itself
 	            if( valueTypes.size() == 0 ) {
@@ -175,7 +175,7 @@ public class DataContractManager extends SerializationTypeManager< DataContractT
 			} else if( ( Collection.class.isAssignableFrom( fieldClass ) && ( fieldGenericType instanceof ParameterizedType ) ) ) {
 				// if we have a collection (e.g list, set, collection itself, etc)
 				// we need to get the type information for the collection element
-	    		JavaType declaredValueType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
+	    		JavaType declaredValueType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
 	    		List<ValueType<DataContractType,DataContractField>> valueTypes = extractValueTypes(theField, declaredValueType, dataMemberAnnotation.valueTypes(), aDeclaringInstance );
 	    		// if there was nothing on the attribute, then we use the type's value type itself
 	            if( valueTypes.size() == 0 ) {
@@ -187,7 +187,7 @@ public class DataContractManager extends SerializationTypeManager< DataContractT
 	    	} else if( fieldClass.isArray( ) ) {
 	    		// if we have an array we basically do the same thing as a collection which means
 	    		// we need to get the type information for the array element
-	    		JavaType declaredValueType = new JavaType( TypeUtility.extractComponentType( fieldGenericType ) );
+	    		JavaType declaredValueType = JavaType.of( TypeUtility.extractComponentType( fieldGenericType ) );
 	    		List<ValueType<DataContractType,DataContractField>> valueTypes = extractValueTypes(theField, declaredValueType, dataMemberAnnotation.valueTypes(), aDeclaringInstance );
 	    		// if there was nothing on the attribute, then we use the type's component type itself
 	            if( valueTypes.size() == 0 ) {
@@ -242,7 +242,7 @@ public class DataContractManager extends SerializationTypeManager< DataContractT
         				desiredClass.getName(),
         				theDeclaredType.getName( ) ) );
         	} else {
-        		desiredType = new JavaType( desiredClass );
+        		desiredType = JavaType.of( desiredClass );
         		valueTypes.add( new ValueType<>( desiredType, generateType( desiredType, aDeclaringInstance ) ) );
         	}
         }
@@ -0,0 +1,399 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.parts;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+
+/**
+ * A utility class for quickly parsing and formatting the fixed layout dates 
+ * that Tales emits and typically receives, which are ISO-8601 date/times like
+ * '2017-10-19T10:15:30.123Z' and RFC 1123 HTTP dates like 'Thu, 19 Oct 2017 10:15:30 GMT'.
+ * Values in the expected layout are handled directly, without intermediate 
+ * objects, and anything else is given to the general purpose parsers, so 
+ * results, and failures, match the general purpose parsers.
+ * @author jmolnar
+ *
+ */
+public final class DateTimeCodec {
+	private static final int MILLIS_PER_DAY = 24 * 60 * 60 * 1000;
+	private static final int[] DAYS_IN_MONTH = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+	private static final int[] FRACTION_SCALES = { 0, 100000000, 10000000, 1000000, 100000, 10000, 1000, 100, 10, 1 };
+	private static final String[] DAY_NAMES = { "Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun" };
+	private static final String[] MONTH_NAMES = { "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec" };
+	
+	// the positions of the parts of 'yyyy-MM-ddTHH:mm:ss.fffffffff'
+	private static final int DATE_LENGTH = 10;
+	private static final int MINUTE_LENGTH = 16;
+	private static final int SECOND_LENGTH = 19;
+	private static final int MAX_FRACTION_DIGITS = 9;
+	// the length of 'EEE, dd MMM yyyy HH:mm:ss GMT'
+	private static final int HTTP_DATE_LENGTH = 29;
+	
+	/**
+	 * Parses an ISO-8601 date/time with an offset, e.g. '2017-10-19T10:15:30.123+01:00', 
+	 * giving the same result as {@code OffsetDateTime.parse( theString, DateTimeFormatter.ISO_DATE_TIME )}.
+	 * @param theString the string to parse
+	 * @return the parsed date/time
+	 * @throws java.time.format.DateTimeParseException if the string could not be parsed
+	 */
+	public static OffsetDateTime parseOffsetDateTime( String theString ) {
+		int localEnd = findLocalDateTimeEnd( theString );
+		
+		if( localEnd > 0 && localEnd < theString.length( ) ) {
+			int offsetSeconds = parseOffset( theString, localEnd );
+			if( offsetSeconds != Integer.MIN_VALUE ) {
+				LocalDateTime localDateTime = parseLocalDateTime( theString, localEnd );
+				if( localDateTime != null ) {
+					return OffsetDateTime.of( localDateTime, ZoneOffset.ofTotalSeconds( offsetSeconds ) );
+				}
+			}
+		}
+		return OffsetDateTime.parse( theString, DateTimeFormatter.ISO_DATE_TIME );
+	}
+
+	/**
+	 * Parses an ISO-8601 date/time, e.g. '2017-10-19T10:15:30.123', ignoring an offset if present,
+	 * giving the same result as {@code LocalDateTime.parse( theString, DateTimeFormatter.ISO_DATE_TIME )}.
+	 * @param theString the string to parse
+	 * @return the parsed date/time
+	 * @throws java.time.format.DateTimeParseException if the string could not be parsed
+	 */
+	public static LocalDateTime parseLocalDateTime( String theString ) {
+		int localEnd = findLocalDateTimeEnd( theString );
+		
+		if( localEnd > 0 && ( localEnd == theString.length( ) || parseOffset( theString, localEnd ) != Integer.MIN_VALUE ) ) {
+			LocalDateTime localDateTime = parseLocalDateTime( theString, localEnd );
+			if( localDateTime != null ) {
+				return localDateTime;
+			}
+		}
+		return LocalDateTime.parse( theString, DateTimeFormatter.ISO_DATE_TIME );
+	}
+
+	/**
+	 * Parses an ISO-8601 date, e.g. '2017-10-19', giving the same result
+	 * as {@code LocalDate.parse( theString )}.
+	 * @param theString the string to parse
+	 * @return the parsed date
+	 * @throws java.time.format.DateTimeParseException if the string could not be parsed
+	 */
+	public static LocalDate parseLocalDate( String theString ) {
+		if( theString.length( ) == DATE_LENGTH && hasDateLayout( theString ) ) {
+			int year = parseDigits( theString, 0, 4 );
+			int month = parseDigits( theString, 5, 2 );
+			int day = parseDigits( theString, 8, 2 );
+			
+			if( isValidDate( year, month, day ) ) {
+				return LocalDate.of( year, month, day );
+			}
+		}
+		return LocalDate.parse( theString );
+	}
+
+	/**
+	 * Parses an ISO-8601 date/time into a Joda DateTime, keeping the offset given, 
+	 * giving the same result as {@code DateTime.parse( theString )}.
+	 * @param theString the string to parse
+	 * @return the parsed date/time
+	 * @throws IllegalArgumentException if the string could not be parsed
+	 */
+	public static DateTime parseDateTime( String theString ) {
+		int localEnd = findLocalDateTimeEnd( theString );
+		
+		// joda keeps milliseconds only, so longer fractions are left to joda
+		if( localEnd > 0 && localEnd < theString.length( ) && ( localEnd <= SECOND_LENGTH || localEnd - SECOND_LENGTH - 1 <= 3 ) ) {
+			int offsetSeconds = parseOffset( theString, localEnd );
+			if( offsetSeconds != Integer.MIN_VALUE ) {
+				int year = parseDigits( theString, 0, 4 );
+				int month = parseDigits( theString, 5, 2 );
+				int day = parseDigits( theString, 8, 2 );
+				int hour = parseDigits( theString, 11, 2 );
+				int minute = parseDigits( theString, 14, 2 );
+				int second = localEnd > MINUTE_LENGTH ? parseDigits( theString, 17, 2 ) : 0;
+				int millisecond = localEnd > SECOND_LENGTH ? parseFraction( theString, SECOND_LENGTH + 1, localEnd ) / 1000000 : 0;
+				
+				if( isValidDate( year, month, day ) && isValidTime( hour, minute, second ) ) {
+					return new DateTime( year, month, day, hour, minute, second, millisecond, DateTimeZone.forOffsetMillis( offsetSeconds * 1000 ) );
+				}
+			}
+		}
+		return DateTime.parse( theString );
+	}
+
+	/**
+	 * Formats a Joda DateTime as an ISO-8601 date/time, e.g. '2017-10-19T10:15:30.123Z',
+	 * giving the same result as {@code theDateTime.toString( )}.
+	 * @param theDateTime the date/time to format
+	 * @return the formatted date/time
+	 */
+	public static String formatDateTime( DateTime theDateTime ) {
+		long instant = theDateTime.getMillis( );
+		int offsetMillis = theDateTime.getZone( ).getOffset( instant );
+		long localMillis = instant + offsetMillis;
+		long days = Math.floorDiv( localMillis, MILLIS_PER_DAY );
+		
+		if( !( theDateTime.getChronology( ) instanceof ISOChronology ) || offsetMillis % 60000 != 0 || days < -719528 || days > 2932896 ) {
+			// other calendars, second based offsets and years outside of 0000-9999 are left to joda
+			return theDateTime.toString( );
+		} else {
+			int millisOfDay = Math.floorMod( localMillis, MILLIS_PER_DAY );
+			int civil = civilFromDays( days );
+			char[] characters = new char[ offsetMillis == 0 ? 24 : 29 ];
+			
+			writeDigits( civil >> 9, characters, 0, 4 );
+			characters[ 4 ] = '-';
+			writeDigits( ( civil >> 5 ) & 0xF, characters, 5, 2 );
+			characters[ 7 ] = '-';
+			writeDigits( civil & 0x1F, characters, 8, 2 );
+			characters[ 10 ] = 'T';
+			writeDigits( millisOfDay / 3600000, characters, 11, 2 );
+			characters[ 13 ] = ':';
+			writeDigits( ( millisOfDay / 60000 ) % 60, characters, 14, 2 );
+			characters[ 16 ] = ':';
+			writeDigits( ( millisOfDay / 1000 ) % 60, characters, 17, 2 );
+			characters[ 19 ] = '.';
+			writeDigits( millisOfDay % 1000, characters, 20, 3 );
+			if( offsetMillis == 0 ) {
+				characters[ 23 ] = 'Z';
+			} else {
+				int offsetMinutes = Math.abs( offsetMillis ) / 60000;
+				characters[ 23 ] = offsetMillis < 0 ? '-' : '+';
+				writeDigits( offsetMinutes / 60, characters, 24, 2 );
+				characters[ 26 ] = ':';
+				writeDigits( offsetMinutes % 60, characters, 27, 2 );
+			}
+			return new String( characters );
+		}
+	}
+
+	/**
+	 * Parses an RFC 1123 HTTP date, e.g. 'Thu, 19 Oct 2017 10:15:30 GMT', into milliseconds 
+	 * since the epoch. This only handles the one layout HTTP/1.1 requires senders to use.
+	 * @param theString the string to parse
+	 * @return the milliseconds since the epoch, or -1 if the string wasn't an RFC 1123 date
+	 */
+	public static long parseHttpDate( String theString ) {
+		if( theString.length( ) == HTTP_DATE_LENGTH &&
+			theString.charAt( 3 ) == ',' && theString.charAt( 4 ) == ' ' && theString.charAt( 7 ) == ' ' &&
+			theString.charAt( 11 ) == ' ' && theString.charAt( 16 ) == ' ' && theString.charAt( 19 ) == ':' &&
+			theString.charAt( 22 ) == ':' && theString.regionMatches( 25, " GMT", 0, 4 ) &&
+			indexOfName( DAY_NAMES, theString, 0 ) >= 0 ) {
+			
+			int day = parseDigits( theString, 5, 2 );
+			int month = indexOfName( MONTH_NAMES, theString, 8 ) + 1;
+			int year = parseDigits( theString, 12, 4 );
+			int hour = parseDigits( theString, 17, 2 );
+			int minute = parseDigits( theString, 20, 2 );
+			int second = parseDigits( theString, 23, 2 );
+			
+			if( isValidDate( year, month, day ) && isValidTime( hour, minute, second ) ) {
+				return daysFromCivil( year, month, day ) * MILLIS_PER_DAY + ( ( hour * 60L + minute ) * 60L + second ) * 1000L;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Finds the end of the 'yyyy-MM-ddTHH:mm[:ss[.fffffffff]]' portion of the string.
+	 * @return the index after the last character of the date/time, or -1 if the layout isn't as expected
+	 */
+	private static int findLocalDateTimeEnd( String theString ) {
+		int length = theString.length( );
+		int end = -1;
+		
+		if( length >= MINUTE_LENGTH && hasDateLayout( theString ) && theString.charAt( 10 ) == 'T' && 
+			isDigit( theString.charAt( 11 ) ) && isDigit( theString.charAt( 12 ) ) && theString.charAt( 13 ) == ':' &&
+			isDigit( theString.charAt( 14 ) ) && isDigit( theString.charAt( 15 ) ) ) {
+			end = MINUTE_LENGTH;
+			if( length >= SECOND_LENGTH && theString.charAt( 16 ) == ':' ) {
+				if( isDigit( theString.charAt( 17 ) ) && isDigit( theString.charAt( 18 ) ) ) {
+					end = SECOND_LENGTH;
+					if( length > SECOND_LENGTH + 1 && theString.charAt( SECOND_LENGTH ) == '.' ) {
+						end = SECOND_LENGTH + 1;
+						while( end < length && isDigit( theString.charAt( end ) ) ) {
+							end += 1;
+						}
+						if( end == SECOND_LENGTH + 1 || end - SECOND_LENGTH - 1 > MAX_FRACTION_DIGITS ) {
+							end = -1;
+						}
+					}
+				} else {
+					end = -1;
+				}
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * Creates the LocalDateTime for the string, which must have already 
+	 * been checked using {@link #findLocalDateTimeEnd(String)}.
+	 * @return the LocalDateTime, or null if any of the values were out of range
+	 */
+	private static LocalDateTime parseLocalDateTime( String theString, int theEnd ) {
+		int year = parseDigits( theString, 0, 4 );
+		int month = parseDigits( theString, 5, 2 );
+		int day = parseDigits( theString, 8, 2 );
+		int hour = parseDigits( theString, 11, 2 );
+		int minute = parseDigits( theString, 14, 2 );
+		int second = theEnd > MINUTE_LENGTH ? parseDigits( theString, 17, 2 ) : 0;
+		int nanosecond = theEnd > SECOND_LENGTH ? parseFraction( theString, SECOND_LENGTH + 1, theEnd ) : 0;
+		
+		if( isValidDate( year, month, day ) && isValidTime( hour, minute, second ) ) {
+			return LocalDateTime.of( year, month, day, hour, minute, second, nanosecond );
+		} else {
+			return null;
+		}
+	}
+
+	/**
+	 * Parses an offset of the form 'Z' or '+HH:mm' that must end the string.
+	 * @return the offset in seconds, or Integer.MIN_VALUE if there wasn't a valid offset
+	 */
+	private static int parseOffset( String theString, int theStart ) {
+		int length = theString.length( ) - theStart;
+		char sign = theString.charAt( theStart );
+		
+		if( length == 1 && sign == 'Z' ) {
+			return 0;
+		} else if( length == 6 && ( sign == '+' || sign == '-' ) && theString.charAt( theStart + 3 ) == ':' ) {
+			int hours = parseDigits( theString, theStart + 1, 2 );
+			int minutes = parseDigits( theString, theStart + 4, 2 );
+			
+			if( hours >= 0 && minutes >= 0 && minutes <= 59 && ( hours < 18 || ( hours == 18 && minutes == 0 ) ) ) {
+				int seconds = ( hours * 60 + minutes ) * 60;
+				return sign == '-' ? -seconds : seconds;
+			}
+		}
+		return Integer.MIN_VALUE;
+	}
+	
+	/**
+	 * Parses the digits of a fraction of a second into nanoseconds.
+	 */
+	private static int parseFraction( String theString, int theStart, int theEnd ) {
+		return parseDigits( theString, theStart, theEnd - theStart ) * FRACTION_SCALES[ theEnd - theStart ];
+	}
+
+	/**
+	 * Indicates if the string starts with 'yyyy-MM-dd'.
+	 */
+	private static boolean hasDateLayout( String theString ) {
+		return isDigit( theString.charAt( 0 ) ) && isDigit( theString.charAt( 1 ) ) && isDigit( theString.charAt( 2 ) ) && isDigit( theString.charAt( 3 ) ) && 
+				theString.charAt( 4 ) == '-' && isDigit( theString.charAt( 5 ) ) && isDigit( theString.charAt( 6 ) ) && 
+				theString.charAt( 7 ) == '-' && isDigit( theString.charAt( 8 ) ) && isDigit( theString.charAt( 9 ) );
+	}
+
+	/**
+	 * Parses a fixed number of digits.
+	 * @return the value, or -1 if any of the characters weren't digits
+	 */
+	private static int parseDigits( String theString, int theStart, int theCount ) {
+		int value = 0;
+		char character;
+		
+		for( int index = theStart; index < theStart + theCount; index += 1 ) {
+			character = theString.charAt( index );
+			if( !isDigit( character ) ) {
+				return -1;
+			}
+			value = value * 10 + ( character - '0' );
+		}
+		return value;
+	}
+	
+	/**
+	 * Writes a fixed number of digits, zero padded.
+	 */
+	private static void writeDigits( int theValue, char[] theCharacters, int theStart, int theCount ) {
+		int value = theValue;
+		for( int index = theStart + theCount - 1; index >= theStart; index -= 1 ) {
+			theCharacters[ index ] = ( char )( '0' + value % 10 );
+			value /= 10;
+		}
+	}
+
+	private static boolean isDigit( char theCharacter ) {
+		return theCharacter >= '0' && theCharacter <= '9';
+	}
+	
+	/**
+	 * Finds which of the three letter names is at the location in the string.
+	 * @return the index of the name, or -1 if none of the names matched
+	 */
+	private static int indexOfName( String[] theNames, String theString, int theStart ) {
+		for( int index = 0; index < theNames.length; index += 1 ) {
+			if( theString.regionMatches( theStart, theNames[ index ], 0, 3 ) ) {
+				return index;
+			}
+		}
+		return -1;
+	}
+
+	private static boolean isValidDate( int theYear, int theMonth, int theDay ) {
+		if( theYear < 0 || theMonth < 1 || theMonth > 12 || theDay < 1 ) {
+			return false;
+		} else if( theMonth == 2 && ( theYear % 4 == 0 && ( theYear % 100 != 0 || theYear % 400 == 0 ) ) ) {
+			return theDay <= 29;
+		} else {
+			return theDay <= DAYS_IN_MONTH[ theMonth - 1 ];
+		}
+	}
+
+	private static boolean isValidTime( int theHour, int theMinute, int theSecond ) {
+		return theHour >= 0 && theHour <= 23 && theMinute >= 0 && theMinute <= 59 && theSecond >= 0 && theSecond <= 59;
+	}
+
+	/**
+	 * Calculates the days since the epoch of a proleptic Gregorian date.
+	 * This is based on Howard Hinnant's days_from_civil algorithm.
+	 */
+	private static long daysFromCivil( int theYear, int theMonth, int theDay ) {
+		int year = theMonth <= 2 ? theYear - 1 : theYear;
+		int era = Math.floorDiv( year, 400 );
+		int yearOfEra = year - era * 400;
+		int dayOfYear = ( 153 * ( theMonth + ( theMonth > 2 ? -3 : 9 ) ) + 2 ) / 5 + theDay - 1;
+		int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097L + dayOfEra - 719468;
+	}
+
+	/**
+	 * Calculates the proleptic Gregorian date of the days since the epoch, 
+	 * returned packed as (year << 9) | (month << 5) | day to avoid allocating.
+	 * This is based on Howard Hinnant's civil_from_days algorithm.
+	 */
+	private static int civilFromDays( long theDays ) {
+		long days = theDays + 719468;
+		long era = Math.floorDiv( days, 146097 );
+		int dayOfEra = ( int )( days - era * 146097 );
+		int yearOfEra = ( dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096 ) / 365;
+		int dayOfYear = dayOfEra - ( 365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100 );
+		int monthPart = ( 5 * dayOfYear + 2 ) / 153;
+		int day = dayOfYear - ( 153 * monthPart + 2 ) / 5 + 1;
+		int month = monthPart < 10 ? monthPart + 3 : monthPart - 9;
+		int year = ( int )( yearOfEra + era * 400 ) + ( month <= 2 ? 1 : 0 );
+		
+		return ( year << 9 ) | ( month << 5 ) | day;
+	}
+}
@@ -24,16 +24,31 @@ import com.google.common.base.Preconditions;
  * A class that holds references to the class and generic type information.
  * Technically the class information can be gotten from the type information
  * but we cache them together to ease overall access.
+ * Instances should be retrieved using {@link #of(Type)}, which returns 
+ * a shared instance per type, so that the analysis is done once and 
+ * comparisons are typically by reference.
  * @author jmolnar
  *
  */
 public class JavaType {
+	// classes are kept in a ClassValue, and other types (e.g. parameterized
+	// types) in a type cache, so they don't keep their class loaders alive
+	private static final ClassValue<JavaType> classTypes = new ClassValue<JavaType>( ) {
+		@Override
+		protected JavaType computeValue( Class<?> theClass ) {
+			return new JavaType( theClass );
+		}
+	};
+	private static final TypeCache<JavaType> otherTypes = new TypeCache<>( );
+	
     private final Type type;
     private final Class<?> underlyingClass;
     private final JavaType supertype;
+    private final int hashCode;
 
     /**
-     * Constructor taking the type.
+     * Constructor taking the type. 
+     * Consider using {@link #of(Type)} instead, which returns shared instances.
      * @param theType the type in question
      */
     public JavaType( Type theType ) {
@@ -43,10 +58,33 @@ public class JavaType {
     	underlyingClass = TypeUtility.extractClass( theType );    	
     	Preconditions.checkNotNull( underlyingClass, "Attempting to get a reference to a type, '%s' (of type '%s'), whose underlying type could not be retrieved, likely due to a generic type having a type parameter that is also a generic type, or an array using a generic type parameter.", theType.getTypeName(), theType.getClass().getSimpleName( ) );
     	if( underlyingClass.getGenericSuperclass( ) != null ) {
-    		supertype = new JavaType( underlyingClass.getGenericSuperclass( ) );
+    		supertype = JavaType.of( underlyingClass.getGenericSuperclass( ) );
     	} else {
     		supertype = null;
     	}
+    	hashCode = theType.hashCode( );
+    }
+    
+    /**
+     * Returns the shared JavaType instance for the type given,
+     * creating it if this is the first time the type was seen.
+     * @param theType the type to get the JavaType for
+     * @return the JavaType for the type
+     */
+    public static JavaType of( Type theType ) {
+    	Preconditions.checkNotNull( theType, "need a type" );
+    	
+    	if( theType instanceof Class<?> ) {
+    		return classTypes.get( ( Class<?> )theType );
+    	} else {
+    		JavaType javaType = otherTypes.get( theType );
+    		if( javaType == null ) {
+    			// not using computeIfAbsent since the supertypes 
+    			// are created, and added, while creating this one
+    			javaType = otherTypes.putIfAbsent( theType, new JavaType( theType ) );
+    		}
+    		return javaType;
+    	}
     }
 
     /**
@@ -98,19 +136,22 @@ public class JavaType {
      */
     @Override
     public boolean equals( Object theObject) {
-		if( theObject instanceof JavaType ) {
-			return type.equals( ( ( JavaType )theObject ).type );
+    	if( theObject == this ) {
+    		return true;
+    	} else if( theObject instanceof JavaType ) {
+			JavaType otherType = ( JavaType )theObject;
+			return hashCode == otherType.hashCode && type.equals( otherType.type );
 		} else {
 			return false;
 		}
     }
     
     /**
-     * Hashcode based on the type.
+     * Hashcode based on the type, which is calculated once.
      * @return the hashcode
      */
     @Override
     public int hashCode() {
-    	return type.hashCode();
+    	return hashCode;
     }
 }
@@ -0,0 +1,170 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.parts.reflection;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.Member;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * A cache of values per type that doesn't keep class loaders alive. Values are 
+ * kept, using a ClassValue, against the class, among those the type refers to, 
+ * from the most specific class loader, so they are collected along with that 
+ * class. Types referring to classes from unrelated class loaders, where no one
+ * class can hold them, are not cached.
+ * @author jmolnar
+ *
+ * @param <V> the type of value cached
+ */
+final class TypeCache<V> {
+	private final ClassValue<Map<Type, V>> values = new ClassValue<Map<Type, V>>( ) {
+		@Override
+		protected Map<Type, V> computeValue( Class<?> theClass ) {
+			return new ConcurrentHashMap<>( 4, 0.75f, 1 );
+		}
+	};
+	
+	/**
+	 * Gets the value cached for the type.
+	 * @param theType the type to get the value for
+	 * @return the value, or null if one isn't cached
+	 */
+	V get( Type theType ) {
+		Preconditions.checkNotNull( theType, "need a type" );
+		Class<?> owner = extractOwner( theType );
+		return owner == null ? null : values.get( owner ).get( theType );
+	}
+	
+	/**
+	 * Caches the value for the type, unless a value was already cached.
+	 * @param theType the type to cache the value for
+	 * @param theValue the value to cache
+	 * @return the value now cached for the type, which is the value given if the type cannot be cached
+	 */
+	V putIfAbsent( Type theType, V theValue ) {
+		Preconditions.checkNotNull( theType, "need a type" );
+		Preconditions.checkNotNull( theValue, "need a value" );
+		Class<?> owner = extractOwner( theType );
+		if( owner == null ) {
+			return theValue;
+		} else {
+			V existingValue = values.get( owner ).putIfAbsent( theType, theValue );
+			return existingValue == null ? theValue : existingValue;
+		}
+	}
+	
+	/**
+	 * Helper method that finds the class, among those the type refers to, 
+	 * whose class loader is a descendant of, or the same as, the others.
+	 * Type variables are not walked into, since their bounds may refer back 
+	 * to them, so the class, or the class of the method, declaring them is used.
+	 * @param theType the type to look at
+	 * @return the class, or null if the classes come from unrelated class loaders
+	 */
+	private static Class<?> extractOwner( Type theType ) {
+		if( theType instanceof Class<?> ) {
+			return ( Class<?> )theType;
+			
+		} else if( theType instanceof ParameterizedType ) {
+			ParameterizedType parameterizedType = ( ParameterizedType )theType;
+			Class<?> owner = extractOwner( parameterizedType.getRawType( ) );
+			if( owner != null && parameterizedType.getOwnerType( ) != null ) {
+				owner = selectOwner( owner, extractOwner( parameterizedType.getOwnerType( ) ) );
+			}
+			for( Type argumentType : parameterizedType.getActualTypeArguments( ) ) {
+				if( owner == null ) {
+					break;
+				}
+				owner = selectOwner( owner, extractOwner( argumentType ) );
+			}
+			return owner;
+			
+		} else if( theType instanceof GenericArrayType ) {
+			return extractOwner( ( ( GenericArrayType )theType ).getGenericComponentType( ) );
+			
+		} else if( theType instanceof WildcardType ) {
+			WildcardType wildcardType = ( WildcardType )theType;
+			Class<?> owner = Object.class;
+			for( Type boundType : wildcardType.getUpperBounds( ) ) {
+				owner = selectOwner( owner, extractOwner( boundType ) );
+			}
+			for( Type boundType : wildcardType.getLowerBounds( ) ) {
+				owner = selectOwner( owner, extractOwner( boundType ) );
+			}
+			return owner;
+			
+		} else if( theType instanceof TypeVariable<?> ) {
+			GenericDeclaration declaration = ( ( TypeVariable<?> )theType ).getGenericDeclaration( );
+			if( declaration instanceof Class<?> ) {
+				return ( Class<?> )declaration;
+			} else if( declaration instanceof Member ) {
+				return ( ( Member )declaration ).getDeclaringClass( );
+			} else {
+				return null;
+			}
+			
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Helper method that, given two classes, returns the one whose class 
+	 * loader is a descendant of, or the same as, the other's.
+	 * @param theFirst the first class, or null
+	 * @param theSecond the second class, or null
+	 * @return the class with the more specific class loader, or null if either is null or the loaders are unrelated
+	 */
+	private static Class<?> selectOwner( Class<?> theFirst, Class<?> theSecond ) {
+		if( theFirst == null || theSecond == null ) {
+			return null;
+		} else if( isAncestor( theFirst.getClassLoader( ), theSecond.getClassLoader( ) ) ) {
+			return theSecond;
+		} else if( isAncestor( theSecond.getClassLoader( ), theFirst.getClassLoader( ) ) ) {
+			return theFirst;
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Helper method that indicates if the first class loader is the same as, or 
+	 * an ancestor of, the second. A null class loader is the bootstrap loader.
+	 * @param theAncestor the possible ancestor
+	 * @param theDescendant the possible descendant
+	 * @return true if the same or an ancestor, false otherwise
+	 */
+	private static boolean isAncestor( ClassLoader theAncestor, ClassLoader theDescendant ) {
+		if( theAncestor == null ) {
+			return true;
+		} else {
+			for( ClassLoader loader = theDescendant; loader != null; loader = loader.getParent( ) ) {
+				if( loader == theAncestor ) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+}
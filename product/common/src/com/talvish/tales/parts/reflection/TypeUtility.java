@@ -6,11 +6,26 @@ import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.reflect.TypeToken;
 
 public final class TypeUtility {
+	// results of the more involved type analysis are kept since the same 
+	// types are asked about repeatedly; since types not walked one element
+	// at a time have no element type, a marker is stored for them instead
+	private static final TypeCache<Class<?>> arrayClasses = new TypeCache<>( );
+	private static final TypeCache<Type> iteratedTypes = new TypeCache<>( );
+	private static final Type NOT_ITERATED = new Type( ) { };
+	// field types resolved from type variables are kept per declaring type, and then per field
+	private static final TypeCache<Map<Field, Type>> variableFieldTypes = new TypeCache<>( );
+	
 	/**
 	 * This is a helper method that, given a type, will return the actual underlying Class.
 	 * This is helpful when trying to extract/understand the actual class being used when
@@ -32,13 +47,16 @@ public final class TypeUtility {
 			return extractClass( ( ( ParameterizedType )theType ).getRawType( ) );
 			
 		} else if( theType instanceof GenericArrayType) {
-			Type componentType = ( ( GenericArrayType ) theType ).getGenericComponentType( );
-		    Class<?> componentClass = extractClass( componentType );
-		    if (componentClass != null ) {
-		    	return Array.newInstance(componentClass, 0).getClass(); // we do this since it is the only way to make sure we have something created
-		    } else {
-		        return null;
-		    }
+			Class<?> arrayClass = arrayClasses.get( theType );
+			if( arrayClass == null ) {
+				Type componentType = ( ( GenericArrayType ) theType ).getGenericComponentType( );
+			    Class<?> componentClass = extractClass( componentType );
+			    if (componentClass != null ) {
+			    	arrayClass = Array.newInstance(componentClass, 0).getClass(); // we do this since it is the only way to make sure we have something created
+			    	arrayClasses.putIfAbsent( theType, arrayClass );
+			    }
+			}
+			return arrayClass;
 		} else {
 		    return null;
 		}
@@ -93,28 +111,14 @@ public final class TypeUtility {
 		} else if( fieldType instanceof GenericArrayType ) {
 			return fieldType;
 		} else if( fieldType instanceof TypeVariable ) {
-			String fieldName = ( ( TypeVariable<?> )fieldType ).getName();
-			ParameterizedType parentType = ( ParameterizedType )theDeclaringType;
-			Class<?> parentClass = ( Class<?> )parentType.getRawType();
-			
-			Type actualFieldType = null;
-			
-			TypeVariable<?> parentTypeVariable;
-			int index = 0;
-
-			// so we go through the type parameters from the parent and look for
-			// the same name (which we can do because we can assume the field
-			// is declared in the containing type)
-			for( ; index < parentClass.getTypeParameters( ).length; index += 1 ) {
-				parentTypeVariable = parentClass.getTypeParameters()[ index ];
-				if( parentTypeVariable.getName().equals( fieldName ) ) {
-					// we found the variable, so we can now determine the field type
-					actualFieldType = parentType.getActualTypeArguments()[ index ];
-					break;
-				}
+			Map<Field, Type> fieldTypes = variableFieldTypes.get( theDeclaringType );
+			if( fieldTypes == null ) {
+				fieldTypes = variableFieldTypes.putIfAbsent( theDeclaringType, new ConcurrentHashMap<>( 4, 0.75f, 1 ) );
 			}
+			Type actualFieldType = fieldTypes.get( theField );
 			if( actualFieldType == null ) {
-				throw new IllegalStateException( String.format( "Could not find an appropriate field type for '%s.%s'.", theDeclaringType.getTypeName( ), theField.getName( )  ) );
+				actualFieldType = resolveVariableFieldType( theDeclaringType, theField, ( TypeVariable<?> )fieldType );
+				fieldTypes.putIfAbsent( theField, actualFieldType );
 			}
 			return actualFieldType;
 		} else {
@@ -122,6 +126,42 @@ public final class TypeUtility {
 		}	
 	}
 
+	/**
+	 * Helper method that does the work for {@link #determineFieldType(Type, Field)}
+	 * when the field's type is a type variable of the declaring type.
+	 * @param theDeclaringType the parent that declared the field
+	 * @param theField the field being looked at
+	 * @param theTypeVariable the type variable the field is declared with
+	 * @return the type of the field
+	 */
+	private static Type resolveVariableFieldType( Type theDeclaringType, Field theField, TypeVariable<?> theTypeVariable ) {
+		String fieldName = theTypeVariable.getName();
+		ParameterizedType parentType = ( ParameterizedType )theDeclaringType;
+		Class<?> parentClass = ( Class<?> )parentType.getRawType();
+		
+		Type actualFieldType = null;
+		
+		TypeVariable<?>[] parentTypeVariables = parentClass.getTypeParameters( ); // this is a copy each call, so we get it once
+		TypeVariable<?> parentTypeVariable;
+		int index = 0;
+
+		// so we go through the type parameters from the parent and look for
+		// the same name (which we can do because we can assume the field
+		// is declared in the containing type)
+		for( ; index < parentTypeVariables.length; index += 1 ) {
+			parentTypeVariable = parentTypeVariables[ index ];
+			if( parentTypeVariable.getName().equals( fieldName ) ) {
+				// we found the variable, so we can now determine the field type
+				actualFieldType = parentType.getActualTypeArguments()[ index ];
+				break;
+			}
+		}
+		if( actualFieldType == null ) {
+			throw new IllegalStateException( String.format( "Could not find an appropriate field type for '%s.%s'.", theDeclaringType.getTypeName( ), theField.getName( )  ) );
+		}
+		return actualFieldType;
+	}
+
 	/**
 	 * Extracts the generic type for a field.
 	 * @param theClass the class in that has the field
@@ -138,4 +178,48 @@ public final class TypeUtility {
 			throw new IllegalArgumentException( String.format( "could not find field '%s' on type '%s'", theField, theClass.getSimpleName( ) ), e );
 		}
 	}
+
+	/**
+	 * Helper method that, given a type, determines if values of the type are meant to be
+	 * walked once, one element at a time. This is the case for {@code Iterator}, {@code Stream}
+	 * and {@code Iterable} (though not collections, which are handled separately). If so, 
+	 * the type of the elements is returned. As an example, if the type is Iterator<String> 
+	 * then this will return the type for String.
+	 * @param theType the type to look at
+	 * @return the type of the elements, or null if the type isn't walked one element at a time
+	 */
+	public static Type extractIteratedType( Type theType ) {
+		Preconditions.checkNotNull( theType, "need a type" );
+		
+		Type elementType = iteratedTypes.get( theType );
+		if( elementType == null ) {
+			elementType = resolveIteratedType( theType );
+			iteratedTypes.putIfAbsent( theType, elementType == null ? NOT_ITERATED : elementType );
+		} else if( elementType == NOT_ITERATED ) {
+			elementType = null;
+		}
+		return elementType;
+	}
+
+	/**
+	 * Helper method that does the work for {@link #extractIteratedType(Type)}.
+	 * @param theType the type to look at
+	 * @return the type of the elements, or null if the type isn't walked one element at a time
+	 */
+	private static Type resolveIteratedType( Type theType ) {
+		Class<?> typeClass = extractClass( theType );
+		Type elementType = null;
+		
+		if( typeClass != null ) {
+			if( Iterator.class.isAssignableFrom( typeClass ) ) {
+				elementType = TypeToken.of( theType ).resolveType( Iterator.class.getTypeParameters( )[ 0 ] ).getType( );
+			} else if( Stream.class.isAssignableFrom( typeClass ) ) {
+				elementType = TypeToken.of( theType ).resolveType( Stream.class.getTypeParameters( )[ 0 ] ).getType( );
+			} else if( Iterable.class.isAssignableFrom( typeClass ) && !Collection.class.isAssignableFrom( typeClass ) && typeClass.isInterface( ) ) {
+				// we only consider interfaces since classes, like data contracts, may implement iterable
+				elementType = TypeToken.of( theType ).resolveType( Iterable.class.getTypeParameters( )[ 0 ] ).getType( );
+			}
+		}
+		return elementType;
+	}
 }
@@ -43,7 +43,7 @@ public class FieldSite implements MemberSite {
 		field = theField;
 		// make sure, if private, we can access it properly
 		field.setAccessible( true );
-		type = new JavaType( theField.getGenericType() );
+		type = JavaType.of( theField.getGenericType() );
 	}
 	
 	/**
@@ -64,7 +64,7 @@ public class FieldSite implements MemberSite {
 		field = theField;
 		// make sure, if private, we can access it properly
 		field.setAccessible( true );
-		type = new JavaType( TypeUtility.determineFieldType( theDeclaringType, theField ) );
+		type = JavaType.of( TypeUtility.determineFieldType( theDeclaringType, theField ) );
 	}
 	
 	/**
@@ -15,7 +15,7 @@
 // ***************************************************************************
 package com.talvish.tales.parts.translators;
 
-import org.joda.time.DateTime;
+import com.talvish.tales.parts.DateTimeCodec;
 
 public class StringToDateTimeTranslator extends StringToObjectTranslatorBase implements Translator {
 
@@ -41,7 +41,7 @@ public class StringToDateTimeTranslator extends StringToObjectTranslatorBase imp
 				if( stringValue.equals("") ) {
 					returnValue = this.emptyValue;
 				} else {
-					returnValue = DateTime.parse( stringValue );
+					returnValue = DateTimeCodec.parseDateTime( stringValue );
 				}
 			} catch( IllegalArgumentException e ) {
 				throw new TranslationException( String.format( "Unable to translate '%s' into a datetime.", anObject ), e );
@@ -16,14 +16,10 @@
 package com.talvish.tales.parts.translators;
 
 import java.util.ArrayList;
-import java.util.regex.Pattern;
 
 import com.google.common.base.Preconditions;
 
 public class StringToListTranslator extends StringToObjectTranslatorBase implements Translator {
-	private static final String REPLACE_REGEX = "(\\\\)(.)";
-	private static final Pattern REPLACE_PATTERN = Pattern.compile( REPLACE_REGEX );
-
 	private final char delimiter;
 	private Translator elementTranslator = null;
 	
@@ -57,32 +53,36 @@ public class StringToListTranslator extends StringToObjectTranslatorBase impleme
 					returnValue = this.emptyValue;
 				} else {
 					ArrayList list = new ArrayList( ) ;
-
-					boolean previousSlash = false;
-					int startElement = 0;
-					int endElement = 0;
+					// a single pass that unescapes into the builder as it goes
+					// and translates each element as soon as its delimiter is seen
+					StringBuilder builder = new StringBuilder( );
+					int length = stringValue.length( );
+					int index = 0;
 					char currentChar;
+					char nextChar;
 
-					for( ; endElement < stringValue.length(); endElement += 1 ) {
-						currentChar = stringValue.charAt( endElement );
-						if( currentChar == this.delimiter ) {
-							if( !previousSlash ) {
-								list.add( elementTranslator.translate( unescape( stringValue.substring( startElement, endElement ) ) ) );
-								startElement = endElement + 1;
+					while( index < length ) {
+						currentChar = stringValue.charAt( index );
+						if( currentChar == '\\' && index + 1 < length ) {
+							nextChar = stringValue.charAt( index + 1 );
+							if( isLineTerminator( nextChar ) ) {
+								// escapes don't apply to line terminators, so both are kept
+								builder.append( currentChar );
 							}
-							previousSlash = false;
-						} else if( currentChar == '\\' ) {
-							previousSlash = !previousSlash;
+							builder.append( nextChar );
+							index += 2;
 						} else {
-							previousSlash = false;
+							if( currentChar == this.delimiter ) {
+								list.add( elementTranslator.translate( builder.toString( ) ) );
+								builder.setLength( 0 );
+							} else {
+								builder.append( currentChar );
+							}
+							index += 1;
 						}
 					}
-
-					if( startElement < endElement ) {
-						list.add( elementTranslator.translate( unescape( stringValue.substring( startElement, endElement ) ) ) );
-					} else if( startElement == endElement ) {
-						list.add( elementTranslator.translate( "" ) );
-					}
+					// there is always a last element, even if empty
+					list.add( elementTranslator.translate( builder.toString( ) ) );
 
 					returnValue = list;
 				}
@@ -94,18 +94,12 @@ public class StringToListTranslator extends StringToObjectTranslatorBase impleme
 	}
 
 	/**
-	 * Unescapes the string by removing slash characters.
-	 * @param theString the string to unescape.
-	 * @return the unescaped string
+	 * Indicates if the character is one that a regular expression '.' does 
+	 * not match, which is what escaping has historically been based on.
+	 * @param theChar the character to check
+	 * @return true if a line terminator, false otherwise
 	 */
-	private String unescape( String theString ) {
-		String returnValue = null;
-		
-		if( theString != null ) {
-			returnValue = REPLACE_PATTERN.matcher( theString ).replaceAll( "$2" );
-		}
-		
-		return returnValue;
+	static boolean isLineTerminator( char theChar ) {
+		return theChar == '\n' || theChar == '\r' || theChar == '\u0085' || theChar == '\u2028' || theChar == '\u2029';
 	}
-
 }
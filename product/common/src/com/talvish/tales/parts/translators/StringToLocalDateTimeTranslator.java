@@ -15,10 +15,10 @@
 // ***************************************************************************
 package com.talvish.tales.parts.translators;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
+import com.talvish.tales.parts.DateTimeCodec;
+
 public class StringToLocalDateTimeTranslator extends StringToObjectTranslatorBase implements Translator {
 
 	public StringToLocalDateTimeTranslator( ) {
@@ -43,7 +43,7 @@ public class StringToLocalDateTimeTranslator extends StringToObjectTranslatorBas
 				if( stringValue.equals("") ) {
 					returnValue = this.emptyValue;
 				} else {
-					returnValue = LocalDateTime.parse( stringValue, DateTimeFormatter.ISO_DATE_TIME );
+					returnValue = DateTimeCodec.parseLocalDateTime( stringValue );
 				}
 			} catch( DateTimeParseException e ) {
 				throw new TranslationException( String.format( "Unable to translate '%s' into a datetime.", anObject ), e );
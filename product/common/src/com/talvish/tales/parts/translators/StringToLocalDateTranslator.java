@@ -15,9 +15,10 @@
 // ***************************************************************************
 package com.talvish.tales.parts.translators;
 
-import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 
+import com.talvish.tales.parts.DateTimeCodec;
+
 public class StringToLocalDateTranslator extends StringToObjectTranslatorBase implements Translator {
 
 	public StringToLocalDateTranslator( ) {
@@ -42,7 +43,7 @@ public class StringToLocalDateTranslator extends StringToObjectTranslatorBase im
 				if( stringValue.equals("") ) {
 					returnValue = this.emptyValue;
 				} else {
-					returnValue = LocalDate.parse( stringValue );
+					returnValue = DateTimeCodec.parseLocalDate( stringValue );
 				}
 			} catch( DateTimeParseException e ) {
 				throw new TranslationException( String.format( "Unable to translate '%s' into a datetime.", anObject ), e );
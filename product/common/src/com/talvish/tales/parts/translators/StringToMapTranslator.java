@@ -16,20 +16,10 @@
 package com.talvish.tales.parts.translators;
 
 import java.util.HashMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import com.google.common.base.Preconditions;
 
 public class StringToMapTranslator extends StringToObjectTranslatorBase implements Translator {
-	private static final String ELEMENT = "(?:(?:[^,\\\\\\[\\]]|(?:\\\\.))*)";
-	private static final String MAP_REGEX = String.format("(?:\\s*\\[)(%1$s)(?:,)(%1$s)(?:\\]\\s*)", ELEMENT );
-	private static final Pattern MAP_PATTERN = Pattern.compile( MAP_REGEX );
-	
-	private static final String REPLACE_REGEX = "(\\\\)(.)";
-	private static final Pattern REPLACE_PATTERN = Pattern.compile( REPLACE_REGEX );
-	
-
 	private final Translator keyTranslator;
 	private final Translator valueTranslator;
 	
@@ -63,33 +53,37 @@ public class StringToMapTranslator extends StringToObjectTranslatorBase implemen
 				if( stringValue.equals( "" ) ) {
 					returnValue = this.emptyValue;
 				} else {
-					Matcher matcher = MAP_PATTERN.matcher( stringValue );
 					HashMap map = new HashMap( );
-					
+					// a single pass that expects a sequence of '[key,value]' pairs, 
+					// optionally separated by whitespace, and translates each pair 
+					// as soon as it is read; offset is the start of the current pair
+					StringBuilder builder = new StringBuilder( );
+					int length = stringValue.length( );
+					int offset = 0;
+					int index;
+					boolean matched;
 					String key;
-					String value;
-					int lastMatchLocation = 0;
 					
-					while( matcher.find( ) ) {
-						key = matcher.group( 1 );
-						value = matcher.group( 2 );
-
-						if( matcher.start() != lastMatchLocation ) {
-							throw new TranslationException( String.format( "Around offset '%2$d' string '%1$s' does not match the map pattern.", stringValue, lastMatchLocation ) );
-						} else {
-							lastMatchLocation = matcher.end( );
-							key = unescape( key );
-							value = unescape( value );
-							
-							map.put( keyTranslator.translate( key ), valueTranslator.translate( value ) );
+					while( offset < length ) {
+						matched = false;
+						index = skipWhitespace( stringValue, offset );
+						if( index < length && stringValue.charAt( index ) == '[' ) {
+							index = readElement( stringValue, index + 1, builder );
+							if( index < length && stringValue.charAt( index ) == ',' ) {
+								key = builder.toString( );
+								index = readElement( stringValue, index + 1, builder );
+								if( index < length && stringValue.charAt( index ) == ']' ) {
+									map.put( keyTranslator.translate( key ), valueTranslator.translate( builder.toString( ) ) );
+									offset = skipWhitespace( stringValue, index + 1 );
+									matched = true;
+								}
+							}
+						}
+						if( !matched ) {
+							throw new TranslationException( String.format( "Around offset '%2$d' string '%1$s' does not match the map pattern.", stringValue, offset ) );
 						}
 					}
-					
-					if( lastMatchLocation != stringValue.length( ) ) {
-						throw new TranslationException( String.format( "Around offset '%2$d' string '%1$s' does not match the map pattern.", stringValue, lastMatchLocation ) );
-					} else {
-						returnValue = map;
-					}
+					returnValue = map;
 				}
 			} catch( ClassCastException e ) {
 				throw new TranslationException( e );
@@ -99,17 +93,58 @@ public class StringToMapTranslator extends StringToObjectTranslatorBase implemen
 	}
 	
 	/**
-	 * Unescapes the string by removing slash characters.
-	 * @param theString the string to unescape.
-	 * @return the unescaped string
+	 * Reads a key or value into the builder, unescaping as it goes.
+	 * Reading stops on the first character that cannot be part of
+	 * an element, which the caller is expected to check.
+	 * @param theString the string to read from
+	 * @param theStart where in the string the element starts
+	 * @param theBuilder the builder to reset and place the unescaped element in
+	 * @return the index of the character that ended the element
 	 */
-	private String unescape( String theString ) {
-		String returnValue = null;
+	private static int readElement( String theString, int theStart, StringBuilder theBuilder ) {
+		int length = theString.length( );
+		int index = theStart;
+		char currentChar;
 		
-		if( theString != null ) {
-			returnValue = REPLACE_PATTERN.matcher( theString ).replaceAll( "$2" );
+		theBuilder.setLength( 0 );
+		while( index < length ) {
+			currentChar = theString.charAt( index );
+			if( currentChar == ',' || currentChar == '[' || currentChar == ']' ) {
+				break;
+			} else if( currentChar == '\\' ) {
+				if( index + 1 < length && !StringToListTranslator.isLineTerminator( theString.charAt( index + 1 ) ) ) {
+					theBuilder.append( theString.charAt( index + 1 ) );
+					index += 2;
+				} else {
+					break;
+				}
+			} else {
+				theBuilder.append( currentChar );
+				index += 1;
+			}
 		}
+		return index;
+	}
+
+	/**
+	 * Skips the whitespace characters a regular expression '\s' matches.
+	 * @param theString the string to skip within
+	 * @param theStart where in the string to start skipping
+	 * @return the index of the first non-whitespace character, or the length of the string
+	 */
+	private static int skipWhitespace( String theString, int theStart ) {
+		int length = theString.length( );
+		int index = theStart;
+		char currentChar;
 		
-		return returnValue;
+		while( index < length ) {
+			currentChar = theString.charAt( index );
+			if( currentChar == ' ' || currentChar == '\t' || currentChar == '\n' || currentChar == '\u000B' || currentChar == '\f' || currentChar == '\r' ) {
+				index += 1;
+			} else {
+				break;
+			}
+		}
+		return index;
 	}
 }
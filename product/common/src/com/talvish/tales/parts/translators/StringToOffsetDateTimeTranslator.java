@@ -15,10 +15,10 @@
 // ***************************************************************************
 package com.talvish.tales.parts.translators;
 
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 
+import com.talvish.tales.parts.DateTimeCodec;
+
 public class StringToOffsetDateTimeTranslator extends StringToObjectTranslatorBase implements Translator {
 
 	public StringToOffsetDateTimeTranslator( ) {
@@ -43,7 +43,7 @@ public class StringToOffsetDateTimeTranslator extends StringToObjectTranslatorBa
 				if( stringValue.equals("") ) {
 					returnValue = this.emptyValue;
 				} else {
-					returnValue = OffsetDateTime.parse( stringValue, DateTimeFormatter.ISO_DATE_TIME );
+					returnValue = DateTimeCodec.parseOffsetDateTime( stringValue );
 				}
 			} catch( DateTimeParseException e ) {
 				throw new TranslationException( String.format( "Unable to translate '%s' into a datetime.", anObject ), e );
@@ -0,0 +1,126 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.parts.translators.Translator;
+
+/**
+ * A holder for a data contract member whose value is only translated when it is first read.
+ * When a member is declared as {@code Lazy<T>} the serialization facilities keep the untranslated 
+ * form of the value (e.g. the raw json element) and only run the translation for {@code T} when 
+ * {@link #get()} is called. This is useful for large documents where handlers only look at a 
+ * small number of members. If the value is never read and the object is serialized again, the 
+ * untranslated form is written back out as-is.
+ * @author jmolnar
+ *
+ * @param <T> the type of the value being held
+ */
+public final class Lazy<T> {
+	private final Object lock = new Object( );
+	private volatile boolean resolved;
+	private T value;
+	private Object source;
+	private Translator translator;
+	
+	/**
+	 * Private constructor for a value that has already been translated.
+	 * @param theValue the value to hold
+	 */
+	private Lazy( T theValue ) {
+		value = theValue;
+		resolved = true;
+	}
+
+	/**
+	 * Private constructor for a value that has not yet been translated.
+	 * @param theSource the untranslated form of the value
+	 * @param theTranslator the translator that converts the untranslated form into the value
+	 */
+	private Lazy( Object theSource, Translator theTranslator ) {
+		source = theSource;
+		translator = theTranslator;
+		resolved = false;
+	}
+
+	/**
+	 * Creates a lazy holder around a value that is already available.
+	 * This is what is typically used when creating objects to be serialized.
+	 * @param theValue the value to hold, which may be null
+	 * @return the lazy holder
+	 */
+	public static <T> Lazy<T> of( T theValue ) {
+		return new Lazy<T>( theValue );
+	}
+
+	/**
+	 * Creates a lazy holder around an untranslated value. This is
+	 * typically only called by serialization facilities.
+	 * @param theSource the untranslated form of the value
+	 * @param theTranslator the translator to use when the value is first read
+	 * @return the lazy holder
+	 */
+	public static <T> Lazy<T> pending( Object theSource, Translator theTranslator ) {
+		Preconditions.checkNotNull( theSource, "need a source" );
+		Preconditions.checkNotNull( theTranslator, "need a translator" );
+		return new Lazy<T>( theSource, theTranslator );
+	}
+
+	/**
+	 * Gets the value, translating it if this is the first time the value was read.
+	 * Any translation exceptions are thrown from here and, if thrown, later calls
+	 * will attempt the translation again.
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	public T get( ) {
+		if( !resolved ) {
+			synchronized( lock ) {
+				if( !resolved ) {
+					value = ( T )translator.translate( source );
+					// we let go of the untranslated form and translator so
+					// the memory for the source can be reclaimed
+					source = null;
+					translator = null;
+					resolved = true;
+				}
+			}
+		}
+		return value;
+	}
+	
+	/**
+	 * Indicates if the value has been translated yet.
+	 * @return true if the value has been translated, false otherwise
+	 */
+	public boolean isResolved( ) {
+		return resolved;
+	}
+	
+	/**
+	 * Gets the untranslated form of the value, if the value hasn't been translated.
+	 * @return the untranslated form, or null if the value has been translated
+	 */
+	public Object getSource( ) {
+		if( resolved ) {
+			return null;
+		} else {
+			synchronized( lock ) {
+				return source;
+			}
+		}
+	}
+}
@@ -32,6 +32,7 @@ import com.talvish.tales.parts.reflection.JavaType;
 import com.talvish.tales.parts.translators.BitSetToStringTranslator;
 import com.talvish.tales.parts.translators.BooleanToStringTranslator;
 import com.talvish.tales.parts.translators.ByteArrayToStringTranslator;
+import com.talvish.tales.parts.translators.DateTimeToStringTranslator;
 import com.talvish.tales.parts.translators.EnumToStringTranslator;
 import com.talvish.tales.parts.translators.ObjectToStringTranslator;
 import com.talvish.tales.parts.translators.StringToBigDecimalTranslator;
@@ -75,60 +76,61 @@ public final class StringTranslationFacility implements Facility {
 		Translator toIntegerTranslator = new StringToIntegerTranslator( true, null, null );
 		Translator fromObjectTranslator = new ObjectToStringTranslator( "" );
 		
-		this.registerTranslators( new JavaType( Integer.class ), toIntegerTranslator, fromObjectTranslator );
-		this.registerTranslators( new JavaType( int.class ), toIntegerTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( Integer.class ), toIntegerTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( int.class ), toIntegerTranslator, fromObjectTranslator );
 
 		Translator toLongTranslator = new StringToLongTranslator( true, null, null );
-		this.registerTranslators( new JavaType( Long.class ), toLongTranslator, fromObjectTranslator );
-		this.registerTranslators( new JavaType( long.class ), toLongTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( Long.class ), toLongTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( long.class ), toLongTranslator, fromObjectTranslator );
 
 		Translator toFloatTranslator = new StringToFloatTranslator( true, null, null );
-		this.registerTranslators( new JavaType( Float.class ), toFloatTranslator, fromObjectTranslator );
-		this.registerTranslators( new JavaType( float.class ), toFloatTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( Float.class ), toFloatTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( float.class ), toFloatTranslator, fromObjectTranslator );
 
 		Translator toDoubleTranslator = new StringToDoubleTranslator( true, null, null );
-		this.registerTranslators( new JavaType( Double.class ), toDoubleTranslator, fromObjectTranslator );
-		this.registerTranslators( new JavaType( double.class ), toDoubleTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( Double.class ), toDoubleTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( double.class ), toDoubleTranslator, fromObjectTranslator );
 
 		Translator toBigDecimalTranslator = new StringToBigDecimalTranslator( true, null, null );
-		this.registerTranslators( new JavaType( BigDecimal.class ), toBigDecimalTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( BigDecimal.class ), toBigDecimalTranslator, fromObjectTranslator );
 
 		
 		Translator toBooleanTranslator = new StringToBooleanTranslator( true, null, null );
 		Translator fromBooleanTranslator = new BooleanToStringTranslator( "" );
-		this.registerTranslators( new JavaType( Boolean.class ), toBooleanTranslator, fromBooleanTranslator );
-		this.registerTranslators( new JavaType( boolean.class ), toBooleanTranslator, fromBooleanTranslator );
+		this.registerTranslators( JavaType.of( Boolean.class ), toBooleanTranslator, fromBooleanTranslator );
+		this.registerTranslators( JavaType.of( boolean.class ), toBooleanTranslator, fromBooleanTranslator );
 
 		
 		Translator toDateTimeTranslator = new StringToDateTimeTranslator( true, null, null );
-		this.registerTranslators( new JavaType( DateTime.class ), toDateTimeTranslator, fromObjectTranslator );
+		Translator fromDateTimeTranslator = new DateTimeToStringTranslator( "" );
+		this.registerTranslators( JavaType.of( DateTime.class ), toDateTimeTranslator, fromDateTimeTranslator );
 
 		Translator toOffsetDateTimeTranslator = new StringToOffsetDateTimeTranslator( true,  null,  null );
-		this.registerTranslators( new JavaType( OffsetDateTime.class ), toOffsetDateTimeTranslator, fromObjectTranslator );		
+		this.registerTranslators( JavaType.of( OffsetDateTime.class ), toOffsetDateTimeTranslator, fromObjectTranslator );		
 		Translator toLocalDateTimeTranslator = new StringToLocalDateTimeTranslator( true,  null,  null );
-		this.registerTranslators( new JavaType( LocalDateTime.class ), toLocalDateTimeTranslator, fromObjectTranslator );		
+		this.registerTranslators( JavaType.of( LocalDateTime.class ), toLocalDateTimeTranslator, fromObjectTranslator );		
 		Translator toLocalDateTranslator = new StringToLocalDateTranslator( true,  null,  null );
-		this.registerTranslators( new JavaType( LocalDate.class ), toLocalDateTranslator, fromObjectTranslator );
+		this.registerTranslators( JavaType.of( LocalDate.class ), toLocalDateTranslator, fromObjectTranslator );
 
 		
 		Translator toStringTranslator = new StringToStringTranslator( true, "", null );
 		Translator fromStringTranslator = new StringToStringTranslator( true, "", null );
-		this.registerTranslators( new JavaType( String.class ), toStringTranslator, fromStringTranslator );
+		this.registerTranslators( JavaType.of( String.class ), toStringTranslator, fromStringTranslator );
 		
 		Translator toUUIDTranslator = new StringToUuidTranslator(true, null, null); // TODO: empty should maybe be an empty UUID?
 		Translator fromUUIDTranslator = new UuidToStringTranslator( "" );
-		this.registerTranslators( new JavaType( UUID.class ), toUUIDTranslator, fromUUIDTranslator );
+		this.registerTranslators( JavaType.of( UUID.class ), toUUIDTranslator, fromUUIDTranslator );
 		
 		Translator toBitSetTranslator = new StringToBitSetTranslator( true, null, null );
 		Translator fromBitSetTranslator = new BitSetToStringTranslator( "" );
-		this.registerTranslators( new JavaType( BitSet.class ), toBitSetTranslator, fromBitSetTranslator );
+		this.registerTranslators( JavaType.of( BitSet.class ), toBitSetTranslator, fromBitSetTranslator );
 
 		Translator toByteArrayTranslator = new StringToByteArrayTranslator( true, null, null ); // TODO: empty should maybe be an empty array? (though that isn't immutable, so maybe I do something in the class?)
 		Translator fromByteArrayTranslator = new ByteArrayToStringTranslator( "" );
-		this.registerTranslators( new JavaType( byte[].class ), toByteArrayTranslator, fromByteArrayTranslator );
+		this.registerTranslators( JavaType.of( byte[].class ), toByteArrayTranslator, fromByteArrayTranslator );
 
 		Translator toObjectIdTranslator = new StringToObjectIdTranslator( true, null, null );
-		this.registerTranslators( new JavaType( ObjectId.class ), toObjectIdTranslator, fromObjectTranslator );		
+		this.registerTranslators( JavaType.of( ObjectId.class ), toObjectIdTranslator, fromObjectTranslator );		
 	}
 
 	/***
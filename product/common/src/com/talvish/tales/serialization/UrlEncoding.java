@@ -18,19 +18,58 @@ package com.talvish.tales.serialization;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
 import java.net.URLEncoder;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 
+import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 
 /**
  * A simple class with common string methods.
+ * The encoding is the form style encoding used by {@code URLEncoder} and
+ * {@code URLDecoder}, with the same results, but UTF-8 is handled directly 
+ * in a single pass and strings that need no change are returned as is.
+ * Other encodings are handled by {@code URLEncoder} and {@code URLDecoder}.
  * @author jmolnar
  */
 public final class UrlEncoding {
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray( );
+	private static final String UTF8 = "UTF-8";
+	
+	// indicates, for each ascii character, whether it is left as is when encoding
+	private static final boolean[] UNESCAPED = new boolean[ 128 ];
+	
+	static {
+		for( char character = 'a'; character <= 'z'; character += 1 ) {
+			UNESCAPED[ character ] = true;
+		}
+		for( char character = 'A'; character <= 'Z'; character += 1 ) {
+			UNESCAPED[ character ] = true;
+		}
+		for( char character = '0'; character <= '9'; character += 1 ) {
+			UNESCAPED[ character ] = true;
+		}
+		UNESCAPED[ '-' ] = true;
+		UNESCAPED[ '_' ] = true;
+		UNESCAPED[ '.' ] = true;
+		UNESCAPED[ '*' ] = true;
+	}
+	
     /**
      * URL encodes a string and hides the needed to handle an exception that should never happen.
      */
     public static String encode( String theString ) {
-    	return encode( "UTF-8", theString );
+    	int index = findEncodeStart( theString );
+    	
+    	if( index == theString.length( ) ) {
+    		// nothing needs to change
+    		return theString;
+    	} else {
+    		StringBuilder builder = new StringBuilder( theString.length( ) + 16 );
+    		builder.append( theString, 0, index );
+    		encode( theString, index, builder );
+    		return builder.toString( );
+    	}
     }
 
     /**
@@ -39,38 +78,334 @@ public final class UrlEncoding {
     public static String encode( String theEncoding, String theString ) {
         String encodedString = null;
 
-        if( Strings.isNullOrEmpty( theEncoding ) ) {
-    		theEncoding = "UTF-8";
-    	}
-        try {
-            encodedString = URLEncoder.encode(theString, theEncoding );
-        } catch( UnsupportedEncodingException e ) {
-            throw new RuntimeException( String.format( "Didn't like '%s' encoding", theEncoding ), e );
+        if( isUtf8( theEncoding ) ) {
+        	encodedString = encode( theString );
+        } else {
+	        try {
+	            encodedString = URLEncoder.encode(theString, theEncoding );
+	        } catch( UnsupportedEncodingException e ) {
+	            throw new RuntimeException( String.format( "Didn't like '%s' encoding", theEncoding ), e );
+	        }
         }
         return encodedString;
     }
+    
+    /**
+     * URL encodes a string, using UTF-8, appending the result to the builder.
+     * @param theString the string to encode
+     * @param theBuilder the builder to append to
+     * @return the builder given
+     */
+    public static StringBuilder encode( String theString, StringBuilder theBuilder ) {
+    	Preconditions.checkNotNull( theBuilder, "need a builder" );
+    	int index = findEncodeStart( theString );
+    	
+    	theBuilder.append( theString, 0, index );
+    	if( index < theString.length( ) ) {
+    		encode( theString, index, theBuilder );
+    	}
+    	return theBuilder;
+    }
 
     /**
-     * URL encodes a string and hides the needed to handle an exception that should never happen.
+     * URL encodes a string, using UTF-8, putting the result, as ascii bytes, into the buffer.
+     * @param theString the string to encode
+     * @param theBuffer the buffer to put into
+     * @return the buffer given
+     * @throws java.nio.BufferOverflowException if the buffer doesn't have enough room
+     */
+    public static ByteBuffer encode( String theString, ByteBuffer theBuffer ) {
+    	Preconditions.checkNotNull( theString, "need a string" );
+    	Preconditions.checkNotNull( theBuffer, "need a buffer" );
+    	int length = theString.length( );
+    	char character;
+    	
+    	for( int index = 0; index < length; index += 1 ) {
+    		character = theString.charAt( index );
+    		if( character < 128 && UNESCAPED[ character ] ) {
+    			theBuffer.put( ( byte )character );
+    		} else if( character == ' ' ) {
+    			theBuffer.put( ( byte )'+' );
+    		} else {
+    			index = encodeCharacter( theString, index, null, theBuffer, true );
+    		}
+    	}
+    	return theBuffer;
+    }
+
+    /**
+     * URL decodes a string and hides the needed to handle an exception that should never happen.
      */
     public static String decode( String theString ) {
-    	return decode( "UTF-8", theString );
+    	int index = findDecodeStart( theString );
+    	
+    	if( index == theString.length( ) ) {
+    		// nothing needs to change
+    		return theString;
+    	} else {
+    		StringBuilder builder = new StringBuilder( theString.length( ) );
+    		builder.append( theString, 0, index );
+    		decode( theString, index, builder );
+    		return builder.toString( );
+    	}
     }
 
     /**
-     * URL encodes a string and hides the needed to handle an exception that should never happen.
+     * URL decodes a string and hides the needed to handle an exception that should never happen.
      */
     public static String decode( String theEncoding, String theString ) {
         String decodedString = null;
 
-        if( Strings.isNullOrEmpty( theEncoding ) ) {
-    		theEncoding = "UTF-8";
-    	}
-        try {
-        	decodedString = URLDecoder.decode(theString, theEncoding );
-        } catch( UnsupportedEncodingException e ) {
-            throw new RuntimeException( String.format( "Didn't like '%s' encoding", theEncoding ), e );
+        if( isUtf8( theEncoding ) ) {
+        	decodedString = decode( theString );
+        } else {
+	        try {
+	        	decodedString = URLDecoder.decode(theString, theEncoding );
+	        } catch( UnsupportedEncodingException e ) {
+	            throw new RuntimeException( String.format( "Didn't like '%s' encoding", theEncoding ), e );
+	        }
         }
         return decodedString;
     }
+
+    /**
+     * URL decodes a string, using UTF-8, appending the result to the builder.
+     * @param theString the string to decode
+     * @param theBuilder the builder to append to
+     * @return the builder given
+     * @throws IllegalArgumentException if the string contains a malformed escape
+     */
+    public static StringBuilder decode( String theString, StringBuilder theBuilder ) {
+    	Preconditions.checkNotNull( theBuilder, "need a builder" );
+    	int index = findDecodeStart( theString );
+    	
+    	theBuilder.append( theString, 0, index );
+    	if( index < theString.length( ) ) {
+    		decode( theString, index, theBuilder );
+    	}
+    	return theBuilder;
+    }
+
+    /**
+     * URL decodes a string, putting the resulting UTF-8 bytes into the buffer.
+     * @param theString the string to decode
+     * @param theBuffer the buffer to put into
+     * @return the buffer given
+     * @throws IllegalArgumentException if the string contains a malformed escape
+     * @throws java.nio.BufferOverflowException if the buffer doesn't have enough room
+     */
+    public static ByteBuffer decode( String theString, ByteBuffer theBuffer ) {
+    	Preconditions.checkNotNull( theString, "need a string" );
+    	Preconditions.checkNotNull( theBuffer, "need a buffer" );
+    	int length = theString.length( );
+    	char character;
+    	
+    	for( int index = 0; index < length; index += 1 ) {
+    		character = theString.charAt( index );
+    		if( character == '%' ) {
+    			theBuffer.put( decodeEscape( theString, index ) );
+    			index += 2;
+    		} else if( character == '+' ) {
+    			theBuffer.put( ( byte )' ' );
+    		} else if( character < 128 ) {
+    			theBuffer.put( ( byte )character );
+    		} else {
+    			// unescaped non-ascii characters are kept as is
+    			index = encodeCharacter( theString, index, null, theBuffer, false );
+    		}
+    	}
+    	return theBuffer;
+    }
+    
+    /**
+     * Helper method that determines if the encoding is UTF-8, 
+     * which is the case if an encoding isn't given.
+     */
+    private static boolean isUtf8( String theEncoding ) {
+    	return Strings.isNullOrEmpty( theEncoding ) || UTF8.equalsIgnoreCase( theEncoding );
+    }
+    
+    /**
+     * Helper method that finds the first character that needs encoding.
+     * @return the index of the character, or the length of the string if none need encoding
+     */
+    private static int findEncodeStart( String theString ) {
+    	Preconditions.checkNotNull( theString, "need a string" );
+    	int length = theString.length( );
+    	char character;
+    	int index = 0;
+    	
+    	while( index < length ) {
+    		character = theString.charAt( index );
+    		if( character >= 128 || !UNESCAPED[ character ] ) {
+    			break;
+    		}
+    		index += 1;
+    	}
+    	return index;
+    }
+
+    /**
+     * Helper method that finds the first character that needs decoding.
+     * @return the index of the character, or the length of the string if none need decoding
+     */
+    private static int findDecodeStart( String theString ) {
+    	Preconditions.checkNotNull( theString, "need a string" );
+    	int length = theString.length( );
+    	char character;
+    	int index = 0;
+    	
+    	while( index < length ) {
+    		character = theString.charAt( index );
+    		if( character == '%' || character == '+' ) {
+    			break;
+    		}
+    		index += 1;
+    	}
+    	return index;
+    }
+    
+    /**
+     * Helper method that encodes the string, from the given index, into the builder.
+     */
+    private static void encode( String theString, int theStart, StringBuilder theBuilder ) {
+    	int length = theString.length( );
+    	char character;
+    	
+    	for( int index = theStart; index < length; index += 1 ) {
+    		character = theString.charAt( index );
+    		if( character < 128 && UNESCAPED[ character ] ) {
+    			theBuilder.append( character );
+    		} else if( character == ' ' ) {
+    			theBuilder.append( '+' );
+    		} else {
+    			index = encodeCharacter( theString, index, theBuilder, null, true );
+    		}
+    	}
+    }
+
+    /**
+     * Helper method that writes the UTF-8 bytes of the character at the 
+     * index into the builder, if given, or the buffer otherwise. Surrogate 
+     * pairs are written as one code point and unpaired surrogates are 
+     * written as '?', as the JDK does.
+     * @return the index of the last character used
+     */
+    private static int encodeCharacter( String theString, int theIndex, StringBuilder theBuilder, ByteBuffer theBuffer, boolean shouldEscape ) {
+    	char character = theString.charAt( theIndex );
+    	int lastIndex = theIndex;
+    	
+    	if( character < 0x80 ) {
+    		writeByte( character, theBuilder, theBuffer, shouldEscape );
+    	} else if( character < 0x800 ) {
+    		writeByte( 0xC0 | ( character >> 6 ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( character & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    	} else if( !Character.isSurrogate( character ) ) {
+    		writeByte( 0xE0 | ( character >> 12 ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( ( character >> 6 ) & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( character & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    	} else if( Character.isHighSurrogate( character ) && theIndex + 1 < theString.length( ) && Character.isLowSurrogate( theString.charAt( theIndex + 1 ) ) ) {
+    		int codePoint = Character.toCodePoint( character, theString.charAt( theIndex + 1 ) );
+    		writeByte( 0xF0 | ( codePoint >> 18 ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( ( codePoint >> 12 ) & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( ( codePoint >> 6 ) & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    		writeByte( 0x80 | ( codePoint & 0x3F ), theBuilder, theBuffer, shouldEscape );
+    		lastIndex += 1;
+    	} else {
+    		writeByte( '?', theBuilder, theBuffer, shouldEscape );
+    	}
+    	return lastIndex;
+    }
+
+    /**
+     * Helper method that writes a byte, escaped or not, into the builder, 
+     * if given, or the buffer otherwise. Bytes written to builders are 
+     * always escaped.
+     */
+    private static void writeByte( int theByte, StringBuilder theBuilder, ByteBuffer theBuffer, boolean shouldEscape ) {
+    	if( theBuilder != null ) {
+	    	theBuilder.append( '%' );
+	    	theBuilder.append( HEX_DIGITS[ ( theByte >> 4 ) & 0xF ] );
+	    	theBuilder.append( HEX_DIGITS[ theByte & 0xF ] );
+    	} else if( shouldEscape ) {
+    		theBuffer.put( ( byte )'%' );
+    		theBuffer.put( ( byte )HEX_DIGITS[ ( theByte >> 4 ) & 0xF ] );
+    		theBuffer.put( ( byte )HEX_DIGITS[ theByte & 0xF ] );
+    	} else {
+    		theBuffer.put( ( byte )theByte );
+    	}
+    }
+    
+    /**
+     * Helper method that decodes the string, from the given index, into the builder.
+     */
+    private static void decode( String theString, int theStart, StringBuilder theBuilder ) {
+    	int length = theString.length( );
+    	char character;
+    	byte[] bytes = null;
+    	int byteCount;
+    	int index = theStart;
+    	
+    	while( index < length ) {
+    		character = theString.charAt( index );
+    		if( character == '+' ) {
+    			theBuilder.append( ' ' );
+    			index += 1;
+    		} else if( character == '%' ) {
+    			// like the JDK, we decode consecutive escapes together 
+    			// since they may make up a multi-byte character
+    			if( bytes == null ) {
+    				bytes = new byte[ Math.max( 1, ( length - index ) / 3 ) ];
+    			}
+    			byteCount = 0;
+    			while( index < length && theString.charAt( index ) == '%' ) {
+    				bytes[ byteCount ] = decodeEscape( theString, index );
+    				byteCount += 1;
+    				index += 3;
+    			}
+    			appendBytes( bytes, byteCount, theBuilder );
+    		} else {
+    			theBuilder.append( character );
+    			index += 1;
+    		}
+    	}
+    }
+    
+    /**
+     * Helper method that appends UTF-8 bytes to the builder. Ascii bytes,
+     * the common case, are appended directly and the JDK is used for the 
+     * rest, so malformed sequences are replaced as the JDK does.
+     */
+    private static void appendBytes( byte[] theBytes, int theCount, StringBuilder theBuilder ) {
+    	boolean ascii = true;
+    	
+    	for( int index = 0; ascii && index < theCount; index += 1 ) {
+    		ascii = theBytes[ index ] >= 0;
+    	}
+    	if( ascii ) {
+    		for( int index = 0; index < theCount; index += 1 ) {
+    			theBuilder.append( ( char )theBytes[ index ] );
+    		}
+    	} else {
+    		theBuilder.append( new String( theBytes, 0, theCount, StandardCharsets.UTF_8 ) );
+    	}
+    }
+    
+    /**
+     * Helper method that decodes the escape, a '%' followed by two hex digits, at the index.
+     * @throws IllegalArgumentException if the escape is incomplete or not hex digits
+     */
+    private static byte decodeEscape( String theString, int theIndex ) {
+    	if( theIndex + 2 >= theString.length( ) ) {
+    		throw new IllegalArgumentException( String.format( "Incomplete trailing escape (%%) pattern in '%s'.", theString ) );
+    	} else {
+    		int high = Character.digit( theString.charAt( theIndex + 1 ), 16 );
+    		int low = Character.digit( theString.charAt( theIndex + 2 ), 16 );
+    		if( high < 0 || low < 0 ) {
+    			throw new IllegalArgumentException( String.format( "Illegal hex characters in escape (%%) pattern in '%s'.", theString ) );
+    		} else {
+    			return ( byte )( ( high << 4 ) | low );
+    		}
+    	}
+    }
 }
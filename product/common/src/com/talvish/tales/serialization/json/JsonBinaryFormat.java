@@ -0,0 +1,507 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map.Entry;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.internal.LazilyParsedNumber;
+import com.talvish.tales.parts.translators.TranslationException;
+
+/**
+ * A compact binary encoding for json elements, based on the CBOR format (RFC 7049). 
+ * Since it encodes the same elements generated by the json type maps, the 
+ * json member metadata is re-used as-is and services and clients can switch
+ * between the textual and binary forms purely by the content type used.
+ * The main benefit is that numbers are written and read in their binary forms
+ * instead of being printed and parsed, and that object ids, which the type maps
+ * turn into 32 character hex strings, are sent as their 16 raw bytes. The json
+ * element tree is still built, and walked, as it is for textual json, so the 
+ * cost of translating objects into elements is the same for both forms.
+ * <p>
+ * Only the subset of CBOR needed to represent json is supported. Integers
+ * are written as CBOR integers, other numbers as doubles, and both maps
+ * and arrays are always written with definite lengths. Strings that are 
+ * exactly 32 upper case hex digits, the shape of an object id, are written 
+ * as a 16 byte byte string with an application specific tag, and read back
+ * as the same string. When reading, indefinite lengths, other tags and 
+ * other byte strings are not supported, and nesting is limited to 
+ * MAX_DEPTH levels.
+ * @author jmolnar
+ *
+ */
+public final class JsonBinaryFormat {
+	/**
+	 * The media type used for content in this format.
+	 */
+	public static final String MEDIA_TYPE = "application/cbor";
+	/**
+	 * The deepest nesting of arrays and maps that will be read.
+	 */
+	public static final int MAX_DEPTH = 256;
+	
+	private static final int MAJOR_UNSIGNED = 0;
+	private static final int MAJOR_NEGATIVE = 1;
+	private static final int MAJOR_BYTES = 2;
+	private static final int MAJOR_TEXT = 3;
+	private static final int MAJOR_ARRAY = 4;
+	private static final int MAJOR_MAP = 5;
+	private static final int MAJOR_TAG = 6;
+	private static final int MAJOR_SIMPLE = 7;
+
+	private static final int SIMPLE_FALSE = 0xf4;
+	private static final int SIMPLE_TRUE = 0xf5;
+	private static final int SIMPLE_NULL = 0xf6;
+	private static final int SIMPLE_HALF = 0xf9;
+	private static final int SIMPLE_FLOAT = 0xfa;
+	private static final int SIMPLE_DOUBLE = 0xfb;
+
+	// an unassigned tag, from the first-come first-served range, marking hex strings sent as bytes
+	private static final long TAG_HEX_STRING = 0xA1E5L;
+	private static final int HEX_STRING_LENGTH = 32;
+	private static final int HEX_BYTES_LENGTH = HEX_STRING_LENGTH / 2;
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray( );
+
+	private static final BigInteger MIN_LONG = BigInteger.valueOf( Long.MIN_VALUE );
+	private static final BigInteger MAX_LONG = BigInteger.valueOf( Long.MAX_VALUE );
+
+	/**
+	 * Private constructor since this is a static helper class.
+	 */
+	private JsonBinaryFormat( ) {
+	}
+	
+	/**
+	 * Encodes the json element into the binary format.
+	 * @param theElement the element to encode, which may be null
+	 * @return the encoded bytes
+	 */
+	public static byte[] toBytes( JsonElement theElement ) {
+		Writer writer = new Writer( );
+		writer.write( theElement );
+		return writer.toBytes( );
+	}
+	
+	/**
+	 * Decodes the binary format into a json element.
+	 * @param theBytes the bytes to decode
+	 * @return the decoded json element
+	 */
+	public static JsonElement fromBytes( byte[] theBytes ) {
+		Preconditions.checkNotNull( theBytes, "need bytes" );
+		return fromBytes( theBytes, 0, theBytes.length );
+	}
+
+	/**
+	 * Decodes the binary format into a json element.
+	 * @param theBytes the bytes to decode
+	 * @param theOffset where in the bytes to start decoding
+	 * @param theLength the number of bytes to decode
+	 * @return the decoded json element
+	 */
+	public static JsonElement fromBytes( byte[] theBytes, int theOffset, int theLength ) {
+		Preconditions.checkNotNull( theBytes, "need bytes" );
+		Preconditions.checkArgument( theOffset >= 0 && theLength >= 0 && theOffset + theLength <= theBytes.length, "offset '%s' and length '%s' are out of range", theOffset, theLength );
+		
+		Reader reader = new Reader( theBytes, theOffset, theOffset + theLength );
+		JsonElement element = reader.read( );
+		if( reader.position != reader.limit ) {
+			throw new TranslationException( String.format( "Found '%s' unexpected trailing bytes after decoding.", reader.limit - reader.position ) );
+		}
+		return element;
+	}
+	
+	/**
+	 * Helper class that writes elements into a growing buffer.
+	 */
+	private static final class Writer {
+		private byte[] buffer = new byte[ 256 ];
+		private int position = 0;
+		
+		/**
+		 * Writes the element, recursively, into the buffer.
+		 */
+		void write( JsonElement theElement ) {
+			if( theElement == null || theElement.isJsonNull( ) ) {
+				writeByte( SIMPLE_NULL );
+				
+			} else if( theElement.isJsonObject( ) ) {
+				JsonObject object = theElement.getAsJsonObject( );
+				writeHeader( MAJOR_MAP, object.size( ) );
+				for( Entry<String,JsonElement> entry : object.entrySet( ) ) {
+					writeText( entry.getKey( ) );
+					write( entry.getValue( ) );
+				}
+				
+			} else if( theElement.isJsonArray( ) ) {
+				JsonArray array = theElement.getAsJsonArray( );
+				writeHeader( MAJOR_ARRAY, array.size( ) );
+				for( JsonElement item : array ) {
+					write( item );
+				}
+				
+			} else {
+				JsonPrimitive primitive = theElement.getAsJsonPrimitive( );
+				if( primitive.isBoolean( ) ) {
+					writeByte( primitive.getAsBoolean( ) ? SIMPLE_TRUE : SIMPLE_FALSE );
+				} else if( primitive.isNumber( ) ) {
+					writeNumber( primitive.getAsNumber( ) );
+				} else {
+					String value = primitive.getAsString( );
+					if( isHexString( value ) ) {
+						writeHexString( value );
+					} else {
+						writeText( value );
+					}
+				}
+			}
+		}
+		
+		/**
+		 * Indicates if the string is exactly 32 upper case hex digits, 
+		 * which is the shape of an object id.
+		 */
+		private boolean isHexString( String theValue ) {
+			if( theValue.length( ) != HEX_STRING_LENGTH ) {
+				return false;
+			} else {
+				char character;
+				for( int index = 0; index < HEX_STRING_LENGTH; index += 1 ) {
+					character = theValue.charAt( index );
+					if( !( ( character >= '0' && character <= '9' ) || ( character >= 'A' && character <= 'F' ) ) ) {
+						return false;
+					}
+				}
+				return true;
+			}
+		}
+		
+		/**
+		 * Writes a hex string, as verified by isHexString, as a tagged byte string.
+		 */
+		private void writeHexString( String theValue ) {
+			writeHeader( MAJOR_TAG, TAG_HEX_STRING );
+			writeHeader( MAJOR_BYTES, HEX_BYTES_LENGTH );
+			ensureCapacity( HEX_BYTES_LENGTH );
+			for( int index = 0; index < HEX_STRING_LENGTH; index += 2 ) {
+				buffer[ position++ ] = ( byte )( ( Character.digit( theValue.charAt( index ), 16 ) << 4 ) | Character.digit( theValue.charAt( index + 1 ), 16 ) );
+			}
+		}
+		
+		/**
+		 * Writes a number, using integers where the number is integral and doubles otherwise.
+		 */
+		private void writeNumber( Number theNumber ) {
+			if( theNumber instanceof Long || theNumber instanceof Integer || theNumber instanceof Short || theNumber instanceof Byte ) {
+				writeInteger( theNumber.longValue( ) );
+			} else if( theNumber instanceof Double || theNumber instanceof Float ) {
+				writeDouble( theNumber.doubleValue( ) );
+			} else if( theNumber instanceof BigInteger ) {
+				BigInteger value = ( BigInteger )theNumber;
+				if( value.compareTo( MIN_LONG ) >= 0 && value.compareTo( MAX_LONG ) <= 0 ) {
+					writeInteger( value.longValue( ) );
+				} else {
+					// too large for us, so to not lose precision we send as a string
+					writeText( value.toString( ) );
+				}
+			} else if( theNumber instanceof BigDecimal ) {
+				// to not lose precision we send as a string
+				writeText( theNumber.toString( ) );
+			} else if( theNumber instanceof LazilyParsedNumber ) {
+				// this comes from json that was parsed, so we see what it looks like
+				String value = theNumber.toString( );
+				try {
+					writeInteger( Long.parseLong( value ) );
+				} catch( NumberFormatException e ) {
+					writeDouble( Double.parseDouble( value ) );
+				}
+			} else {
+				writeDouble( theNumber.doubleValue( ) );
+			}
+		}
+		
+		private void writeInteger( long theValue ) {
+			if( theValue < 0 ) {
+				writeHeader( MAJOR_NEGATIVE, -1 - theValue );
+			} else {
+				writeHeader( MAJOR_UNSIGNED, theValue );
+			}
+		}
+		
+		private void writeDouble( double theValue ) {
+			ensureCapacity( 9 );
+			buffer[ position++ ] = ( byte )SIMPLE_DOUBLE;
+			writeLongBits( Double.doubleToRawLongBits( theValue ) );
+		}
+
+		private void writeText( String theValue ) {
+			byte[] bytes = theValue.getBytes( StandardCharsets.UTF_8 );
+			writeHeader( MAJOR_TEXT, bytes.length );
+			ensureCapacity( bytes.length );
+			System.arraycopy( bytes, 0, buffer, position, bytes.length );
+			position += bytes.length;
+		}
+		
+		/**
+		 * Writes the initial byte for the major type and the argument, 
+		 * using the smallest representation of the argument.
+		 */
+		private void writeHeader( int theMajorType, long theArgument ) {
+			int major = theMajorType << 5;
+			
+			ensureCapacity( 9 );
+			if( theArgument < 24 ) {
+				buffer[ position++ ] = ( byte )( major | ( int )theArgument );
+			} else if( theArgument <= 0xffL ) {
+				buffer[ position++ ] = ( byte )( major | 24 );
+				buffer[ position++ ] = ( byte )theArgument;
+			} else if( theArgument <= 0xffffL ) {
+				buffer[ position++ ] = ( byte )( major | 25 );
+				buffer[ position++ ] = ( byte )( theArgument >>> 8 );
+				buffer[ position++ ] = ( byte )theArgument;
+			} else if( theArgument <= 0xffffffffL ) {
+				buffer[ position++ ] = ( byte )( major | 26 );
+				buffer[ position++ ] = ( byte )( theArgument >>> 24 );
+				buffer[ position++ ] = ( byte )( theArgument >>> 16 );
+				buffer[ position++ ] = ( byte )( theArgument >>> 8 );
+				buffer[ position++ ] = ( byte )theArgument;
+			} else {
+				buffer[ position++ ] = ( byte )( major | 27 );
+				writeLongBits( theArgument );
+			}
+		}
+		
+		private void writeLongBits( long theValue ) {
+			for( int shift = 56; shift >= 0; shift -= 8 ) {
+				buffer[ position++ ] = ( byte )( theValue >>> shift );
+			}
+		}
+		
+		private void writeByte( int theValue ) {
+			ensureCapacity( 1 );
+			buffer[ position++ ] = ( byte )theValue;
+		}
+		
+		private void ensureCapacity( int theNeeded ) {
+			if( position + theNeeded > buffer.length ) {
+				buffer = Arrays.copyOf( buffer, Math.max( buffer.length << 1, position + theNeeded ) );
+			}
+		}
+		
+		byte[] toBytes( ) {
+			return Arrays.copyOf( buffer, position );
+		}
+	}
+	
+	/**
+	 * Helper class that reads elements from a buffer.
+	 */
+	private static final class Reader {
+		private final byte[] buffer;
+		private final int limit;
+		private int position;
+		private int depth;
+		
+		Reader( byte[] theBuffer, int theStart, int theLimit ) {
+			buffer = theBuffer;
+			position = theStart;
+			limit = theLimit;
+		}
+		
+		/**
+		 * Reads the next element, recursively.
+		 */
+		JsonElement read( ) {
+			int initial = readByte( );
+			int majorType = initial >>> 5;
+			int additional = initial & 0x1f;
+			
+			switch( majorType ) {
+			case MAJOR_UNSIGNED: {
+				long value = readArgument( additional );
+				if( value < 0 ) { // larger than a signed long can hold
+					return new JsonPrimitive( new BigInteger( Long.toUnsignedString( value ) ) );
+				} else {
+					return new JsonPrimitive( value );
+				}
+			}
+			case MAJOR_NEGATIVE: {
+				long value = readArgument( additional );
+				if( value < 0 ) { // smaller than a signed long can hold
+					return new JsonPrimitive( BigInteger.valueOf( -1 ).subtract( new BigInteger( Long.toUnsignedString( value ) ) ) );
+				} else {
+					return new JsonPrimitive( -1 - value );
+				}
+			}
+			case MAJOR_TEXT: {
+				int length = readLength( additional );
+				String value = new String( buffer, position, length, StandardCharsets.UTF_8 );
+				position += length;
+				return new JsonPrimitive( value );
+			}
+			case MAJOR_TAG: {
+				long tag = readArgument( additional );
+				if( tag != TAG_HEX_STRING || readByte( ) != ( ( MAJOR_BYTES << 5 ) | HEX_BYTES_LENGTH ) ) {
+					throw new TranslationException( String.format( "Unsupported tag '%s' found near offset '%s'.", Long.toUnsignedString( tag ), position ) );
+				}
+				if( limit - position < HEX_BYTES_LENGTH ) {
+					throw new TranslationException( String.format( "Unexpected end of data at offset '%s'.", position ) );
+				}
+				char[] characters = new char[ HEX_STRING_LENGTH ];
+				int value;
+				for( int index = 0; index < HEX_STRING_LENGTH; index += 2 ) {
+					value = buffer[ position++ ] & 0xff;
+					characters[ index ] = HEX_DIGITS[ value >>> 4 ];
+					characters[ index + 1 ] = HEX_DIGITS[ value & 0xf ];
+				}
+				return new JsonPrimitive( new String( characters ) );
+			}
+			case MAJOR_ARRAY: {
+				int length = readLength( additional );
+				JsonArray array = new JsonArray( );
+				enter( );
+				for( int count = 0; count < length; count += 1 ) {
+					array.add( read( ) );
+				}
+				depth -= 1;
+				return array;
+			}
+			case MAJOR_MAP: {
+				int length = readLength( additional );
+				JsonObject object = new JsonObject( );
+				JsonElement key;
+				enter( );
+				for( int count = 0; count < length; count += 1 ) {
+					key = read( );
+					if( !key.isJsonPrimitive( ) || !key.getAsJsonPrimitive( ).isString( ) ) {
+						throw new TranslationException( String.format( "Map keys must be strings, but found '%s' near offset '%s'.", key, position ) );
+					}
+					object.add( key.getAsString( ), read( ) );
+				}
+				depth -= 1;
+				return object;
+			}
+			case MAJOR_SIMPLE:
+				switch( initial ) {
+				case SIMPLE_FALSE:
+					return new JsonPrimitive( false );
+				case SIMPLE_TRUE:
+					return new JsonPrimitive( true );
+				case SIMPLE_NULL:
+					return JsonNull.INSTANCE;
+				case SIMPLE_HALF:
+					return new JsonPrimitive( halfToDouble( ( int )readBits( 2 ) ) );
+				case SIMPLE_FLOAT:
+					return new JsonPrimitive( ( double )Float.intBitsToFloat( ( int )readBits( 4 ) ) );
+				case SIMPLE_DOUBLE:
+					return new JsonPrimitive( Double.longBitsToDouble( readBits( 8 ) ) );
+				default:
+					throw new TranslationException( String.format( "Unsupported simple value '0x%02x' found at offset '%s'.", initial, position - 1 ) );
+				}
+			default:
+				throw new TranslationException( String.format( "Unsupported major type '%s' found at offset '%s'.", majorType, position - 1 ) );
+			}
+		}
+		
+		/**
+		 * Called when reading into an array or map, to ensure
+		 * that badly formed, or malicious, data doesn't overflow 
+		 * the stack.
+		 */
+		private void enter( ) {
+			depth += 1;
+			if( depth > MAX_DEPTH ) {
+				throw new TranslationException( String.format( "Nesting deeper than '%s' levels found near offset '%s'.", MAX_DEPTH, position ) );
+			}
+		}
+		
+		/**
+		 * Reads a length, ensuring it is within the bounds of the remaining data
+		 * since each item takes at least a byte.
+		 */
+		private int readLength( int theAdditional ) {
+			long length = readArgument( theAdditional );
+			if( length < 0 || length > limit - position ) {
+				throw new TranslationException( String.format( "Length '%s' near offset '%s' exceeds the remaining data.", Long.toUnsignedString( length ), position ) );
+			}
+			return ( int )length;
+		}
+		
+		private long readArgument( int theAdditional ) {
+			if( theAdditional < 24 ) {
+				return theAdditional;
+			} else {
+				switch( theAdditional ) {
+				case 24:
+					return readBits( 1 );
+				case 25:
+					return readBits( 2 );
+				case 26:
+					return readBits( 4 );
+				case 27:
+					return readBits( 8 );
+				default:
+					throw new TranslationException( String.format( "Unsupported argument encoding '%s' found near offset '%s'.", theAdditional, position ) );
+				}
+			}
+		}
+		
+		private long readBits( int theByteCount ) {
+			if( limit - position < theByteCount ) {
+				throw new TranslationException( String.format( "Unexpected end of data at offset '%s'.", position ) );
+			}
+			long value = 0;
+			for( int count = 0; count < theByteCount; count += 1 ) {
+				value = ( value << 8 ) | ( buffer[ position++ ] & 0xff );
+			}
+			return value;
+		}
+
+		private int readByte( ) {
+			if( position >= limit ) {
+				throw new TranslationException( String.format( "Unexpected end of data at offset '%s'.", position ) );
+			}
+			return buffer[ position++ ] & 0xff;
+		}
+		
+		/**
+		 * Converts an IEEE 754 half-precision value into a double.
+		 */
+		private static double halfToDouble( int theBits ) {
+			int exponent = ( theBits >>> 10 ) & 0x1f;
+			int mantissa = theBits & 0x3ff;
+			double value;
+			
+			if( exponent == 0 ) {
+				value = mantissa * Math.pow( 2, -24 );
+			} else if( exponent == 31 ) {
+				value = mantissa == 0 ? Double.POSITIVE_INFINITY : Double.NaN;
+			} else {
+				value = ( mantissa + 1024 ) * Math.pow( 2, exponent - 25 );
+			}
+			return ( theBits & 0x8000 ) != 0 ? -value : value;
+		}
+	}
+}
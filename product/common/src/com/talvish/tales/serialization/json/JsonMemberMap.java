@@ -15,12 +15,16 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json;
 
+import java.io.IOException;
+
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
+import com.google.gson.stream.JsonReader;
 
 import com.talvish.tales.parts.sites.TranslatedDataSite;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.serialization.SerializationField;
+import com.talvish.tales.serialization.json.translators.JsonReaderTranslator;
 
 /**
  * This class represents a member of a class that will be
@@ -94,4 +98,14 @@ public class JsonMemberMap {
 	public void setData( Object theInstance, JsonElement theValue ) {
 		dataSite.setData( theInstance, theValue ); 
 	}
+
+	/**
+	 * Sets the data on the field for the instance passed in, reading the value from the reader.
+	 * @param theInstance the parent object that contains the field
+	 * @param theReader the reader positioned at the json value, which will be translated, to set the field to
+	 * @throws IOException thrown if the reader could not read the value
+	 */
+	public void setData( Object theInstance, JsonReader theReader ) throws IOException {
+		dataSite.getDataSite( ).setData( theInstance, JsonReaderTranslator.translate( dataSite.getSetterTranslator( ), theReader ) ); 
+	}
 }
@@ -15,17 +15,23 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json;
 
+import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.OffsetDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import org.joda.time.DateTime;
 
@@ -35,16 +41,19 @@ import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 
 import com.talvish.tales.businessobjects.ObjectId;
 import com.talvish.tales.parts.reflection.JavaType;
 import com.talvish.tales.parts.reflection.TypeUtility;
 import com.talvish.tales.parts.reflection.ValueType;
 import com.talvish.tales.parts.sites.TranslatedDataSite;
+import com.talvish.tales.parts.translators.DateTimeToStringTranslator;
 import com.talvish.tales.parts.translators.PassthroughTranslator;
 import com.talvish.tales.parts.translators.StringToEnumTranslator;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.parts.translators.Translator;
+import com.talvish.tales.serialization.Lazy;
 import com.talvish.tales.serialization.Readability;
 import com.talvish.tales.serialization.SerializationField;
 import com.talvish.tales.serialization.SerializationType;
@@ -55,19 +64,24 @@ import com.talvish.tales.serialization.json.translators.ArrayToJsonArrayTranslat
 import com.talvish.tales.serialization.json.translators.BooleanToJsonPrimitiveTranslator;
 import com.talvish.tales.serialization.json.translators.ChainToStringToJsonPrimitiveTranslator;
 import com.talvish.tales.serialization.json.translators.CollectionToJsonArrayTranslator;
+import com.talvish.tales.serialization.json.translators.IteratorToJsonArrayTranslator;
 import com.talvish.tales.serialization.json.translators.JsonArrayToArrayTranslator;
 import com.talvish.tales.serialization.json.translators.JsonArrayToCollectionTranslator;
+import com.talvish.tales.serialization.json.translators.JsonArrayToIteratorTranslator;
 import com.talvish.tales.serialization.json.translators.JsonArrayToMapTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToBooleanTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToDoubleTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToFloatTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToIntegerTranslator;
+import com.talvish.tales.serialization.json.translators.JsonElementToLazyTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToLongTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToStringToChainTranslator;
 import com.talvish.tales.serialization.json.translators.JsonElementToStringTranslator;
 import com.talvish.tales.serialization.json.translators.JsonObjectToObjectTranslator;
 import com.talvish.tales.serialization.json.translators.JsonObjectToPolymorphicObjectTranslator;
 import com.talvish.tales.serialization.json.translators.JsonObjectToVoidTranslator;
+import com.talvish.tales.serialization.json.translators.JsonReaderTranslator;
+import com.talvish.tales.serialization.json.translators.LazyToJsonElementTranslator;
 import com.talvish.tales.serialization.json.translators.MapToJsonArrayTranslator;
 import com.talvish.tales.serialization.json.translators.NumberToJsonPrimitiveTranslator;
 import com.talvish.tales.serialization.json.translators.ObjectToJsonObjectTranslator;
@@ -89,6 +103,13 @@ public final class JsonTranslationFacility implements Facility {
 	// since we don't expect much concurrency and we don't want the memory overhead
     private final Map<JavaType, JsonTypeMap> typeMaps = new ConcurrentHashMap<>( 16, 0.75f, 1 );
     
+    // type maps and adapters are generated without a lock, by the thread that needs them,
+    // and what a thread generates is kept in its generation context until it, and the types
+    // it refers to in a cycle, are complete, at which point each is published once, so 
+    // other threads never see type maps without their members; if two threads generate
+    // the same type, the first one published is kept
+    private final ThreadLocal<GenerationContext> generationContexts = ThreadLocal.withInitial( GenerationContext::new );
+    
 // 	TODO: cannot store the string versions effectively until we have something to manage class/generic type combo
 //	private final Map< Class<?>, Translator> toJsonStringTranslators = new ConcurrentHashMap<Class<?>, Translator>( 16, 0.75f, 1 );
 //	private final Map< Class<?>, Translator> fromJsonStringTranslators = new ConcurrentHashMap<Class<?>, Translator>( 16, 0.75f, 1 );
@@ -133,114 +154,114 @@ public final class JsonTranslationFacility implements Facility {
 		
 		JavaType javaType;
 		
-		javaType = new JavaType( int.class );
+		javaType = JavaType.of( int.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"int32", 
 				new JsonElementToIntegerTranslator( null ),
 				numberToJsonTranslator );
-		javaType = new JavaType( Integer.class );
+		javaType = JavaType.of( Integer.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"int32", 
 				new JsonElementToIntegerTranslator( null ),
 				numberToJsonTranslator );	
 		
-		javaType = new JavaType( long.class );
+		javaType = JavaType.of( long.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"int64", 
 				new JsonElementToLongTranslator( null ),
 				numberToJsonTranslator );
-		javaType = new JavaType( Long.class );
+		javaType = JavaType.of( Long.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"int64", 
 				new JsonElementToLongTranslator( null ),
 				numberToJsonTranslator );	
 		
-		javaType = new JavaType( float.class );
+		javaType = JavaType.of( float.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"float32", 
 				new JsonElementToFloatTranslator( null ),
 				numberToJsonTranslator );
-		javaType = new JavaType( Float.class );
+		javaType = JavaType.of( Float.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"float32", 
 				new JsonElementToFloatTranslator( null ),
 				numberToJsonTranslator );	
 		
-		javaType = new JavaType( double.class );
+		javaType = JavaType.of( double.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"float64", 
 				new JsonElementToDoubleTranslator( null ),
 				numberToJsonTranslator );
-		javaType = new JavaType( Double.class );
+		javaType = JavaType.of( Double.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"float64", 
 				new JsonElementToDoubleTranslator( null ),
 				numberToJsonTranslator );	
 
-		javaType = new JavaType( boolean.class );
+		javaType = JavaType.of( boolean.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"boolean", 
 				new JsonElementToBooleanTranslator( null ),
 				booleanToJsonTranslator );
-		javaType = new JavaType( Boolean.class );
+		javaType = JavaType.of( Boolean.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"boolean", 
 				new JsonElementToBooleanTranslator( null ),
 				booleanToJsonTranslator );	
 		
-		javaType = new JavaType( DateTime.class );
+		javaType = JavaType.of( DateTime.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"datetime", 
 				new JsonElementToStringToChainTranslator( stringTranslators.getFromStringTranslator( javaType ) ),
-				objectToJsonTranslator );
+				new ChainToStringToJsonPrimitiveTranslator( new DateTimeToStringTranslator( ) ) );
 
-		javaType = new JavaType( OffsetDateTime.class );
+		javaType = JavaType.of( OffsetDateTime.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"datetime", 
 				new JsonElementToStringToChainTranslator( stringTranslators.getFromStringTranslator( javaType ) ),
 				objectToJsonTranslator );
 
-		javaType = new JavaType( LocalDateTime.class );
+		javaType = JavaType.of( LocalDateTime.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"datetime", 
 				new JsonElementToStringToChainTranslator( stringTranslators.getFromStringTranslator( javaType ) ),
 				objectToJsonTranslator );
 
-		javaType = new JavaType( LocalDate.class );
+		javaType = JavaType.of( LocalDate.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"date", 
 				new JsonElementToStringToChainTranslator( stringTranslators.getFromStringTranslator( javaType ) ),
 				objectToJsonTranslator );
 
-		javaType = new JavaType( String.class );
+		javaType = JavaType.of( String.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"string", 
 				new JsonElementToStringTranslator( null ),
 				stringToJsonTranslator );
 		
-		javaType = new JavaType( UUID.class );
+		javaType = JavaType.of( UUID.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"uuid : string", 
 				new JsonElementToStringToChainTranslator( stringTranslators.getFromStringTranslator( javaType ) ),
 				objectToJsonTranslator );
 
-		javaType = new JavaType( ObjectId.class );
+		javaType = JavaType.of( ObjectId.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"objectid : string", 
@@ -248,14 +269,14 @@ public final class JsonTranslationFacility implements Facility {
 				objectToJsonTranslator );
 
 		// this is the standard void 'type' required when using reflection
-		javaType = new JavaType( Void.TYPE );
+		javaType = JavaType.of( Void.TYPE );
 		registerJsonElementTranslators( 
 				javaType,
 				"void", 
 				jsonToVoidTransator,
 				voidToJsonTranslator );
 		// this void 'type' seems to be what is used when using voids as the type in generics
-		javaType = new JavaType( Void.class );
+		javaType = JavaType.of( Void.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"void", 
@@ -263,7 +284,7 @@ public final class JsonTranslationFacility implements Facility {
 				voidToJsonTranslator );
 		
 		// this is for systems that can manage json directly themselves, we allow the pass-through
-		javaType = new JavaType( JsonElement.class );
+		javaType = JavaType.of( JsonElement.class );
 		registerJsonElementTranslators( 
 				javaType,
 				"json", 
@@ -354,139 +375,221 @@ public final class JsonTranslationFacility implements Facility {
 	 * @param theType the type to generate a json map for
 	 * @return the json type map
 	 */
-	@SuppressWarnings("unchecked")
 	public JsonTypeMap generateTypeMap( JavaType theType ) {
 		Preconditions.checkNotNull( theType, "need a type ");
 		
-		if( typeMaps.containsKey( theType ) ) {
-			return typeMaps.get( theType );
-			
-		} else {
-			// first we need to make sure we have contract for the type
-			SerializationType<?, ?> reflectedType = this.typeSource.getSerializedType( theType );
-			Preconditions.checkArgument( reflectedType != null, "Unable to generate type information for '%s' likely due to missing annotations.", theType.getSimpleName( ) );
+		return generate( theType, typeMaps, context -> context.typeMaps, this::_generateTypeMap );
+	}
 
-			TypeFormatAdapter jsonTypeAdapter;
-			List<TypeFormatAdapter> keyTypeAdapters;
-			List<TypeFormatAdapter> valueTypeAdapters;
-			
-			// we save what we created for later use and we
-			// save it early since there is a distinct chance
-			// things will loop forever otherwise, and while
-			// it isn't done, that shouldn't be an issue
-			JsonTypeMap typeMap = new JsonTypeMap( reflectedType );
-			typeMaps.put( theType, typeMap );
+	/**
+	 * Generates the json map for the given type. This is called by the generate helper method.
+	 * @param theType the type to generate a json map for
+	 * @return the json type map
+	 */
+	@SuppressWarnings("unchecked")
+	private JsonTypeMap _generateTypeMap( JavaType theType ) {
+		// first we need to make sure we have contract for the type
+		SerializationType<?, ?> reflectedType = this.typeSource.getSerializedType( theType );
+		Preconditions.checkArgument( reflectedType != null, "Unable to generate type information for '%s' likely due to missing annotations.", theType.getSimpleName( ) );
 
+		TypeFormatAdapter jsonTypeAdapter;
+		List<TypeFormatAdapter> keyTypeAdapters;
+		List<TypeFormatAdapter> valueTypeAdapters;
 		
-			Collection<SerializationField<?,?>> fields = this.typeSource.getSerializedFields( reflectedType );
-			ArrayList<JsonMemberMap> members = new ArrayList<JsonMemberMap>( fields.size() );
-			
-			// now we iterate over the fields found by the analysis
-			for( SerializationField<?,?> field : fields ) {
-				if( field.isObject( ) && field.getValueTypes().size() > 1 ) {
-					// need a list of type adapters and then when
-					// done we pass the type information
-					valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
-					for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
-						// we need to get translators made for each of the value types						
-						jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
-		                if( jsonTypeAdapter == null ) {
-							throw new IllegalStateException( String.format( "Type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
-		            	} else {
-		            		valueTypeAdapters.add( jsonTypeAdapter );
-		            	}
-					}
-					members.add( new JsonMemberMap( field, new TranslatedDataSite(
-							field.getSite(), 
-							new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ), 
-							new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ) ), typeMap ) );					
-				} else if( field.isCollection( ) && field.getValueTypes().size( ) >  1 ) {
-					// so we need to grab the type of the element that was used
-					
-					// first let's grab the type adapters
-					valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
-					for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
-						// we need to get translators made for each of the value types						
-						jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
-		                if( jsonTypeAdapter == null ) {
-							throw new IllegalStateException( String.format( "Element type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
-		            	} else {
-		            		valueTypeAdapters.add( jsonTypeAdapter );
-		            	}
-					}
-					// then we create the member map but we
-					// must distinguish between the arrays and
-					// standard library collections
-					if( field.getSite().getType().getUnderlyingClass().isArray() ) {
-						members.add( new JsonMemberMap( 
-								field, 
-								new TranslatedDataSite(
-										field.getSite(),
-										new ArrayToJsonArrayTranslator( new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ) ),
-										new JsonArrayToArrayTranslator( TypeUtility.extractClass( TypeUtility.extractComponentType( field.getSite().getType( ).getType() ) ), new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ) ) ), 
-										typeMap ) );
-
-					} else {
-						members.add( new JsonMemberMap( 
-								field,
-								new TranslatedDataSite(
-										field.getSite(),
-										new CollectionToJsonArrayTranslator( new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ) ),
-										new JsonArrayToCollectionTranslator( new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ), field.getSite().getType( ).getUnderlyingClass() ) ), 
-										typeMap ) );
-					}
-					
-				} else if( field.isMap( ) ) {
-					// this is a bit more interesting because maps already have
-					// an intermediate object holding key and value adapters so
-					// and also because there may be more than one value type but 
-					// not key type
-					
-					// first let's grab the value adapters
-					valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
-					for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
-						// we need to get translators made for each of the value types						
-						jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
-		                if( jsonTypeAdapter == null ) {
-							throw new IllegalStateException( String.format( "Value type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
-		            	} else {
-		            		valueTypeAdapters.add( jsonTypeAdapter );
-		            	}
-					}
-					
-					// second, let's grab the key adapters
-					keyTypeAdapters = new ArrayList<>( field.getKeyTypes( ).size( ) );
-					for( ValueType<?,?> keyType : field.getKeyTypes( ) ) {
-						// we need to get translators made for each of the key types						
-						jsonTypeAdapter = getTypeAdapter( keyType.getType() );		
-		                if( jsonTypeAdapter == null ) {
-							throw new IllegalStateException( String.format( "Key type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", keyType.getType(), theType.getName( ), field.getSite().getName( ) ) );
-		            	} else {
-		            		keyTypeAdapters.add( jsonTypeAdapter );
-		            	}
-					}
-					// okay so now we need to build the member adapter
-					members.add( new JsonMemberMap(
+		// we save what we created for later use and we
+		// save it early since there is a distinct chance
+		// things will loop forever otherwise, and while
+		// it isn't done, that shouldn't be an issue
+		// (it isn't complete, so whatever refers to it relies
+		// on this generation and is published along with it)
+		JsonTypeMap typeMap = new JsonTypeMap( reflectedType );
+		GenerationContext context = generationContexts.get( );
+		context.typeMaps.put( theType, typeMap );
+		context.reliances.put( typeMap, context.generations.peek( ).depth );
+
+	
+		Collection<SerializationField<?,?>> fields = this.typeSource.getSerializedFields( reflectedType );
+		ArrayList<JsonMemberMap> members = new ArrayList<JsonMemberMap>( fields.size() );
+		
+		// now we iterate over the fields found by the analysis
+		for( SerializationField<?,?> field : fields ) {
+			if( field.isObject( ) && field.getValueTypes().size() > 1 ) {
+				// need a list of type adapters and then when
+				// done we pass the type information
+				valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
+				for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
+					// we need to get translators made for each of the value types						
+					jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
+	                if( jsonTypeAdapter == null ) {
+						throw new IllegalStateException( String.format( "Type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
+	            	} else {
+	            		valueTypeAdapters.add( jsonTypeAdapter );
+	            	}
+				}
+				members.add( new JsonMemberMap( field, new TranslatedDataSite(
+						field.getSite(), 
+						new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ), 
+						new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ) ), typeMap ) );					
+			} else if( field.isCollection( ) && field.getValueTypes().size( ) >  1 ) {
+				// so we need to grab the type of the element that was used
+				
+				// first let's grab the type adapters
+				valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
+				for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
+					// we need to get translators made for each of the value types						
+					jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
+	                if( jsonTypeAdapter == null ) {
+						throw new IllegalStateException( String.format( "Element type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
+	            	} else {
+	            		valueTypeAdapters.add( jsonTypeAdapter );
+	            	}
+				}
+				// then we create the member map but we
+				// must distinguish between the arrays and
+				// standard library collections
+				if( field.getSite().getType().getUnderlyingClass().isArray() ) {
+					members.add( new JsonMemberMap( 
 							field, 
 							new TranslatedDataSite(
 									field.getSite(),
-									new MapToJsonArrayTranslator( keyTypeAdapters, valueTypeAdapters ),
-									new JsonArrayToMapTranslator( keyTypeAdapters, valueTypeAdapters, field.getSite( ).getType( ).getUnderlyingClass() ) ),
+									new ArrayToJsonArrayTranslator( new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ) ),
+									new JsonArrayToArrayTranslator( TypeUtility.extractClass( TypeUtility.extractComponentType( field.getSite().getType( ).getType() ) ), new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ) ) ), 
 									typeMap ) );
-					
+
 				} else {
-					jsonTypeAdapter = getTypeAdapter( field.getSite().getType() );
+					members.add( new JsonMemberMap( 
+							field,
+							new TranslatedDataSite(
+									field.getSite(),
+									new CollectionToJsonArrayTranslator( new PolymorphicObjectToJsonObjectTranslator( valueTypeAdapters ) ),
+									new JsonArrayToCollectionTranslator( new JsonObjectToPolymorphicObjectTranslator( valueTypeAdapters ), field.getSite().getType( ).getUnderlyingClass() ) ), 
+									typeMap ) );
+				}
+				
+			} else if( field.isMap( ) ) {
+				// this is a bit more interesting because maps already have
+				// an intermediate object holding key and value adapters so
+				// and also because there may be more than one value type but 
+				// not key type
+				
+				// first let's grab the value adapters
+				valueTypeAdapters = new ArrayList<>( field.getValueTypes( ).size( ) );
+				for( ValueType<?,?> valueType : field.getValueTypes( ) ) {
+					// we need to get translators made for each of the value types						
+					jsonTypeAdapter = getTypeAdapter( valueType.getType() );		
 	                if( jsonTypeAdapter == null ) {
-						throw new IllegalStateException( String.format( "Type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", field.getSite().getType().getSimpleName( ), theType.getName( ), field.getSite().getName( ) ) );
+						throw new IllegalStateException( String.format( "Value type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", valueType.getType(), theType.getName( ), field.getSite().getName( ) ) );
+	            	} else {
+	            		valueTypeAdapters.add( jsonTypeAdapter );
+	            	}
+				}
+				
+				// second, let's grab the key adapters
+				keyTypeAdapters = new ArrayList<>( field.getKeyTypes( ).size( ) );
+				for( ValueType<?,?> keyType : field.getKeyTypes( ) ) {
+					// we need to get translators made for each of the key types						
+					jsonTypeAdapter = getTypeAdapter( keyType.getType() );		
+	                if( jsonTypeAdapter == null ) {
+						throw new IllegalStateException( String.format( "Key type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", keyType.getType(), theType.getName( ), field.getSite().getName( ) ) );
+	            	} else {
+	            		keyTypeAdapters.add( jsonTypeAdapter );
 	            	}
-	
-	                members.add( new JsonMemberMap( field, new TranslatedDataSite( field.getSite(), jsonTypeAdapter.getToFormatTranslator( ), jsonTypeAdapter.getFromFormatTranslator( ) ), typeMap ) );
 				}
+				// okay so now we need to build the member adapter
+				members.add( new JsonMemberMap(
+						field, 
+						new TranslatedDataSite(
+								field.getSite(),
+								new MapToJsonArrayTranslator( keyTypeAdapters, valueTypeAdapters ),
+								new JsonArrayToMapTranslator( keyTypeAdapters, valueTypeAdapters, field.getSite( ).getType( ).getUnderlyingClass() ) ),
+								typeMap ) );
+				
+			} else {
+				jsonTypeAdapter = getTypeAdapter( field.getSite().getType() );
+                if( jsonTypeAdapter == null ) {
+					throw new IllegalStateException( String.format( "Type '%s' on field '%s.%s' could not be analyzed because the type adapter could not be found.", field.getSite().getType().getSimpleName( ), theType.getName( ), field.getSite().getName( ) ) );
+            	}
+
+                members.add( new JsonMemberMap( field, new TranslatedDataSite( field.getSite(), jsonTypeAdapter.getToFormatTranslator( ), jsonTypeAdapter.getFromFormatTranslator( ) ), typeMap ) );
+			}
+		}
+		// save the members now that we have them all
+		typeMap.setMembers( members );
+		
+		return typeMap;
+	}
+
+	/**
+	 * Helper method that returns what was generated for a type, generating it if it hasn't 
+	 * been. What is generated is published once it, and anything it refers to that refers 
+	 * back to it, is complete. If the generation fails, only what was generated for the type,
+	 * and whatever relies on it, is discarded. 
+	 * @param theType the type to get or generate for
+	 * @param thePublished the map holding what was generated and published
+	 * @param thePending gets, from a generation context, the map holding what was generated but not yet published
+	 * @param theGenerator generates for the type
+	 * @return what was generated for the type
+	 */
+	private <V> V generate( JavaType theType, Map<JavaType, V> thePublished, Function<GenerationContext, Map<JavaType, V>> thePending, Function<JavaType, V> theGenerator ) {
+		V value = thePublished.get( theType );
+		if( value != null ) {
+			return value;
+		}
+		GenerationContext context = generationContexts.get( );
+		Map<JavaType, V> pending = thePending.apply( context );
+		Generation parent = context.generations.peek( );
+
+		value = pending.get( theType );
+		if( value != null ) {
+			// this thread is already generating it, and if it isn't complete,
+			// or relies on something that isn't, the parent now relies on that too
+			Integer reliance = context.reliances.get( value );
+			if( reliance != null && parent != null ) {
+				parent.reliesOn = Math.min( parent.reliesOn, reliance );
+			}
+			return value;
+		}
+
+		Generation generation = new Generation( context.generations.size( ) + 1 );
+		boolean succeeded = false;
+		context.generations.push( generation );
+		try {
+			value = theGenerator.apply( theType );
+			succeeded = true;
+		} finally {
+			context.generations.pop( );
+			if( !succeeded ) {
+				// types generated, but not relying on this one, were already published
+				V discarded = pending.remove( theType );
+				if( discarded != null ) {
+					context.reliances.remove( discarded );
+				}
+				for( Generated<?> item : generation.provisional ) {
+					item.discard( context.reliances );
+				}
+			}
+			if( context.generations.isEmpty( ) ) {
+				generationContexts.remove( );
 			}
-			// save the members now that we have them all
-			typeMap.setMembers( members );
-			
-			return typeMap;
+		}
+
+		Generated<V> generated = new Generated<>( theType, value, thePublished, pending );
+		if( generation.reliesOn < generation.depth ) {
+			// it relies on a type the parent, or one of its parents, is still 
+			// generating so it, and what relies on it, is published with that type
+			pending.put( theType, value );
+			generation.provisional.add( generated );
+			for( Generated<?> item : generation.provisional ) {
+				context.reliances.put( item.value, generation.reliesOn );
+			}
+			parent.provisional.addAll( generation.provisional );
+			parent.reliesOn = Math.min( parent.reliesOn, generation.reliesOn );
+			return value;
+		} else {
+			for( Generated<?> item : generation.provisional ) {
+				item.publish( context.reliances );
+			}
+			return generated.publish( context.reliances );
 		}
 	}
 
@@ -525,6 +628,27 @@ public final class JsonTranslationFacility implements Facility {
 		}	
 	}
 
+	/**
+	 * Helper method that reads the next value from the reader and translates it into the 
+	 * object of the specific type. Where the translators allow, the value is translated as 
+	 * it is read instead of first being read into a JsonElement.
+	 * @param theReader the reader positioned at the value to translate
+	 * @param theType the type to translate into
+	 * @return the translated object
+	 * @throws IOException thrown if the reader could not read the value
+	 */
+	@SuppressWarnings("unchecked")
+	public <O> O fromJsonReader( JsonReader theReader, JavaType theType ) throws IOException {
+		Preconditions.checkNotNull( theReader, "need a reader" );
+		Preconditions.checkNotNull( theType, "need a type" );
+		TypeFormatAdapter typeAdapter = getTypeAdapter( theType );
+		if( typeAdapter == null ){
+			throw new IllegalArgumentException( String.format( "Unable to find a type adapter for type '%s'.", theType.getName( ) ) );
+		} else {
+			return ( O )JsonReaderTranslator.translate( typeAdapter.getFromFormatTranslator(), theReader );
+		}	
+	}
+
 	/**
 	 * Helper method that translates the given object, of the specific type, into a JSON string.
 	 * @param theObject the object to translate
@@ -572,61 +696,105 @@ public final class JsonTranslationFacility implements Facility {
 	 * @return the type adapter for the type
 	 */
 	public TypeFormatAdapter getTypeAdapter( JavaType theType ) {
-		TypeFormatAdapter jsonTypeAdapter = adapters.get( theType );
-		if( jsonTypeAdapter == null ) {
-	    	if( Map.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
-	    		if( !( theType.getType() instanceof ParameterizedType ) ) {
-	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because the parameterized type was not given when '%s' generic types are expected.", theType.getUnderlyingClass().getTypeParameters().length ) );
-		    	} else {
-		            JavaType keyType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
-		            JavaType valueType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 1 ] );
-		            TypeFormatAdapter keyTypeAdapter = getTypeAdapter( keyType );
-		            TypeFormatAdapter valueTypeAdapter = getTypeAdapter( valueType );
-	
-		            if( keyTypeAdapter == null ) {
-		            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because a type adapter for key type '%s' could not be found.", keyType.getName( ) ) );
-		            } else if( valueTypeAdapter == null ) {
-		            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because a type adapter for value type '%s' could not be found.", valueType.getName( ) ) );
-		            } else {
-		            	jsonTypeAdapter = new TypeFormatAdapter( 
-		            			theType, 
-		            			"map", // TODO: need to generate better
-		            			new JsonArrayToMapTranslator( keyTypeAdapter.getFromFormatTranslator(), valueTypeAdapter.getFromFormatTranslator(), theType.getUnderlyingClass() ),
-		            			new MapToJsonArrayTranslator( keyTypeAdapter.getToFormatTranslator(), valueTypeAdapter.getToFormatTranslator() ) );
-		            }
-		    	}
+		return generate( theType, adapters, context -> context.adapters, this::generateTypeAdapter );
+	}
+
+	/**
+	 * Generates the type adapter for a type. This is called by the generate helper method.
+	 * @param theType the type to translate to
+	 * @return the type adapter for the type
+	 */
+	private TypeFormatAdapter generateTypeAdapter( JavaType theType ) {
+		TypeFormatAdapter jsonTypeAdapter;
+		if( Lazy.class.equals( theType.getUnderlyingClass( ) ) ) {
+    		if( !( theType.getType() instanceof ParameterizedType ) ) {
+            	throw new IllegalStateException( "Unable to create a type adapter for a lazy value because the parameterized type was not given." );
+	    	} else {
+	    		// lazy values look the same on the wire as the value they hold, the 
+	    		// difference is the json element is kept until the value is read
+	            JavaType valueType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+	            TypeFormatAdapter valueTypeAdapter = getTypeAdapter( valueType );
 	            
-	    	} else if( Collection.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
-	    		if( !( theType.getType( ) instanceof ParameterizedType ) ) {
-	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a collection because the parameterized type was not given when '%s' generic types are expected.", theType.getUnderlyingClass().getTypeParameters().length ) );
-		    	} else {
-	        		// start be seeing if we have a collection and if so generate some translators
-	                JavaType elementType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
-	                TypeFormatAdapter elementTypeAdapter = getTypeAdapter( elementType );
-
-	                if( elementTypeAdapter == null ) {
-		            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a collection because a type adapter for element type '%s' could not be found.", elementType.getName( ) ) );
-		            } else {
-		            	jsonTypeAdapter = new TypeFormatAdapter( 
-		            			theType, 
-		            			"list", // TODO: need to generate better
-		            			new JsonArrayToCollectionTranslator( elementTypeAdapter.getFromFormatTranslator(), theType.getUnderlyingClass() ),
-		            			new CollectionToJsonArrayTranslator( elementTypeAdapter.getToFormatTranslator() ) );
-		            }
-		    	}
-	    		
-        	} else if( theType.getUnderlyingClass().isArray( ) ) {
-        		JavaType elementType = new JavaType( TypeUtility.extractComponentType( theType.getType( ) ) );
-        		TypeFormatAdapter elementTypeAdapter = getTypeAdapter( elementType );
-	            if( elementTypeAdapter == null ) {
-	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for an array because a type adapter for element type '%s' could not be found.", elementType.getName( ) ) );
+	            if( valueTypeAdapter == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a lazy value because a type adapter for value type '%s' could not be found.", valueType.getName( ) ) );
+	            } else {
+	            	jsonTypeAdapter = new TypeFormatAdapter( 
+	            			theType, 
+	            			valueTypeAdapter.getName( ),
+	            			new JsonElementToLazyTranslator( valueTypeAdapter.getFromFormatTranslator() ),
+	            			new LazyToJsonElementTranslator( valueTypeAdapter.getToFormatTranslator() ) );
+	            }
+	    	}
+	    	
+		} else if( Map.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
+    		if( !( theType.getType() instanceof ParameterizedType ) ) {
+            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because the parameterized type was not given when '%s' generic types are expected.", theType.getUnderlyingClass().getTypeParameters().length ) );
+	    	} else {
+	            JavaType keyType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+	            JavaType valueType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 1 ] );
+	            TypeFormatAdapter keyTypeAdapter = getTypeAdapter( keyType );
+	            TypeFormatAdapter valueTypeAdapter = getTypeAdapter( valueType );
+
+	            if( keyTypeAdapter == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because a type adapter for key type '%s' could not be found.", keyType.getName( ) ) );
+	            } else if( valueTypeAdapter == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a map because a type adapter for value type '%s' could not be found.", valueType.getName( ) ) );
+	            } else {
+	            	jsonTypeAdapter = new TypeFormatAdapter( 
+	            			theType, 
+	            			"map", // TODO: need to generate better
+	            			new JsonArrayToMapTranslator( keyTypeAdapter.getFromFormatTranslator(), valueTypeAdapter.getFromFormatTranslator(), theType.getUnderlyingClass() ),
+	            			new MapToJsonArrayTranslator( keyTypeAdapter.getToFormatTranslator(), valueTypeAdapter.getToFormatTranslator() ) );
+	            }
+	    	}
+            
+    	} else if( Collection.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
+    		if( !( theType.getType( ) instanceof ParameterizedType ) ) {
+            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a collection because the parameterized type was not given when '%s' generic types are expected.", theType.getUnderlyingClass().getTypeParameters().length ) );
+	    	} else {
+        		// start be seeing if we have a collection and if so generate some translators
+                JavaType elementType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+                TypeFormatAdapter elementTypeAdapter = getTypeAdapter( elementType );
+
+                if( elementTypeAdapter == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to create a type adapter for a collection because a type adapter for element type '%s' could not be found.", elementType.getName( ) ) );
 	            } else {
 	            	jsonTypeAdapter = new TypeFormatAdapter( 
 	            			theType, 
 	            			"list", // TODO: need to generate better
-	            			new JsonArrayToArrayTranslator( elementType.getUnderlyingClass(), elementTypeAdapter.getFromFormatTranslator() ),
-	            			new ArrayToJsonArrayTranslator( elementTypeAdapter.getToFormatTranslator() ) );
+	            			new JsonArrayToCollectionTranslator( elementTypeAdapter.getFromFormatTranslator(), theType.getUnderlyingClass() ),
+	            			new CollectionToJsonArrayTranslator( elementTypeAdapter.getToFormatTranslator() ) );
 	            }
+	    	}
+    		
+    	} else if( TypeUtility.extractIteratedType( theType.getType( ) ) != null ) {
+    		// iterators, streams and iterables look like lists on the wire, but 
+    		// elements are translated as they are walked instead of all at once
+    		JavaType elementType = JavaType.of( TypeUtility.extractIteratedType( theType.getType( ) ) );
+    		TypeFormatAdapter elementTypeAdapter = getTypeAdapter( elementType );
+
+    		if( elementTypeAdapter == null ) {
+            	throw new IllegalStateException( String.format( "Unable to create a type adapter for an iterator because a type adapter for element type '%s' could not be found.", elementType.getName( ) ) );
+            } else {
+            	jsonTypeAdapter = new TypeFormatAdapter( 
+            			theType, 
+            			"list", // TODO: need to generate better
+            			new JsonArrayToIteratorTranslator( elementTypeAdapter.getFromFormatTranslator(), theType.getUnderlyingClass() ),
+            			new IteratorToJsonArrayTranslator( elementTypeAdapter.getToFormatTranslator() ) );
+            }
+
+        	} else if( theType.getUnderlyingClass().isArray( ) ) {
+        		JavaType elementType = JavaType.of( TypeUtility.extractComponentType( theType.getType( ) ) );
+        		TypeFormatAdapter elementTypeAdapter = getTypeAdapter( elementType );
+            if( elementTypeAdapter == null ) {
+            	throw new IllegalStateException( String.format( "Unable to create a type adapter for an array because a type adapter for element type '%s' could not be found.", elementType.getName( ) ) );
+            } else {
+            	jsonTypeAdapter = new TypeFormatAdapter( 
+            			theType, 
+            			"list", // TODO: need to generate better
+            			new JsonArrayToArrayTranslator( elementType.getUnderlyingClass(), elementTypeAdapter.getFromFormatTranslator() ),
+            			new ArrayToJsonArrayTranslator( elementTypeAdapter.getToFormatTranslator() ) );
+            }
         		
         	} else if( theType.getUnderlyingClass().isEnum( ) ) {
             	jsonTypeAdapter = new TypeFormatAdapter( 
@@ -634,21 +802,17 @@ public final class JsonTranslationFacility implements Facility {
             			"enum : string", // TODO: need to generate better
             			new JsonElementToStringToChainTranslator( new StringToEnumTranslator( theType.getUnderlyingClass() ) ),
             			new ObjectToJsonPrimitiveTranslator( ) );
+		} else {
+			JsonTypeMap typeMap = generateTypeMap( theType );
+			if( typeMap == null ) {
+				throw new IllegalStateException( String.format( "Unable to create a type adapter for complex type '%s' because a json type map could not be generated.", theType.getName() ) );
 			} else {
-				JsonTypeMap typeMap = generateTypeMap( theType );
-				if( typeMap == null ) {
-					throw new IllegalStateException( String.format( "Unable to create a type adapter for complex type '%s' because a json type map could not be generated.", theType.getName() ) );
-				} else {
-	            	jsonTypeAdapter = new TypeFormatAdapter( 
-	            			theType,
-	            			typeMap.getReflectedType().getName(),
-	            			new JsonObjectToObjectTranslator( typeMap ),
-	            			new ObjectToJsonObjectTranslator( typeMap ) );
-				}
+            	jsonTypeAdapter = new TypeFormatAdapter( 
+            			theType,
+            			typeMap.getReflectedType().getName(),
+            			new JsonObjectToObjectTranslator( typeMap ),
+            			new ObjectToJsonObjectTranslator( typeMap ) );
 			}
-	    	
-	    	// we cache these later
-			adapters.put( jsonTypeAdapter.getType(), jsonTypeAdapter );
 		}
 
 		return jsonTypeAdapter;
@@ -668,9 +832,17 @@ public final class JsonTranslationFacility implements Facility {
 		String typeString = typeAdapter != null ? typeAdapter.getName() : null;
 
 		if( typeString  == null ) {
-    		if( Map.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
-	            JavaType keyType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
-	            JavaType valueType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 1 ] );
+			if( Lazy.class.equals( theType.getUnderlyingClass( ) ) ) {
+				// lazy values are only a deserialization detail so we use the name of the value type
+	            JavaType valueType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+	            typeString = generateTypeName( valueType, theFoundTypeMaps );
+	            if( typeString == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to get a type name for a lazy value because a name for value type '%s' could not be found.", valueType.getName( ) ) );
+	            }
+	            
+			} else if( Map.class.isAssignableFrom( theType.getUnderlyingClass() ) ) {
+	            JavaType keyType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+	            JavaType valueType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 1 ] );
 	            String keyTypeString = generateTypeName( keyType, theFoundTypeMaps );
 	            String valueTypeString = generateTypeName( valueType, theFoundTypeMaps );
 
@@ -684,7 +856,7 @@ public final class JsonTranslationFacility implements Facility {
 			
     		} else if( Collection.class.isAssignableFrom( theType.getUnderlyingClass( ) ) ) {
         		// first see if we have a collection, and look to get a generic type for it
-                JavaType elementType = new JavaType( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+                JavaType elementType = JavaType.of( ( ( ParameterizedType )theType.getType( ) ).getActualTypeArguments( )[ 0 ] );
                 String elementTypeString = generateTypeName( elementType, theFoundTypeMaps );
 	            
                 if( elementTypeString == null ) {
@@ -693,9 +865,20 @@ public final class JsonTranslationFacility implements Facility {
 	            	typeString = String.format( "list[ %s ]", elementTypeString );
 	            }
 
+    		} else if( TypeUtility.extractIteratedType( theType.getType( ) ) != null ) {
+    			// iterators, streams and iterables are lists to callers
+                JavaType elementType = JavaType.of( TypeUtility.extractIteratedType( theType.getType( ) ) );
+                String elementTypeString = generateTypeName( elementType, theFoundTypeMaps );
+	            
+                if( elementTypeString == null ) {
+	            	throw new IllegalStateException( String.format( "Unable to get a type name for an iterator because a name for element type '%s' could not be found.", elementType.getName( ) ) );
+	            } else {
+	            	typeString = String.format( "list[ %s ]", elementTypeString );
+	            }
+
         	} else if( theType.getUnderlyingClass().isArray( ) ) {
         		// next see if we have an array to get
-        		JavaType elementType = new JavaType( TypeUtility.extractComponentType( theType.getType( ) ) );
+        		JavaType elementType = JavaType.of( TypeUtility.extractComponentType( theType.getType( ) ) );
                 String elementTypeString = generateTypeName( elementType, theFoundTypeMaps );
                 if( elementTypeString == null ) {
 	            	throw new IllegalStateException( String.format( "Unable to get a type name for an array because a name for element type '%s' could not be found.", elementType.getName( ) ) );
@@ -775,4 +958,68 @@ public final class JsonTranslationFacility implements Facility {
 //			}
 //		}
 //	}
+
+	/**
+	 * What a thread is generating, and has generated but not yet published.
+	 */
+	private static final class GenerationContext {
+		private final Map<JavaType, JsonTypeMap> typeMaps = new HashMap<>( );
+		private final Map<JavaType, TypeFormatAdapter> adapters = new HashMap<>( );
+		// what was generated but isn't complete, or relies on something that isn't, 
+		// and the depth of the outermost generation it relies on
+		private final Map<Object, Integer> reliances = new IdentityHashMap<>( );
+		private final Deque<Generation> generations = new ArrayDeque<>( );
+	}
+
+	/**
+	 * A generation, for a type, that is in progress.
+	 */
+	private static final class Generation {
+		private final int depth;
+		// the depth of the outermost generation in progress that this one relies on
+		private int reliesOn = Integer.MAX_VALUE;
+		// what was generated within this generation that relies on it, or its parents
+		private final List<Generated<?>> provisional = new ArrayList<>( );
+
+		private Generation( int theDepth ) {
+			depth = theDepth;
+		}
+	}
+
+	/**
+	 * Something generated for a type that is waiting to be published.
+	 */
+	private static final class Generated<V> {
+		private final JavaType type;
+		private final V value;
+		private final Map<JavaType, V> published;
+		private final Map<JavaType, V> pending;
+
+		private Generated( JavaType theType, V theValue, Map<JavaType, V> thePublished, Map<JavaType, V> thePending ) {
+			type = theType;
+			value = theValue;
+			published = thePublished;
+			pending = thePending;
+		}
+
+		/**
+		 * Publishes what was generated, unless something was already published for the type.
+		 * @param theReliances the reliances of the generation context
+		 * @return what is published for the type
+		 */
+		private V publish( Map<Object, Integer> theReliances ) {
+			discard( theReliances );
+			V existing = published.putIfAbsent( type, value );
+			return existing == null ? value : existing;
+		}
+
+		/**
+		 * Removes what was generated from the generation context.
+		 * @param theReliances the reliances of the generation context
+		 */
+		private void discard( Map<Object, Integer> theReliances ) {
+			pending.remove( type, value );
+			theReliances.remove( value );
+		}
+	}
 }
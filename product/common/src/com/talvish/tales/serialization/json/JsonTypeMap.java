@@ -15,6 +15,7 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -29,6 +30,7 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
 
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.serialization.SerializationType;
@@ -136,6 +138,59 @@ public class JsonTypeMap {
 		reflectedType.callValidationHook( theInstance );
 	}
 
+	/**
+	 * A helper method that, given an instance and a reader positioned at
+	 * a json object, will set data on the instance, translating each member 
+	 * as it is read instead of first reading the whole object.
+	 * @param theInstance the instance to set
+	 * @param theReader the reader to read the json object from
+	 * @throws IOException thrown if the reader could not read the object
+	 */
+	public void setData( Object theInstance, JsonReader theReader ) throws IOException {
+		Preconditions.checkNotNull( theInstance, "need a non-null instance");
+		Preconditions.checkNotNull( theReader, "need a non-null reader");
+		
+		JsonMemberMap member = null;
+		String memberName = null;
+		String foundUnmappedMemberName = null;
+		
+		theReader.beginObject( );
+		while( theReader.hasNext( ) ) {
+			memberName = theReader.nextName( );
+			member = members.get( memberName );
+			if( member == null ) {
+				if( unmappedNameMember != null ) {
+					// same as above, the entry represents the unmapped name and unmapped value members
+					unmappedNameMember.getDataSite().getDataSite( ).setData( theInstance, memberName );
+					unmappedValueMember.setData(theInstance, theReader );
+					
+					if( foundUnmappedMemberName != null ) {
+						// log a warning since data could be lost
+						logger.warn( "Found json members '{}' and '{}' attempting to assign to the designated unmapped member '{}.{}'.", foundUnmappedMemberName, memberName, this.reflectedType.getType().getName(), this.unmappedNameMember.getReflectedField().getName( ) );
+					}
+					foundUnmappedMemberName = memberName;
+					
+				} else if( strictMatch ) {
+					throw new TranslationException( String.format( "Json for type '%s' refers to a member '%s' that does not exist.", reflectedType.getType().getName(), memberName ) );
+				} else {
+					logger.debug( "Ignoring unknown json member '{}' for type '{}'.", memberName, this.getReflectedType().getName() );
+					theReader.skipValue( );
+				}
+			} else {
+				try {
+					member.setData( theInstance, theReader );
+				} catch( TranslationException e ) {
+					throw new TranslationException( String.format( "Error attempting to set data on member '%s.%s'.",  this.reflectedType.getType().getName(), member.getReflectedField().getName( ) ), e );
+				}
+			}
+		}
+		theReader.endObject( );
+		// call the deserialized hook (this method verifies the hook is there)
+		reflectedType.callDeserializedHook( theInstance );
+		// after deserialization, we call the validation hook
+		reflectedType.callValidationHook( theInstance );
+	}
+
 	/**
 	 * Get a member based on the member name.
 	 * @param theMemberName the name of member to get
@@ -0,0 +1,107 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json.translators;
+
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.talvish.tales.parts.translators.TranslationException;
+import com.talvish.tales.parts.translators.Translator;
+
+
+/**
+ * Translator that walks an {@code Iterator}, {@code Stream} or {@code Iterable},
+ * translating each element, and places the results into a json array. Sources 
+ * that can be closed are closed once walked.
+ * @author jmolnar
+ *
+ */
+public class IteratorToJsonArrayTranslator implements Translator {
+	private final Translator elementTranslator;
+
+	/**
+	 * Constructor taking the translator for the elements.
+	 * @param theElementTranslator the translator used for each element
+	 */
+	public IteratorToJsonArrayTranslator( Translator theElementTranslator ) {
+		Preconditions.checkNotNull( theElementTranslator, "need an element translator" );
+		
+		elementTranslator = theElementTranslator;
+	}
+
+	/**
+	 * Translates the received object into a json array.
+	 * If the object is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate(Object anObject) {
+		Object returnValue;
+		
+		if( anObject == null ) {
+			returnValue = JsonNull.INSTANCE;
+		} else {
+			try {
+				Iterator<?> iterator = toIterator( anObject );
+				JsonArray jsonArray = new JsonArray( );
+				
+				while( iterator.hasNext( ) ) {
+					jsonArray.add( ( JsonElement )elementTranslator.translate( iterator.next( ) ) );
+				}
+				returnValue = jsonArray;
+			} catch( ClassCastException e ) {
+				throw new TranslationException( e );
+			} finally {
+				close( anObject );
+			}
+		}
+		return returnValue;	
+	}
+	
+	/**
+	 * Helper method that gets an iterator from an {@code Iterator}, {@code Stream} or {@code Iterable}.
+	 * @param theObject the object to get an iterator for
+	 * @return the iterator
+	 */
+	public static Iterator<?> toIterator( Object theObject ) {
+		if( theObject instanceof Iterator ) {
+			return ( Iterator<?> )theObject;
+		} else if( theObject instanceof Stream ) {
+			return ( ( Stream<?> )theObject ).iterator( );
+		} else if( theObject instanceof Iterable ) {
+			return ( ( Iterable<?> )theObject ).iterator( );
+		} else {
+			throw new TranslationException( String.format( "Unable to iterate over an object of type '%s'.", theObject.getClass( ).getName( ) ) );
+		}
+	}
+
+	/**
+	 * Helper method that closes the object, if it can be closed.
+	 * @param theObject the object to close
+	 */
+	public static void close( Object theObject ) {
+		if( theObject instanceof AutoCloseable ) {
+			try {
+				( ( AutoCloseable )theObject ).close( );
+			} catch( Exception e ) {
+				throw new TranslationException( String.format( "Unable to close an object of type '%s'.", theObject.getClass( ).getName( ) ), e );
+			}
+		}
+	}
+}
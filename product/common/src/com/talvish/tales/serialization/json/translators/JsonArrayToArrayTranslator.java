@@ -15,12 +15,17 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json.translators;
 
+import java.io.IOException;
 import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.parts.translators.Translator;
 
@@ -30,7 +35,7 @@ import com.talvish.tales.parts.translators.Translator;
  * @author jmolnar
  *
  */
-public class JsonArrayToArrayTranslator implements Translator {
+public class JsonArrayToArrayTranslator implements Translator, JsonReaderTranslator {
 	private final Translator elementTranslator;
 	private final Class<?> elementType;
 	private final boolean readSingles;
@@ -99,4 +104,48 @@ public class JsonArrayToArrayTranslator implements Translator {
 		}
 		return returnValue;	
 	}
+
+	/**
+	 * Reads the json array from the reader and translates it into an array,
+	 * translating each element as it is read.
+	 * If the json value is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate( JsonReader theReader ) throws IOException {
+		Object returnValue;
+		JsonToken token = theReader.peek( );
+		
+		if( token == JsonToken.NULL ) {
+			theReader.nextNull( );
+			returnValue = null;
+		} else {
+			try {
+				if( token == JsonToken.BEGIN_ARRAY ) {
+					// we don't know the size until we are done reading
+					List<Object> elements = new ArrayList<>( );
+					
+					theReader.beginArray( );
+					while( theReader.hasNext( ) ) {
+						elements.add( JsonReaderTranslator.translate( elementTranslator, theReader ) );
+					}
+					theReader.endArray( );
+					
+					Object array = Array.newInstance( elementType, elements.size() );
+					for( int count = 0; count < elements.size( ); count += 1 ) {
+						Array.set( array, count, elements.get( count ) );
+					}
+					returnValue = array;
+				} else if( readSingles ) {
+					Object array = Array.newInstance( elementType, 1 );
+					Array.set( array, 0, JsonReaderTranslator.translate( elementTranslator, theReader ) );
+					returnValue = array;
+				} else {
+					throw new TranslationException( String.format( "Attempt to translate an array but a single object was sent instead." ) );
+				}
+			} catch( IllegalArgumentException e ) {
+				throw new TranslationException( e );
+			}
+		}
+		return returnValue;	
+	}
 }
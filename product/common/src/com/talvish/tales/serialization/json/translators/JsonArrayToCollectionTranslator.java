@@ -15,6 +15,7 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json.translators;
 
+import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
@@ -27,6 +28,8 @@ import com.google.common.base.Preconditions;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.parts.translators.Translator;
 
@@ -36,7 +39,7 @@ import com.talvish.tales.parts.translators.Translator;
  * @author jmolnar
  *
  */
-public class JsonArrayToCollectionTranslator implements Translator {
+public class JsonArrayToCollectionTranslator implements Translator, JsonReaderTranslator {
 	private final Translator elementTranslator;
 	private final Class<?> collectionType;
 	private final Constructor<?> constructor;
@@ -85,8 +88,7 @@ public class JsonArrayToCollectionTranslator implements Translator {
 		} else {
 			try {
 				JsonArray jsonArray = ( JsonArray )anObject;
-				@SuppressWarnings("unchecked")
-				Collection<Object> collection = ( Collection<Object> )constructor.newInstance();
+				Collection<Object> collection = createCollection( );
 				
 				for( JsonElement element : jsonArray ) {
 					collection.add( elementTranslator.translate( element ) );
@@ -98,16 +100,61 @@ public class JsonArrayToCollectionTranslator implements Translator {
 				throw new TranslationException( e );
 			} catch( NullPointerException e ) {
 				throw new TranslationException( String.format( "Unable to use null in the collection of type '%s'", collectionType.getName() ), e );
-			} catch (InstantiationException e) {
-				throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
-			} catch (IllegalArgumentException e) {
-				throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
-			} catch (InvocationTargetException e) {
-				throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
-			} catch (IllegalAccessException e) {
-				throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
 			}
 		}
 		return returnValue;	
 	}
+
+	/**
+	 * Reads the json array from the reader and translates it into a list,
+	 * translating each element as it is read.
+	 * If the json value is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate( JsonReader theReader ) throws IOException {
+		Object returnValue;
+		JsonToken token = theReader.peek( );
+		
+		if( token == JsonToken.NULL ) {
+			theReader.nextNull( );
+			returnValue = null;
+		} else if( token != JsonToken.BEGIN_ARRAY ) {
+			throw new TranslationException( String.format( "Attempt to translate a collection of type '%s' but a json '%s' was sent instead.", collectionType.getName(), token ) );
+		} else {
+			try {
+				Collection<Object> collection = createCollection( );
+				
+				theReader.beginArray( );
+				while( theReader.hasNext( ) ) {
+					collection.add( JsonReaderTranslator.translate( elementTranslator, theReader ) );
+				}
+				theReader.endArray( );
+				
+				returnValue = collection;
+
+			} catch( NullPointerException e ) {
+				throw new TranslationException( String.format( "Unable to use null in the collection of type '%s'", collectionType.getName() ), e );
+			}
+		}
+		return returnValue;	
+	}
+
+	/**
+	 * Helper method that creates an empty instance of the collection.
+	 * @return the new, empty, collection
+	 */
+	@SuppressWarnings("unchecked")
+	private Collection<Object> createCollection( ) {
+		try {
+			return ( Collection<Object> )constructor.newInstance();
+		} catch (InstantiationException e) {
+			throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
+		} catch (IllegalArgumentException e) {
+			throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
+		} catch (InvocationTargetException e) {
+			throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
+		} catch (IllegalAccessException e) {
+			throw new TranslationException( String.format( "Unable to create a collection of type '%s'", collectionType.getName() ), e );
+		}
+	}
 }
@@ -0,0 +1,236 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json.translators;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.talvish.tales.parts.translators.TranslationException;
+import com.talvish.tales.parts.translators.Translator;
+
+
+/**
+ * Translator that converts a json array into an {@code Iterator}, {@code Stream}
+ * or {@code Iterable}. The elements are translated as they are walked instead of 
+ * all at once, so only the elements currently being used need to be held. When
+ * read from a {@code JsonReader} the elements are translated as they are read, 
+ * since the reader moves on, though callers reading the array on its own can 
+ * use {@link #translate(Iterator, Runnable)} to read the elements as they are walked.
+ * @author jmolnar
+ *
+ */
+public class JsonArrayToIteratorTranslator implements Translator, JsonReaderTranslator {
+	private enum TargetType {
+		ITERATOR,
+		STREAM,
+		ITERABLE
+	}
+	
+	private final Translator elementTranslator;
+	private final TargetType targetType;
+
+	/**
+	 * Constructor taking the translator for the elements and the type to create.
+	 * @param theElementTranslator the translator used for each element
+	 * @param theIteratorType the type to create, which must be able to hold an {@code Iterator}, {@code Stream} or {@code Iterable}
+	 */
+	public JsonArrayToIteratorTranslator( Translator theElementTranslator, Class<?> theIteratorType ) {
+		Preconditions.checkNotNull( theElementTranslator, "need an element translator" );
+		Preconditions.checkNotNull( theIteratorType, "need an iterator type" );
+		
+		elementTranslator = theElementTranslator;
+		if( theIteratorType.isAssignableFrom( Iterator.class ) ) {
+			targetType = TargetType.ITERATOR;
+		} else if( theIteratorType.isAssignableFrom( Stream.class ) ) {
+			targetType = TargetType.STREAM;
+		} else if( theIteratorType.isAssignableFrom( Iterable.class ) ) {
+			targetType = TargetType.ITERABLE;
+		} else {
+			targetType = null; // we fail on translation since these can still be serialized
+		}
+	}
+
+	/**
+	 * Returns the translator used for each element.
+	 * @return the element translator
+	 */
+	public Translator getElementTranslator( ) {
+		return elementTranslator;
+	}
+
+	/**
+	 * Translates the received object into an iterator, stream or iterable.
+	 * If the object is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate(Object anObject) {
+		Object returnValue;
+		
+		if( anObject == null || anObject.equals( JsonNull.INSTANCE ) ) {
+			returnValue = null;
+		} else if( targetType == null ) {
+			throw new TranslationException( "Unable to create an instance of the iterator type requested." );
+		} else {
+			try {
+				JsonArray jsonArray = ( JsonArray )anObject;
+
+				switch( targetType ) {
+				case ITERATOR:
+					returnValue = new TranslatingIterator( jsonArray.iterator( ), elementTranslator );
+					break;
+				case STREAM:
+					returnValue = StreamSupport.stream( 
+							Spliterators.spliterator( new TranslatingIterator( jsonArray.iterator( ), elementTranslator ), jsonArray.size( ), Spliterator.ORDERED ), 
+							false );
+					break;
+				default:
+					returnValue = ( Iterable<Object> )( ) -> new TranslatingIterator( jsonArray.iterator( ), elementTranslator );
+					break;
+				}
+			} catch( ClassCastException e ) {
+				throw new TranslationException( e );
+			}
+		}
+		return returnValue;	
+	}
+	
+	/**
+	 * Reads the json array from the reader and translates it into an iterator, stream
+	 * or iterable. Since the reader moves on, the elements are translated as they are read.
+	 * If the json value is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate( JsonReader theReader ) throws IOException {
+		Object returnValue;
+		JsonToken token = theReader.peek( );
+		
+		if( token == JsonToken.NULL ) {
+			theReader.nextNull( );
+			returnValue = null;
+		} else if( targetType == null ) {
+			throw new TranslationException( "Unable to create an instance of the iterator type requested." );
+		} else if( token != JsonToken.BEGIN_ARRAY ) {
+			throw new TranslationException( String.format( "Attempt to translate an iterator but a json '%s' was sent instead.", token ) );
+		} else {
+			List<Object> elements = new ArrayList<>( );
+			
+			theReader.beginArray( );
+			while( theReader.hasNext( ) ) {
+				elements.add( JsonReaderTranslator.translate( elementTranslator, theReader ) );
+			}
+			theReader.endArray( );
+
+			switch( targetType ) {
+			case ITERATOR:
+				returnValue = elements.iterator( );
+				break;
+			case STREAM:
+				returnValue = elements.stream( );
+				break;
+			default:
+				returnValue = elements;
+				break;
+			}
+		}
+		return returnValue;	
+	}
+
+	/**
+	 * Creates the iterator, stream or iterable from a source of already translated 
+	 * elements, like one reading the elements as they are walked. Since the source 
+	 * can only be walked once, an iterable can only be iterated once.
+	 * @param theElements the translated elements
+	 * @param theCloseHandler run when a stream is closed, or null if there is nothing to run
+	 * @return the iterator, stream or iterable
+	 */
+	public Object translate( Iterator<?> theElements, Runnable theCloseHandler ) {
+		Preconditions.checkNotNull( theElements, "need elements" );
+		Object returnValue;
+		
+		if( targetType == null ) {
+			throw new TranslationException( "Unable to create an instance of the iterator type requested." );
+		} else {
+			switch( targetType ) {
+			case ITERATOR:
+				returnValue = theElements;
+				break;
+			case STREAM:
+				Stream<?> stream = StreamSupport.stream( Spliterators.spliteratorUnknownSize( theElements, Spliterator.ORDERED ), false );
+				returnValue = theCloseHandler == null ? stream : stream.onClose( theCloseHandler );
+				break;
+			default:
+				returnValue = new SingleUseIterable( theElements );
+				break;
+			}
+		}
+		return returnValue;
+	}
+
+	/**
+	 * Iterable that hands out the one iterator it was given, since it can only be walked once.
+	 */
+	private static final class SingleUseIterable implements Iterable<Object> {
+		private Iterator<?> source;
+		
+		SingleUseIterable( Iterator<?> theSource ) {
+			source = theSource;
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		public synchronized Iterator<Object> iterator( ) {
+			Preconditions.checkState( source != null, "The elements can only be iterated once." );
+			Iterator<Object> iterator = ( Iterator<Object> )source;
+			source = null;
+			return iterator;
+		}
+	}
+	
+	/**
+	 * Iterator that translates the json elements as they are requested.
+	 */
+	private static final class TranslatingIterator implements Iterator<Object> {
+		private final Iterator<JsonElement> source;
+		private final Translator translator;
+		
+		TranslatingIterator( Iterator<JsonElement> theSource, Translator theTranslator ) {
+			source = theSource;
+			translator = theTranslator;
+		}
+
+		@Override
+		public boolean hasNext( ) {
+			return source.hasNext( );
+		}
+
+		@Override
+		public Object next( ) {
+			return translator.translate( source.next( ) );
+		}
+	}
+}
@@ -0,0 +1,63 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json.translators;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.talvish.tales.parts.translators.TranslationException;
+import com.talvish.tales.parts.translators.Translator;
+import com.talvish.tales.serialization.Lazy;
+
+
+/**
+ * Translator that holds onto a json element, without translating, 
+ * by placing it into a {@code Lazy} holder. The element is translated
+ * by the element translator when the value in the holder is first read.
+ * @author jmolnar
+ *
+ */
+public class JsonElementToLazyTranslator implements Translator {
+	private final Translator elementTranslator;
+	
+	/**
+	 * Constructor taking the translator used when the value is read.
+	 * @param theElementTranslator the translator used to translate the json element
+	 */
+	public JsonElementToLazyTranslator( Translator theElementTranslator ) {
+		Preconditions.checkNotNull( theElementTranslator, "need an element translator" );
+		
+		elementTranslator = theElementTranslator;
+	}
+
+	/**
+	 * Translates the received object into a lazy holder.
+	 * If the object is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate(Object anObject) {
+		Object returnValue;
+		
+		if( anObject == null || anObject.equals( JsonNull.INSTANCE ) ) {
+			returnValue = null;
+		} else if( anObject instanceof JsonElement ) {
+			returnValue = Lazy.pending( anObject, elementTranslator );
+		} else {
+			throw new TranslationException( String.format( "Unable to translate object of type '%s' into a lazy value.", anObject.getClass().getName( ) ) );
+		}
+		return returnValue;	
+	}
+}
@@ -15,9 +15,13 @@
 // ***************************************************************************
 package com.talvish.tales.serialization.json.translators;
 
+import java.io.IOException;
+
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonNull;
 import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.parts.translators.Translator;
 import com.talvish.tales.serialization.json.JsonTypeMap;
@@ -28,7 +32,7 @@ import com.talvish.tales.serialization.json.JsonTypeMap;
  * @author jmolnar
  *
  */
-public class JsonObjectToObjectTranslator implements Translator {
+public class JsonObjectToObjectTranslator implements Translator, JsonReaderTranslator {
 	private final JsonTypeMap typeMap;
 	/**
 	 * Empty default constructor.
@@ -62,4 +66,26 @@ public class JsonObjectToObjectTranslator implements Translator {
 		}
 		return returnValue;	
 	}
+
+	/**
+	 * Reads the json object from the reader and translates it into an object,
+	 * translating each member as it is read.
+	 * If the json value is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate( JsonReader theReader ) throws IOException {
+		Object returnValue;
+		JsonToken token = theReader.peek( );
+		
+		if( token == JsonToken.NULL ) {
+			theReader.nextNull( );
+			returnValue = null;
+		} else if( token != JsonToken.BEGIN_OBJECT ) {
+			throw new TranslationException( String.format( "Attempt to translate an object of type '%s' but a json '%s' was sent instead.", typeMap.getReflectedType( ).getName( ), token ) );
+		} else {
+			returnValue = typeMap.getReflectedType().newInstance();
+			typeMap.setData( returnValue, theReader );
+		}
+		return returnValue;	
+	}
 }
@@ -0,0 +1,56 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json.translators;
+
+import java.io.IOException;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.talvish.tales.parts.translators.Translator;
+
+/**
+ * This interface is implemented by translators, from json, that can also read 
+ * their value directly from a {@code JsonReader}, so the value doesn't need to 
+ * be parsed into a json element first. Translators that don't implement this
+ * are given the json element parsed for just the value they translate.
+ * @author jmolnar
+ *
+ */
+public interface JsonReaderTranslator {
+	/**
+	 * The method called to read, and translate, the next value from the reader.
+	 * @param theReader the reader positioned at the value to read
+	 * @return the translated value
+	 * @throws IOException thrown if the reader could not read the value
+	 */
+	Object translate( JsonReader theReader ) throws IOException;
+	
+	/**
+	 * Reads, and translates, the next value from the reader, reading directly from
+	 * the reader if the translator supports it, or parsing the value first if not.
+	 * @param theTranslator the translator, from json, to use
+	 * @param theReader the reader positioned at the value to read
+	 * @return the translated value
+	 * @throws IOException thrown if the reader could not read the value
+	 */
+	static Object translate( Translator theTranslator, JsonReader theReader ) throws IOException {
+		if( theTranslator instanceof JsonReaderTranslator ) {
+			return ( ( JsonReaderTranslator )theTranslator ).translate( theReader );
+		} else {
+			return theTranslator.translate( new JsonParser( ).parse( theReader ) );
+		}
+	}
+}
@@ -0,0 +1,73 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.serialization.json.translators;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonNull;
+import com.talvish.tales.parts.translators.TranslationException;
+import com.talvish.tales.parts.translators.Translator;
+import com.talvish.tales.serialization.Lazy;
+
+
+/**
+ * Translator that converts a {@code Lazy} holder into a json element.
+ * If the value in the holder was never read, the original json element
+ * is returned without translating, otherwise the element translator 
+ * is used on the value.
+ * @author jmolnar
+ *
+ */
+public class LazyToJsonElementTranslator implements Translator {
+	private final Translator elementTranslator;
+	
+	/**
+	 * Constructor taking the translator used for values that were read.
+	 * @param theElementTranslator the translator used to translate the value into json
+	 */
+	public LazyToJsonElementTranslator( Translator theElementTranslator ) {
+		Preconditions.checkNotNull( theElementTranslator, "need an element translator" );
+		
+		elementTranslator = theElementTranslator;
+	}
+
+	/**
+	 * Translates the received lazy holder into a json element.
+	 * If the object is of the wrong type, a TranslationException will occur.
+	 */
+	@Override
+	public Object translate(Object anObject) {
+		Object returnValue;
+		
+		if( anObject == null ) {
+			returnValue = JsonNull.INSTANCE;
+		} else {
+			try {
+				Lazy<?> lazy = ( Lazy<?> )anObject;
+				Object source = lazy.getSource( );
+				
+				if( source != null ) {
+					// never read, so we hand back what we were given
+					returnValue = source;
+				} else {
+					returnValue = elementTranslator.translate( lazy.get( ) );
+				}
+			} catch( ClassCastException e ) {
+				throw new TranslationException( e );
+			}
+		}
+		return returnValue;	
+	}
+}
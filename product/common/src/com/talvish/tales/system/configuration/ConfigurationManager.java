@@ -512,7 +512,7 @@ public class ConfigurationManager implements Facility {
 	 */
 	@SuppressWarnings( "unchecked" )
 	private <T> T getValues( Class<T> theClass, String theSettingPrefix, String theCollectionName ) {
-		SettingType typeDescriptor = settingTypeManager.generateType( new JavaType( theClass ) );
+		SettingType typeDescriptor = settingTypeManager.generateType( JavaType.of( theClass ) );
 
 		T instance = ( T )typeDescriptor.newInstance();
 		Object value;
@@ -166,9 +166,9 @@ public class SettingTypeManager extends SerializationTypeManager< SettingType, S
 					throw new ConfigurationException( String.format( "Field '%s.%s' is of type '%s', which is a kind of map, but it must be a standard Java Map class.", theDeclaringType.getType( ).getUnderlyingClass().getSimpleName(), theField.getName(), fieldClass.getSimpleName( ) ) );
 				} else {
 					// first we deal with the keys
-					JavaType declaredKeyType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
+					JavaType declaredKeyType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
 		            // next we deal with the values
-		    		JavaType declaredValueType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 1 ] );
+		    		JavaType declaredValueType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 1 ] );
 
 		    		Method configMethod;
 		    		
@@ -203,7 +203,7 @@ public class SettingTypeManager extends SerializationTypeManager< SettingType, S
 				} else {
 					// if we have a collection (e.g list, set, collection itself, etc)
 					// we need to get the type information for the collection element
-		    		JavaType declaredValueType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
+		    		JavaType declaredValueType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
 
 		    		Method configMethod;
 		    		
@@ -263,7 +263,7 @@ public class SettingTypeManager extends SerializationTypeManager< SettingType, S
 				throw new ConfigurationException( String.format( "Field '%s.%s' is of type '%s', but it needs to be a String to be the settings name.", theDeclaringType.getType( ).getUnderlyingClass().getSimpleName(), theField.getName(), fieldClass.getSimpleName( ) ) );
 			} else {
 				// now we pull out the class parameter 
-				JavaType declaredSettingType = new JavaType( String.class );
+				JavaType declaredSettingType = JavaType.of( String.class );
 				
 	    		fieldDescriptor = new SettingField( 
 	            		fieldName, 
@@ -298,7 +298,7 @@ public class SettingTypeManager extends SerializationTypeManager< SettingType, S
 				throw new ConfigurationException( String.format( "Field '%s.%s' is of type '%s', which is not supported as a settings collection.", theDeclaringType.getType( ).getUnderlyingClass().getSimpleName(), theField.getName(), fieldClass.getSimpleName( ) ) );
 			} else {
 				// now we pull out the class parameter 
-				JavaType declaredSettingType = new JavaType( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
+				JavaType declaredSettingType = JavaType.of( ( ( ParameterizedType ) fieldGenericType ).getActualTypeArguments( )[ 0 ] );
 				SettingType settingType = this.generateType( declaredSettingType ); // we dont' seen in an instance because this is a different type
 				
 				List<String> defaults = fieldAnnotation.defaults() == null ? new ArrayList<>( ) : Arrays.asList( fieldAnnotation.defaults( ) );
@@ -60,7 +60,7 @@ public class SourceManager {
 		Preconditions.checkNotNull( theJsonFacility, "need a json translation facility to create the manager" );
 		
 		jsonFacility = theJsonFacility;
-		sourceType = new JavaType( SourceDescriptor.class );
+		sourceType = JavaType.of( SourceDescriptor.class );
 		rootSource = theRootSource;
 		
 		// first thing we do is load the configuration which loads the main
@@ -0,0 +1,332 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.system.status;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class is used to track the distribution of a set of values, typically latencies in 
+ * nanoseconds, that are recorded within a specified time range so percentiles can be 
+ * calculated. Values are counted in a fixed set of log-linear buckets, in the style of 
+ * HdrHistogram, where each power of two is split into the same number of linear sub-buckets, 
+ * so the memory used is fixed and the relative error of any reported value is bounded by the 
+ * precision. Recording does not lock so values can be recorded by many threads at once. Like 
+ * StripedAverageLong, the total measurement period is split into a ring of buckets (two by 
+ * default, similar to AverageLong) and a snapshot merges those still within the measurement 
+ * period. Snapshots are immutable and can be merged with other snapshots of the same shape.
+ * @author jmolnar
+ *
+ */
+public class LatencyHistogram {
+	private static final int DEFAULT_BUCKETS = 2;
+	private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = 10l * 60l * 1000l * 1000l * 1000l; // ten minutes, in nanoseconds
+	private static final int DEFAULT_PRECISION_BITS = 6; // 32 linear sub-buckets per power of two, so reported values are within ~3%
+	
+	private final long originTimestamp = System.nanoTime( );
+	private final long bucketPeriod;
+	private final AtomicReferenceArray<Recording> buckets;
+	
+	private final long highestTrackableValue;
+	private final int precisionBits;
+	private final int countsLength;
+	
+	private volatile TimedSnapshot lastSnapshot = null;
+	
+	/**
+	 * Constructor which will set the measurement over 20 seconds.
+	 */
+	public LatencyHistogram( ) {
+		this( 20l * 1000l * 1000l * 1000l );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span to use, split into two buckets.
+	 * @param theTotalIntervalPeriod the length of time for the total measuring period. The interval is in nanoseconds.
+	 */
+	public LatencyHistogram( long theTotalIntervalPeriod ) {
+		this( theTotalIntervalPeriod, DEFAULT_BUCKETS, DEFAULT_HIGHEST_TRACKABLE_VALUE, DEFAULT_PRECISION_BITS );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span, the number of buckets to split it into,
+	 * the largest value that is distinctly tracked and the number of bits of precision to keep.
+	 * Each bucket holds (log2 of the highest trackable value - precision bits + 3) times 
+	 * 2^(precision bits - 1) longs, so the defaults use about 9KB per bucket.
+	 * @param theTotalIntervalPeriod the length of time for the total measuring period. The interval is in nanoseconds.
+	 * @param theBuckets the number of buckets, which must be at least one
+	 * @param theHighestTrackableValue the largest value tracked, larger values are counted as this value though the max is kept precisely
+	 * @param thePrecisionBits the number of bits of precision, between 2 and 16, where reported values are within 2^(1 - bits) of the recorded values
+	 */
+	public LatencyHistogram( long theTotalIntervalPeriod, int theBuckets, long theHighestTrackableValue, int thePrecisionBits ) {
+		Preconditions.checkArgument( theTotalIntervalPeriod > 0, "interval period must be a positive number" );
+		Preconditions.checkArgument( theBuckets >= 1, "there must be at least one bucket" );
+		Preconditions.checkArgument( theTotalIntervalPeriod / theBuckets > 0, "interval period must be at least the number of buckets" );
+		Preconditions.checkArgument( thePrecisionBits >= 2 && thePrecisionBits <= 16, "precision bits must be between 2 and 16" );
+		Preconditions.checkArgument( theHighestTrackableValue >= ( 1l << thePrecisionBits ), "highest trackable value must be at least 2^precision bits" );
+		
+		highestTrackableValue = theHighestTrackableValue;
+		precisionBits = thePrecisionBits;
+		countsLength = indexFor( theHighestTrackableValue, thePrecisionBits ) + 1;
+		
+		bucketPeriod = theTotalIntervalPeriod / theBuckets;
+		buckets = new AtomicReferenceArray<>( theBuckets );
+		for( int index = 0; index < theBuckets; index += 1 ) {
+			buckets.set( index, new Recording( -1, countsLength ) );
+		}
+	}
+	
+	/**
+	 * Simple private class holding the bucket's place in time and the counts recorded during it.
+	 * Recordings are replaced, not reset, when their place in the ring moves to a new time.
+	 * @author jmolnar
+	 *
+	 */
+	private static class Recording {
+		private final long epoch; // the number of bucket periods since the origin
+		private final AtomicLongArray counts;
+		private final LongAdder sum = new LongAdder( );
+		private final AtomicLong max = new AtomicLong( 0 );
+		
+		private Recording( long theEpoch, int theCountsLength ) {
+			epoch = theEpoch;
+			counts = new AtomicLongArray( theCountsLength );
+		}
+	}
+	
+	/**
+	 * Records a value, which is typically an execution time in nanoseconds.
+	 * Negative values are recorded as zero.
+	 * @param theValue the value to record
+	 */
+	public void record( long theValue ) {
+		long value = theValue < 0 ? 0 : theValue;
+		long currentEpoch = ( System.nanoTime( ) - originTimestamp ) / bucketPeriod;
+		int index = ( int )( currentEpoch % buckets.length( ) );
+		Recording recording = buckets.get( index );
+		
+		if( recording.epoch < currentEpoch ) {
+			// the recording is from an earlier time so we replace it, and if 
+			// another thread beat us to it, we use the one it put there
+			Recording newRecording = new Recording( currentEpoch, countsLength );
+			if( buckets.compareAndSet( index, recording, newRecording ) ) {
+				recording = newRecording;
+			} else {
+				recording = buckets.get( index );
+			}
+		}
+		recording.counts.incrementAndGet( indexFor( Math.min( value, highestTrackableValue ), precisionBits ) );
+		recording.sum.add( value );
+		
+		long max = recording.max.get( );
+		while( value > max && !recording.max.compareAndSet( max, value ) ) {
+			max = recording.max.get( );
+		}
+	}
+	
+	/**
+	 * Simple private class pairing a snapshot with the time it was taken so it can be shared.
+	 * @author jmolnar
+	 *
+	 */
+	private static class TimedSnapshot {
+		private final long timestamp;
+		private final Snapshot snapshot;
+		
+		private TimedSnapshot( long theTimestamp, Snapshot theSnapshot ) {
+			timestamp = theTimestamp;
+			snapshot = theSnapshot;
+		}
+	}
+	
+	/**
+	 * Returns a snapshot of the values recorded within the measurement period, re-using the 
+	 * last snapshot returned by this method if it was taken within the maximum age. This allows 
+	 * several values, like the percentiles shown on a status page, to be read from the same 
+	 * snapshot without merging the buckets for each one.
+	 * @param theMaximumAge the longest time, in nanoseconds, since a re-used snapshot was taken
+	 * @return an immutable snapshot of the recorded values
+	 */
+	public Snapshot snapshot( long theMaximumAge ) {
+		Preconditions.checkArgument( theMaximumAge >= 0, "maximum age must not be negative" );
+		long currentTimestamp = System.nanoTime( );
+		TimedSnapshot timedSnapshot = lastSnapshot;
+		
+		if( timedSnapshot == null || currentTimestamp - timedSnapshot.timestamp > theMaximumAge ) {
+			// racing threads may both take a snapshot, but either is current enough to keep
+			timedSnapshot = new TimedSnapshot( currentTimestamp, snapshot( ) );
+			lastSnapshot = timedSnapshot;
+		}
+		return timedSnapshot.snapshot;
+	}
+	
+	/**
+	 * Takes a snapshot of the values recorded within the measurement period.
+	 * @return an immutable snapshot of the recorded values
+	 */
+	public Snapshot snapshot( ) {
+		long currentEpoch = ( System.nanoTime( ) - originTimestamp ) / bucketPeriod;
+		int bucketCount = buckets.length( );
+		long[] counts = new long[ countsLength ];
+		long count = 0;
+		long sum = 0;
+		long max = 0;
+		long bucketValue;
+		Recording recording;
+		
+		for( int offset = 0; offset < bucketCount && offset <= currentEpoch; offset += 1 ) {
+			recording = buckets.get( ( int )( ( currentEpoch - offset ) % bucketCount ) );
+			if( recording.epoch == currentEpoch - offset ) {
+				// recordings from other times are stale, so don't count
+				for( int index = 0; index < countsLength; index += 1 ) {
+					bucketValue = recording.counts.get( index );
+					counts[ index ] += bucketValue;
+					count += bucketValue;
+				}
+				sum += recording.sum.sum( );
+				max = Math.max( max, recording.max.get( ) );
+			}
+		}
+		return new Snapshot( precisionBits, counts, count, sum, max );
+	}
+	
+	/**
+	 * Helper method that returns the counts index of a value. Values below 2^precision bits get 
+	 * their own index, and above that each power of two gets 2^(precision bits - 1) indices.
+	 * @param theValue the value to get the index of, which must not be negative
+	 * @param thePrecisionBits the number of bits of precision
+	 * @return the index of the value
+	 */
+	private static int indexFor( long theValue, int thePrecisionBits ) {
+		if( theValue < ( 1l << thePrecisionBits ) ) {
+			return ( int )theValue;
+		} else {
+			int shift = 64 - Long.numberOfLeadingZeros( theValue ) - thePrecisionBits;
+			return ( shift << ( thePrecisionBits - 1 ) ) + ( int )( theValue >>> shift );
+		}
+	}
+	
+	/**
+	 * Helper method that returns the largest value that would be counted at a counts index.
+	 * @param theIndex the index to get the value of
+	 * @param thePrecisionBits the number of bits of precision
+	 * @return the largest value counted at the index
+	 */
+	private static long highestValueAt( int theIndex, int thePrecisionBits ) {
+		if( theIndex < ( 1 << thePrecisionBits ) ) {
+			return theIndex;
+		} else {
+			int shift = ( theIndex >>> ( thePrecisionBits - 1 ) ) - 1;
+			long subBucket = theIndex - ( shift << ( thePrecisionBits - 1 ) );
+			return ( ( subBucket + 1 ) << shift ) - 1;
+		}
+	}
+	
+	/**
+	 * An immutable view of the values recorded by a histogram, which can be used to calculate
+	 * percentiles and can be merged with snapshots from histograms of the same shape.
+	 * @author jmolnar
+	 *
+	 */
+	public static final class Snapshot {
+		private final int precisionBits;
+		private final long[] counts;
+		private final long count;
+		private final long sum;
+		private final long max;
+		
+		/**
+		 * Private constructor called by the histogram or when merging.
+		 */
+		private Snapshot( int thePrecisionBits, long[] theCounts, long theCount, long theSum, long theMax ) {
+			precisionBits = thePrecisionBits;
+			counts = theCounts;
+			count = theCount;
+			sum = theSum;
+			max = theMax;
+		}
+		
+		/**
+		 * The number of values recorded.
+		 * @return the number of values
+		 */
+		public long getCount( ) {
+			return count;
+		}
+		
+		/**
+		 * The largest value recorded, which is precise even if beyond the highest trackable value.
+		 * @return the largest value, or 0 if nothing was recorded
+		 */
+		public long getMax( ) {
+			return max;
+		}
+		
+		/**
+		 * The average of the recorded values.
+		 * @return the average, or 0 if nothing was recorded
+		 */
+		public double getMean( ) {
+			return count == 0 ? 0.0d : ( double )sum / ( double )count;
+		}
+		
+		/**
+		 * Calculates the value at or below which the given percentage of the recorded values 
+		 * fall. The value returned is the largest value that shares a bucket with the value 
+		 * at the percentile, limited to the max, so it errs on the high side.
+		 * @param thePercentile the percentile, from 0 to 100
+		 * @return the value at the percentile, or 0 if nothing was recorded
+		 */
+		public long getValueAtPercentile( double thePercentile ) {
+			Preconditions.checkArgument( thePercentile >= 0.0d && thePercentile <= 100.0d, "percentile '%s' must be between 0 and 100", thePercentile );
+			if( count == 0 ) {
+				return 0;
+			} else {
+				long target = Math.max( 1l, ( long )Math.ceil( thePercentile / 100.0d * count ) );
+				long seen = 0;
+				
+				for( int index = 0; index < counts.length; index += 1 ) {
+					seen += counts[ index ];
+					if( seen >= target ) {
+						return Math.min( highestValueAt( index, precisionBits ), max );
+					}
+				}
+				return max;
+			}
+		}
+		
+		/**
+		 * Merges this snapshot with another, which must come from a histogram
+		 * with the same highest trackable value and precision.
+		 * @param theSnapshot the snapshot to merge with
+		 * @return a new snapshot containing the values of both
+		 */
+		public Snapshot merge( Snapshot theSnapshot ) {
+			Preconditions.checkNotNull( theSnapshot, "need a snapshot to merge" );
+			Preconditions.checkArgument( theSnapshot.precisionBits == precisionBits && theSnapshot.counts.length == counts.length, "snapshot to merge must have the same shape" );
+			
+			long[] mergedCounts = new long[ counts.length ];
+			for( int index = 0; index < counts.length; index += 1 ) {
+				mergedCounts[ index ] = counts[ index ] + theSnapshot.counts[ index ];
+			}
+			return new Snapshot( precisionBits, mergedCounts, count + theSnapshot.count, sum + theSnapshot.sum, Math.max( max, theSnapshot.max ) );
+		}
+	}
+}
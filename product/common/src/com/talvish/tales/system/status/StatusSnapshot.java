@@ -0,0 +1,119 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.system.status;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class is an immutable capture of the values of a set of status blocks at 
+ * a particular time. Status values are expected to be cheap to read but reading all 
+ * of them, for every request to show status, competes with the requests being 
+ * measured, so status can be captured periodically and then served from the capture.
+ * @author jmolnar
+ *
+ */
+public final class StatusSnapshot {
+	private static final Logger logger = LoggerFactory.getLogger( StatusSnapshot.class );
+
+	private final DateTime timestamp;
+	private final long calculationTime;
+	private final Map<StatusValue, Object> values;
+	
+	/**
+	 * Private constructor called when capturing.
+	 */
+	private StatusSnapshot( DateTime theTimestamp, long theCalculationTime, Map<StatusValue, Object> theValues ) {
+		timestamp = theTimestamp;
+		calculationTime = theCalculationTime;
+		values = Collections.unmodifiableMap( theValues );
+	}
+	
+	/**
+	 * Captures the current values of the status values in the blocks given.
+	 * Values that fail to be read are captured as null.
+	 * @param theBlocks the blocks to capture the values of
+	 * @return the snapshot of the values
+	 */
+	public static StatusSnapshot capture( Collection<StatusBlock> theBlocks ) {
+		Preconditions.checkNotNull( theBlocks, "need blocks to capture" );
+
+		DateTime timestamp = new DateTime( DateTimeZone.UTC );
+		long startTime = System.nanoTime( );
+		Map<StatusValue, Object> values = new IdentityHashMap<>( ); // status values don't override equals, so identity is what is wanted
+		
+		for( StatusBlock block : theBlocks ) {
+			for( StatusValue value : block.getStatusValues( ) ) {
+				try {
+					values.put( value, value.getValue( ) );
+				} catch( StatusException e ) {
+					logger.warn( String.format( "Unable to capture status value '%s' in block '%s'.", value.getName( ), block.getName( ) ), e );
+					values.put( value, null );
+				}
+			}
+		}
+		return new StatusSnapshot( timestamp, System.nanoTime( ) - startTime, values );
+	}
+	
+	/**
+	 * The date and time, in UTC, the snapshot was captured.
+	 * @return the time the snapshot was captured
+	 */
+	public DateTime getTimestamp( ) {
+		return timestamp;
+	}
+	
+	/**
+	 * The time, in nanoseconds, it took to capture the snapshot.
+	 * @return the time it took to capture the snapshot
+	 */
+	public long getCalculationTime( ) {
+		return calculationTime;
+	}
+	
+	/**
+	 * Indicates if the snapshot contains a value for the status value.
+	 * @param theValue the status value to look for
+	 * @return true if the snapshot contains a value, false otherwise
+	 */
+	public boolean contains( StatusValue theValue ) {
+		return values.containsKey( theValue );
+	}
+	
+	/**
+	 * Gets the captured value of the status value. If the status value was 
+	 * registered after the snapshot was captured, the value is read directly.
+	 * @param theValue the status value to get the value of
+	 * @return the captured value
+	 */
+	public Object getValue( StatusValue theValue ) {
+		Preconditions.checkNotNull( theValue, "need a status value" );
+		if( values.containsKey( theValue ) ) {
+			return values.get( theValue );
+		} else {
+			return theValue.getValue( );
+		}
+	}
+}
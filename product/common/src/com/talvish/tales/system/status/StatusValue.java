@@ -15,7 +15,9 @@
 // ***************************************************************************
 package com.talvish.tales.system.status;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.Comparator;
 
@@ -51,6 +53,10 @@ public class StatusValue {
 	private final Method method;
 	private final Class<?> type;
 	
+	// the accessor is resolved once, when the value is created, and 
+	// bound to the source, so reading doesn't go through reflection
+	private final MethodHandle accessor;
+	
 	/**
 	 * The constructor taking the required elements.
 	 * @param theName the name to use for status value
@@ -70,6 +76,26 @@ public class StatusValue {
 		source = theSource;
 		method = theMethod;
 		type = method.getReturnType();
+		
+		accessor = resolve( theSource, theMethod ).asType( MethodType.methodType( Object.class ) );
+	}
+	
+	/**
+	 * Helper method that resolves the method into a method handle bound to the source.
+	 * @param theSource the source of the value
+	 * @param theMethod the method used to extract the status value
+	 * @return the bound method handle
+	 */
+	private static MethodHandle resolve( Object theSource, Method theMethod ) {
+		Preconditions.checkArgument( theMethod.getParameterCount( ) == 0, "Status value method '%s' on type '%s' cannot take parameters.", theMethod.getName( ), theSource.getClass( ).getName( ) );
+		try {
+			if( !theMethod.canAccess( theSource ) ) {
+				theMethod.setAccessible( true ); // public methods on non-public classes need this
+			}
+			return MethodHandles.lookup( ).unreflect( theMethod ).bindTo( theSource );
+		} catch( IllegalAccessException | RuntimeException e ) {
+			throw new StatusException( String.format( "Unable to access status value method '%s' on type '%s'", theMethod.getName( ), theSource.getClass( ).getName( ) ), e );
+		}
 	}
 	
 	/**
@@ -110,12 +136,10 @@ public class StatusValue {
 	 */
 	public Object getValue( ) {
 		try {
-			return method.invoke( source, ( Object[] )null );
-		} catch (IllegalArgumentException e) {
-			throw new StatusException( String.format( "Unable to get value for status '%s' on type '%s'", name, source.getClass().getName() ), e );
-		} catch (IllegalAccessException e) {
-			throw new StatusException( String.format( "Unable to get value for status '%s' on type '%s'", name, source.getClass().getName() ), e );
-		} catch (InvocationTargetException e) {
+			return ( Object )accessor.invokeExact( );
+		} catch( Error e ) {
+			throw e;
+		} catch( Throwable e ) {
 			throw new StatusException( String.format( "Unable to get value for status '%s' on type '%s'", name, source.getClass().getName() ), e );
 		}
 	}
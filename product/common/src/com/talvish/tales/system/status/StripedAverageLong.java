@@ -0,0 +1,140 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.system.status;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class is used to calculate an average of a set of values that are calculated
+ * within a specified time range, like AverageLong, but without locking so values can 
+ * be added by many threads at once. The total measurement period is split into a ring 
+ * of buckets, each holding striped counters, and the average is calculated across all 
+ * buckets, where the oldest bucket is counted for the part of its time still within 
+ * the measurement period. With two buckets this is the same calculation AverageLong 
+ * does with its two intervals.
+ * @author jmolnar
+ *
+ */
+public class StripedAverageLong {
+	private static final int DEFAULT_BUCKETS = 10;
+	
+	private final long originTimestamp = System.nanoTime( );
+	private final long bucketPeriod;
+	private final AtomicReferenceArray<Bucket> buckets;
+	
+	/**
+	 * Constructor which will set the measurement over 20 seconds.
+	 */
+	public StripedAverageLong( ) {
+		this( 20l * 1000l * 1000l * 1000l );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span to use, split into ten buckets. 
+	 * @param theTotalIntervalPeriod the length of time for the total measuring period. The interval is in nanoseconds.
+	 */
+	public StripedAverageLong( long theTotalIntervalPeriod ) {
+		this( theTotalIntervalPeriod, DEFAULT_BUCKETS );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span to use and the number of buckets to split it into. 
+	 * More buckets mean the average responds more smoothly to changes.
+	 * @param theTotalIntervalPeriod the length of time for the total measuring period. The interval is in nanoseconds.
+	 * @param theBuckets the number of buckets, which must be at least two
+	 */
+	public StripedAverageLong( long theTotalIntervalPeriod, int theBuckets ) {
+		Preconditions.checkArgument( theTotalIntervalPeriod > 0, "interval period must be a positive number" );
+		Preconditions.checkArgument( theBuckets >= 2, "there must be at least two buckets" );
+		Preconditions.checkArgument( theTotalIntervalPeriod / theBuckets > 0, "interval period must be at least the number of buckets" );
+		bucketPeriod = theTotalIntervalPeriod / theBuckets;
+		buckets = new AtomicReferenceArray<>( theBuckets );
+		for( int index = 0; index < theBuckets; index += 1 ) {
+			buckets.set( index, new Bucket( -1 ) );
+		}
+	}
+	
+	/**
+	 * Simple private class holding the bucket's place in time and the values being measured.
+	 * Buckets are replaced, not reset, when their place in the ring moves to a new time.
+	 * @author jmolnar
+	 *
+	 */
+	private static class Bucket {
+		private final long epoch; // the number of bucket periods since the origin
+		private final LongAdder count = new LongAdder( );
+		private final LongAdder value = new LongAdder( );
+		
+		private Bucket( long theEpoch ) {
+			epoch = theEpoch;
+		}
+	}
+	
+	/**
+	 * Calculates the average of the longs based in, as a long
+	 * @return the average of the values
+	 */
+	public long calculateAverage( ) {
+		long elapsedTime = System.nanoTime( ) - originTimestamp;
+		long currentEpoch = elapsedTime / bucketPeriod;
+		double oldestPercentage = 1.0d - ( ( double )( elapsedTime - currentEpoch * bucketPeriod ) / ( double )bucketPeriod );
+		int bucketCount = buckets.length( );
+		double value = 0.0d;
+		double divisor = 0.0d;
+		Bucket bucket;
+		
+		for( int offset = 0; offset < bucketCount && offset <= currentEpoch; offset += 1 ) {
+			bucket = buckets.get( ( int )( ( currentEpoch - offset ) % bucketCount ) );
+			if( bucket.epoch == currentEpoch - offset ) {
+				// buckets from other times are stale, so don't count
+				if( offset == bucketCount - 1 ) {
+					value += oldestPercentage * bucket.value.sum( );
+					divisor += oldestPercentage * bucket.count.sum( );
+				} else {
+					value += bucket.value.sum( );
+					divisor += bucket.count.sum( );
+				}
+			}
+		}
+		return ( long )( divisor == 0.0d ? 0.0d : value / divisor );
+	}
+
+	/**
+	 * Adds a new item to add to the average.
+	 * @param theValue the value to add to the average
+	 */
+	public void add( long theValue ) {
+		long currentEpoch = ( System.nanoTime( ) - originTimestamp ) / bucketPeriod;
+		int index = ( int )( currentEpoch % buckets.length( ) );
+		Bucket bucket = buckets.get( index );
+		
+		if( bucket.epoch < currentEpoch ) {
+			// the bucket is from an earlier time so we replace it, and if 
+			// another thread beat us to it, we use the one it put there
+			Bucket newBucket = new Bucket( currentEpoch );
+			if( buckets.compareAndSet( index, bucket, newBucket ) ) {
+				bucket = newBucket;
+			} else {
+				bucket = buckets.get( index );
+			}
+		}
+		bucket.value.add( theValue );
+		bucket.count.increment( );
+	}
+}
@@ -0,0 +1,141 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.system.status;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * This class is used to calculate the rate, in seconds, based on the
+ * changes made to a long, like RatedLong, but without locking so it 
+ * can be changed by many threads at once. The total measurement period 
+ * is split into a ring of buckets, each holding a striped counter, and 
+ * the rate is calculated across all buckets, where the current bucket 
+ * is only partially filled and the oldest bucket is counted for the part 
+ * of its time still within the measurement period. With two buckets this 
+ * is the same calculation RatedLong does with its two intervals.
+ * @author jmolnar
+ *
+ */
+public class StripedRatedLong {
+	private static final int DEFAULT_BUCKETS = 10;
+	
+	private final long originTimestamp = System.nanoTime( );
+	private final long bucketPeriod;
+	private final double ratePeriod; // the period, in seconds, the rate is measured over
+	private final AtomicReferenceArray<Bucket> buckets;
+	
+	/**
+	 * Constructor which will set the total measurement interval to ten seconds.
+	 */
+	public StripedRatedLong( ) {
+		this( 10l * 1000l * 1000l * 1000l );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span to use, split into ten buckets. 
+	 * @param theTotalIntervalPeriod the total length of time for the interval to aid measuring. The interval is in nanoseconds.
+	 */
+	public StripedRatedLong( long theTotalIntervalPeriod ) {
+		this( theTotalIntervalPeriod, DEFAULT_BUCKETS );
+	}
+	
+	/**
+	 * Constructor taking the total interval time span to use and the number of buckets to split it into. 
+	 * More buckets mean the rate responds more smoothly to changes.
+	 * @param theTotalIntervalPeriod the total length of time for the interval to aid measuring. The interval is in nanoseconds.
+	 * @param theBuckets the number of buckets, which must be at least two
+	 */
+	public StripedRatedLong( long theTotalIntervalPeriod, int theBuckets ) {
+		Preconditions.checkArgument( theTotalIntervalPeriod > 0, "interval period must be a positive number" );
+		Preconditions.checkArgument( theBuckets >= 2, "there must be at least two buckets" );
+		Preconditions.checkArgument( theTotalIntervalPeriod / theBuckets > 0, "interval period must be at least the number of buckets" );
+		bucketPeriod = theTotalIntervalPeriod / theBuckets;
+		ratePeriod = ( double )( bucketPeriod * ( theBuckets - 1 ) ) / ( 1000d * 1000d * 1000d );
+		buckets = new AtomicReferenceArray<>( theBuckets );
+		for( int index = 0; index < theBuckets; index += 1 ) {
+			buckets.set( index, new Bucket( -1 ) );
+		}
+	}
+	
+	/**
+	 * Simple private class holding the bucket's place in time and the value being measured.
+	 * Buckets are replaced, not reset, when their place in the ring moves to a new time.
+	 * @author jmolnar
+	 *
+	 */
+	private static class Bucket {
+		private final long epoch; // the number of bucket periods since the origin
+		private final LongAdder value = new LongAdder( );
+		
+		private Bucket( long theEpoch ) {
+			epoch = theEpoch;
+		}
+	}
+	
+	/**
+	 * Calculates the current rate of the long as measured in seconds.
+	 * @return the rate of the value in seconds
+	 */
+	public double calculateRate( ) {
+		long elapsedTime = System.nanoTime( ) - originTimestamp;
+		long currentEpoch = elapsedTime / bucketPeriod;
+		double oldestPercentage = 1.0d - ( ( double )( elapsedTime - currentEpoch * bucketPeriod ) / ( double )bucketPeriod );
+		int bucketCount = buckets.length( );
+		double value = 0.0d;
+		Bucket bucket;
+		
+		for( int offset = 0; offset < bucketCount && offset <= currentEpoch; offset += 1 ) {
+			bucket = buckets.get( ( int )( ( currentEpoch - offset ) % bucketCount ) );
+			if( bucket.epoch == currentEpoch - offset ) {
+				// buckets from other times are stale, so don't count
+				value += offset == bucketCount - 1 ? oldestPercentage * bucket.value.sum( ) : bucket.value.sum( );
+			}
+		}
+		return value / ratePeriod;
+	}
+
+	/**
+	 * Adds a value of one to the current long being rated.
+	 */
+	public void increment( ) {
+		add( 1l );
+	}
+
+	/**
+	 * Adds the specified value to the current long being rated.
+	 * @param theValue the value to add
+	 */
+	public void add( long theValue ) {
+		long currentEpoch = ( System.nanoTime( ) - originTimestamp ) / bucketPeriod;
+		int index = ( int )( currentEpoch % buckets.length( ) );
+		Bucket bucket = buckets.get( index );
+		
+		if( bucket.epoch < currentEpoch ) {
+			// the bucket is from an earlier time so we replace it, and if 
+			// another thread beat us to it, we use the one it put there
+			Bucket newBucket = new Bucket( currentEpoch );
+			if( buckets.compareAndSet( index, bucket, newBucket ) ) {
+				bucket = newBucket;
+			} else {
+				bucket = buckets.get( index );
+			}
+		}
+		bucket.value.add( theValue );
+	}
+}
@@ -121,14 +121,14 @@ public class TokenManager {
 		// going to register handlers for specific claims
 		
 		// we have a bit of special handling for the string[] to handle the single items to/from the json array
-		JavaType elementType = new JavaType( String.class );
+		JavaType elementType = JavaType.of( String.class );
 		TypeFormatAdapter elementTypeReference = translationFacility.getTypeAdapter( elementType );
 
 		_registerClaim( 
 				"aud", 
 				null,
 	        	new TypeFormatAdapter( 
-	        			new JavaType( String[].class ), 
+	        			JavaType.of( String[].class ), 
 	        			"list[string]",
 	        			new JsonArrayToArrayTranslator( elementType.getUnderlyingClass(), elementTypeReference.getFromFormatTranslator(), true ),
 	        			new ArrayToJsonArrayTranslator( elementTypeReference.getToFormatTranslator( ), true ) ) );
@@ -149,7 +149,7 @@ public class TokenManager {
 		_registerClaim(
 				theClaimName, 
 				null,
-				translationFacility.getTypeAdapter( new JavaType( theType ) ) );
+				translationFacility.getTypeAdapter( JavaType.of( theType ) ) );
 	}
 
 	/**
@@ -183,7 +183,7 @@ public class TokenManager {
 				theClaimName,
 				theCapabilityFamily,
 				new TypeFormatAdapter( 
-						new JavaType( Capabilities.class ),
+						JavaType.of( Capabilities.class ),
 						"capabilities : string",
 						new JsonElementToStringToChainTranslator( new StringToTokenCapabilityTranslator( theCapabilityFamily ) ),
 						new ChainToStringToJsonPrimitiveTranslator( new TokenCapabilityToStringTranslator( ) ) ) );						
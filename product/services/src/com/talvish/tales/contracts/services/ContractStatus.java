@@ -20,9 +20,10 @@ import java.util.concurrent.atomic.AtomicLong;
 import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 
-import com.talvish.tales.system.status.AverageLong;
+import com.talvish.tales.system.status.LatencyHistogram;
 import com.talvish.tales.system.status.MonitorableStatusValue;
-import com.talvish.tales.system.status.RatedLong;
+import com.talvish.tales.system.status.StripedAverageLong;
+import com.talvish.tales.system.status.StripedRatedLong;
 
 /**
  * Contains status information regarding the associated contract.
@@ -30,31 +31,34 @@ import com.talvish.tales.system.status.RatedLong;
  *
  */
 public class ContractStatus {
-	private AtomicLong clientErrors				= new AtomicLong( 0 );
-	private RatedLong clientErrorRate			= new RatedLong( );
-	private volatile DateTime lastClientError	= null;
+	private static final long SNAPSHOT_AGE = 1000l * 1000l * 1000l; // the percentiles of one status read share a snapshot taken within a second
 	
-	private AtomicLong localErrors 				= new AtomicLong( 0 );
-	private RatedLong localErrorRate			= new RatedLong( );
-	private volatile DateTime lastLocalError	= null;
+	private AtomicLong clientErrors					= new AtomicLong( 0 );
+	private StripedRatedLong clientErrorRate		= new StripedRatedLong( );
+	private volatile DateTime lastClientError		= null;
+	
+	private AtomicLong localErrors					= new AtomicLong( 0 );
+	private StripedRatedLong localErrorRate			= new StripedRatedLong( );
+	private volatile DateTime lastLocalError		= null;
 
-	private AtomicLong unavailableErrors 		= new AtomicLong( 0 );
-	private RatedLong unavailableErrorRate		= new RatedLong( );
+	private AtomicLong unavailableErrors			= new AtomicLong( 0 );
+	private StripedRatedLong unavailableErrorRate	= new StripedRatedLong( );
 	private volatile DateTime lastUnavailableError	= null;
 
-	private AtomicLong dependentErrors 			= new AtomicLong( 0 );
-	private RatedLong dependentErrorRate		= new RatedLong( );
+	private AtomicLong dependentErrors				= new AtomicLong( 0 );
+	private StripedRatedLong dependentErrorRate		= new StripedRatedLong( );
 	private volatile DateTime lastDependentError	= null;
 
-	private AtomicLong successes 				= new AtomicLong( 0 );		
-	private RatedLong successRate 				= new RatedLong( );
-	private volatile DateTime lastSuccess		= null;
+	private AtomicLong successes					= new AtomicLong( 0 );		
+	private StripedRatedLong successRate			= new StripedRatedLong( );
+	private volatile DateTime lastSuccess			= null;
 
-	private AtomicLong requests					= new AtomicLong( 0 );
-	private RatedLong requestRate				= new RatedLong( );
-	private volatile DateTime lastRequest		= null;
+	private AtomicLong requests						= new AtomicLong( 0 );
+	private StripedRatedLong requestRate			= new StripedRatedLong( );
+	private volatile DateTime lastRequest			= null;
 	
-	private AverageLong executionTime			= new AverageLong( );
+	private StripedAverageLong executionTime		= new StripedAverageLong( );
+	private LatencyHistogram executionTimes			= new LatencyHistogram( );
 	
 	/**
 	 * Records that a request was sent to the contract.
@@ -71,6 +75,7 @@ public class ContractStatus {
 	 */
 	public void recordExecutionTime( long theExecutionTime ) {
 		executionTime.add( theExecutionTime );
+		executionTimes.record( theExecutionTime );
 	}
 	
 	/**
@@ -156,6 +161,51 @@ public class ContractStatus {
 		return executionTime.calculateAverage() / 1000000d;
 	}
 	
+	/**
+	 * Returns the median execution time in milliseconds, as recorded in nanoseconds.
+	 * @return the 50th percentile execution time
+	 */
+	@MonitorableStatusValue( name = "execution_time_p50", description = "The 50th percentile execution time, in milliseconds, as measured over a 20 second interval.")
+	public double getExecutionTimeP50( ) {
+		return executionTimes.snapshot( SNAPSHOT_AGE ).getValueAtPercentile( 50.0d ) / 1000000d;
+	}
+	
+	/**
+	 * Returns the 90th percentile execution time in milliseconds, as recorded in nanoseconds.
+	 * @return the 90th percentile execution time
+	 */
+	@MonitorableStatusValue( name = "execution_time_p90", description = "The 90th percentile execution time, in milliseconds, as measured over a 20 second interval.")
+	public double getExecutionTimeP90( ) {
+		return executionTimes.snapshot( SNAPSHOT_AGE ).getValueAtPercentile( 90.0d ) / 1000000d;
+	}
+	
+	/**
+	 * Returns the 99th percentile execution time in milliseconds, as recorded in nanoseconds.
+	 * @return the 99th percentile execution time
+	 */
+	@MonitorableStatusValue( name = "execution_time_p99", description = "The 99th percentile execution time, in milliseconds, as measured over a 20 second interval.")
+	public double getExecutionTimeP99( ) {
+		return executionTimes.snapshot( SNAPSHOT_AGE ).getValueAtPercentile( 99.0d ) / 1000000d;
+	}
+	
+	/**
+	 * Returns the 99.9th percentile execution time in milliseconds, as recorded in nanoseconds.
+	 * @return the 99.9th percentile execution time
+	 */
+	@MonitorableStatusValue( name = "execution_time_p999", description = "The 99.9th percentile execution time, in milliseconds, as measured over a 20 second interval.")
+	public double getExecutionTimeP999( ) {
+		return executionTimes.snapshot( SNAPSHOT_AGE ).getValueAtPercentile( 99.9d ) / 1000000d;
+	}
+	
+	/**
+	 * Returns the largest execution time in milliseconds, as recorded in nanoseconds.
+	 * @return the largest execution time
+	 */
+	@MonitorableStatusValue( name = "execution_time_max", description = "The largest execution time, in milliseconds, as measured over a 20 second interval.")
+	public double getExecutionTimeMax( ) {
+		return executionTimes.snapshot( SNAPSHOT_AGE ).getMax( ) / 1000000d;
+	}
+	
 	
 	/**
 	 * Returns the number of successful calls.
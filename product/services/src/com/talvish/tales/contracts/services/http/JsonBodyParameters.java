@@ -0,0 +1,223 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.contracts.services.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.eclipse.jetty.server.handler.ContextHandler;
+
+import com.google.common.base.Strings;
+import com.google.common.io.ByteStreams;
+import com.google.common.io.CountingInputStream;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.talvish.tales.communication.HeaderConstants;
+import com.talvish.tales.parts.translators.TranslationException;
+import com.talvish.tales.serialization.json.JsonBinaryFormat;
+import com.talvish.tales.services.http.AttributeConstants;
+
+/**
+ * Helper class that makes the members of a json object request body, with 
+ * content type 'application/json', available as request parameters, in the
+ * same way the parameters of a url encoded form body are. Member values are 
+ * given as the strings a form would have, so json strings, numbers and 
+ * booleans are their text and json objects and arrays are json. Bodies in the
+ * binary format, with content type 'application/cbor', are read the same way,
+ * since the binary format has the same structure as the json. Bodies
+ * compressed using gzip, with a 'Content-Encoding' of 'gzip', are supported.
+ * The body is read once, when first needed, and kept on the request.
+ * @author jmolnar
+ *
+ */
+final class JsonBodyParameters {
+	private static final String JSON_MEDIA_TYPE = "application/json";
+	private static final String GZIP_ENCODING = "gzip";
+	private static final int DEFAULT_MAX_BODY_SIZE = 200000; // matches jetty's default maximum form size
+	
+	/**
+	 * Private constructor since this has only static methods.
+	 */
+	private JsonBodyParameters( ) {
+	}
+	
+	/**
+	 * Returns the value of a request parameter, which is either a query string 
+	 * parameter, a url encoded form body parameter or a json body member.
+	 * @param theRequest the request to get the parameter from
+	 * @param theName the name of the parameter
+	 * @return the value of the parameter, or null if not found
+	 * @throws JsonParseException if the request has a json body that cannot be read
+	 */
+	static String getParameter( HttpServletRequest theRequest, String theName ) {
+		String value = theRequest.getParameter( theName );
+		
+		if( value == null && isJsonBody( theRequest ) ) {
+			value = getParameters( theRequest ).get( theName );
+		}
+		return value;
+	}
+	
+	/**
+	 * Indicates if the request has a json body, in either the text or binary format.
+	 */
+	private static boolean isJsonBody( HttpServletRequest theRequest ) {
+		String contentType = theRequest.getContentType( );
+		return contentType != null && ( contentType.regionMatches( true, 0, JSON_MEDIA_TYPE, 0, JSON_MEDIA_TYPE.length( ) ) || isBinaryBody( contentType ) );
+	}
+	
+	/**
+	 * Indicates if the content type is for the binary format.
+	 */
+	private static boolean isBinaryBody( String theContentType ) {
+		return theContentType.regionMatches( true, 0, JsonBinaryFormat.MEDIA_TYPE, 0, JsonBinaryFormat.MEDIA_TYPE.length( ) );
+	}
+	
+	/**
+	 * Returns the members of the json body, reading them if this is the first time they were needed.
+	 * Failures to read the body are kept as well, so every parameter sees the same failure.
+	 */
+	@SuppressWarnings("unchecked")
+	private static Map<String,String> getParameters( HttpServletRequest theRequest ) {
+		Object parameters = theRequest.getAttribute( AttributeConstants.JSON_BODY_PARAMETERS );
+		
+		if( parameters == null ) {
+			try {
+				parameters = readParameters( theRequest );
+			} catch( JsonParseException e ) {
+				parameters = e;
+			}
+			theRequest.setAttribute( AttributeConstants.JSON_BODY_PARAMETERS, parameters );
+		}
+		if( parameters instanceof JsonParseException ) {
+			throw ( JsonParseException )parameters;
+		} else {
+			return ( Map<String,String> )parameters;
+		}
+	}
+	
+	/**
+	 * Reads the members of the json body, which is limited to the maximum size of form bodies.
+	 */
+	private static Map<String,String> readParameters( HttpServletRequest theRequest ) {
+		int maxBodySize = getMaxBodySize( theRequest );
+		CountingInputStream countingStream = null;
+		
+		try {
+			InputStream stream = theRequest.getInputStream( );
+			String contentEncoding = theRequest.getHeader( HeaderConstants.CONTENT_ENCODING );
+			if( !Strings.isNullOrEmpty( contentEncoding ) && contentEncoding.toLowerCase( ).indexOf( GZIP_ENCODING ) > -1 ) {
+				stream = new GZIPInputStream( stream );
+			}
+			// the limit is applied after decompression, and we allow a byte past it to tell if the body was too large
+			countingStream = new CountingInputStream( maxBodySize > 0 ? ByteStreams.limit( stream, maxBodySize + 1L ) : stream );
+			if( isBinaryBody( theRequest.getContentType( ) ) ) {
+				return readBinaryParameters( countingStream, maxBodySize );
+			}
+			String encoding = theRequest.getCharacterEncoding( );
+			JsonReader reader = new JsonReader( new InputStreamReader( countingStream, encoding == null ? StandardCharsets.UTF_8 : Charset.forName( encoding ) ) );
+			Map<String,String> parameters = new HashMap<>( );
+			JsonParser parser = null;
+			String name;
+			String value;
+			
+			reader.beginObject( );
+			while( reader.hasNext( ) ) {
+				name = reader.nextName( );
+				switch( reader.peek( ) ) {
+				case STRING:
+				case NUMBER:
+					value = reader.nextString( );
+					break;
+				case BOOLEAN:
+					value = Boolean.toString( reader.nextBoolean( ) );
+					break;
+				case NULL:
+					reader.nextNull( );
+					value = null;
+					break;
+				default:
+					// objects and arrays are given as json, which is what the translators of complex types expect
+					if( parser == null ) {
+						parser = new JsonParser( );
+					}
+					value = parser.parse( reader ).toString( );
+					break;
+				}
+				parameters.put( name, value );
+			}
+			reader.endObject( );
+			return Collections.unmodifiableMap( parameters );
+			
+		} catch( IOException | IllegalStateException | JsonParseException | TranslationException e ) {
+			if( countingStream != null && maxBodySize > 0 && countingStream.getCount( ) > maxBodySize ) {
+				throw new JsonParseException( String.format( "the json body is larger than the maximum size of %s bytes", maxBodySize ), e );
+			} else {
+				throw new JsonParseException( "the json body could not be read", e );
+			}
+		}
+	}
+	
+	/**
+	 * Reads the members of a body in the binary format, which is read whole since 
+	 * the binary format is decoded from bytes, and is limited like json bodies are.
+	 */
+	private static Map<String,String> readBinaryParameters( CountingInputStream theStream, int theMaxBodySize ) throws IOException {
+		byte[] body = ByteStreams.toByteArray( theStream );
+		if( theMaxBodySize > 0 && body.length > theMaxBodySize ) {
+			throw new JsonParseException( String.format( "the binary body is larger than the maximum size of %s bytes", theMaxBodySize ) );
+		}
+		JsonElement element = JsonBinaryFormat.fromBytes( body );
+		if( !element.isJsonObject( ) ) {
+			throw new JsonParseException( "the binary body is not an object" );
+		}
+		Map<String,String> parameters = new HashMap<>( );
+		JsonElement value;
+		
+		for( Entry<String, JsonElement> member : element.getAsJsonObject( ).entrySet( ) ) {
+			value = member.getValue( );
+			if( value.isJsonNull( ) ) {
+				parameters.put( member.getKey( ), null );
+			} else if( value.isJsonPrimitive( ) ) {
+				// strings, numbers and booleans are given as their text, as with json
+				parameters.put( member.getKey( ), value.getAsString( ) );
+			} else {
+				parameters.put( member.getKey( ), value.toString( ) );
+			}
+		}
+		return Collections.unmodifiableMap( parameters );
+	}
+	
+	/**
+	 * Returns the maximum size of the body, which is the maximum size of form bodies.
+	 */
+	private static int getMaxBodySize( HttpServletRequest theRequest ) {
+		ContextHandler contextHandler = ContextHandler.getContextHandler( theRequest.getServletContext( ) );
+		return contextHandler == null ? DEFAULT_MAX_BODY_SIZE : contextHandler.getMaxFormContentSize( );
+	}
+}
@@ -53,6 +53,7 @@ import com.talvish.tales.parts.naming.LowerCaseValidator;
 import com.talvish.tales.parts.naming.NameManager;
 import com.talvish.tales.parts.naming.NameValidator;
 import com.talvish.tales.parts.reflection.JavaType;
+import com.talvish.tales.parts.reflection.TypeUtility;
 import com.talvish.tales.parts.sites.DataSiteException;
 import com.talvish.tales.parts.translators.TranslationException;
 import com.talvish.tales.parts.translators.Translator;
@@ -203,7 +204,7 @@ public class ResourceMethod extends Subcontract {
 		// make sure they are our type and then store what is important
 		for( int paramCount = 0; paramCount < paramTypes.length; paramCount += 1 ) {
 			// get the parameter type, the parameter generic type and the annotations for the parameter
-			paramType = new JavaType( paramTypes[ paramCount ] );
+			paramType = JavaType.of( paramTypes[ paramCount ] );
 			paramAnnotations = annotations[ paramCount ]; //..since we pull the annotatins out here, let's extract the validation items here (or we put this into the constructor)
 			if( paramAnnotations.length <= 0 ) {
 				throw new IllegalStateException( String.format( "Parameter %s of type '%s' on method '%s.%s' does not have a parameter annotation.", paramCount + 1, paramType.getSimpleName(), method.getDeclaringClass().getName(), method.getName() ) );
@@ -282,7 +283,7 @@ public class ResourceMethod extends Subcontract {
 
 		// THIRD, look at the return type and make sure we have something appropriate
 
-		JavaType returnType = new JavaType( method.getGenericReturnType( ) );		
+		JavaType returnType = JavaType.of( method.getGenericReturnType( ) );		
 		TypeFormatAdapter typeAdapter;
 		if( Void.TYPE.equals( returnType ) ) {
 			// void returns are very simple
@@ -291,12 +292,12 @@ public class ResourceMethod extends Subcontract {
 		} else if( ResourceResult.class.isAssignableFrom( returnType.getUnderlyingClass() ) ) {
 			// if this is the special resource response type, then we need
 			// to pull the data down a bit differently to get the actual type
-			returnType = new JavaType( ( ( ParameterizedType ) returnType.getType() ).getActualTypeArguments( )[ 0 ] );
+			returnType = JavaType.of( ( ( ParameterizedType ) returnType.getType() ).getActualTypeArguments( )[ 0 ] );
 			typeAdapter = theResourceFacility.getJsonFacility().getTypeAdapter( returnType );
 			if( typeAdapter == null ) {
 				throw new IllegalStateException( String.format( "Return type '%s' on method '%s.%s' could not be analyzed because a translator could not be found.", returnType.getSimpleName(), method.getDeclaringClass().getName(), method.getName() ) );
 			} else {
-				this.methodReturn = new ResourceMethodReturn( returnType, true, typeAdapter.getToFormatTranslator(), this );
+				this.methodReturn = new ResourceMethodReturn( returnType, true, typeAdapter.getToFormatTranslator(), getElementTranslator( returnType, theResourceFacility ), this );
 			}
 
 		} else {
@@ -305,10 +306,32 @@ public class ResourceMethod extends Subcontract {
 			if( typeAdapter == null ) {
 				throw new IllegalStateException( String.format( "Return type '%s' on method '%s.%s' could not be analyzed because a translator could not be found.", returnType.getSimpleName(), method.getDeclaringClass().getName(), method.getName() ) );
 			} else {
-				this.methodReturn = new ResourceMethodReturn( returnType, false, typeAdapter.getToFormatTranslator(), this );
+				this.methodReturn = new ResourceMethodReturn( returnType, false, typeAdapter.getToFormatTranslator(), getElementTranslator( returnType, theResourceFacility ), this );
 			}
 		}
 	}
+	
+	/**
+	 * Helper method that gets the translator for the elements of return types,
+	 * like iterators and streams, that are streamed back to the caller.
+	 * @param theReturnType the return type to look at
+	 * @param theResourceFacility the facility used to get the type adapter
+	 * @return the element translator, or null if the return type isn't streamed
+	 */
+	private Translator getElementTranslator( JavaType theReturnType, ResourceFacility theResourceFacility ) {
+		Type elementType = TypeUtility.extractIteratedType( theReturnType.getType( ) );
+		Translator elementTranslator = null;
+		
+		if( elementType != null ) {
+			TypeFormatAdapter elementAdapter = theResourceFacility.getJsonFacility().getTypeAdapter( JavaType.of( elementType ) );
+			if( elementAdapter == null ) {
+				throw new IllegalStateException( String.format( "Return element type '%s' on method '%s.%s' could not be analyzed because a translator could not be found.", elementType.getTypeName( ), method.getDeclaringClass().getName(), method.getName() ) );
+			} else {
+				elementTranslator = elementAdapter.getToFormatTranslator( );
+			}
+		}
+		return elementTranslator;
+	}
 
 	/**
 	 * Generates 1) a version of the path that is expanded to cover 
@@ -710,7 +733,13 @@ public class ResourceMethod extends Subcontract {
 		if( matched ) {
 			for( ResourceMethodParameter parameter: this.methodParameters ) {
 				if( parameter.getSource() == ParameterSource.REQUEST ) {
-					if( theRequest.getParameter(parameter.getValueName()) != null ) {
+					String value;
+					try {
+						value = JsonBodyParameters.getParameter( theRequest, parameter.getValueName( ) );
+					} catch( JsonParseException e ) {
+						value = null; // the body can't be read, which execution reports to the caller
+					}
+					if( value != null ) {
 						parameterMatches += 1;
 					} else {
 						parameterMisses += 1;
@@ -805,8 +834,8 @@ public class ResourceMethod extends Subcontract {
 							// this means we have a reference to something in the url path
 							stringValue = UrlEncoding.decode( theRequest.getCharacterEncoding( ), thePathMatcher.group( parameter.getPathReference() + 1 ) );
 						} else if( parameterSource == ParameterSource.REQUEST ) {
-							// this means it is a reference to a query string param or post body url encoded item
-							stringValue = theRequest.getParameter( parameter.getValueName() );
+							// this means it is a reference to a query string param, post body url encoded item or json body member
+							stringValue = JsonBodyParameters.getParameter( theRequest, parameter.getValueName() );
 						} else if( parameterSource == ParameterSource.HEADER ) {
 							// this means we have a header reference
 							stringValue = theRequest.getHeader( parameter.getValueName() );
@@ -926,12 +955,18 @@ public class ResourceMethod extends Subcontract {
 								this.getResourceType().getType().getSimpleName(), 
 								this.getMethod( ).getName( ) );
 						result = new ResourceMethodResult( Status.LOCAL_ERROR, null, methodName, String.format( "Unexpected null result for %s.", uri ), null );
+					} else if( this.methodReturn.isStreamed( ) && resourceResult.getValue( ) != null ) {
+						// streamed results are translated as they are written back
+						result = new ResourceMethodResult( resourceResult.getValue( ), this.methodReturn.getElementTranslator( ), resourceResult );
 					} else {
 						result = new ResourceMethodResult( ( JsonElement )this.methodReturn.translate( resourceResult.getValue( ) ), resourceResult );
 					}
 				} else if( this.methodReturn.isVoid() ) {
 					// the void return type case is just an unknown empty object
 					result = new ResourceMethodResult( new JsonObject( ), defaultStatus );
+				} else if( this.methodReturn.isStreamed( ) && typeLessResult != null ) {
+					// the streamed return type case will translate the elements as they are written back
+					result = new ResourceMethodResult( typeLessResult, this.methodReturn.getElementTranslator( ), defaultStatus );
 				} else {
 					// the non-void return type case will translate the result
 					result = new ResourceMethodResult( ( JsonElement )this.methodReturn.translate( typeLessResult ), defaultStatus );
@@ -18,6 +18,7 @@ package com.talvish.tales.contracts.services.http;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonElement;
 import com.talvish.tales.communication.Status;
+import com.talvish.tales.parts.translators.Translator;
 
 /**
  * This class represents the result of an execution of a resource method.
@@ -28,6 +29,9 @@ import com.talvish.tales.communication.Status;
  *
  */
 public class ResourceMethodResult extends HttpResult<JsonElement,ResourceMethodResult> {
+	private Object stream;
+	private Translator streamTranslator;
+	
 	/**
 	 * Modified copy constructor taking a different value.
 	 * @param theValue the value to use
@@ -45,6 +49,40 @@ public class ResourceMethodResult extends HttpResult<JsonElement,ResourceMethodR
 		this.exception = theOriginal.exception;
 	}
 
+	/**
+	 * Modified copy constructor taking a source of elements to stream,
+	 * instead of a value, and the translator for the elements.
+	 * @param theStream the iterator, stream or iterable to stream back
+	 * @param theStreamTranslator the translator used on each element
+	 * @param theOriginal the original result to clone
+	 */
+	ResourceMethodResult( Object theStream, Translator theStreamTranslator, HttpResult<?,?> theOriginal ) {
+		this( null, theOriginal );
+		Preconditions.checkNotNull( theStream, "need a stream" );
+		Preconditions.checkNotNull( theStreamTranslator, "need a stream translator" );
+		this.stream = theStream;
+		this.streamTranslator = theStreamTranslator;
+	}
+
+	/**
+	 * Constructor taking a source of elements to stream, and 
+	 * the translator for the elements, for the success case.
+	 * @param theStream the iterator, stream or iterable to stream back
+	 * @param theStreamTranslator the translator used on each element
+	 * @param theStatus the status to return
+	 */
+	ResourceMethodResult( Object theStream, Translator theStreamTranslator, Status theStatus ) {
+		Preconditions.checkNotNull( theStream, "need a stream" );
+		Preconditions.checkNotNull( theStreamTranslator, "need a stream translator" );
+		this.value = null;
+		this.stream = theStream;
+		this.streamTranslator = theStreamTranslator;
+		this.code = theStatus;
+		this.subcode = null;
+		this.subject = null;
+		this.message = null;
+		this.exception = null;
+	}
 
 	ResourceMethodResult( JsonElement theValue, Status theStatus ) {
 		Preconditions.checkNotNull( theValue, "need a value" );
@@ -90,4 +128,29 @@ public class ResourceMethodResult extends HttpResult<JsonElement,ResourceMethodR
 		this.message = theMessage;
 		this.exception = theException;
 	}
+
+	/**
+	 * Indicates if the result is to be streamed back to the caller,
+	 * one element at a time, instead of being held as a value.
+	 * @return true if streamed, false otherwise
+	 */
+	public boolean isStreamed( ) {
+		return stream != null;
+	}
+	
+	/**
+	 * The iterator, stream or iterable to stream back to the caller.
+	 * @return the source of elements, or null if not streamed
+	 */
+	public Object getStream( ) {
+		return stream;
+	}
+	
+	/**
+	 * The translator used to translate each element being streamed.
+	 * @return the element translator, or null if not streamed
+	 */
+	public Translator getStreamTranslator( ) {
+		return streamTranslator;
+	}
 }
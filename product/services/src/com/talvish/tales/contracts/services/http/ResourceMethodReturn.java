@@ -31,6 +31,7 @@ public class ResourceMethodReturn {
 	private final boolean isVoid;
 	private final boolean isResultWrapper;
 	private final Translator valueTranslator;
+	private final Translator elementTranslator;
 	
 	/**
 	 * Constructor used when the return is a void.
@@ -46,6 +47,7 @@ public class ResourceMethodReturn {
 		type = theType;
 		isVoid = true;
 		valueTranslator = null;
+		elementTranslator = null;
 		resourceMethod = theMethod;
 		isResultWrapper = false;
 	}
@@ -60,6 +62,19 @@ public class ResourceMethodReturn {
 	 * @param theMethod the method this is a return value
 	 */
 	ResourceMethodReturn( JavaType theType, boolean resultWrapper, Translator theValueTranslator, ResourceMethod theMethod ) {
+		this( theType, resultWrapper, theValueTranslator, null, theMethod );
+	}
+
+	/**
+	 * Constructor used when a type is being returned that may be streamed
+	 * back to the caller, one element at a time.
+	 * @param theType the type of the return values
+	 * @param resultWrapper if true, indicates that when the data comes back, it has a ResourceResult wrapper
+	 * @param theValueTranslator the translator that will be used to translate the result values
+	 * @param theElementTranslator the translator used on each element when streaming, or null if the return type isn't streamed
+	 * @param theMethod the method this is a return value
+	 */
+	ResourceMethodReturn( JavaType theType, boolean resultWrapper, Translator theValueTranslator, Translator theElementTranslator, ResourceMethod theMethod ) {
 		Preconditions.checkNotNull( theType, "need a type" );
 		Preconditions.checkNotNull( theValueTranslator, "need a translator" );
 		Preconditions.checkNotNull( theMethod, "need a method" );
@@ -68,6 +83,7 @@ public class ResourceMethodReturn {
 		isResultWrapper = resultWrapper;
 		isVoid = false;
 		valueTranslator = theValueTranslator;
+		elementTranslator = theElementTranslator;
 		resourceMethod = theMethod;
 	}
 
@@ -96,6 +112,23 @@ public class ResourceMethodReturn {
 		return isResultWrapper;
 	}
 	
+	/**
+	 * Indicates if the result is an iterator, stream or iterable
+	 * whose elements are streamed back to the caller.
+	 * @return true if streamed, false otherwise
+	 */
+	public boolean isStreamed( ) {
+		return elementTranslator != null;
+	}
+	
+	/**
+	 * The translator used on each element when the result is streamed.
+	 * @return the element translator, or null if the result isn't streamed
+	 */
+	public Translator getElementTranslator( ) {
+		return elementTranslator;
+	}
+	
 	/**
 	 * The return type of the method.
 	 * @return the return type
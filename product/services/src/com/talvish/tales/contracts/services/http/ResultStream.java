@@ -0,0 +1,38 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.contracts.services.http;
+
+import java.util.Iterator;
+
+/**
+ * An iterator that resource methods can return when the results are
+ * produced, or fetched, over time, such as rows from a storage cursor.
+ * Returned results are streamed back to the caller as each element is 
+ * translated, instead of being translated and held in full first. The 
+ * stream is closed once the last element is written, or if writing fails.
+ * Resource methods may also return {@code Iterator}, {@code Stream} or 
+ * {@code Iterable} results, which are streamed in the same way.
+ * @author jmolnar
+ *
+ * @param <T> the type of element being returned
+ */
+public interface ResultStream<T> extends Iterator<T>, AutoCloseable {
+	/**
+	 * Releases any resources held by the stream.
+	 */
+	@Override
+	void close( );
+}
@@ -26,6 +26,21 @@ public final class ConfigurationConstants {
 	
 	public static final String SERVICE_TYPE = "service.type";
 	
+	// warm-up settings
+	
+	public static final String WARM_UP = "service.warm_up";
+	
+	public static final String WARM_UP_ENABLED = WARM_UP + ".enabled";
+	public static final String WARM_UP_PARALLELISM = WARM_UP + ".parallelism";
+	public static final String WARM_UP_FAIL_ON_ERROR = WARM_UP + ".fail_on_error";
+	
+	// status snapshot settings
+	
+	public static final String STATUS_SNAPSHOTS = "service.status_snapshots";
+	
+	public static final String STATUS_SNAPSHOTS_ENABLED = STATUS_SNAPSHOTS + ".enabled";
+	public static final String STATUS_SNAPSHOTS_INTERVAL = STATUS_SNAPSHOTS + ".interval";
+	
 	// key store settings
 	
 	public static final String SECURITY_KEY_STORES = "service.security.key_stores";
@@ -67,6 +67,7 @@ import com.talvish.tales.services.http.servlets.AlertsServlet;
 import com.talvish.tales.services.http.servlets.ConfigurationServlet;
 import com.talvish.tales.services.http.servlets.ContractsServlet;
 import com.talvish.tales.services.http.servlets.ControlServlet;
+import com.talvish.tales.services.http.servlets.MetricsServlet;
 import com.talvish.tales.services.http.servlets.StatusServlet;
 import com.talvish.tales.system.ConfigurableThreadFactory;
 import com.talvish.tales.system.ExecutionLifecycleListener;
@@ -207,6 +208,8 @@ public abstract class Service implements Runnable {
 	protected final Status status = new Status( );
 	protected final StatusManager statusManager = new StatusManager();
 	protected final InterfaceManager interfaceManager = new InterfaceManager( );
+	protected final WarmUpManager warmUpManager = new WarmUpManager( );
+	protected final StatusSnapshotManager statusSnapshotManager = new StatusSnapshotManager( this );
 
 	protected final FacilityManager facilityManager = new SimpleFacilityManager( );
 
@@ -257,6 +260,7 @@ public abstract class Service implements Runnable {
 		
 		// store the status manager's blocks
 		statusManager.register( "service", status );
+		statusManager.register( "warm_up", warmUpManager.getStatus( ) );
 	}
 	
 	private final String prepareUserAgent( String theServiceName ) {
@@ -476,6 +480,24 @@ public abstract class Service implements Runnable {
 		return this.interfaceManager;
 	}
 
+	/**
+	 * Returns the warm-up manager, which subclasses can use to register 
+	 * additional tasks to run during start-up.
+	 * @return the warm-up manager
+	 */
+	public WarmUpManager getWarmUpManager( ) {
+		return this.warmUpManager;
+	}
+	
+	/**
+	 * Returns the status snapshot manager, which those 
+	 * showing status should get status values from.
+	 * @return the status snapshot manager
+	 */
+	public StatusSnapshotManager getStatusSnapshotManager( ) {
+		return this.statusSnapshotManager;
+	}
+	
 	/**
 	 * Convenience method to get the admin interface.
 	 * @return the admin interface
@@ -643,6 +665,7 @@ public abstract class Service implements Runnable {
 	        adminInterface.bind( new ConfigurationServlet( ), "/service/configuration");
 	        adminInterface.bind( new ContractsServlet( ), "/service/contracts");
 	        adminInterface.bind( new StatusServlet( ), "/service/status");
+	        adminInterface.bind( new MetricsServlet( ), "/service/metrics");
 	        adminInterface.bind( new AlertsServlet( ), "/service/alerts");
 	        
 	        // now we look to see if any interfaces were defined and if so, we create and register them
@@ -689,14 +712,35 @@ public abstract class Service implements Runnable {
 		        }
 			}
 	        
+			// we pay the cost of analysis before requests arrive, in parallel as resources are bound
+			boolean warmUp = theConfigurationManager.getBooleanValue( ConfigurationConstants.WARM_UP_ENABLED, true );
+			if( warmUp ) {
+				logger.info( "Warming-up '{}'.", this.getCanonicalName( ) );
+				this.warmUpManager.start( 
+						jsonFacility,
+						theConfigurationManager.getIntegerValue( ConfigurationConstants.WARM_UP_PARALLELISM, Runtime.getRuntime( ).availableProcessors( ) ) );
+			}
+	        
 			// now let subclasses override, we expect
 	        // initialization and registration
 			onStart( );
 			
+			// now that everything is bound, we finish the warm-up
+			if( warmUp ) {
+				this.warmUpManager.warmUp( 
+						this.interfaceManager.getInterfaces( ), 
+						theConfigurationManager.getBooleanValue( ConfigurationConstants.WARM_UP_FAIL_ON_ERROR, false ) );
+			}
+			
 			// now start the interfaces that were registered
 			logger.info( "Starting all interfaces for '{}'.", this.getCanonicalName( ) );
 			this.interfaceManager.start();
 			status.recordStart();
+			
+			// and with everything registered and started, we can start capturing status
+			if( theConfigurationManager.getBooleanValue( ConfigurationConstants.STATUS_SNAPSHOTS_ENABLED, true ) ) {
+				this.statusSnapshotManager.start( theConfigurationManager.getLongValue( ConfigurationConstants.STATUS_SNAPSHOTS_INTERVAL, 5000l ) );
+			}
 			this.lifecycleState = ExecutionLifecycleState.STARTED;
 			listeners.onStarted( this, this.lifecycleState );
 			logger.info( "Started service '{}'.", canonicalName );
@@ -946,6 +990,7 @@ public abstract class Service implements Runnable {
 			// now we shutdown all of the interfaces
 			logger.info( "Stopping all interfaces." );
 			this.interfaceManager.stop();
+			this.statusSnapshotManager.stop();
 			
 			// now let subclasses override, if any
 			onStop( );
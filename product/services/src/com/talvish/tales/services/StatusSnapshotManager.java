@@ -0,0 +1,136 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.services;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.talvish.tales.contracts.services.ServiceContract;
+import com.talvish.tales.system.ConfigurableThreadFactory;
+import com.talvish.tales.system.status.StatusBlock;
+import com.talvish.tales.system.status.StatusSnapshot;
+
+/**
+ * A utility class that, on a schedule, captures the status values of the service, 
+ * its interfaces and their contracts into a snapshot, so that those showing status 
+ * (e.g. the status and metrics servlets) do the same, constant, amount of work 
+ * regardless of how often they are called. If snapshots aren't started, a snapshot
+ * is captured each time one is requested.
+ * @author jmolnar
+ *
+ */
+public class StatusSnapshotManager {
+	private static final Logger logger = LoggerFactory.getLogger( StatusSnapshotManager.class );
+
+	private final Object lock = new Object( );
+	private final Service service;
+	
+	private volatile StatusSnapshot snapshot;
+	private ScheduledExecutorService executor;
+	
+	/**
+	 * Constructor taking the service whose status will be captured.
+	 * @param theService the service to capture status for
+	 */
+	public StatusSnapshotManager( Service theService ) {
+		Preconditions.checkNotNull( theService, "need a service" );
+		service = theService;
+	}
+	
+	/**
+	 * Starts capturing snapshots at the interval given. The first snapshot is captured
+	 * immediately, and subsequent snapshots are captured the interval after the previous
+	 * snapshot completed, so slow captures don't stack up.
+	 * @param theInterval the time, in milliseconds, between snapshots
+	 */
+	public void start( long theInterval ) {
+		Preconditions.checkArgument( theInterval > 0, "interval must be greater than zero, but is '%s'", theInterval );
+		synchronized( lock ) {
+			Preconditions.checkState( executor == null, "status snapshots for service '%s' are already started", service.getCanonicalName( ) );
+			
+			ScheduledThreadPoolExecutor newExecutor = new ScheduledThreadPoolExecutor( 1, new ConfigurableThreadFactory( "status_snapshots", Thread.NORM_PRIORITY, true ) );
+			newExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy( false );
+			snapshot = capture( );
+			newExecutor.scheduleWithFixedDelay( this::refresh, theInterval, theInterval, TimeUnit.MILLISECONDS );
+			executor = newExecutor;
+			logger.info( "Capturing status snapshots for service '{}' every {} ms.", service.getCanonicalName( ), theInterval );
+		}
+	}
+	
+	/**
+	 * Stops capturing snapshots. Once stopped, a snapshot 
+	 * is captured each time one is requested.
+	 */
+	public void stop( ) {
+		synchronized( lock ) {
+			if( executor != null ) {
+				executor.shutdownNow( );
+				executor = null;
+				snapshot = null;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the most recent snapshot of the status values. 
+	 * If snapshots are not being captured on a schedule, 
+	 * a snapshot is captured for the call.
+	 * @return the most recent snapshot
+	 */
+	public StatusSnapshot getSnapshot( ) {
+		StatusSnapshot currentSnapshot = snapshot;
+		if( currentSnapshot == null ) {
+			currentSnapshot = capture( );
+		}
+		return currentSnapshot;
+	}
+	
+	/**
+	 * Scheduled method that captures and saves a new snapshot. 
+	 */
+	private void refresh( ) {
+		try {
+			snapshot = capture( );
+		} catch( RuntimeException e ) {
+			// we don't let the exception through, since it would stop the schedule
+			logger.warn( String.format( "Unable to capture a status snapshot for service '%s'.", service.getCanonicalName( ) ), e );
+		}
+	}
+	
+	/**
+	 * Helper method that gathers the status blocks from the service, interfaces
+	 * and contracts and captures a snapshot of them.
+	 * @return the captured snapshot
+	 */
+	private StatusSnapshot capture( ) {
+		Collection<StatusBlock> blocks = new ArrayList<>( service.getStatusManager( ).getStatusBlocks( ) );
+
+		for( Interface serviceInterface : service.getInterfaceManager( ).getInterfaces( ) ) {
+			blocks.addAll( serviceInterface.getStatusBlocks( ) );
+			for( ServiceContract contract : serviceInterface.getBoundContracts( ) ) {
+				blocks.addAll( contract.getStatusBlocks( ) );
+			}
+		}
+		return StatusSnapshot.capture( blocks );
+	}
+}
@@ -0,0 +1,407 @@
+// ***************************************************************************
+// *  Copyright 2011 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.services;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.talvish.tales.contracts.Subcontract;
+import com.talvish.tales.contracts.services.ServiceContract;
+import com.talvish.tales.contracts.services.http.ContextParam;
+import com.talvish.tales.contracts.services.http.ResourceMethod;
+import com.talvish.tales.contracts.services.http.ResourceMethodParameter;
+import com.talvish.tales.contracts.services.http.ResourceMethodParameter.ParameterSource;
+import com.talvish.tales.contracts.services.http.ResourceOperation;
+import com.talvish.tales.contracts.services.http.ResourceResult;
+import com.talvish.tales.parts.reflection.JavaType;
+import com.talvish.tales.parts.reflection.TypeUtility;
+import com.talvish.tales.serialization.json.JsonTranslationFacility;
+import com.talvish.tales.serialization.json.JsonTypeMap;
+import com.talvish.tales.system.status.MonitorableStatusValue;
+
+/**
+ * A utility class that, during service start-up, pre-builds the type analysis 
+ * that would otherwise be done serially as resources are bound, or lazily when 
+ * the first requests arrive. Once started, interfaces hand it the classes they 
+ * are binding and it collects the parameter and return types of their resource 
+ * methods and generates, in parallel, the json type maps and type adapters for 
+ * them and the data contracts they refer to, so binding then finds them cached. 
+ * After binding it picks up any remaining types from the bound contracts and runs 
+ * the tasks the service registered.
+ * @author jmolnar
+ *
+ */
+public class WarmUpManager {
+	/**
+	 * The status of the warm-up, including the timings of each of the phases.
+	 * @author jmolnar
+	 *
+	 */
+	public class Status {
+		private volatile long discoveryTime;
+		private volatile long typeAnalysisTime;
+		private volatile long taskTime;
+		private volatile long totalTime;
+		private final AtomicLong types = new AtomicLong( 0 );
+		private final AtomicLong tasks = new AtomicLong( 0 );
+		private final AtomicLong errors = new AtomicLong( 0 );
+
+		/**
+		 * Returns the time, in milliseconds, spent finding the types to analyze.
+		 * @return the time spent finding types
+		 */
+		@MonitorableStatusValue( name = "discovery_time", description = "The time, in milliseconds, spent during start-up finding the types to warm-up." )
+		public double getDiscoveryTime( ) {
+			return discoveryTime / 1000000d;
+		}
+
+		/**
+		 * Returns the time, in milliseconds, spent analyzing types.
+		 * @return the time spent analyzing types
+		 */
+		@MonitorableStatusValue( name = "type_analysis_time", description = "The time, in milliseconds, spent during start-up analyzing types and generating type adapters." )
+		public double getTypeAnalysisTime( ) {
+			return typeAnalysisTime / 1000000d;
+		}
+
+		/**
+		 * Returns the time, in milliseconds, spent running registered tasks.
+		 * @return the time spent running registered tasks
+		 */
+		@MonitorableStatusValue( name = "task_time", description = "The time, in milliseconds, spent during start-up running registered warm-up tasks." )
+		public double getTaskTime( ) {
+			return taskTime / 1000000d;
+		}
+
+		/**
+		 * Returns the total time, in milliseconds, spent warming up.
+		 * @return the total time spent warming up
+		 */
+		@MonitorableStatusValue( name = "total_time", description = "The total time, in milliseconds, spent during start-up warming up." )
+		public double getTotalTime( ) {
+			return totalTime / 1000000d;
+		}
+
+		/**
+		 * Returns the number of types that were analyzed.
+		 * @return the number of types analyzed
+		 */
+		@MonitorableStatusValue( name = "types", description = "The number of resource parameter and return types analyzed during start-up." )
+		public long getTypes( ) {
+			return types.get( );
+		}
+
+		/**
+		 * Returns the number of registered tasks that were run.
+		 * @return the number of registered tasks run
+		 */
+		@MonitorableStatusValue( name = "tasks", description = "The number of registered warm-up tasks run during start-up." )
+		public long getTasks( ) {
+			return tasks.get( );
+		}
+
+		/**
+		 * Returns the number of errors that occurred while warming up.
+		 * @return the number of errors
+		 */
+		@MonitorableStatusValue( name = "errors", description = "The number of errors that occurred while warming up during start-up." )
+		public long getErrors( ) {
+			return errors.get( );
+		}
+	}
+	
+	private static final Logger logger = LoggerFactory.getLogger( WarmUpManager.class );
+
+	private Map<String, Runnable> tasks = Collections.unmodifiableMap( new LinkedHashMap<String, Runnable>( 0 ) );
+	private final Object tasksLock = new Object( );
+	private final Status status = new Status( );
+	
+	private final Set<JavaType> analyzedTypes = Collections.newSetFromMap( new ConcurrentHashMap<JavaType, Boolean>( ) );
+	private final ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>( );
+	private volatile JsonTranslationFacility jsonFacility;
+	private volatile ForkJoinPool pool;
+	private long startTime;
+	
+	/**
+	 * Returns the status of the warm-up.
+	 * @return the status of the warm-up
+	 */
+	public Status getStatus( ) {
+		return status;
+	}
+	
+	/**
+	 * Registers a task to run, in parallel with other tasks, during the warm-up. 
+	 * This is typically used by services to pre-build analysis they know will 
+	 * be needed, e.g. access control descriptors for their resources.
+	 * @param theName the name of the task, used for logging
+	 * @param theTask the task to run
+	 */
+	public void register( String theName, Runnable theTask ) {
+		Preconditions.checkArgument( !Strings.isNullOrEmpty( theName ), "need a name for the task" );
+		Preconditions.checkNotNull( theTask, "need a task for '%s'", theName );
+		
+		synchronized( tasksLock ) {
+			Preconditions.checkState( !tasks.containsKey( theName ), "a task with the name '%s' is already registered", theName );
+			Map<String, Runnable> newTasks = new LinkedHashMap<String, Runnable>( tasks );
+			newTasks.put( theName, theTask );
+			tasks = Collections.unmodifiableMap( newTasks );
+		}
+	}
+	
+	/**
+	 * Returns the tasks that have been registered.
+	 * @return the registered tasks
+	 */
+	public Map<String, Runnable> getTasks( ) {
+		return tasks;
+	}
+	
+	/**
+	 * Starts the warm-up, which means the types of resources handed to {@link #analyze(Class)} 
+	 * are analyzed, until {@link #warmUp(Collection, boolean)} is called. The work is done 
+	 * on a fork-join pool using the specified parallelism.
+	 * @param theJsonFacility the json facility used to generate type maps and adapters
+	 * @param theParallelism the number of threads to use
+	 */
+	public void start( JsonTranslationFacility theJsonFacility, int theParallelism ) {
+		Preconditions.checkNotNull( theJsonFacility, "need a json facility" );
+		Preconditions.checkArgument( theParallelism > 0, "parallelism must be greater than zero, but is '%s'", theParallelism );
+		Preconditions.checkState( pool == null, "the warm-up has already been started" );
+
+		startTime = System.nanoTime( );
+		jsonFacility = theJsonFacility;
+		pool = new ForkJoinPool( theParallelism );
+	}
+	
+	/**
+	 * Analyzes, in parallel, the parameter and return types of the resource methods 
+	 * on the class given, so that binding the resource finds the type adapters it 
+	 * needs already generated. This is called by interfaces as they bind resources 
+	 * and does nothing if the warm-up isn't running. Problems are recorded, not 
+	 * thrown, since binding will report them as it analyzes the same types.
+	 * @param theResourceClass the class of the resource being bound
+	 */
+	public void analyze( Class<?> theResourceClass ) {
+		Preconditions.checkNotNull( theResourceClass, "need a resource class" );
+		if( pool != null ) {
+			long phaseStart = System.nanoTime( );
+			Set<JavaType> types = discoverTypes( theResourceClass );
+			status.discoveryTime += System.nanoTime( ) - phaseStart;
+			analyze( types );
+		}
+	}
+
+	/**
+	 * Finishes the warm-up against all of the contracts bound to the interfaces given.
+	 * Any types not already analyzed as resources were bound are analyzed, and then 
+	 * the registered tasks are run, all on the warm-up's fork-join pool.
+	 * @param theInterfaces the interfaces whose contracts will be warmed-up
+	 * @param shouldFailOnError if true, an exception will be thrown if any problems occurred 
+	 */
+	public void warmUp( Collection<Interface> theInterfaces, boolean shouldFailOnError ) {
+		Preconditions.checkNotNull( theInterfaces, "need interfaces" );
+		Preconditions.checkState( pool != null, "the warm-up has not been started" );
+		
+		long phaseStart;
+		
+		try {
+			// first we find the types that resource methods use, which binding may not have given us
+			phaseStart = System.nanoTime( );
+			Set<JavaType> types = discoverTypes( theInterfaces );
+			status.discoveryTime += System.nanoTime( ) - phaseStart;
+			
+			// second, we generate the type maps and adapters for these remaining types
+			analyze( types );
+			
+			// third, we run the registered tasks in parallel
+			phaseStart = System.nanoTime( );
+			List<Callable<Void>> callables = new ArrayList<>( tasks.size( ) );
+			for( Entry<String, Runnable> entry : tasks.entrySet( ) ) {
+				callables.add( ( ) -> {
+					try {
+						entry.getValue( ).run( );
+						status.tasks.incrementAndGet( );
+					} catch( RuntimeException e ) {
+						logger.warn( String.format( "Unable to run warm-up task '%s'.", entry.getKey( ) ), e );
+						failures.add( e );
+					}
+					return null;
+				} );
+			}
+			pool.invokeAll( callables );
+			status.taskTime = System.nanoTime( ) - phaseStart;
+		} finally {
+			pool.shutdown( );
+			pool = null;
+			jsonFacility = null;
+		}
+		status.totalTime = System.nanoTime( ) - startTime;
+		status.errors.addAndGet( failures.size( ) );
+		
+		logger.info( 
+				"Warmed-up {} types and {} tasks with {} errors in {} ms (discovery: {} ms, type analysis: {} ms, tasks: {} ms).", new Object[] {
+						status.getTypes( ),
+						status.getTasks( ),
+						status.getErrors( ),
+						status.getTotalTime( ),
+						status.getDiscoveryTime( ),
+						status.getTypeAnalysisTime( ),
+						status.getTaskTime( ) } );
+		
+		if( shouldFailOnError && !failures.isEmpty( ) ) {
+			throw new IllegalStateException( String.format( "Warm-up failed with %s error(s).", failures.size( ) ), failures.peek( ) );
+		}
+	}
+	
+	/**
+	 * Helper method that generates, on the pool, the type maps and adapters for 
+	 * the types given that haven't already been analyzed. Each type is generated
+	 * independently, so a type that fails is recorded, with its name, without
+	 * affecting the others. The time spent, which the caller waits for, is added 
+	 * to the type analysis time.
+	 * @param theTypes the types to analyze
+	 */
+	private void analyze( Set<JavaType> theTypes ) {
+		long phaseStart = System.nanoTime( );
+		List<Callable<Void>> callables = new ArrayList<>( theTypes.size( ) );
+		for( JavaType type : theTypes ) {
+			if( analyzedTypes.add( type ) ) {
+				callables.add( ( ) -> { 
+					try {
+						// the adapter is what binding and requests need, and the name generation walks 
+						// into the type maps of any referenced data contracts (as the contracts servlet does)
+						jsonFacility.getTypeAdapter( type );
+						jsonFacility.generateTypeName( type, new HashSet<JsonTypeMap>( ) );
+						status.types.incrementAndGet( );
+					} catch( RuntimeException e ) {
+						String message = String.format( "Unable to warm-up type '%s'.", type.getName( ) );
+						logger.warn( message, e );
+						failures.add( new IllegalStateException( message, e ) );
+					}
+					return null;
+				} );
+			}
+		}
+		if( !callables.isEmpty( ) ) {
+			pool.invokeAll( callables );
+			status.typeAnalysisTime += System.nanoTime( ) - phaseStart;
+		}
+	}
+
+	/**
+	 * Helper method that walks the resource methods of a resource class to find the 
+	 * json translated parameter and return types, in the way binding will look at them. 
+	 * Simple parameter types, which are translated from strings, are skipped. 
+	 * @param theResourceClass the resource class to look at
+	 * @return the set of types found
+	 */
+	private Set<JavaType> discoverTypes( Class<?> theResourceClass ) {
+		Set<JavaType> types = new HashSet<>( );
+		
+		for( Method method : theResourceClass.getMethods( ) ) {
+			if( method.isAnnotationPresent( ResourceOperation.class ) ) {
+				JavaType returnType = JavaType.of( method.getGenericReturnType( ) );
+				
+				if( !Void.TYPE.equals( returnType.getUnderlyingClass( ) ) ) {
+					if( ResourceResult.class.isAssignableFrom( returnType.getUnderlyingClass( ) ) && returnType.getType( ) instanceof ParameterizedType ) {
+						returnType = JavaType.of( ( ( ParameterizedType ) returnType.getType( ) ).getActualTypeArguments( )[ 0 ] );
+					}
+					types.add( returnType );
+					Type elementType = TypeUtility.extractIteratedType( returnType.getType( ) );
+					if( elementType != null ) {
+						types.add( JavaType.of( elementType ) );
+					}
+				}
+				
+				Type[] parameterTypes = method.getGenericParameterTypes( );
+				Annotation[][] parameterAnnotations = method.getParameterAnnotations( );
+				for( int index = 0; index < parameterTypes.length; index += 1 ) {
+					JavaType parameterType = JavaType.of( parameterTypes[ index ] );
+					// context parameters are not translated and simple types don't need adapters
+					if( !isContextParameter( parameterAnnotations[ index ] ) && jsonFacility.getFromStringTranslator( parameterType ) == null ) {
+						types.add( parameterType );
+					}
+				}
+			}
+		}
+		return types;
+	}
+	
+	/**
+	 * Helper method that indicates if a parameter is a context parameter. 
+	 * @param theAnnotations the annotations on the parameter
+	 * @return true if a context parameter, false otherwise
+	 */
+	private boolean isContextParameter( Annotation[] theAnnotations ) {
+		for( Annotation annotation : theAnnotations ) {
+			if( annotation instanceof ContextParam ) {
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Helper method that walks the contracts bound to the interfaces to find the 
+	 * parameter and return types used by resource methods.
+	 * @param theInterfaces the interfaces to look at
+	 * @return the set of types found
+	 */
+	private Set<JavaType> discoverTypes( Collection<Interface> theInterfaces ) {
+		Set<JavaType> types = new HashSet<>( );
+		
+		for( Interface serviceInterface : theInterfaces ) {
+			for( ServiceContract contract : serviceInterface.getBoundContracts( ) ) {
+				for( Subcontract subcontract : contract.getSubcontracts( ) ) {
+					if( subcontract instanceof ResourceMethod ) {
+						ResourceMethod method = ( ResourceMethod )subcontract;
+						
+						types.add( method.getReturn( ).getType( ) );
+						for( ResourceMethodParameter parameter : method.getParameters( ) ) {
+							// context parameters are not translated so we skip them
+							if( parameter.getSource( ) != ParameterSource.CONTEXT ) {
+								types.add( parameter.getType( ) );
+							}
+						}
+					}
+				}
+			}
+		}
+		return types;
+	}
+}
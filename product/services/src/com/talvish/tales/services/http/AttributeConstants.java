@@ -25,6 +25,7 @@ public final class AttributeConstants {
 	public static final String SERVICE_SERVLET_CONTEXT = "com.tales.services.httpservice";
 	
 	public static final String OPERATION_REQUEST_CONTEXT = "com.tales.services.operation_context";
+	public static final String JSON_BODY_PARAMETERS = "com.tales.services.json_body_parameters";
 	
 	public static final String ENABLE_HEADER_OVERRIDES = "com.tales.services.enable_header_overrides";
 }
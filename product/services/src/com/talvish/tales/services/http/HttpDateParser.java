@@ -25,6 +25,8 @@ import java.util.Date;
 import java.util.Locale;
 import java.util.TimeZone;
 
+import com.talvish.tales.parts.DateTimeCodec;
+
 public class HttpDateParser {
 	private static final TimeZone __GMT = TimeZone.getTimeZone("GMT");
 	static {
@@ -45,7 +47,13 @@ public class HttpDateParser {
 	};
 
 	public static long parseDate(String date) {
-		return __dateParser.get().parse(date);
+		// the RFC 1123 layout is what HTTP/1.1 requires senders to use, so 
+		// it is handled directly, leaving the older layouts to the formats
+		long time = DateTimeCodec.parseHttpDate(date);
+		if (time == -1) {
+			time = __dateParser.get().parse(date);
+		}
+		return time;
 	}
 
 	private static final ThreadLocal<HttpDateParser> __dateParser =new ThreadLocal<HttpDateParser>( ) {
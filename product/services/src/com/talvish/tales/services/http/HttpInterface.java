@@ -146,12 +146,15 @@ public class HttpInterface extends HttpInterfaceBase {
 		
     	// pull out the information from the object about what methods are being exposed
 		ResourceFacility resourceFacility = this.getService( ).getFacility( ResourceFacility.class );
+		// let the warm-up, if running, generate the adapters needed in parallel before we analyze serially
+		this.getService( ).getWarmUpManager( ).analyze( theResource.getClass( ) );
     	ResourceType resourceType = resourceFacility.generateResource( theResource, fullPath );
     	
     	// we now need to setup the resource servlet which means getting the thread pool necessary 
     	// make sure we have the executor and the timeout
     	String executorName = theConfiguration.getThreadPoolName() == null ? ThreadingConstants.DEFAULT_THREAD_POOL : theConfiguration.getThreadPoolName( );
     	long executionTimeout = theConfiguration.getExecutionTimeout() == null ? ThreadingConstants.DEFAULT_KEEP_ALIVE_TIME :  theConfiguration.getExecutionTimeout();
+    	long streamingTimeout = theConfiguration.getStreamingTimeout() == null ? ThreadingConstants.DEFAULT_RESOURCE_STREAMING_TIMEOUT :  theConfiguration.getStreamingTimeout();
 
     	// now get the executor to use
     	ExecutorManager executorManager = this.getService().getExecutorManager();
@@ -184,6 +187,13 @@ public class HttpInterface extends HttpInterfaceBase {
     		configurationBuilder.append( "\n\tExecution Time-out: " );
     	}
     	configurationBuilder.append( executionTimeout );
+    	
+    	if( theConfiguration.getStreamingTimeout( ) == null || theConfiguration == ResourceConfiguration.DEFAULT_CONFIGURATION ) {
+    		configurationBuilder.append( "\n\tStreaming Time-out (default): " );
+    	} else {
+    		configurationBuilder.append( "\n\tStreaming Time-out: " );
+    	}
+    	configurationBuilder.append( streamingTimeout );
 
     	// so now we need to create the servlet we will run within
     	ResourceServlet servlet = new ResourceServlet( 
@@ -191,7 +201,8 @@ public class HttpInterface extends HttpInterfaceBase {
     			resourceType, 
     			resourceFacility, 
     			executor, 
-    			executionTimeout );
+    			executionTimeout,
+    			streamingTimeout );
     	
     	logger.info( "Binding resource '{}' on interface '{}' to http path '{}' using configuration: {}", contractAnnotation.name(), this.getName(), fullPath, configurationBuilder.toString( ) );
     	
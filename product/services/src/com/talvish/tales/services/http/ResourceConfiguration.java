@@ -27,10 +27,12 @@ public class ResourceConfiguration {
 	// this is the default configuration
 	final static ResourceConfiguration DEFAULT_CONFIGURATION = new ResourceConfiguration( )
 		.setThreadPoolName( ThreadingConstants.DEFAULT_THREAD_POOL )
-		.setExecutionTimeout( ThreadingConstants.DEFAULT_RESOURCE_EXECUTION_TIMEOUT );
+		.setExecutionTimeout( ThreadingConstants.DEFAULT_RESOURCE_EXECUTION_TIMEOUT )
+		.setStreamingTimeout( ThreadingConstants.DEFAULT_RESOURCE_STREAMING_TIMEOUT );
 	
 	private String threadPoolName;
 	private Long executionTimeout;
+	private Long streamingTimeout;
 	
 	/**
 	 * Standard default constructor.
@@ -74,4 +76,28 @@ public class ResourceConfiguration {
 		executionTimeout = theExecutionTimeout;
 		return this;
 	}	
+
+	/**
+	 * The time, in milliseconds, to allow non-blocking operations that stream their results to run for,
+	 * including writing the results, before timing out. This defaults to a minute. Zero means there is 
+	 * no limit, so a caller that stops reading holds the request until the connection's idle time-out, 
+	 * and must be set explicitly.
+	 * @return the allowed execution and streaming time, or null, if default will be used
+	 */
+	public Long getStreamingTimeout( ) {
+		return streamingTimeout;
+	}
+
+	/**
+	 * The time, in milliseconds, to allow non-blocking operations that stream their results to run for,
+	 * including writing the results, before timing out. This defaults to a minute. Zero means there is 
+	 * no limit, so a caller that stops reading holds the request until the connection's idle time-out, 
+	 * and must be set explicitly.
+	 * @return returns this configuration object so things can be chained together
+	 */
+	public ResourceConfiguration setStreamingTimeout( Long theStreamingTimeout ) {
+		Preconditions.checkArgument( theStreamingTimeout == null || theStreamingTimeout >= 0, "the resource configuration requires a streaming time greater that or equal to 0 or null (to use default)" );
+		streamingTimeout = theStreamingTimeout;
+		return this;
+	}	
 }
@@ -18,7 +18,9 @@ package com.talvish.tales.services.http;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.Map.Entry;
+import java.util.concurrent.Executor;
 
+import javax.servlet.AsyncContext;
 import javax.servlet.http.Cookie;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -37,6 +39,8 @@ import com.talvish.tales.communication.Status;
 import com.talvish.tales.contracts.services.http.ResourceMethod;
 import com.talvish.tales.contracts.services.http.ResourceMethodResult;
 import com.talvish.tales.serialization.Readability;
+import com.talvish.tales.serialization.json.JsonBinaryFormat;
+import com.talvish.tales.serialization.json.translators.IteratorToJsonArrayTranslator;
 import com.talvish.tales.services.OperationContext;
 import com.talvish.tales.services.OperationContext.Details;
 
@@ -51,6 +55,8 @@ public class ResponseHelper {
 	
 	private static final Gson machineGson = new GsonBuilder( ).serializeNulls( ).create();
 	private static final Gson humanGson = new GsonBuilder( ).serializeNulls( ).setPrettyPrinting( ).create();
+	
+	private static final String JSON_MEDIA_TYPE = "application/json";
 
 	
 	/**
@@ -140,8 +146,16 @@ public class ResponseHelper {
 			// now add all the operation related values
 			addResultMetadata( theRequest, operationContext, theCode, theSubcode, theSubject, theMessage, theException, bodyObject );			
 			
-			Gson targetGson = operationContext.getResponseTarget() == Readability.HUMAN ? humanGson: machineGson;
-			theResponse.getWriter().write( targetGson.toJson( bodyObject ) );
+			if( negotiateBinary( theRequest, theResponse ) ) {
+				// the caller prefers the compact binary form, which shares the same structure as the json
+				byte[] bodyBytes = JsonBinaryFormat.toBytes( bodyObject );
+				theResponse.setContentType( JsonBinaryFormat.MEDIA_TYPE );
+				theResponse.setContentLength( bodyBytes.length );
+				theResponse.getOutputStream().write( bodyBytes );
+			} else {
+				Gson targetGson = operationContext.getResponseTarget() == Readability.HUMAN ? humanGson: machineGson;
+				theResponse.getWriter().write( targetGson.toJson( bodyObject ) );
+			}
 			
 		} catch( Exception e ) {
 			// if we cannot write back, then we have to log
@@ -186,6 +200,59 @@ public class ResponseHelper {
 	 * @param theResult
 	 */
 	public static void writeResponse( HttpServletRequest theRequest, HttpServletResponse theResponse, ResourceMethodResult theResult ) {
+		addResultHeaders( theResponse, theResult );
+		
+		if( theResult.isStreamed( ) ) {
+			try {
+				new StreamingResponseWriter( theRequest, theResponse, theResult ).write( );
+			} catch( Exception e ) {
+				logger.warn( String.format( "An error occurred while attempting to stream a response of type '%s' to the caller.", theResult.getCode( ) ), e );
+			}
+		} else {
+			_writeResponse(
+					theRequest, 
+					theResponse, 
+					theResult.getValue( ),
+					theResult.getCode( ), 
+					theResult.getSubcode( ), 
+					theResult.getSubject( ),
+					theResult.getMessage( ), 
+					theResult.getException( ) );
+		}
+	}
+	
+	/**
+	 * Writes out the response as given by the result from a resource method call,
+	 * without blocking the calling thread if the result is streamed. The context is
+	 * completed once the response has been written.
+	 * @param theRequest the request being responded to
+	 * @param theResponse the response to write into
+	 * @param theResult the result to write
+	 * @param theContext the async context the response belongs to
+	 * @param theExecutor the executor used to generate the chunks of streamed results
+	 */
+	public static void writeResponse( HttpServletRequest theRequest, HttpServletResponse theResponse, ResourceMethodResult theResult, AsyncContext theContext, Executor theExecutor ) {
+		if( theResult.isStreamed( ) ) {
+			addResultHeaders( theResponse, theResult );
+			try {
+				new StreamingResponseWriter( theRequest, theResponse, theResult ).write( theContext, theExecutor );
+			} catch( Exception e ) {
+				logger.warn( String.format( "An error occurred while attempting to stream a response of type '%s' to the caller.", theResult.getCode( ) ), e );
+				IteratorToJsonArrayTranslator.close( theResult.getStream( ) );
+				theContext.complete( );
+			}
+		} else {
+			writeResponse( theRequest, theResponse, theResult );
+			theContext.complete( );
+		}
+	}
+	
+	/**
+	 * Helper method that adds the headers and cookies from the result to the response.
+	 * @param theResponse the response to add to
+	 * @param theResult the result to get headers and cookies from
+	 */
+	private static void addResultHeaders( HttpServletResponse theResponse, ResourceMethodResult theResult ) {
 		// always write any header we have and these
 		// headers have to be added first in case 
 		// there are cache control headers which will 
@@ -199,16 +266,6 @@ public class ResponseHelper {
 		for( Entry<String,Cookie> entry: theResult.getCookies().entrySet() ) {
 			theResponse.addCookie( entry.getValue() );
 		}
-		
-		_writeResponse(
-				theRequest, 
-				theResponse, 
-				theResult.getValue( ),
-				theResult.getCode( ), 
-				theResult.getSubcode( ), 
-				theResult.getSubject( ),
-				theResult.getMessage( ), 
-				theResult.getException( ) );
 	}
 	
 	/**
@@ -216,7 +273,7 @@ public class ResponseHelper {
 	 * @param theContext the operation context of request 
 	 * @param theContainer the container json object to write the operation information into
 	 */
-	private static void addResultMetadata( HttpServletRequest theRequest, OperationContext theContext, Status theCode, String theSubcode, String theSubject, String theMessage, Throwable theException, JsonObject theContainer ) {
+	static void addResultMetadata( HttpServletRequest theRequest, OperationContext theContext, Status theCode, String theSubcode, String theSubject, String theMessage, Throwable theException, JsonObject theContainer ) {
 		JsonObject operationObject = new JsonObject( );
 
 		// first we work on the status object to add to the container
@@ -265,6 +322,93 @@ public class ResponseHelper {
 		theContainer.add( "operation", operationObject );
 	}
 	
+	/**
+	 * Helper method that looks at the accept header to see if the caller 
+	 * would rather receive the binary format instead of json. The binary 
+	 * format is only used if explicitly listed and it isn't given a lower 
+	 * quality value than json.
+	 * @param theRequest the request to look at
+	 * @return true if the binary format should be used, false otherwise
+	 */
+	public static boolean acceptsBinary( HttpServletRequest theRequest ) {
+		String acceptHeader = theRequest.getHeader( HeaderConstants.ACCEPT );
+		
+		if( acceptHeader == null || acceptHeader.indexOf( JsonBinaryFormat.MEDIA_TYPE ) < 0 ) {
+			// quick check to avoid the parsing for the common case
+			return false;
+		} else {
+			double binaryQuality = 0;
+			double jsonQuality = 0;
+			
+			for( String mediaRange : acceptHeader.split( "," ) ) {
+				String[] parts = mediaRange.split( ";" );
+				String mediaType = parts[ 0 ].trim( );
+				double quality = 1;
+				
+				for( int index = 1; index < parts.length; index += 1 ) {
+					String parameter = parts[ index ].trim( );
+					if( parameter.startsWith( "q=" ) ) {
+						try {
+							quality = Double.parseDouble( parameter.substring( 2 ) );
+						} catch( NumberFormatException e ) {
+							quality = 0;
+						}
+					}
+				}
+				if( mediaType.equalsIgnoreCase( JsonBinaryFormat.MEDIA_TYPE ) ) {
+					binaryQuality = quality;
+				} else if( mediaType.equalsIgnoreCase( JSON_MEDIA_TYPE ) ) {
+					jsonQuality = quality;
+				}
+			}
+			return binaryQuality > 0 && binaryQuality >= jsonQuality;
+		}
+	}
+	
+	/**
+	 * Helper method that decides if the response should use the binary format.
+	 * If the caller asked about the binary format, the format was negotiated, 
+	 * so the vary header names the accept header so caches don't return the 
+	 * binary format to a caller that didn't ask for it. Responses to callers
+	 * that didn't ask are json, which every caller accepts, so they don't vary.
+	 * @param theRequest the request to look at
+	 * @param theResponse the response to add the vary header to
+	 * @return true if the binary format should be used, false otherwise
+	 */
+	private static boolean negotiateBinary( HttpServletRequest theRequest, HttpServletResponse theResponse ) {
+		String acceptHeader = theRequest.getHeader( HeaderConstants.ACCEPT );
+		
+		if( acceptHeader == null || acceptHeader.indexOf( JsonBinaryFormat.MEDIA_TYPE ) < 0 ) {
+			return false;
+		} else {
+			addVaryAccept( theResponse );
+			return acceptsBinary( theRequest );
+		}
+	}
+	
+	/**
+	 * Helper method that adds the accept header to the vary header of the response.
+	 * The result may have its own vary header, so we add to it instead of replacing it.
+	 * @param theResponse the response to add the vary header to
+	 */
+	private static void addVaryAccept( HttpServletResponse theResponse ) {
+		String varyHeader = String.join( ", ", theResponse.getHeaders( HeaderConstants.VARY ) );
+		if( varyHeader.isEmpty( ) ) {
+			theResponse.setHeader( HeaderConstants.VARY, HeaderConstants.ACCEPT );
+		} else {
+			boolean varies = false;
+			for( String headerName : varyHeader.split( "," ) ) {
+				headerName = headerName.trim( );
+				if( headerName.equals( "*" ) || headerName.equalsIgnoreCase( HeaderConstants.ACCEPT ) ) {
+					varies = true;
+				}
+			}
+			if( !varies ) {
+				theResponse.setHeader( HeaderConstants.VARY, varyHeader + ", " + HeaderConstants.ACCEPT );
+			}
+		}
+	}
+	
 	/**
 	 * Helper method that writes common headers into the response.
 	 * @param theResponse the response object to set headers into
@@ -0,0 +1,313 @@
+// ***************************************************************************
+// *  Copyright 2012 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.services.http;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.talvish.tales.communication.HttpStatus;
+import com.talvish.tales.communication.Status;
+import com.talvish.tales.contracts.services.http.ResourceMethodResult;
+import com.talvish.tales.parts.translators.Translator;
+import com.talvish.tales.serialization.json.translators.IteratorToJsonArrayTranslator;
+import com.talvish.tales.services.OperationContext;
+
+/**
+ * Writes a streamed resource method result back to the caller in chunks. 
+ * The response has the same shape as a regular response, the elements of 
+ * the result making up the return array, but elements are only translated 
+ * as each chunk is written, so the full result is never held in memory. 
+ * Since the http status is sent before the elements are walked, failures 
+ * that occur mid-stream are reported in the status that follows the array.
+ * Streamed responses are always compact json.
+ * @author jmolnar
+ *
+ */
+class StreamingResponseWriter {
+	private static final Logger logger = LoggerFactory.getLogger( StreamingResponseWriter.class );
+	
+	private static final Gson machineGson = new GsonBuilder( ).serializeNulls( ).create();
+	private static final int CHUNK_SIZE = 8192;
+
+	private enum Stage {
+		START,
+		ELEMENTS,
+		END,
+		DONE
+	}
+	
+	private final HttpServletRequest request;
+	private final HttpServletResponse response;
+	private final ResourceMethodResult result;
+	private final Object source;
+	private final Translator translator;
+	
+	private Iterator<?> iterator;
+	private Stage stage = Stage.START;
+	private boolean wroteElement = false;
+	private boolean closed = false;
+	private final AtomicBoolean completed = new AtomicBoolean( false );
+	private final AtomicInteger writers = new AtomicInteger( 0 );
+	
+	private Status code;
+	private String subcode;
+	private String subject;
+	private String message;
+	private Throwable exception;
+
+	/**
+	 * Constructor taking what is needed to write the result.
+	 * @param theRequest the request being responded to
+	 * @param theResponse the response to write into
+	 * @param theResult the streamed result to write
+	 */
+	StreamingResponseWriter( HttpServletRequest theRequest, HttpServletResponse theResponse, ResourceMethodResult theResult ) {
+		Preconditions.checkNotNull( theRequest, "need a request" );
+		Preconditions.checkNotNull( theResponse, "need a response" );
+		Preconditions.checkNotNull( theResult, "need a result" );
+		Preconditions.checkArgument( theResult.isStreamed( ), "need a streamed result" );
+		
+		request = theRequest;
+		response = theResponse;
+		result = theResult;
+		source = theResult.getStream( );
+		translator = theResult.getStreamTranslator( );
+		
+		code = theResult.getCode( );
+		subcode = theResult.getSubcode( );
+		subject = theResult.getSubject( );
+		message = theResult.getMessage( );
+		exception = theResult.getException( );
+	}
+	
+	/**
+	 * Writes the full response, blocking the calling thread 
+	 * until the last chunk has been written.
+	 * @throws IOException thrown if the response could not be written
+	 */
+	void write( ) throws IOException {
+		try {
+			ServletOutputStream outputStream = prepare( );
+			byte[] chunk;
+			
+			while( ( chunk = nextChunk( ) ) != null ) {
+				outputStream.write( chunk );
+				outputStream.flush( );
+			}
+		} finally {
+			finish( );
+		}
+	}
+
+	/**
+	 * Writes the response without blocking, writing chunks only as
+	 * the container indicates the output can take more. Since walking
+	 * the elements may block (e.g. a result stream reading from storage),
+	 * chunks are generated on the executor given rather than on the 
+	 * container thread that indicates more can be written, unless the 
+	 * executor is too busy. The context is completed, and the source 
+	 * closed, after the last chunk has been written or on an error or 
+	 * time-out, though the source is only closed once no chunk is being
+	 * generated from it.
+	 * @param theContext the async context the response belongs to
+	 * @param theExecutor the executor to generate chunks on
+	 * @throws IOException thrown if the response could not be prepared
+	 */
+	void write( AsyncContext theContext, Executor theExecutor ) throws IOException {
+		Preconditions.checkNotNull( theContext, "need a context" );
+		Preconditions.checkNotNull( theExecutor, "need an executor" );
+		
+		final ServletOutputStream outputStream = prepare( );
+		
+		theContext.addListener( new AsyncListener( ) {
+			@Override
+			public void onTimeout( AsyncEvent theEvent ) throws IOException {
+				logger.warn( "Timed-out streaming a response to the caller." );
+				complete( theContext );
+			}
+
+			@Override
+			public void onError( AsyncEvent theEvent ) throws IOException {
+				logger.warn( "An error occurred while attempting to stream a response to the caller.", theEvent.getThrowable( ) );
+				complete( theContext );
+			}
+
+			@Override
+			public void onStartAsync( AsyncEvent theEvent ) throws IOException {
+				// nothing to do here
+			}
+
+			@Override
+			public void onComplete( AsyncEvent theEvent ) throws IOException {
+				// nothing to do here
+			}
+		} );
+		
+		// writes chunks while the container can take more, once it 
+		// cannot the container will call the listener back when it can
+		final Runnable writer = ( ) -> {
+			writers.incrementAndGet( );
+			try {
+				while( !completed.get( ) && outputStream.isReady( ) ) {
+					byte[] chunk = nextChunk( );
+					if( chunk == null ) {
+						complete( theContext );
+					} else {
+						outputStream.write( chunk );
+					}
+				}
+			} catch( IOException | RuntimeException e ) {
+				logger.warn( "An error occurred while attempting to stream a response to the caller.", e );
+				complete( theContext );
+			} finally {
+				// if completed while we were generating, closing was left to us
+				if( writers.decrementAndGet( ) == 0 && completed.get( ) ) {
+					finish( );
+				}
+			}
+		};
+		
+		outputStream.setWriteListener( new WriteListener( ) {
+			@Override
+			public void onWritePossible( ) throws IOException {
+				try {
+					theExecutor.execute( writer );
+				} catch( RejectedExecutionException e ) {
+					// too busy to hand off, so we take the time on the container thread 
+					writer.run( );
+				}
+			}
+
+			@Override
+			public void onError( Throwable theThrowable ) {
+				logger.warn( "An error occurred while attempting to stream a response to the caller.", theThrowable );
+				complete( theContext );
+			}
+		} );
+	}
+	
+	/**
+	 * Helper method that completes the context, if it hasn't already been 
+	 * completed, and closes the source if a chunk isn't being generated.
+	 * @param theContext the context to complete
+	 */
+	private void complete( AsyncContext theContext ) {
+		if( completed.compareAndSet( false, true ) ) {
+			theContext.complete( );
+			if( writers.get( ) == 0 ) {
+				finish( );
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that sets the status and headers for the response.
+	 * @return the output stream to write the response to
+	 * @throws IOException thrown if the output stream could not be retrieved
+	 */
+	private ServletOutputStream prepare( ) throws IOException {
+		response.setStatus( HttpStatus.convert( result.getCode( ) ).getCode( ) );
+		ResponseHelper.setCommonHeaders( response );
+		return response.getOutputStream( );
+	}
+	
+	/**
+	 * Generates the next chunk of the response to write.
+	 * @return the next chunk to write, or null if there is nothing left to write
+	 */
+	private byte[] nextChunk( ) {
+		StringBuilder builder = new StringBuilder( CHUNK_SIZE + 256 );
+		
+		if( stage == Stage.START ) {
+			builder.append( "{\"return\":[" );
+			stage = Stage.ELEMENTS;
+		}
+		if( stage == Stage.ELEMENTS ) {
+			try {
+				if( iterator == null ) {
+					iterator = IteratorToJsonArrayTranslator.toIterator( source );
+				}
+				while( builder.length( ) < CHUNK_SIZE && iterator.hasNext( ) ) {
+					if( wroteElement ) {
+						builder.append( ',' );
+					}
+					builder.append( machineGson.toJson( translator.translate( iterator.next( ) ) ) );
+					wroteElement = true;
+				}
+				if( !iterator.hasNext( ) ) {
+					stage = Stage.END;
+				}
+			} catch( Exception e ) {
+				// we cannot change the http status at this point so we 
+				// record the failure for the status following the array
+				logger.error( String.format( "Unhandled exception %s occurred while streaming a response.", e.getClass( ).getSimpleName( ) ), e );
+				code = Status.LOCAL_ERROR;
+				subcode = FailureSubcodes.UNHANDLED_EXCEPTION;
+				subject = null;
+				message = String.format( "Unhandled exception %s occurred while streaming a response.", e.getClass( ).getSimpleName( ) );
+				exception = e;
+				stage = Stage.END;
+			}
+		}
+		if( stage == Stage.END && builder.length( ) < CHUNK_SIZE ) {
+			// the status and operation values follow the 
+			// array, so we generate them as a regular object 
+			// and then write all but the opening brace
+			JsonObject endObject = new JsonObject( );
+			
+			ResponseHelper.addResultMetadata( request, ( OperationContext )request.getAttribute( AttributeConstants.OPERATION_REQUEST_CONTEXT ), code, subcode, subject, message, exception, endObject );
+			String endString = machineGson.toJson( endObject );
+			builder.append( "]," );
+			builder.append( endString, 1, endString.length( ) );
+			stage = Stage.DONE;
+		}
+		return builder.length( ) == 0 ? null : builder.toString( ).getBytes( StandardCharsets.UTF_8 );
+	}
+	
+	/**
+	 * Helper method that closes the source of elements, if it can be closed.
+	 */
+	private synchronized void finish( ) {
+		if( !closed ) {
+			closed = true;
+			try {
+				IteratorToJsonArrayTranslator.close( source );
+			} catch( Exception e ) {
+				logger.warn( "Unable to close the source of a streamed response.", e );
+			}
+		}
+	}
+}
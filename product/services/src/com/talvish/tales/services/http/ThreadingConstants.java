@@ -23,6 +23,7 @@ package com.talvish.tales.services.http;
 public final class ThreadingConstants {
 	public static final String DEFAULT_THREAD_POOL = "default";
 	public static final long DEFAULT_RESOURCE_EXECUTION_TIMEOUT = 10000;
+	public static final long DEFAULT_RESOURCE_STREAMING_TIMEOUT = 60000;
 	
 	public static final int DEFAULT_CORE_THREADS_FACTOR = 10;
 	public static final int DEFAULT_MAX_THREAD_FACTOR = 2;
@@ -39,6 +39,7 @@ import com.talvish.tales.contracts.services.http.ResourceMethod;
 import com.talvish.tales.contracts.services.http.ResourceMethodParameter;
 import com.talvish.tales.contracts.services.http.ServletContract;
 import com.talvish.tales.contracts.services.http.ResourceMethodParameter.ParameterSource;
+import com.talvish.tales.serialization.Lazy;
 import com.talvish.tales.serialization.json.JsonMemberMap;
 import com.talvish.tales.serialization.json.JsonTranslationFacility;
 import com.talvish.tales.serialization.json.JsonTypeMap;
@@ -278,6 +279,10 @@ public class ContractsServlet extends AdministrationServlet {
 				
 					// TODO: more than one type actually exists here, so we need to re-think this
 					typeMemberObject.addProperty( "type", theJsonFacility.generateTypeName( memberMap.getReflectedField().getSite().getType(), null ) );
+					if( Lazy.class.equals( memberMap.getReflectedField().getSite().getType().getUnderlyingClass( ) ) ) {
+						// lazy members look the same on the wire, but we indicate it since it helps when looking at performance 
+						typeMemberObject.addProperty( "lazy", true );
+					}
 					typeMemberArray.add( typeMemberObject );
 				}
 				typeObject.add( "members", typeMemberArray );
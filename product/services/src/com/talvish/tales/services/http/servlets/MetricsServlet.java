@@ -0,0 +1,314 @@
+// ***************************************************************************
+// *  Copyright 2017 Joseph Molnar
+// *
+// *  Licensed under the Apache License, Version 2.0 (the "License");
+// *  you may not use this file except in compliance with the License.
+// *  You may obtain a copy of the License at
+// *
+// *      http://www.apache.org/licenses/LICENSE-2.0
+// *
+// *  Unless required by applicable law or agreed to in writing, software
+// *  distributed under the License is distributed on an "AS IS" BASIS,
+// *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+// *  See the License for the specific language governing permissions and
+// *  limitations under the License.
+// ***************************************************************************
+package com.talvish.tales.services.http.servlets;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.joda.time.DateTime;
+import org.joda.time.Period;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+import com.talvish.tales.contracts.services.ServiceContract;
+import com.talvish.tales.contracts.services.http.ServletContract;
+import com.talvish.tales.services.Interface;
+import com.talvish.tales.services.Service;
+import com.talvish.tales.system.status.StatusBlock;
+import com.talvish.tales.system.status.StatusException;
+import com.talvish.tales.system.status.StatusSnapshot;
+import com.talvish.tales.system.status.StatusValue;
+
+/**
+ * This is a servlet that shows the status exposed by the associated service, at the 
+ * service, interface and contract level, in the OpenMetrics text format so it can be
+ * scraped by Prometheus and similar monitoring systems. Each status value becomes 
+ * a metric family named after the level and the value name (e.g. 'tales_contract_requests')
+ * with the block name, and the interface and contract names where appropriate, as labels.
+ * Numbers, booleans, date-times (as seconds since the epoch) and periods (as seconds) 
+ * are exposed as gauges, enums are exposed as state sets and other types are skipped.
+ * The values come from the service's most recent status snapshot, and when that 
+ * snapshot was captured, and how long it took, are exposed as well.
+ * @author jmolnar
+ *
+ */
+@ServletContract( name="com.tales.services.metrics", versions={"20171101"})
+@SuppressWarnings("serial")
+public class MetricsServlet extends AdministrationServlet {
+	private static final Logger logger = LoggerFactory.getLogger( MetricsServlet.class );
+	
+	private static final String CONTENT_TYPE = "application/openmetrics-text; version=1.0.0; charset=utf-8";
+	private static final String NAME_PREFIX = "tales_";
+
+	/**
+	 * The way a metric family is exposed.
+	 */
+	private enum Kind {
+		GAUGE,
+		STATESET
+	}
+	
+	/**
+	 * Simple private class holding the status values, and their labels, that make up a metric family.
+	 */
+	private static class Family {
+		private final String name;
+		private final Kind kind;
+		private final Class<?> type;
+		private final String help;
+		private final List<String> labels = new ArrayList<>( );
+		private final List<StatusValue> values = new ArrayList<>( );
+		
+		private Family( String theName, Kind theKind, Class<?> theType, String theHelp ) {
+			name = theName;
+			kind = theKind;
+			type = theType;
+			help = theHelp;
+		}
+	}
+	
+    /**
+     * Empty, default constructor.
+     */
+    public MetricsServlet( ) {
+    }
+    
+	/**
+	 * Implementation of the get method to get the metrics.
+	 */
+	@Override
+	protected void doGet(HttpServletRequest theRequest, HttpServletResponse theResponse ) throws ServletException, IOException {
+		doCall( theRequest, theResponse );
+   	}
+
+	/**
+	 * Private implementation of the request method which gets the metrics.
+	 */ 
+	private void doCall( HttpServletRequest theRequest, HttpServletResponse theResponse ) throws IOException {
+		logger.debug( "Request made to list the metrics." );
+		Service service = getService( );
+		StatusSnapshot snapshot = service.getStatusSnapshotManager( ).getSnapshot( );
+		Map<String, Family> families = new LinkedHashMap<>( );
+		
+		// the families are gathered first, since all values in
+		// a family must be written together, regardless of level
+		collectFamilies( "service", "", service.getStatusManager( ).getStatusBlocks( ), families );
+		for( Interface serviceInterface : service.getInterfaceManager( ).getInterfaces( ) ) {
+			String interfaceLabels = "interface=\"" + escape( serviceInterface.getName( ) ) + "\",";
+			
+			collectFamilies( "interface", interfaceLabels, serviceInterface.getStatusBlocks( ), families );
+			for( ServiceContract contract : serviceInterface.getBoundContracts( ) ) {
+				collectFamilies( "contract", interfaceLabels + "contract=\"" + escape( contract.getName( ) ) + "\",", contract.getStatusBlocks( ), families );
+			}
+		}
+		
+		theResponse.setStatus( HttpServletResponse.SC_OK );
+		theResponse.setContentType( CONTENT_TYPE );
+		Writer writer = theResponse.getWriter( );
+		writer.write( "# TYPE " + NAME_PREFIX + "status_snapshot_timestamp_seconds gauge\n" );
+		writer.write( "# HELP " + NAME_PREFIX + "status_snapshot_timestamp_seconds The time, in seconds since the epoch, the status values were captured.\n" );
+		writer.write( NAME_PREFIX + "status_snapshot_timestamp_seconds " + formatDouble( snapshot.getTimestamp( ).getMillis( ) / 1000d ) + "\n" );
+		writer.write( "# TYPE " + NAME_PREFIX + "status_snapshot_calculation_seconds gauge\n" );
+		writer.write( "# HELP " + NAME_PREFIX + "status_snapshot_calculation_seconds The time, in seconds, it took to capture the status values.\n" );
+		writer.write( NAME_PREFIX + "status_snapshot_calculation_seconds " + formatDouble( snapshot.getCalculationTime( ) / 1000000000d ) + "\n" );
+		for( Family family : families.values( ) ) {
+			writeFamily( family, snapshot, writer );
+		}
+		writer.write( "# EOF\n" );
+		writer.flush( );
+	}
+	
+	/**
+	 * Helper method that places the status values of the blocks into their metric families.
+	 * @param theLevel the level the blocks are from, which is used as part of the family name
+	 * @param theLabels the labels, already formatted and with a trailing comma, to give values from the blocks
+	 * @param theBlocks the blocks to collect from
+	 * @param theFamilies the families to place the values in
+	 */
+	private void collectFamilies( String theLevel, String theLabels, Collection<StatusBlock> theBlocks, Map<String, Family> theFamilies ) {
+		for( StatusBlock block : theBlocks ) {
+			String labels = "{" + theLabels + "block=\"" + escape( block.getName( ) ) + "\"";
+			
+			for( StatusValue value : block.getStatusValues( ) ) {
+				Kind kind = determineKind( value.getType( ) );
+				if( kind != null ) {
+					String name = cleanName( NAME_PREFIX + theLevel + "_" + value.getName( ) );
+					Family family = theFamilies.get( name );
+					
+					if( family != null && ( family.kind != kind || ( kind == Kind.STATESET && family.type != value.getType( ) ) ) ) {
+						// the same value name was used for a different type of value,
+						// so we fall back to a family specific to the block
+						name = cleanName( NAME_PREFIX + theLevel + "_" + block.getName( ) + "_" + value.getName( ) );
+						family = theFamilies.get( name );
+					}
+					if( family == null ) {
+						family = new Family( name, kind, value.getType( ), value.getDescription( ) );
+						theFamilies.put( name, family );
+					}
+					if( family.kind == kind && ( kind != Kind.STATESET || family.type == value.getType( ) ) ) {
+						family.labels.add( labels );
+						family.values.add( value );
+					} else {
+						logger.warn( "Status value '{}' in block '{}' is not being exposed as a metric because its name conflicts with another value.", value.getName( ), block.getName( ) );
+					}
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that writes out a metric family.
+	 * @param theFamily the family to write
+	 * @param theSnapshot the snapshot to get status values from
+	 * @param theWriter the writer to write to
+	 * @throws IOException thrown if the family could not be written
+	 */
+	private void writeFamily( Family theFamily, StatusSnapshot theSnapshot, Writer theWriter ) throws IOException {
+		theWriter.write( "# TYPE " );
+		theWriter.write( theFamily.name );
+		theWriter.write( theFamily.kind == Kind.STATESET ? " stateset\n" : " gauge\n" );
+		if( !Strings.isNullOrEmpty( theFamily.help ) ) {
+			theWriter.write( "# HELP " );
+			theWriter.write( theFamily.name );
+			theWriter.write( " " );
+			theWriter.write( escape( theFamily.help ) );
+			theWriter.write( "\n" );
+		}
+		for( int index = 0; index < theFamily.values.size( ); index += 1 ) {
+			StatusValue value = theFamily.values.get( index );
+			String labels = theFamily.labels.get( index );
+			
+			try {
+				if( theFamily.kind == Kind.STATESET ) {
+					Object state = theSnapshot.getValue( value );
+					for( Object constant : theFamily.type.getEnumConstants( ) ) {
+						writeSample( theFamily.name, labels + "," + theFamily.name + "=\"" + escape( constant.toString( ) ) + "\"", constant == state ? "1" : "0", theWriter );
+					}
+				} else {
+					String sample = formatValue( theSnapshot.getValue( value ), theSnapshot.getTimestamp( ) );
+					if( sample != null ) {
+						writeSample( theFamily.name, labels, sample, theWriter );
+					}
+				}
+			} catch( StatusException e ) {
+				logger.warn( String.format( "Unable to get the value of status value '%s' for metric '%s'.", value.getName( ), theFamily.name ), e );
+			}
+		}
+	}
+	
+	/**
+	 * Helper method that writes a single sample line.
+	 */
+	private void writeSample( String theName, String theLabels, String theValue, Writer theWriter ) throws IOException {
+		theWriter.write( theName );
+		theWriter.write( theLabels );
+		theWriter.write( "} " );
+		theWriter.write( theValue );
+		theWriter.write( "\n" );
+	}
+	
+	/**
+	 * Helper method that determines how a status value of a particular type is exposed.
+	 * @param theType the type of status value
+	 * @return the kind of metric, or null if the type isn't exposed
+	 */
+	private Kind determineKind( Class<?> theType ) {
+		if( theType.isEnum( ) ) {
+			return Kind.STATESET;
+		} else if( ( theType.isPrimitive( ) && theType != char.class && theType != void.class ) ||
+				Number.class.isAssignableFrom( theType ) ||
+				theType == Boolean.class ||
+				theType == DateTime.class ||
+				theType == Period.class ) {
+			return Kind.GAUGE;
+		} else {
+			return null;
+		}
+	}
+	
+	/**
+	 * Helper method that formats the value of a gauge. 
+	 * @param theValue the value to format
+	 * @param theTimestamp the time the value was captured, used to turn periods into durations
+	 * @return the formatted value, or null if there is no value
+	 */
+	private String formatValue( Object theValue, DateTime theTimestamp ) {
+		if( theValue == null ) {
+			return null;
+		} else if( theValue instanceof Long || theValue instanceof Integer || theValue instanceof Short || theValue instanceof Byte ) {
+			return Long.toString( ( ( Number )theValue ).longValue( ) );
+		} else if( theValue instanceof Boolean ) {
+			return ( ( Boolean )theValue ) ? "1" : "0";
+		} else if( theValue instanceof DateTime ) {
+			return formatDouble( ( ( DateTime )theValue ).getMillis( ) / 1000d );
+		} else if( theValue instanceof Period ) {
+			return formatDouble( ( ( Period )theValue ).toDurationTo( theTimestamp ).getMillis( ) / 1000d );
+		} else {
+			return formatDouble( ( ( Number )theValue ).doubleValue( ) );
+		}
+	}
+	
+	/**
+	 * Helper method that formats a double as OpenMetrics expects.
+	 */
+	private String formatDouble( double theValue ) {
+		if( Double.isNaN( theValue ) ) {
+			return "NaN";
+		} else if( theValue == Double.POSITIVE_INFINITY ) {
+			return "+Inf";
+		} else if( theValue == Double.NEGATIVE_INFINITY ) {
+			return "-Inf";
+		} else {
+			return Double.toString( theValue );
+		}
+	}
+	
+	/**
+	 * Helper method that replaces any characters not allowed in metric names with underscores.
+	 */
+	private String cleanName( String theName ) {
+		StringBuilder builder = null;
+		char character;
+		
+		for( int index = 0; index < theName.length( ); index += 1 ) {
+			character = theName.charAt( index );
+			if( !( ( character >= 'a' && character <= 'z' ) || ( character >= 'A' && character <= 'Z' ) || character == '_' || ( index > 0 && character >= '0' && character <= '9' ) ) ) {
+				if( builder == null ) {
+					builder = new StringBuilder( theName );
+				}
+				builder.setCharAt( index, '_' );
+			}
+		}
+		return builder == null ? theName : builder.toString( );
+	}
+	
+	/**
+	 * Helper method that escapes label values and help text.
+	 */
+	private String escape( String theValue ) {
+		return theValue.replace( "\\", "\\\\" ).replace( "\"", "\\\"" ).replace( "\n", "\\n" );
+	}
+}
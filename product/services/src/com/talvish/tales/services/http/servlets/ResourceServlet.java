@@ -48,6 +48,7 @@ import com.talvish.tales.services.http.AttributeConstants;
 import com.talvish.tales.services.http.FailureSubcodes;
 import com.talvish.tales.services.http.ParameterConstants;
 import com.talvish.tales.services.http.ResponseHelper;
+import com.talvish.tales.services.http.ThreadingConstants;
 
 
 /**
@@ -124,18 +125,31 @@ public class ResourceServlet extends HttpServlet {
     
     private final Executor executor;
     private final long executionTimeout; // TODO: curious about timing out the non-async calls
+    private final long streamingTimeout;
 
     
     /**
      * Constructor taking the two main objects needed, the resource and the information
-     * about the resource.
+     * about the resource. Streamed results use the default streaming timeout.
      */
     public ResourceServlet( Object theResource, ResourceType theResourceType, ResourceFacility theFacility, Executor theExecutor, long theExecutionTimeout ) {
+    	this( theResource, theResourceType, theFacility, theExecutor, theExecutionTimeout, ThreadingConstants.DEFAULT_RESOURCE_STREAMING_TIMEOUT );
+    }
+
+    /**
+     * Constructor taking the two main objects needed, the resource and the information
+     * about the resource, along with the timeouts for non-blocking methods. Since the
+     * container fixes the timeout once the request is handed off, non-blocking methods 
+     * that stream their results use the streaming timeout, which covers both execution
+     * and writing the results, instead of the execution timeout.
+     */
+    public ResourceServlet( Object theResource, ResourceType theResourceType, ResourceFacility theFacility, Executor theExecutor, long theExecutionTimeout, long theStreamingTimeout ) {
     	Preconditions.checkNotNull( theResource, "need the resource" );
     	Preconditions.checkNotNull( theResourceType, "need a resource type" );
     	Preconditions.checkNotNull(theFacility, "the resource type '%s' needs a resource facility", theResourceType.getName( ) );
     	Preconditions.checkNotNull( theExecutor, "the resource type '%s' needs an executor to run against", theResourceType.getName() );
     	Preconditions.checkArgument( theExecutionTimeout >= 0, "the resource type '%s' needs an execution timeout greater than or equal to 0", theResourceType.getName() );
+    	Preconditions.checkArgument( theStreamingTimeout >= 0, "the resource type '%s' needs a streaming timeout greater than or equal to 0", theResourceType.getName() );
     	
     	resource = theResource;
     	resourceType = theResourceType;
@@ -149,6 +163,7 @@ public class ResourceServlet extends HttpServlet {
 
     	executor = theExecutor;
     	executionTimeout = theExecutionTimeout;
+    	streamingTimeout = theStreamingTimeout;
     }
     
     /**
@@ -353,7 +368,9 @@ public class ResourceServlet extends HttpServlet {
 				AsyncContext asyncContext = theRequest.startAsync();
 				AsyncState asyncState = new AsyncState( asyncContext );
 				
-				asyncContext.setTimeout( executionTimeout );
+				// the timeout cannot be changed once streaming starts, so streamed results 
+				// use a timeout that covers both the execution and writing the results
+				asyncContext.setTimeout( method.getReturn( ).isStreamed( ) ? streamingTimeout : executionTimeout );
 				asyncContext.addListener( new AsyncListener( ) {
 					@Override
 					public void onTimeout(AsyncEvent theEvent) throws IOException {
@@ -398,11 +415,13 @@ public class ResourceServlet extends HttpServlet {
 						// check to make sure that an error/timeout/response has already happened
 						if( asyncState.setCompleted( ) ) {
 							if( asyncResult != null ) {
-								ResponseHelper.writeResponse( theRequest, theResponse, asyncResult );
+								// this completes the context, which for streamed results 
+								// happens only after the last element has been written
+								ResponseHelper.writeResponse( theRequest, theResponse, asyncResult, asyncContext, executor );
 							} else {
 								ResponseHelper.writeFailure( theRequest, theResponse, Status.CALLER_NOT_FOUND, FailureSubcodes.UNKNOWN_REQUEST, String.format( "Path %s maps to resource %s.%s but execution did not return a result.", theRequest.getRequestURL().toString( ), resourceType.getName( ), method.getName( ) ), null );
+								asyncContext.complete( );
 							}
-							asyncContext.complete( );
 						}
 					} );
 
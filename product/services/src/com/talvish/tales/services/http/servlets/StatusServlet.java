@@ -47,11 +47,14 @@ import com.talvish.tales.services.OperationContext.Details;
 import com.talvish.tales.services.http.AttributeConstants;
 import com.talvish.tales.services.http.ResponseHelper;
 import com.talvish.tales.system.status.StatusBlock;
+import com.talvish.tales.system.status.StatusSnapshot;
 import com.talvish.tales.system.status.StatusValue;
 
 // NOTE: place to look for more: http://download.eclipse.org/jetty/stable-8/xref/org/eclipse/jetty/servlet/StatisticsServlet.html
 /**
  * This is a simple servlet that shows the status exposed by the associated service.
+ * The values shown come from the service's most recent status snapshot, and when
+ * that snapshot was captured, and how long it took, is shown as well.
  * @author jmolnar
  *
  */
@@ -173,17 +176,20 @@ public class StatusServlet extends AdministrationServlet {
 			JsonArray interfacesArray = new JsonArray( );
 			JsonObject interfaceObject;
 			Service service = getService( );
-			
+			StatusSnapshot snapshot = service.getStatusSnapshotManager( ).getSnapshot( );
+			Map< Class<?>, Translator> targetTranslators = operationContext.getResponseTarget() == Readability.HUMAN ? humanTranslators : machineTranslators;
 			
 			serviceObject.addProperty( "name", service.getCanonicalName( ) );
+			serviceObject.addProperty( "snapshot_datetime", ( String )targetTranslators.get( DateTime.class ).translate( snapshot.getTimestamp( ) ) );
+			serviceObject.addProperty( "snapshot_calculation_time", ( String )targetTranslators.get( double.class ).translate( snapshot.getCalculationTime( ) / 1000000d ) );
 			JsonArray blockArray = new JsonArray( );
 			
 			for( StatusBlock statusBlock : service.getStatusManager().getStatusBlocks() ) {
-				blockArray.add( jsonifyStatusBlock( statusBlock, operationContext.getResponseTarget(), operationContext.getResponseDetails() ) );
+				blockArray.add( jsonifyStatusBlock( statusBlock, snapshot, operationContext.getResponseTarget(), operationContext.getResponseDetails() ) );
 			}
 			serviceObject.add( "status", blockArray );
 			for( Interface serviceInterface : service.getInterfaceManager().getInterfaces() ) {
-				interfaceObject = jsonifyInterface( serviceInterface, operationContext.getResponseTarget(), operationContext.getResponseDetails() );
+				interfaceObject = jsonifyInterface( serviceInterface, snapshot, operationContext.getResponseTarget(), operationContext.getResponseDetails() );
 				interfacesArray.add( interfaceObject );
 			}
 			serviceObject.add( "interfaces", interfacesArray );
@@ -195,9 +201,9 @@ public class StatusServlet extends AdministrationServlet {
 	/**
 	 * A helper method to get information from the interface and turn into a json object.
 	 * @param theInterface the interface to json-ify
-	 * @param theArray the array to play the json objects info
+	 * @param theSnapshot the snapshot to get status values from
 	 */
-	private JsonObject jsonifyInterface( Interface theInterface, Readability theReadability, Details theDetails ) {
+	private JsonObject jsonifyInterface( Interface theInterface, StatusSnapshot theSnapshot, Readability theReadability, Details theDetails ) {
 		JsonObject interfaceObject;
 		
 		// first get the interface blocks
@@ -207,7 +213,7 @@ public class StatusServlet extends AdministrationServlet {
 		JsonArray blockArray = new JsonArray( );
 		
 		for( StatusBlock statusBlock : theInterface.getStatusBlocks() ) {
-			blockArray.add( jsonifyStatusBlock( statusBlock, theReadability, theDetails ) );
+			blockArray.add( jsonifyStatusBlock( statusBlock, theSnapshot, theReadability, theDetails ) );
 		}
 		interfaceObject.add( "status", blockArray );
 		
@@ -223,7 +229,7 @@ public class StatusServlet extends AdministrationServlet {
 			blockArray = new JsonArray( );
 			
 			for( StatusBlock statusBlock : contract.getStatusBlocks() ) {
-				blockArray.add( jsonifyStatusBlock( statusBlock, theReadability, theDetails ) );
+				blockArray.add( jsonifyStatusBlock( statusBlock, theSnapshot, theReadability, theDetails ) );
 			}
 			contractObject.add( "status", blockArray );
 			contractsArray.add( contractObject );
@@ -236,9 +242,10 @@ public class StatusServlet extends AdministrationServlet {
 	/**
 	 * Helper method that generates a json object for the status block.
 	 * @param theStatusBlock the status block to jsonify
+	 * @param theSnapshot the snapshot to get status values from
 	 * @return the jsonified status block
 	 */
-	private JsonObject jsonifyStatusBlock( StatusBlock theStatusBlock, Readability theReadability, Details theDetails ) {
+	private JsonObject jsonifyStatusBlock( StatusBlock theStatusBlock, StatusSnapshot theSnapshot, Readability theReadability, Details theDetails ) {
 		Map< Class<?>, Translator> targetTranslators = theReadability == Readability.HUMAN ? humanTranslators : machineTranslators;
 		JsonObject blockObject = new JsonObject( );
 		JsonArray valueArray = new JsonArray( );
@@ -253,7 +260,7 @@ public class StatusServlet extends AdministrationServlet {
 				valueTranslator = unknownTypeTranslator;
 			}
 			valueObject.addProperty( "name", statusValue.getName( ) );
-			valueObject.addProperty( "value", ( String )valueTranslator.translate( statusValue.getValue( ) ) );
+			valueObject.addProperty( "value", ( String )valueTranslator.translate( theSnapshot.getValue( statusValue ) ) );
 			valueObject.addProperty( "type", ( String )typeTranslator.translate( statusValue.getType( ) ) );
 			if( theDetails == Details.ALL ) {
 				valueObject.addProperty( "description", ( String )stringTranslator.translate( statusValue.getDescription( ) ) );